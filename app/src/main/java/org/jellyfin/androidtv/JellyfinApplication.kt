@@ -13,8 +13,11 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.acra.ACRA
+import org.jellyfin.androidtv.auth.repository.UserRepository
 import org.jellyfin.androidtv.data.eventhandling.SocketHandler
 import org.jellyfin.androidtv.data.repository.NotificationsRepository
+import org.jellyfin.androidtv.data.repository.TitleIndexRepository
+import org.jellyfin.androidtv.integration.GuidePrefetchWorker
 import org.jellyfin.androidtv.integration.LeanbackChannelWorker
 import org.jellyfin.androidtv.telemetry.TelemetryService
 import org.jellyfin.androidtv.util.AutoBitrate
@@ -40,6 +43,8 @@ class JellyfinApplication : Application() {
 		val workManager by inject<WorkManager>()
 		val autoBitrate by inject<AutoBitrate>()
 		val socketListener by inject<SocketHandler>()
+		val titleIndexRepository by inject<TitleIndexRepository>()
+		val userRepository by inject<UserRepository>()
 
 		// Update background worker
 		launch {
@@ -54,6 +59,17 @@ class JellyfinApplication : Application() {
 					.setBackoffCriteria(BackoffPolicy.LINEAR, 10, TimeUnit.MINUTES)
 					.build()
 			).await()
+
+			// The guide is only available with live tv access
+			if (userRepository.currentUser.value?.policy?.enableLiveTvAccess == true) {
+				workManager.enqueueUniquePeriodicWork(
+					GuidePrefetchWorker.PERIODIC_UPDATE_REQUEST_NAME,
+					ExistingPeriodicWorkPolicy.REPLACE,
+					PeriodicWorkRequestBuilder<GuidePrefetchWorker>(1, TimeUnit.HOURS)
+						.setBackoffCriteria(BackoffPolicy.LINEAR, 10, TimeUnit.MINUTES)
+						.build()
+				).await()
+			}
 		}
 
 		// Update WebSockets
@@ -62,6 +78,9 @@ class JellyfinApplication : Application() {
 		// Detect auto bitrate
 		// running in a different scope to prevent slow startups
 		ProcessLifecycleOwner.get().lifecycleScope.launch { autoBitrate.detect() }
+
+		// Update search index, a full update can take a while as well
+		ProcessLifecycleOwner.get().lifecycleScope.launch(Dispatchers.IO) { titleIndexRepository.sync() }
 	}
 
 	override fun attachBaseContext(base: Context?) {
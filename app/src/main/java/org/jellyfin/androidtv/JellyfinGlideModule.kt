@@ -1,22 +1,127 @@
 package org.jellyfin.androidtv
 
+import android.app.ActivityManager
 import android.content.Context
 import android.util.Log
+import androidx.core.content.getSystemService
+import com.bumptech.glide.Glide
 import com.bumptech.glide.GlideBuilder
+import com.bumptech.glide.Registry
 import com.bumptech.glide.annotation.GlideModule
+import com.bumptech.glide.load.DecodeFormat
+import com.bumptech.glide.load.Key
 import com.bumptech.glide.load.engine.DiskCacheStrategy
+import com.bumptech.glide.load.engine.Resource
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory
+import com.bumptech.glide.load.engine.cache.LruResourceCache
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator
 import com.bumptech.glide.module.AppGlideModule
 import com.bumptech.glide.request.RequestOptions
+import org.jellyfin.androidtv.util.JellyfinImageModelLoader
+import timber.log.Timber
+import java.io.InputStream
+import java.util.concurrent.atomic.AtomicLong
 
 @GlideModule
 class JellyfinGlideModule : AppGlideModule() {
 	override fun applyOptions(context: Context, builder: GlideBuilder): Unit = with(builder) {
+		val config = ImageMemoryConfig.create(context)
+		Timber.i("Image memory config: %s", config)
+
+		setMemoryCache(StatisticsResourceCache(config.memoryCacheSize))
+		setBitmapPool(LruBitmapPool(config.bitmapPoolSize))
+		setDiskCache(InternalCacheDiskCacheFactory(context, config.diskCacheSize))
+
 		setDefaultRequestOptions(
-			// Set default disk cache strategy
-			RequestOptions().diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+			RequestOptions()
+				// Set default disk cache strategy
+				.diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+				// Posters and backdrops use half the memory with RGB_565
+				.format(config.decodeFormat)
 		)
 
 		// Silence image load errors
 		setLogLevel(Log.ERROR)
 	}
+
+	override fun registerComponents(context: Context, glide: Glide, registry: Registry) {
+		registry.prepend(String::class.java, InputStream::class.java, JellyfinImageModelLoader.Factory())
+	}
+}
+
+/**
+ * Sizes of the image caches, based on the memory class and screen size of the device.
+ */
+data class ImageMemoryConfig(
+	val memoryCacheSize: Long,
+	val bitmapPoolSize: Long,
+	val diskCacheSize: Long,
+	val decodeFormat: DecodeFormat,
+) {
+	companion object {
+		// Devices with a memory class up to this size are considered low on memory (most 2 GB boxes)
+		private const val LOW_MEMORY_CLASS_MB = 192
+		private const val DISK_CACHE_SIZE = 250L * 1024 * 1024
+		private const val LOW_MEMORY_DISK_CACHE_SIZE = 150L * 1024 * 1024
+
+		fun create(context: Context): ImageMemoryConfig {
+			val activityManager = context.getSystemService<ActivityManager>()
+			val memoryClass = activityManager?.memoryClass ?: 0
+			val isLowMemory = activityManager?.isLowRamDevice == true || memoryClass <= LOW_MEMORY_CLASS_MB
+
+			// The calculator uses the memory class and screen size to get the size of the caches,
+			// the cache is measured in full screen ARGB_8888 bitmaps
+			val calculator = MemorySizeCalculator.Builder(context).apply {
+				if (isLowMemory) {
+					setMemoryCacheScreens(1.5f)
+					setBitmapPoolScreens(1f)
+					setMaxSizeMultiplier(0.25f)
+				} else {
+					setMemoryCacheScreens(2f)
+					setBitmapPoolScreens(2f)
+				}
+			}.build()
+
+			return ImageMemoryConfig(
+				memoryCacheSize = calculator.memoryCacheSize.toLong(),
+				bitmapPoolSize = calculator.bitmapPoolSize.toLong(),
+				diskCacheSize = if (isLowMemory) LOW_MEMORY_DISK_CACHE_SIZE else DISK_CACHE_SIZE,
+				// Glide only uses RGB_565 for images without transparency
+				decodeFormat = DecodeFormat.PREFER_RGB_565,
+			)
+		}
+	}
+}
+
+/**
+ * Memory cache that counts hits, misses and evictions to tune the cache sizes.
+ */
+class StatisticsResourceCache(size: Long) : LruResourceCache(size) {
+	companion object {
+		private const val LOG_INTERVAL = 500L
+
+		val hits = AtomicLong()
+		val misses = AtomicLong()
+		val evictions = AtomicLong()
+	}
+
+	// Glide removes resources from the memory cache when they are used
+	override fun remove(key: Key): Resource<*>? {
+		val resource = super.remove(key)
+		if (resource != null) hits.incrementAndGet()
+		else misses.incrementAndGet()
+
+		val requests = hits.get() + misses.get()
+		if (requests % LOG_INTERVAL == 0L) {
+			Timber.d("Image memory cache: hits=%d misses=%d evictions=%d size=%d/%d", hits.get(), misses.get(), evictions.get(), currentSize, maxSize)
+		}
+
+		return resource
+	}
+
+	override fun onItemEvicted(key: Key, item: Resource<*>?) {
+		evictions.incrementAndGet()
+		super.onItemEvicted(key, item)
+	}
 }
@@ -122,6 +122,9 @@ class SessionRepositoryImpl(
 			if (server == null || !server.versionSupported) return false
 		}
 
+		// Save pending changes while the api client still belongs to the previous user
+		if (currentSession.value != null) preferencesRepository.onSessionChanging()
+
 		// Update session after binding the apiclient settings
 		val deviceInfo = session?.let { defaultDeviceInfo.forUser(it.userId) } ?: defaultDeviceInfo
 		val success = apiBinder.updateSession(session, deviceInfo)
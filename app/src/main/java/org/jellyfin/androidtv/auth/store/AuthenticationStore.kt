@@ -1,30 +1,39 @@
+@file:UseSerializers(UUIDSerializer::class)
+
 package org.jellyfin.androidtv.auth.store
 
 import android.content.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.consumeEach
+import kotlinx.coroutines.launch
 import kotlinx.serialization.SerializationException
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.UseSerializers
+import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
-import kotlinx.serialization.json.JsonObject
-import kotlinx.serialization.json.JsonPrimitive
-import kotlinx.serialization.json.decodeFromJsonElement
-import kotlinx.serialization.json.encodeToJsonElement
-import kotlinx.serialization.json.intOrNull
-import kotlinx.serialization.json.jsonObject
-import kotlinx.serialization.json.jsonPrimitive
 import kotlinx.serialization.modules.SerializersModule
 import kotlinx.serialization.modules.contextual
 import org.jellyfin.androidtv.auth.model.AuthenticationStoreServer
 import org.jellyfin.androidtv.auth.model.AuthenticationStoreUser
 import org.jellyfin.sdk.model.serializer.UUIDSerializer
 import timber.log.Timber
+import java.io.FileOutputStream
+import java.io.IOException
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Storage for authentication related entities. Stores servers with users inside. Should be used in
  * combination with the [AccountManagerStore] to store access tokens and integrate with the
  * operating system.
  *
- * The data is stored in a JSON file located in the applications data directory.
+ * The data is stored in a JSON file located in the applications data directory. Changes are written
+ * in the background, multiple changes made while a write is running are combined in the next write.
+ * The file is replaced atomically so a crash while writing keeps the previous version.
  */
 class AuthenticationStore(
 	private val context: Context
@@ -32,6 +41,9 @@ class AuthenticationStore(
 	private val storePath
 		get() = context.filesDir.resolve("authentication_store.json")
 
+	private val tempStorePath
+		get() = context.filesDir.resolve("authentication_store.json.tmp")
+
 	private val json = Json {
 		encodeDefaults = true
 		serializersModule = SerializersModule {
@@ -41,7 +53,24 @@ class AuthenticationStore(
 	}
 
 	private val store by lazy {
-		load().toMutableMap()
+		ConcurrentHashMap(load())
+	}
+
+	private val writeScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+	private val writeRequests = Channel<Unit>(Channel.CONFLATED)
+
+	init {
+		writeScope.launch {
+			writeRequests.consumeEach {
+				// Keep the writer running, a failed write is retried with the next change
+				try {
+					write()
+				} catch (@Suppress("TooGenericExceptionCaught") e: Exception) {
+					Timber.e(e, "Unable to write authentication store")
+					tempStorePath.delete()
+				}
+			}
+		}
 	}
 
 	private fun load(): Map<UUID, AuthenticationStoreServer> {
@@ -49,16 +78,19 @@ class AuthenticationStore(
 		if (!storePath.exists()) return emptyMap()
 
 		// Parse JSON document
-		val root = try {
-			json.parseToJsonElement(storePath.readText()).jsonObject
+		val file = try {
+			json.decodeFromString<AuthenticationStoreFile>(storePath.readText())
 		} catch (e: SerializationException) {
 			Timber.e(e, "Unable to read JSON")
-			JsonObject(emptyMap())
+			AuthenticationStoreFile()
+		} catch (e: IOException) {
+			Timber.e(e, "Unable to read JSON")
+			AuthenticationStoreFile()
 		}
 
 		// Check for version
-		return when (root["version"]?.jsonPrimitive?.intOrNull) {
-			1 -> json.decodeFromJsonElement<Map<UUID, AuthenticationStoreServer>>(root["servers"]!!)
+		return when (file.version) {
+			1 -> file.servers
 			null -> {
 				Timber.e("Authentication Store is corrupt!")
 				emptyMap()
@@ -71,14 +103,29 @@ class AuthenticationStore(
 	}
 
 	private fun save(): Boolean {
-		val root = JsonObject(mapOf(
-			"version" to JsonPrimitive(1),
-			"servers" to json.encodeToJsonElement(store)
+		writeRequests.trySend(Unit)
+
+		return true
+	}
+
+	private fun write() {
+		val content = json.encodeToString(AuthenticationStoreFile(
+			version = 1,
+			servers = store.toMap(),
 		))
 
-		storePath.writeText(json.encodeToString(root))
+		try {
+			// Write to a temporary file first and replace the store when complete
+			FileOutputStream(tempStorePath).use { output ->
+				output.write(content.toByteArray())
+				output.fd.sync()
+			}
 
-		return true
+			if (!tempStorePath.renameTo(storePath)) throw IOException("Unable to replace $storePath")
+		} catch (e: IOException) {
+			Timber.e(e, "Unable to write authentication store")
+			tempStorePath.delete()
+		}
 	}
 
 	fun getServers(): Map<UUID, AuthenticationStoreServer> = store
@@ -118,3 +165,9 @@ class AuthenticationStore(
 		return save()
 	}
 }
+
+@Serializable
+private data class AuthenticationStoreFile(
+	val version: Int? = null,
+	val servers: Map<UUID, AuthenticationStoreServer> = emptyMap(),
+)
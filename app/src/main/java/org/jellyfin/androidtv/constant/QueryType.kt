@@ -11,6 +11,7 @@ enum class QueryType {
 	StaticPeople,
 	StaticChapters,
 	Search,
+	TitleIndex,
 	Specials,
 	AdditionalParts,
 	Trailers,
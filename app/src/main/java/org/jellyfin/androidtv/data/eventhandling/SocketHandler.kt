@@ -7,6 +7,10 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
 import org.jellyfin.androidtv.data.model.DataRefreshService
+import org.jellyfin.androidtv.data.model.ItemUpdate
+import org.jellyfin.androidtv.data.model.LibraryChange
+import org.jellyfin.androidtv.data.repository.ItemResponseCache
+import org.jellyfin.androidtv.data.repository.TitleIndexRepository
 import org.jellyfin.androidtv.ui.playback.MediaManager
 import org.jellyfin.androidtv.ui.playback.PlaybackControllerContainer
 import org.jellyfin.androidtv.util.apiclient.PlaybackHelper
@@ -36,6 +40,8 @@ class SocketHandler(
 	private val dataRefreshService: DataRefreshService,
 	private val mediaManager: MediaManager,
 	private val playbackControllerContainer: PlaybackControllerContainer,
+	private val itemResponseCache: ItemResponseCache,
+	private val titleIndexRepository: TitleIndexRepository,
 ) {
 	private val coroutineScope = CoroutineScope(Dispatchers.IO)
 	private var socketInstance: SocketInstance = createInstance()
@@ -93,10 +99,28 @@ class SocketHandler(
 			appendLine("Updated ${info.itemsUpdated.size} items")
 		})
 
-		if (info.itemsAdded.any() || info.itemsRemoved.any())
-			dataRefreshService.lastLibraryChange = System.currentTimeMillis()
+		val timestamp = System.currentTimeMillis()
+
+		// Only added and removed items change the contents of rows and cached responses
+		if (info.itemsAdded.any() || info.itemsRemoved.any()) {
+			val change = LibraryChange(
+				timestamp = timestamp,
+				itemsAdded = info.itemsAdded.toUUIDSet(),
+				itemsRemoved = info.itemsRemoved.toUUIDSet(),
+				collectionFolders = info.collectionFolders.toUUIDSet(),
+			)
+			dataRefreshService.addLibraryChange(change)
+			itemResponseCache.invalidate()
+			coroutineScope.launch { titleIndexRepository.onLibraryChanged(change) }
+		}
+
+		if (info.itemsUpdated.any()) {
+			dataRefreshService.addItemUpdate(ItemUpdate(timestamp, info.itemsUpdated.toUUIDSet()))
+		}
 	}
 
+	private fun Collection<Any>.toUUIDSet() = mapNotNull { it.toString().toUUIDOrNull() }.toSet()
+
 	private fun onPlayMessage(message: PlayMessage) {
 		val itemId = message.request.itemIds?.firstOrNull() ?: return
 
@@ -1,15 +1,125 @@
 package org.jellyfin.androidtv.data.model
 
 import org.jellyfin.sdk.model.api.BaseItemDto
+import java.util.concurrent.CopyOnWriteArrayList
 
 class DataRefreshService {
+	private val changeListeners = CopyOnWriteArrayList<() -> Unit>()
+
 	var lastDeletedItemId: String? = null
 	var lastPlayback: Long = 0
 	var lastMoviePlayback: Long = 0
+		set(value) {
+			field = value
+			notifyChanged()
+		}
 	var lastTvPlayback: Long = 0
+		set(value) {
+			field = value
+			notifyChanged()
+		}
 	var lastMusicPlayback: Long = 0
-	var lastLibraryChange: Long = 0
+		set(value) {
+			field = value
+			notifyChanged()
+		}
 	var lastVideoQueueChange: Long = 0
+		set(value) {
+			field = value
+			notifyChanged()
+		}
 	var lastFavoriteUpdate: Long = 0
+		set(value) {
+			field = value
+			notifyChanged()
+		}
 	var lastPlayedItem: BaseItemDto? = null
+
+	private val libraryChanges = ArrayDeque<LibraryChange>()
+	private val itemUpdates = ArrayDeque<ItemUpdate>()
+	private var itemUpdatesIncompleteUntil: Long = 0
+	private var libraryChangesIncompleteUntil: Long = 0
+	private var _lastLibraryChange: Long = 0
+
+	/**
+	 * Time of the last library change. Changes set here without details can only be handled by
+	 * reloading, use [addLibraryChange] when the changed items are known.
+	 */
+	var lastLibraryChange: Long
+		@Synchronized get() = _lastLibraryChange
+		set(value) {
+			synchronized(this) {
+				_lastLibraryChange = value
+				libraryChangesIncompleteUntil = value
+			}
+			notifyChanged()
+		}
+
+	fun addLibraryChange(change: LibraryChange) {
+		synchronized(this) {
+			libraryChanges.addLast(change)
+			while (libraryChanges.size > MAX_LIBRARY_CHANGES) {
+				libraryChangesIncompleteUntil = maxOf(libraryChangesIncompleteUntil, libraryChanges.removeFirst().timestamp)
+			}
+
+			_lastLibraryChange = maxOf(_lastLibraryChange, change.timestamp)
+		}
+		notifyChanged()
+	}
+
+	/**
+	 * Call [listener] after any of the change timestamps is updated.
+	 */
+	fun addChangeListener(listener: () -> Unit) {
+		changeListeners.add(listener)
+	}
+
+	/**
+	 * Time of the last item update.
+	 */
+	@get:Synchronized
+	var lastItemUpdate: Long = 0
+		private set
+
+	@Synchronized
+	fun addItemUpdate(update: ItemUpdate) {
+		itemUpdates.addLast(update)
+		while (itemUpdates.size > MAX_LIBRARY_CHANGES) {
+			itemUpdatesIncompleteUntil = maxOf(itemUpdatesIncompleteUntil, itemUpdates.removeFirst().timestamp)
+		}
+
+		lastItemUpdate = maxOf(lastItemUpdate, update.timestamp)
+	}
+
+	/**
+	 * Get all item updates after [timestamp] combined into a single update. Returns null when some
+	 * of those updates are no longer known.
+	 */
+	@Synchronized
+	fun getItemUpdatesSince(timestamp: Long): ItemUpdate? {
+		if (itemUpdatesIncompleteUntil > timestamp) return null
+
+		return itemUpdates
+			.filter { it.timestamp > timestamp }
+			.reduceOrNull { combined, update -> combined + update }
+	}
+
+	private fun notifyChanged() = changeListeners.forEach { it() }
+
+	/**
+	 * Get all library changes after [timestamp] combined into a single change. Returns null when
+	 * the details of some of those changes are unknown.
+	 */
+	@Synchronized
+	fun getLibraryChangesSince(timestamp: Long): LibraryChange? {
+		if (libraryChangesIncompleteUntil > timestamp) return null
+
+		return libraryChanges
+			.filter { it.timestamp > timestamp }
+			.reduceOrNull { combined, change -> combined + change }
+	}
+
+	private companion object {
+		private const val MAX_LIBRARY_CHANGES = 50
+	}
 }
@@ -0,0 +1,23 @@
+package org.jellyfin.androidtv.data.model
+
+import org.jellyfin.sdk.model.serializer.toUUIDOrNull
+import java.util.UUID
+
+/**
+ * Items with changed metadata, as reported by the socket. Unlike a [LibraryChange] this never
+ * changes which items a row contains.
+ */
+data class ItemUpdate(
+	val timestamp: Long,
+	val itemIds: Set<UUID>,
+) {
+	fun contains(itemId: String?) = itemId?.toUUIDOrNull() in itemIds
+
+	/**
+	 * Combine with a later update.
+	 */
+	operator fun plus(other: ItemUpdate) = ItemUpdate(
+		timestamp = maxOf(timestamp, other.timestamp),
+		itemIds = itemIds + other.itemIds,
+	)
+}
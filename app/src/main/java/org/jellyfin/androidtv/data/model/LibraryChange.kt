@@ -0,0 +1,47 @@
+package org.jellyfin.androidtv.data.model
+
+import org.jellyfin.sdk.model.serializer.toUUIDOrNull
+import java.util.UUID
+
+/**
+ * Item level description of items added to or removed from the server library, as reported by
+ * the socket. Updated items are reported separately using [ItemUpdate].
+ */
+data class LibraryChange(
+	val timestamp: Long,
+	val itemsAdded: Set<UUID>,
+	val itemsRemoved: Set<UUID>,
+	val collectionFolders: Set<UUID>,
+) {
+	fun isAdded(itemId: String?) = itemId?.toUUIDOrNull() in itemsAdded
+	fun isRemoved(itemId: String?) = itemId?.toUUIDOrNull() in itemsRemoved
+
+	/**
+	 * Whether items may have been added to the (collection) folder with [parentId]. Changes that
+	 * don't report their collection folders could affect any folder.
+	 */
+	fun mayHaveAddedTo(parentId: String?): Boolean {
+		if (itemsAdded.isEmpty()) return false
+		if (parentId == null || collectionFolders.isEmpty()) return true
+		return parentId.toUUIDOrNull() in collectionFolders
+	}
+
+	/**
+	 * Combine with a later change. Items removed later are no longer reported as added.
+	 */
+	operator fun plus(other: LibraryChange): LibraryChange {
+		val removed = (itemsRemoved - other.itemsAdded) + other.itemsRemoved
+		val added = (itemsAdded + other.itemsAdded) - removed
+		return LibraryChange(
+			timestamp = maxOf(timestamp, other.timestamp),
+			itemsAdded = added,
+			itemsRemoved = removed,
+			collectionFolders = when {
+				// Unknown folders stay unknown
+				itemsAdded.isNotEmpty() && collectionFolders.isEmpty() -> emptySet()
+				other.itemsAdded.isNotEmpty() && other.collectionFolders.isEmpty() -> emptySet()
+				else -> collectionFolders + other.collectionFolders
+			},
+		)
+	}
+}
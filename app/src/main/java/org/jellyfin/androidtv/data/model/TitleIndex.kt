@@ -0,0 +1,124 @@
+package org.jellyfin.androidtv.data.model
+
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+import java.text.Normalizer
+import java.util.Locale
+import java.util.TreeMap
+
+/**
+ * A library title or person name in the [TitleIndex]. New properties require default values or
+ * deserialization will fail.
+ */
+@Serializable
+data class TitleIndexEntry(
+	val id: String,
+	val name: String,
+	/**
+	 * The item type, like the type of a search hint.
+	 */
+	val type: String,
+	@SerialName("year") val productionYear: Int? = null,
+	@SerialName("image") val primaryImageTag: String? = null,
+	@SerialName("runtime") val runTimeTicks: Long? = null,
+)
+
+/**
+ * Finds entries by the start of the words in their names. Words are normalized by removing case
+ * and diacritics. Not thread safe.
+ */
+class TitleIndex {
+	companion object {
+		private val diacritics = Regex("\\p{Mn}+")
+		private val separators = Regex("[^\\p{L}\\p{N}]+")
+
+		fun getWords(text: String): List<String> = Normalizer.normalize(text, Normalizer.Form.NFD)
+			.replace(diacritics, "")
+			.lowercase(Locale.ROOT)
+			.split(separators)
+			.filter { it.isNotEmpty() }
+	}
+
+	private class IndexedEntry(
+		val entry: TitleIndexEntry,
+		val words: List<String>,
+	) {
+		val normalizedName = words.joinToString(" ")
+	}
+
+	private val entries = HashMap<String, IndexedEntry>()
+
+	// Sorted so all words starting with a prefix are next to each other
+	private val words = TreeMap<String, MutableSet<String>>()
+
+	val size get() = entries.size
+
+	fun getEntries(): List<TitleIndexEntry> = entries.values.map { it.entry }
+
+	/**
+	 * Add [entry], replacing the entry with the same id.
+	 */
+	fun put(entry: TitleIndexEntry) {
+		remove(entry.id)
+
+		val indexed = IndexedEntry(entry, getWords(entry.name))
+		if (indexed.words.isEmpty()) return
+
+		entries[entry.id] = indexed
+		for (word in indexed.words) words.getOrPut(word) { HashSet() }.add(entry.id)
+	}
+
+	fun remove(id: String) {
+		val indexed = entries.remove(id) ?: return
+		for (word in indexed.words) {
+			val ids = words[word] ?: continue
+			ids.remove(id)
+			if (ids.isEmpty()) words.remove(word)
+		}
+	}
+
+	/**
+	 * Remove all entries with an id not in [ids].
+	 */
+	fun retainAll(ids: Set<String>) {
+		entries.keys.filter { it !in ids }.forEach(::remove)
+	}
+
+	fun clear() {
+		entries.clear()
+		words.clear()
+	}
+
+	/**
+	 * Find the entries with a word starting with every word of [query]. Names starting with the
+	 * query are returned first, followed by the shortest names.
+	 */
+	fun search(query: String, limit: Int): List<TitleIndexEntry> {
+		val queryWords = getWords(query)
+		if (queryWords.isEmpty() || limit <= 0) return emptyList()
+
+		// Start with the longest word, it matches the least entries
+		var ids: Set<String>? = null
+		for (word in queryWords.sortedByDescending { it.length }) {
+			val matches = HashSet<String>()
+			for (wordIds in words.subMap(word, word + Char.MAX_VALUE).values) {
+				if (ids == null) matches.addAll(wordIds)
+				else wordIds.filterTo(matches) { it in ids }
+			}
+
+			if (matches.isEmpty()) return emptyList()
+			ids = matches
+		}
+
+		val normalizedQuery = queryWords.joinToString(" ")
+		return ids.orEmpty()
+			.mapNotNull { entries[it] }
+			.sortedWith(compareBy(
+				{ !it.normalizedName.startsWith(normalizedQuery) },
+				{ it.normalizedName.length },
+				{ it.normalizedName },
+			))
+			.take(limit)
+			.map { it.entry }
+	}
+}
@@ -0,0 +1,86 @@
+package org.jellyfin.androidtv.data.repository
+
+import android.content.Context
+import androidx.annotation.WorkerThread
+import org.jellyfin.apiclient.model.dto.BaseItemDto
+import org.jellyfin.apiclient.model.livetv.ChannelInfoDto
+import org.jellyfin.apiclient.serialization.GsonJsonSerializer
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+
+/**
+ * The live tv channels of a user and the programs of some of them, written in the background so
+ * the guide can be shown before the server responds.
+ */
+class GuideSnapshot(
+	val userId: String,
+	/**
+	 * All channels in guide order.
+	 */
+	val channels: Array<ChannelInfoDto>,
+	/**
+	 * The channels [programs] were loaded for, the programs of other channels are not included.
+	 */
+	val programChannelIds: Array<String>,
+	/**
+	 * The (local) start of the loaded programs, at the start of a half hour.
+	 */
+	val start: Long,
+	/**
+	 * The (local) end of the loaded programs, at the start of a half hour.
+	 */
+	val end: Long,
+	val programs: Array<BaseItemDto>,
+)
+
+interface GuideSnapshotRepository {
+	/**
+	 * Read the snapshot of [userId], snapshots of other users or without any programs left to show
+	 * are ignored.
+	 */
+	@WorkerThread
+	fun read(userId: String): GuideSnapshot?
+
+	@WorkerThread
+	fun write(snapshot: GuideSnapshot)
+}
+
+class GuideSnapshotRepositoryImpl(
+	context: Context,
+	private val serializer: GsonJsonSerializer,
+) : GuideSnapshotRepository {
+	private val file = context.cacheDir.resolve("guide_snapshot.json")
+
+	override fun read(userId: String): GuideSnapshot? {
+		if (!file.exists()) return null
+
+		val snapshot = try {
+			serializer.DeserializeFromString(file.readText(), GuideSnapshot::class.java)
+		} catch (err: Exception) {
+			Timber.w(err, "Unable to read guide snapshot")
+			file.delete()
+			return null
+		}
+
+		if (snapshot == null || snapshot.userId != userId) return null
+		if (snapshot.end <= System.currentTimeMillis()) {
+			Timber.d("Ignoring outdated guide snapshot")
+			return null
+		}
+
+		return snapshot
+	}
+
+	override fun write(snapshot: GuideSnapshot) {
+		try {
+			file.parentFile?.mkdirs()
+			// Write to a temporary file first so a crash never leaves a partial snapshot
+			val temp = File.createTempFile(file.name, ".tmp", file.parentFile)
+			temp.writeText(serializer.SerializeToString(snapshot))
+			if (!temp.renameTo(file)) temp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write guide snapshot")
+		}
+	}
+}
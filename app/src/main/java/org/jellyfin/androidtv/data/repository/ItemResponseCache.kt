@@ -0,0 +1,193 @@
+package org.jellyfin.androidtv.data.repository
+
+import android.content.Context
+import androidx.annotation.WorkerThread
+import org.jellyfin.androidtv.constant.ChangeTriggerType
+import org.jellyfin.androidtv.data.model.DataRefreshService
+import org.jellyfin.apiclient.serialization.GsonJsonSerializer
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.Properties
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Persistent cache of API responses keyed by the serialized query. Used to render rows right away
+ * on a cold start while the actual request is running (stale-while-revalidate).
+ */
+interface ItemResponseCache {
+	fun getKey(userId: String?, query: Any): String
+
+	/**
+	 * Read a cached response. Entries written before a change that affects them (based on the
+	 * triggers and the timestamps in [DataRefreshService]) or before [invalidate] are ignored.
+	 */
+	@WorkerThread
+	fun <T> read(key: String, type: Class<T>, triggers: Array<ChangeTriggerType>?): T?
+
+	@WorkerThread
+	fun write(key: String, value: Any)
+
+	/**
+	 * Mark all entries written until now as outdated.
+	 */
+	fun invalidate()
+}
+
+class ItemResponseCacheImpl(
+	context: Context,
+	private val serializer: GsonJsonSerializer,
+	private val dataRefreshService: DataRefreshService,
+) : ItemResponseCache {
+	private val directory = context.cacheDir.resolve("item_responses")
+	private val invalidatedMarker = directory.resolve(".invalidated")
+	private val changesFile = directory.resolve(".changes")
+	private val changesExecutor = Executors.newSingleThreadExecutor()
+	private val pruned = AtomicBoolean(false)
+
+	// Change timestamps of the triggers including the ones of previous sessions
+	private val changes by lazy { readChanges() }
+
+	init {
+		dataRefreshService.addChangeListener { changesExecutor.execute(::writeChanges) }
+	}
+
+	override fun getKey(userId: String?, query: Any): String {
+		val source = "$userId:${query.javaClass.name}:${serializer.SerializeToString(query)}"
+		val digest = MessageDigest.getInstance("SHA-1").digest(source.toByteArray())
+		return digest.joinToString("") { "%02x".format(it) }
+	}
+
+	override fun <T> read(key: String, type: Class<T>, triggers: Array<ChangeTriggerType>?): T? {
+		val file = directory.resolve(key)
+		if (!file.exists()) return null
+
+		val writtenAt = file.lastModified()
+		if (writtenAt < getOutdatedBefore(triggers)) {
+			Timber.d("Ignoring outdated cached response %s", key)
+			return null
+		}
+
+		return try {
+			serializer.DeserializeFromString(file.readText(), type)
+		} catch (err: Exception) {
+			Timber.w(err, "Unable to read cached response %s", key)
+			file.delete()
+			null
+		}
+	}
+
+	override fun write(key: String, value: Any) {
+		if (pruned.compareAndSet(false, true)) prune()
+
+		try {
+			directory.mkdirs()
+			// Write to a temporary file first so a crash never leaves a partial entry
+			val temp = File.createTempFile(key, ".tmp", directory)
+			temp.writeText(serializer.SerializeToString(value))
+			if (!temp.renameTo(directory.resolve(key))) temp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write cached response %s", key)
+		}
+	}
+
+	override fun invalidate() {
+		try {
+			directory.mkdirs()
+			if (!invalidatedMarker.createNewFile()) invalidatedMarker.setLastModified(System.currentTimeMillis())
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to invalidate cached responses")
+		}
+	}
+
+	private fun getOutdatedBefore(triggers: Array<ChangeTriggerType>?): Long {
+		var outdatedBefore = maxOf(
+			System.currentTimeMillis() - MAX_AGE,
+			if (invalidatedMarker.exists()) invalidatedMarker.lastModified() else 0,
+		)
+
+		triggers?.forEach { trigger ->
+			val changedAt = when (trigger) {
+				ChangeTriggerType.GuideNeedsLoad,
+				ChangeTriggerType.Always -> Long.MAX_VALUE
+				else -> maxOf(getChangedAt(trigger), changes[trigger] ?: 0)
+			}
+			outdatedBefore = maxOf(outdatedBefore, changedAt)
+		}
+
+		return outdatedBefore
+	}
+
+	private fun getChangedAt(trigger: ChangeTriggerType): Long = when (trigger) {
+		ChangeTriggerType.LibraryUpdated -> dataRefreshService.lastLibraryChange
+		ChangeTriggerType.MoviePlayback -> dataRefreshService.lastMoviePlayback
+		ChangeTriggerType.TvPlayback -> dataRefreshService.lastTvPlayback
+		ChangeTriggerType.MusicPlayback -> dataRefreshService.lastMusicPlayback
+		ChangeTriggerType.FavoriteUpdate -> dataRefreshService.lastFavoriteUpdate
+		ChangeTriggerType.VideoQueueChange -> dataRefreshService.lastVideoQueueChange
+		ChangeTriggerType.GuideNeedsLoad,
+		ChangeTriggerType.Always -> 0
+	}
+
+	private fun readChanges(): MutableMap<ChangeTriggerType, Long> {
+		val changes = ConcurrentHashMap<ChangeTriggerType, Long>()
+		if (!changesFile.exists()) return changes
+
+		try {
+			val properties = Properties()
+			changesFile.inputStream().use(properties::load)
+			for (trigger in ChangeTriggerType.values()) {
+				properties.getProperty(trigger.name)?.toLongOrNull()?.let { changes[trigger] = it }
+			}
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read response cache changes")
+		}
+
+		return changes
+	}
+
+	/**
+	 * Store the change timestamps so entries written before a change stay outdated after a restart.
+	 */
+	private fun writeChanges() {
+		val properties = Properties()
+		for (trigger in ChangeTriggerType.values()) {
+			val changedAt = maxOf(getChangedAt(trigger), changes[trigger] ?: 0)
+			if (changedAt == 0L) continue
+
+			changes[trigger] = changedAt
+			properties.setProperty(trigger.name, changedAt.toString())
+		}
+
+		try {
+			directory.mkdirs()
+			val temp = File.createTempFile(changesFile.name, ".tmp", directory)
+			temp.outputStream().use { properties.store(it, null) }
+			if (!temp.renameTo(changesFile)) temp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write response cache changes")
+		}
+	}
+
+	/**
+	 * Delete the entries that can no longer be used and the oldest entries over the size limit.
+	 */
+	private fun prune() {
+		val entries = directory.listFiles { file -> !file.name.startsWith(".") }.orEmpty()
+		val expiredBefore = System.currentTimeMillis() - MAX_AGE
+		var size = 0L
+		for (file in entries.sortedByDescending { it.lastModified() }) {
+			size += file.length()
+			if (file.lastModified() < expiredBefore || size > MAX_SIZE) file.delete()
+		}
+	}
+
+	private companion object {
+		private val MAX_AGE = TimeUnit.DAYS.toMillis(14)
+		private const val MAX_SIZE = 20L * 1024 * 1024
+	}
+}
@@ -0,0 +1,43 @@
+package org.jellyfin.androidtv.data.repository
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.searchApi
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.SearchHint
+
+interface SearchRepository {
+	/**
+	 * Search items of the given types. The request is aborted when the calling coroutine is
+	 * cancelled.
+	 */
+	suspend fun search(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+	): Result<List<SearchHint>>
+}
+
+class SearchRepositoryImpl(
+	private val api: ApiClient,
+) : SearchRepository {
+	override suspend fun search(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+	): Result<List<SearchHint>> = withContext(Dispatchers.IO) {
+		try {
+			val result by api.searchApi.get(
+				searchTerm = searchTerm,
+				limit = limit,
+				userId = api.userId,
+				includeItemTypes = itemTypes,
+			)
+			Result.success(result.searchHints)
+		} catch (err: ApiClientException) {
+			Result.failure(err)
+		}
+	}
+}
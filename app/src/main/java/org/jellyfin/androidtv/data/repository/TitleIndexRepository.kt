@@ -0,0 +1,320 @@
+package org.jellyfin.androidtv.data.repository
+
+import android.content.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.data.model.LibraryChange
+import org.jellyfin.androidtv.data.model.TitleIndex
+import org.jellyfin.androidtv.data.model.TitleIndexEntry
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.itemsApi
+import org.jellyfin.sdk.api.client.extensions.personsApi
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.ImageType
+import org.jellyfin.sdk.model.constant.ItemSortBy
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * On-device index of the library titles and person names of the current user, used to show
+ * search results without waiting for the server.
+ */
+interface TitleIndexRepository {
+	/**
+	 * Find titles and people with words starting with the words in [query]. Answered from memory,
+	 * nothing is found until the index is loaded.
+	 */
+	fun search(query: String, limit: Int): List<TitleIndexEntry>
+
+	/**
+	 * Load the stored index of the current user.
+	 */
+	suspend fun load()
+
+	/**
+	 * Load the stored index and add the items changed on the server since the last update. The
+	 * index is rebuilt when the last full update is too long ago.
+	 */
+	suspend fun sync()
+
+	/**
+	 * Update the items added or removed according to the socket. Renamed items are picked up by
+	 * the next [sync].
+	 */
+	suspend fun onLibraryChanged(change: LibraryChange)
+}
+
+@Serializable
+private class StoredTitleIndex(
+	@SerialName("user_id") val userId: String,
+	@SerialName("full_sync_at") val fullSyncAt: Long,
+	@SerialName("synced_at") val syncedAt: Long,
+	val entries: List<TitleIndexEntry>,
+)
+
+class TitleIndexRepositoryImpl(
+	context: Context,
+	private val api: ApiClient,
+) : TitleIndexRepository {
+	private companion object {
+		private val INDEXED_TYPES = listOf(
+			BaseItemKind.MOVIE,
+			BaseItemKind.SERIES,
+			BaseItemKind.BOX_SET,
+			BaseItemKind.VIDEO,
+			BaseItemKind.MUSIC_ARTIST,
+			BaseItemKind.MUSIC_ALBUM,
+		)
+		private const val PAGE_SIZE = 500
+		private const val MAX_PERSONS = 5000
+		private val FULL_SYNC_INTERVAL = TimeUnit.DAYS.toMillis(7)
+		// Items saved while the previous update was running are requested again
+		private val SYNC_OVERLAP = TimeUnit.MINUTES.toMillis(5)
+		private const val WRITE_DELAY_MS = 10_000L
+	}
+
+	private val file = context.cacheDir.resolve("title_index.json")
+	private val json = Json { ignoreUnknownKeys = true }
+	private val index = TitleIndex()
+	// Guards the loaded user and the stored file, never held during network requests
+	private val mutex = Mutex()
+	// Runs the updates one at a time
+	private val syncMutex = Mutex()
+	private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+	private var writeJob: Job? = null
+
+	// The user of the loaded index
+	@Volatile
+	private var userId: UUID? = null
+	private var fullSyncAt = 0L
+	private var syncedAt = 0L
+
+	override fun search(query: String, limit: Int): List<TitleIndexEntry> {
+		if (userId == null || userId != api.userId) return emptyList()
+		return synchronized(index) { index.search(query, limit) }
+	}
+
+	override suspend fun load() {
+		// Suggestions call this for every query, don't wait for a running update
+		val currentUserId = api.userId
+		if (currentUserId != null && currentUserId == userId) return
+
+		mutex.withLock { loadLocked() }
+	}
+
+	override suspend fun sync(): Unit = syncMutex.withLock {
+		val userId = mutex.withLock { loadLocked() } ?: return
+
+		val startedAt = System.currentTimeMillis()
+		val fullSync = startedAt - fullSyncAt > FULL_SYNC_INTERVAL
+		try {
+			val completed = if (fullSync) {
+				// Update the index page by page and drop the entries that were not seen afterwards,
+				// so the whole library is never held in memory twice
+				val seenIds = HashSet<String>()
+				val put: suspend (List<TitleIndexEntry>) -> Boolean = { entries ->
+					entries.mapTo(seenIds) { it.id }
+					updateIndex(userId) { entries.forEach(index::put) }
+				}
+				forEachItemPage(minDateLastSaved = null, put) &&
+					put(getPersons()) &&
+					updateIndex(userId) { index.retainAll(seenIds) }
+			} else {
+				val minDateLastSaved = LocalDateTime.ofInstant(Instant.ofEpochMilli(syncedAt - SYNC_OVERLAP), ZoneOffset.UTC)
+				forEachItemPage(minDateLastSaved) { entries ->
+					updateIndex(userId) { entries.forEach(index::put) }
+				}
+			}
+			if (!completed) {
+				Timber.i("Stopped title index update, the user changed")
+				return
+			}
+
+			mutex.withLock {
+				if (this@TitleIndexRepositoryImpl.userId != userId) return
+				if (fullSync) fullSyncAt = startedAt
+				syncedAt = startedAt
+
+				val size = synchronized(index) { index.size }
+				Timber.i("Updated title index (full=%s, entries=%s) in %sms", fullSync, size, System.currentTimeMillis() - startedAt)
+				write(userId)
+			}
+		} catch (err: ApiClientException) {
+			Timber.w(err, "Unable to update title index")
+		}
+	}
+
+	override suspend fun onLibraryChanged(change: LibraryChange): Unit = syncMutex.withLock {
+		val userId = mutex.withLock { loadLocked() } ?: return
+
+		updateIndex(userId) {
+			for (id in change.itemsRemoved) index.remove(id.toString())
+		}
+
+		try {
+			for (ids in change.itemsAdded.chunked(PAGE_SIZE)) {
+				val result by api.itemsApi.getItemsByUserId(
+					ids = ids,
+					includeItemTypes = INDEXED_TYPES,
+					enableUserData = false,
+					enableImageTypes = listOf(ImageType.PRIMARY),
+					imageTypeLimit = 1,
+				)
+				val entries = result.items.orEmpty().mapNotNull { it.toTitleIndexEntry() }
+				if (!updateIndex(userId) { entries.forEach(index::put) }) return
+			}
+		} catch (err: ApiClientException) {
+			Timber.w(err, "Unable to update title index for library change")
+		}
+
+		scheduleWrite(userId)
+	}
+
+	/**
+	 * Change the index when it still belongs to [userId].
+	 *
+	 * @return false when the user changed in the meantime
+	 */
+	private suspend fun updateIndex(userId: UUID, body: () -> Unit): Boolean = mutex.withLock {
+		if (this.userId != userId || api.userId != userId) return@withLock false
+
+		synchronized(index) { body() }
+		true
+	}
+
+	/**
+	 * Read the index of the current user when another (or no) index is loaded.
+	 *
+	 * @return the current user
+	 */
+	private suspend fun loadLocked(): UUID? = withContext(Dispatchers.IO) {
+		val currentUserId = api.userId
+		if (currentUserId == userId) return@withContext currentUserId
+
+		synchronized(index) { index.clear() }
+		fullSyncAt = 0
+		syncedAt = 0
+
+		val stored = if (currentUserId != null && file.exists()) {
+			try {
+				json.decodeFromString<StoredTitleIndex>(file.readText())
+			} catch (err: SerializationException) {
+				Timber.w(err, "Unable to read title index")
+				file.delete()
+				null
+			} catch (err: IOException) {
+				Timber.w(err, "Unable to read title index")
+				null
+			}
+		} else null
+
+		if (stored != null && stored.userId == currentUserId.toString()) {
+			synchronized(index) { stored.entries.forEach(index::put) }
+			fullSyncAt = stored.fullSyncAt
+			syncedAt = stored.syncedAt
+		}
+
+		userId = currentUserId
+		currentUserId
+	}
+
+	/**
+	 * Request the indexed items page by page.
+	 *
+	 * @return false when [action] stopped the paging by returning false
+	 */
+	private suspend fun forEachItemPage(
+		minDateLastSaved: LocalDateTime?,
+		action: suspend (List<TitleIndexEntry>) -> Boolean,
+	): Boolean {
+		var startIndex = 0
+		do {
+			val result by api.itemsApi.getItemsByUserId(
+				recursive = true,
+				includeItemTypes = INDEXED_TYPES,
+				sortBy = listOf(ItemSortBy.SortName),
+				startIndex = startIndex,
+				limit = PAGE_SIZE,
+				minDateLastSaved = minDateLastSaved,
+				enableUserData = false,
+				enableImageTypes = listOf(ImageType.PRIMARY),
+				imageTypeLimit = 1,
+			)
+			val items = result.items.orEmpty()
+			if (!action(items.mapNotNull { it.toTitleIndexEntry() })) return false
+			startIndex += items.size
+		} while (items.isNotEmpty() && startIndex < result.totalRecordCount)
+
+		return true
+	}
+
+	private suspend fun getPersons(): List<TitleIndexEntry> {
+		// The persons endpoint can't be paged, it is only requested for full updates
+		val result by api.personsApi.getPersons(
+			limit = MAX_PERSONS,
+			enableUserData = false,
+			enableImageTypes = listOf(ImageType.PRIMARY),
+			imageTypeLimit = 1,
+		)
+
+		return result.items.orEmpty().mapNotNull { it.toTitleIndexEntry() }
+	}
+
+	private fun BaseItemDto.toTitleIndexEntry(): TitleIndexEntry? = TitleIndexEntry(
+		id = id.toString(),
+		name = name ?: return null,
+		type = type.serialName,
+		productionYear = productionYear,
+		primaryImageTag = imageTags?.get(ImageType.PRIMARY),
+		runTimeTicks = runTimeTicks,
+	)
+
+	private fun scheduleWrite(userId: UUID) {
+		writeJob?.cancel()
+		writeJob = scope.launch {
+			// Library scans report many changes in a row
+			delay(WRITE_DELAY_MS)
+			mutex.withLock { if (this@TitleIndexRepositoryImpl.userId == userId) write(userId) }
+		}
+	}
+
+	private suspend fun write(userId: UUID): Unit = withContext(Dispatchers.IO) {
+		val stored = StoredTitleIndex(
+			userId = userId.toString(),
+			fullSyncAt = fullSyncAt,
+			syncedAt = syncedAt,
+			entries = synchronized(index) { index.getEntries() },
+		)
+
+		try {
+			file.parentFile?.mkdirs()
+			// Write to a temporary file first so a crash never leaves a partial index
+			val temp = File.createTempFile(file.name, ".tmp", file.parentFile)
+			temp.writeText(json.encodeToString(stored))
+			if (!temp.renameTo(file)) temp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write title index")
+		}
+	}
+}
@@ -30,6 +30,7 @@ import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.auth.model.Server
 import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.androidtv.util.JellyfinImageBuckets
 import org.jellyfin.androidtv.util.sdk.compat.asSdk
 import org.jellyfin.sdk.Jellyfin
 import org.jellyfin.sdk.api.client.ApiClient
@@ -218,6 +219,7 @@ class BackgroundService(
 				.map { url ->
 					Glide.with(context)
 						.load(url)
+						.apply(JellyfinImageBuckets.requestOptions(url))
 						.override(windowSize.width, windowSize.height)
 						.centerCrop()
 						.submit()
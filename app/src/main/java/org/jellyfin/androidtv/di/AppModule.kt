@@ -6,14 +6,24 @@ import org.jellyfin.androidtv.auth.repository.UserRepository
 import org.jellyfin.androidtv.auth.repository.UserRepositoryImpl
 import org.jellyfin.androidtv.data.eventhandling.SocketHandler
 import org.jellyfin.androidtv.data.model.DataRefreshService
+import org.jellyfin.androidtv.data.repository.GuideSnapshotRepository
+import org.jellyfin.androidtv.data.repository.GuideSnapshotRepositoryImpl
+import org.jellyfin.androidtv.data.repository.ItemResponseCache
+import org.jellyfin.androidtv.data.repository.ItemResponseCacheImpl
 import org.jellyfin.androidtv.data.repository.NotificationsRepository
 import org.jellyfin.androidtv.data.repository.NotificationsRepositoryImpl
+import org.jellyfin.androidtv.data.repository.SearchRepository
+import org.jellyfin.androidtv.data.repository.SearchRepositoryImpl
+import org.jellyfin.androidtv.data.repository.TitleIndexRepository
+import org.jellyfin.androidtv.data.repository.TitleIndexRepositoryImpl
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.data.repository.UserViewsRepositoryImpl
 import org.jellyfin.androidtv.data.service.BackgroundService
 import org.jellyfin.androidtv.ui.picture.PictureViewerViewModel
 import org.jellyfin.androidtv.ui.playback.MediaManager
 import org.jellyfin.androidtv.ui.playback.PlaybackControllerContainer
+import org.jellyfin.androidtv.ui.playback.ShareMountManager
+import org.jellyfin.androidtv.ui.playback.TmdbLanguageCache
 import org.jellyfin.androidtv.ui.playback.nextup.NextUpViewModel
 import org.jellyfin.androidtv.ui.startup.ServerAddViewModel
 import org.jellyfin.androidtv.ui.startup.StartupViewModel
@@ -59,7 +69,7 @@ val appModule = module {
 		get<JellyfinSdk>().createApi()
 	}
 
-	single { SocketHandler(get(), get(), get(), get(), get()) }
+	single { SocketHandler(get(), get(), get(), get(), get(), get(), get()) }
 
 	// Old apiclient
 	single { GsonJsonSerializer() }
@@ -83,10 +93,16 @@ val appModule = module {
 
 	single { DataRefreshService() }
 	single { PlaybackControllerContainer() }
+	single { ShareMountManager(androidContext()) }
+	single { TmdbLanguageCache(androidContext()) }
 
 	single<UserRepository> { UserRepositoryImpl() }
 	single<UserViewsRepository> { UserViewsRepositoryImpl(get()) }
 	single<NotificationsRepository> { NotificationsRepositoryImpl(get(), get()) }
+	single<ItemResponseCache> { ItemResponseCacheImpl(androidContext(), get(), get()) }
+	single<GuideSnapshotRepository> { GuideSnapshotRepositoryImpl(androidContext(), get()) }
+	single<SearchRepository> { SearchRepositoryImpl(get()) }
+	single<TitleIndexRepository> { TitleIndexRepositoryImpl(androidContext(), get()) }
 
 	viewModel { StartupViewModel(get(), get(), get(), get()) }
 	viewModel { UserLoginViewModel(get(), get(), get()) }
@@ -6,10 +6,11 @@ import org.jellyfin.androidtv.preference.SystemPreferences
 import org.jellyfin.androidtv.preference.TelemetryPreferences
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
+import org.koin.android.ext.koin.androidContext
 import org.koin.dsl.module
 
 val preferenceModule = module {
-	single { PreferencesRepository(get(), get(), get()) }
+	single { PreferencesRepository(androidContext(), get(), get(), get()) }
 
 	single { LiveTvPreferences(get()) }
 	single { UserSettingPreferences(get()) }
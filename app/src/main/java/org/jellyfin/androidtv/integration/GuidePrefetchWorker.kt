@@ -0,0 +1,107 @@
+package org.jellyfin.androidtv.integration
+
+import android.content.Context
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.data.repository.GuideSnapshot
+import org.jellyfin.androidtv.data.repository.GuideSnapshotRepository
+import org.jellyfin.androidtv.ui.livetv.LiveTvGuideActivity
+import org.jellyfin.androidtv.ui.livetv.TvManager
+import org.jellyfin.androidtv.util.apiclient.callApi
+import org.jellyfin.androidtv.util.sdk.isUsable
+import org.jellyfin.apiclient.interaction.ApiClient
+import org.jellyfin.apiclient.model.livetv.ChannelInfoDto
+import org.jellyfin.apiclient.model.querying.ItemsResult
+import org.jellyfin.apiclient.model.results.ChannelInfoDtoResult
+import org.koin.core.component.KoinComponent
+import org.koin.core.component.inject
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps a snapshot of the live tv channels and the upcoming programs of the channels shown first
+ * in the guide, so the guide can open without waiting for the server.
+ */
+class GuidePrefetchWorker(
+	context: Context,
+	workerParams: WorkerParameters,
+) : CoroutineWorker(context, workerParams), KoinComponent {
+	companion object {
+		const val PERIODIC_UPDATE_REQUEST_NAME = "GuidePrefetchPeriodicUpdateRequest"
+
+		/**
+		 * The hours shown by the guide plus the time until the next update.
+		 */
+		private const val PREFETCH_HOURS = LiveTvGuideActivity.NORMAL_HOURS + 1L
+
+		/**
+		 * Amount of recently played channels to load the programs for.
+		 */
+		private const val RECENT_CHANNELS = 25
+
+		/**
+		 * The channels to load the programs for: favorites, recently played channels and the
+		 * channels on the page the guide opens on.
+		 */
+		fun getPrefetchChannelIds(channels: List<ChannelInfoDto>, lastChannelId: String?): Array<String> {
+			val ids = linkedSetOf<String>()
+
+			channels.filter { it.userData?.isFavorite == true }.mapTo(ids) { it.id }
+
+			channels
+				.filter { it.userData?.lastPlayedDate != null }
+				.sortedByDescending { it.userData.lastPlayedDate }
+				.take(RECENT_CHANNELS)
+				.mapTo(ids) { it.id }
+
+			// Same as the index returned by TvManager.loadAllChannels
+			val ndx = channels.indexOfFirst { it.id == lastChannelId } + 1
+			val pageStart = TvManager.getFirstPageStart(ndx, LiveTvGuideActivity.PAGE_SIZE)
+			channels.drop(pageStart).take(LiveTvGuideActivity.PAGE_SIZE).mapTo(ids) { it.id }
+
+			return ids.toTypedArray()
+		}
+	}
+
+	private val api by inject<ApiClient>()
+	private val sdkApi by inject<org.jellyfin.sdk.api.client.ApiClient>()
+	private val userRepository by inject<UserRepository>()
+	private val guideSnapshotRepository by inject<GuideSnapshotRepository>()
+
+	override suspend fun doWork(): Result {
+		// Retry later if no authenticated user is found
+		if (!sdkApi.isUsable) return Result.retry()
+		// Nothing to do without an authenticated user or live tv access, the worker is recreated on
+		// the next session
+		val user = userRepository.currentUser.value ?: return Result.success()
+		if (user.policy?.enableLiveTvAccess != true) return Result.success()
+		val userId = user.id.toString()
+
+		return try {
+			val channels = callApi<ChannelInfoDtoResult> {
+				api.GetLiveTvChannelsAsync(TvManager.createChannelQuery(userId), it)
+			}.items ?: emptyArray()
+			if (channels.isEmpty()) return Result.success()
+
+			val programChannelIds = getPrefetchChannelIds(channels.toList(), TvManager.getLastLiveTvChannel())
+			val start = TvManager.getGuideTile(System.currentTimeMillis())
+			val end = start + TimeUnit.HOURS.toMillis(PREFETCH_HOURS)
+			val programs = callApi<ItemsResult> {
+				api.GetLiveTvProgramsAsync(TvManager.createProgramQuery(userId, programChannelIds, start, end), it)
+			}.items ?: emptyArray()
+
+			withContext(Dispatchers.IO) {
+				guideSnapshotRepository.write(GuideSnapshot(userId, channels, programChannelIds, start, end, programs))
+			}
+
+			Result.success()
+		} catch (err: Exception) {
+			Timber.w(err, "Unable to load guide snapshot, trying again later")
+
+			Result.retry()
+		}
+	}
+}
@@ -8,19 +8,25 @@ import android.content.UriMatcher
 import android.database.Cursor
 import android.database.MatrixCursor
 import android.net.Uri
+import android.os.SystemClock
 import android.provider.BaseColumns
 import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeoutOrNull
 import org.jellyfin.androidtv.BuildConfig
 import org.jellyfin.androidtv.R
+import org.jellyfin.androidtv.data.model.TitleIndexEntry
+import org.jellyfin.androidtv.data.repository.TitleIndexRepository
 import org.jellyfin.androidtv.util.ImageUtils
 import org.jellyfin.androidtv.util.sdk.isUsable
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.imageApi
 import org.jellyfin.sdk.api.client.extensions.itemsApi
+import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.BaseItemDtoQueryResult
 import org.jellyfin.sdk.model.api.ImageType
 import org.jellyfin.sdk.model.api.ItemFields
+import org.jellyfin.sdk.model.serializer.toUUID
 import org.koin.core.component.KoinComponent
 import org.koin.core.component.inject
 import timber.log.Timber
@@ -33,6 +39,8 @@ class MediaContentProvider : ContentProvider(), KoinComponent {
 		private const val SEARCH_SUGGEST = 1
 		private const val TICKS_IN_MILLISECOND = 10000
 		private const val DEFAULT_LIMIT = 10
+		// Time to wait for the server when the title index already found something
+		private const val REFINE_TIMEOUT_MS = 750L
 		private val uriMatcher = UriMatcher(UriMatcher.NO_MATCH).apply {
 			addURI(AUTHORITY, "$SUGGEST_PATH/${SearchManager.SUGGEST_URI_PATH_QUERY}", SEARCH_SUGGEST)
 			addURI(AUTHORITY, "$SUGGEST_PATH/${SearchManager.SUGGEST_URI_PATH_QUERY}/*", SEARCH_SUGGEST)
@@ -40,6 +48,7 @@ class MediaContentProvider : ContentProvider(), KoinComponent {
 	}
 
 	private val api by inject<ApiClient>()
+	private val titleIndexRepository by inject<TitleIndexRepository>()
 
 	override fun onCreate(): Boolean = api.isUsable
 
@@ -83,7 +92,17 @@ class MediaContentProvider : ContentProvider(), KoinComponent {
 	}
 
 	private fun getSuggestions(query: String, limit: Int) = runBlocking {
-		val searchResult = searchItems(query, limit)
+		val startedAt = SystemClock.elapsedRealtime()
+		titleIndexRepository.load()
+		val indexResult = titleIndexRepository.search(query, limit)
+		Timber.d("Title index resulted in %d items in %sms", indexResult.size, SystemClock.elapsedRealtime() - startedAt)
+
+		// The index doesn't contain all item types, ask the server when it found less than requested
+		val searchResult = when {
+			indexResult.size >= limit -> null
+			indexResult.isEmpty() -> searchItems(query, limit)
+			else -> withTimeoutOrNull(REFINE_TIMEOUT_MS) { searchItems(query, limit) }
+		}
 		if (searchResult != null) Timber.d("Query resulted in %d items", searchResult.totalRecordCount)
 
 		val columns = arrayOf(
@@ -101,28 +120,55 @@ class MediaContentProvider : ContentProvider(), KoinComponent {
 		)
 
 		MatrixCursor(columns).also { cursor ->
-			searchResult?.items?.forEach { item ->
-				// Note: Image loading might fail if the image is served over HTTP
-				val imageUri = if (item.imageTags?.contains(ImageType.PRIMARY) == true)
-					api.imageApi.getItemImageUrl(item.id, ImageType.PRIMARY)
-				else
-					ImageUtils.getResourceUrl(context, R.drawable.tile_land_tv)
-
-				cursor.newRow().apply {
-					add(BaseColumns._ID, item.id)
-					add(SearchManager.SUGGEST_COLUMN_DURATION, item.runTimeTicks?.run { div(TICKS_IN_MILLISECOND) })
-					add(SearchManager.SUGGEST_COLUMN_IS_LIVE, if (item.isLive == true) 1 else 0)
-					val lastAccess = item.userData?.lastPlayedDate?.atZone(ZoneId.systemDefault())?.toEpochSecond()
-					add(SearchManager.SUGGEST_COLUMN_LAST_ACCESS_HINT, lastAccess)
-					add(SearchManager.SUGGEST_COLUMN_PRODUCTION_YEAR, item.premiereDate?.year)
-					add(SearchManager.SUGGEST_COLUMN_QUERY, item.name)
-					add(SearchManager.SUGGEST_COLUMN_RESULT_CARD_IMAGE, imageUri)
-					add(SearchManager.SUGGEST_COLUMN_TEXT_1, item.name)
-					add(SearchManager.SUGGEST_COLUMN_TEXT_2, item.taglines?.firstOrNull())
-					add(SearchManager.SUGGEST_COLUMN_INTENT_ACTION, Intent.ACTION_VIEW)
-					add(SearchManager.SUGGEST_COLUMN_INTENT_DATA, item.id)
-				}
-			}
+			indexResult.forEach { entry -> cursor.addEntry(entry) }
+
+			val indexIds = indexResult.map { it.id }.toSet()
+			searchResult?.items
+				?.filter { it.id.toString() !in indexIds }
+				?.take(limit - indexResult.size)
+				?.forEach { item -> cursor.addItem(item) }
+		}
+	}
+
+	private fun MatrixCursor.addItem(item: BaseItemDto) {
+		// Note: Image loading might fail if the image is served over HTTP
+		val imageUri = if (item.imageTags?.contains(ImageType.PRIMARY) == true)
+			api.imageApi.getItemImageUrl(item.id, ImageType.PRIMARY)
+		else
+			ImageUtils.getResourceUrl(context, R.drawable.tile_land_tv)
+
+		newRow().apply {
+			add(BaseColumns._ID, item.id)
+			add(SearchManager.SUGGEST_COLUMN_DURATION, item.runTimeTicks?.run { div(TICKS_IN_MILLISECOND) })
+			add(SearchManager.SUGGEST_COLUMN_IS_LIVE, if (item.isLive == true) 1 else 0)
+			val lastAccess = item.userData?.lastPlayedDate?.atZone(ZoneId.systemDefault())?.toEpochSecond()
+			add(SearchManager.SUGGEST_COLUMN_LAST_ACCESS_HINT, lastAccess)
+			add(SearchManager.SUGGEST_COLUMN_PRODUCTION_YEAR, item.premiereDate?.year)
+			add(SearchManager.SUGGEST_COLUMN_QUERY, item.name)
+			add(SearchManager.SUGGEST_COLUMN_RESULT_CARD_IMAGE, imageUri)
+			add(SearchManager.SUGGEST_COLUMN_TEXT_1, item.name)
+			add(SearchManager.SUGGEST_COLUMN_TEXT_2, item.taglines?.firstOrNull())
+			add(SearchManager.SUGGEST_COLUMN_INTENT_ACTION, Intent.ACTION_VIEW)
+			add(SearchManager.SUGGEST_COLUMN_INTENT_DATA, item.id)
+		}
+	}
+
+	private fun MatrixCursor.addEntry(entry: TitleIndexEntry) {
+		val imageUri = if (entry.primaryImageTag != null)
+			api.imageApi.getItemImageUrl(entry.id.toUUID(), ImageType.PRIMARY, tag = entry.primaryImageTag)
+		else
+			ImageUtils.getResourceUrl(context, R.drawable.tile_land_tv)
+
+		newRow().apply {
+			add(BaseColumns._ID, entry.id)
+			add(SearchManager.SUGGEST_COLUMN_DURATION, entry.runTimeTicks?.run { div(TICKS_IN_MILLISECOND) })
+			add(SearchManager.SUGGEST_COLUMN_IS_LIVE, 0)
+			add(SearchManager.SUGGEST_COLUMN_PRODUCTION_YEAR, entry.productionYear)
+			add(SearchManager.SUGGEST_COLUMN_QUERY, entry.name)
+			add(SearchManager.SUGGEST_COLUMN_RESULT_CARD_IMAGE, imageUri)
+			add(SearchManager.SUGGEST_COLUMN_TEXT_1, entry.name)
+			add(SearchManager.SUGGEST_COLUMN_INTENT_ACTION, Intent.ACTION_VIEW)
+			add(SearchManager.SUGGEST_COLUMN_INTENT_DATA, entry.id)
 		}
 	}
 
@@ -16,6 +16,7 @@ import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.databinding.DreamLibraryBinding
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.constant.ClockBehavior
+import org.jellyfin.androidtv.util.JellyfinImageBuckets
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.imageApi
@@ -107,6 +108,7 @@ class LibraryDreamService : DreamService() {
 			try {
 				Glide.with(binding.root)
 					.load(url)
+					.apply(JellyfinImageBuckets.requestOptions(url))
 					.submit()
 					.get()
 			} catch (err: ExecutionException) {
@@ -1,5 +1,6 @@
 package org.jellyfin.androidtv.preference
 
+import android.content.SharedPreferences
 import org.jellyfin.androidtv.constant.GridDirection
 import org.jellyfin.androidtv.constant.ImageType
 import org.jellyfin.androidtv.constant.PosterSize
@@ -15,9 +16,11 @@ import org.jellyfin.sdk.model.constant.ItemSortBy
 class LibraryPreferences(
 	displayPreferencesId: String,
 	api: ApiClient,
+	snapshotPreferences: SharedPreferences? = null,
 ) : DisplayPreferencesStore(
 	displayPreferencesId = displayPreferencesId,
 	api = api,
+	snapshotPreferences = snapshotPreferences,
 ) {
 	companion object {
 		val posterSize = enumPreference("PosterSize", PosterSize.MED)
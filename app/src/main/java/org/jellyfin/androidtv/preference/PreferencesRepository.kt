@@ -1,36 +1,61 @@
 package org.jellyfin.androidtv.preference
 
-import kotlinx.coroutines.runBlocking
+import android.content.Context
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesStore
 import org.jellyfin.sdk.api.client.ApiClient
-import kotlin.collections.set
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Repository to access special preference stores.
  */
 class PreferencesRepository(
+	private val context: Context,
 	private val api: ApiClient,
 	private val liveTvPreferences: LiveTvPreferences,
 	private val userSettingPreferences: UserSettingPreferences,
 ) {
-	private val libraryPreferences = mutableMapOf<String, LibraryPreferences>()
+	private val libraryPreferences = ConcurrentHashMap<String, LibraryPreferences>()
 
-	fun getLibraryPreferences(preferencesId: String): LibraryPreferences {
-		val store = libraryPreferences[preferencesId] ?: LibraryPreferences(preferencesId, api)
+	// Local copies of the library display preferences
+	private val librarySnapshots by lazy {
+		context.getSharedPreferences("library_display_preferences", Context.MODE_PRIVATE)
+	}
 
-		libraryPreferences[preferencesId] = store
+	/**
+	 * Get the preferences of a library. The locally stored values are returned right away and
+	 * updated from the server in the background, use [LibraryPreferences.addUpdateListener] to
+	 * apply the server values once they are loaded.
+	 */
+	fun getLibraryPreferences(preferencesId: String): LibraryPreferences {
+		val store = libraryPreferences.getOrPut(preferencesId) {
+			LibraryPreferences(preferencesId, api, librarySnapshots)
+		}
 
-		// FIXME: Make [getLibraryPreferences] suspended when usages are converted to Kotlin
-		if (store.shouldUpdate) runBlocking { store.update() }
+		if (store.shouldUpdate) store.updateInBackground()
 
 		return store
 	}
 
+	private val displayPreferencesStores
+		get() = listOf<DisplayPreferencesStore>(liveTvPreferences, userSettingPreferences) + libraryPreferences.values
+
+	/**
+	 * Save pending display preference changes, called before the session changes so they are
+	 * still saved for the current user.
+	 */
+	suspend fun onSessionChanging() {
+		// Note: Do not run parallel as the server can't deal with that
+		displayPreferencesStores.forEach { it.flushDelayedCommit() }
+	}
+
 	suspend fun onSessionChanged() {
+		// Changes made after onSessionChanging can't be saved for the previous user anymore
+		displayPreferencesStores.forEach { it.discardChanges() }
+		libraryPreferences.clear()
+
 		// Note: Do not run parallel as the server can't deal with that
 		// Relevant server issue: https://github.com/jellyfin/jellyfin/issues/5261
 		liveTvPreferences.update()
 		userSettingPreferences.update()
-
-		libraryPreferences.clear()
 	}
 }
@@ -1,7 +1,16 @@
 package org.jellyfin.androidtv.preference.store
 
+import android.content.SharedPreferences
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
 import org.jellyfin.preference.Preference
-import org.jellyfin.preference.PreferenceEnum
 import org.jellyfin.preference.migration.MigrationContext
 import org.jellyfin.preference.store.AsyncPreferenceStore
 import org.jellyfin.sdk.api.client.ApiClient
@@ -10,28 +19,61 @@ import org.jellyfin.sdk.api.client.extensions.displayPreferencesApi
 import org.jellyfin.sdk.model.api.DisplayPreferencesDto
 import org.jellyfin.sdk.model.api.ScrollDirection
 import org.jellyfin.sdk.model.api.SortOrder
+import org.json.JSONException
+import org.json.JSONObject
 import timber.log.Timber
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
 
 @Suppress("TooManyFunctions")
 abstract class DisplayPreferencesStore(
 	protected var displayPreferencesId: String,
 	protected var app: String = "jellyfin-androidtv",
 	private val api: ApiClient,
+	/**
+	 * Optional local copy of the custom preferences. The values are available right away and
+	 * used until the server values are loaded.
+	 */
+	private val snapshotPreferences: SharedPreferences? = null,
 ) : AsyncPreferenceStore<Unit, Unit>() {
+	@Volatile
 	private var displayPreferencesDto: DisplayPreferencesDto? = null
-	private var cachedPreferences: MutableMap<String, String?> = mutableMapOf()
+	private val cachedPreferences = ConcurrentHashMap<String, String>()
+	// Keys changed locally since the last commit, these are kept when updating from the server
+	private val changedKeys = ConcurrentHashMap.newKeySet<String>()
+	// The snapshot belongs to the user that created the store
+	private val snapshotUserId = api.userId
+	private val updateListeners = CopyOnWriteArrayList<UpdateListener>()
+	private var updateJob: Job? = null
+	private var commitJob: Job? = null
+
 	override val shouldUpdate: Boolean
 		get() = displayPreferencesDto == null
 
-	override suspend fun commit(): Boolean {
-		if (displayPreferencesDto == null) return false
+	/**
+	 * Listener called on the main thread when a background update changed the values.
+	 */
+	fun interface UpdateListener {
+		fun onUpdated()
+	}
+
+	init {
+		readSnapshot()
+	}
+
+	override suspend fun commit(): Boolean = requestMutex.withLock {
+		if (displayPreferencesDto == null) fetch()
+		val dto = displayPreferencesDto ?: return false
+
+		val committedKeys = changedKeys.toSet()
+		writeSnapshot()
 
 		try {
 			api.displayPreferencesApi.updateDisplayPreferences(
 				displayPreferencesId = displayPreferencesId,
 				client = app,
-				data = displayPreferencesDto!!.copy(
-					customPrefs = cachedPreferences
+				data = dto.copy(
+					customPrefs = cachedPreferences.toMap()
 				)
 			)
 		} catch (err: ApiClientException) {
@@ -39,9 +81,52 @@ abstract class DisplayPreferencesStore(
 			return false
 		}
 
+		changedKeys.removeAll(committedKeys)
 		return true
 	}
 
+	/**
+	 * Save values to store in the background. Multiple calls within [COMMIT_DELAY_MS] are
+	 * combined into a single request.
+	 */
+	fun commitDelayed() = synchronized(this) {
+		commitJob?.cancel()
+		commitJob = scope.launch {
+			delay(COMMIT_DELAY_MS)
+			commit()
+		}
+	}
+
+	/**
+	 * Cancel a pending [commitDelayed].
+	 */
+	fun cancelDelayedCommit() = synchronized(this) {
+		commitJob?.cancel()
+		commitJob = null
+	}
+
+	/**
+	 * Run a pending [commitDelayed] right away. Also retries changes of a failed commit.
+	 */
+	suspend fun flushDelayedCommit(): Boolean {
+		cancelDelayedCommit()
+		if (changedKeys.isEmpty()) return true
+		return commit()
+	}
+
+	/**
+	 * Drop local changes that are not committed yet, used when they can't be saved for the
+	 * user that made them anymore.
+	 */
+	fun discardChanges() {
+		cancelDelayedCommit()
+		changedKeys.clear()
+	}
+
+	fun addUpdateListener(listener: UpdateListener) = updateListeners.add(listener)
+
+	fun removeUpdateListener(listener: UpdateListener) = updateListeners.remove(listener)
+
 	/**
 	 * Clear local copy of display preferences and require an update for new modifications.
 	 */
@@ -50,18 +135,46 @@ abstract class DisplayPreferencesStore(
 
 		displayPreferencesDto = null
 		cachedPreferences.clear()
+		changedKeys.clear()
 
 		return true
 	}
 
-	override suspend fun update(): Boolean {
+	override suspend fun update(): Boolean = requestMutex.withLock { fetch() }
+
+	/**
+	 * [update] in the background, does nothing when an update is already running.
+	 */
+	fun updateInBackground() = synchronized(this) {
+		if (updateJob?.isActive == true) return@synchronized
+		updateJob = scope.launch {
+			val previousValues = cachedPreferences.toMap()
+			if (update() && cachedPreferences != previousValues) withContext(Dispatchers.Main) {
+				updateListeners.forEach { it.onUpdated() }
+			}
+		}
+	}
+
+	private suspend fun fetch(): Boolean {
 		try {
 			val result by api.displayPreferencesApi.getDisplayPreferences(
 				displayPreferencesId = displayPreferencesId,
 				client = app
 			)
+
+			// Local changes that are not committed yet take priority
+			val localChanges = changedKeys.associateWith { cachedPreferences[it] }
+			result.customPrefs.forEach { (key, value) ->
+				if (value == null) cachedPreferences.remove(key)
+				else cachedPreferences[key] = value
+			}
+			cachedPreferences.keys.retainAll(result.customPrefs.keys + localChanges.keys)
+			localChanges.forEach { (key, value) ->
+				if (value == null) cachedPreferences.remove(key)
+				else cachedPreferences[key] = value
+			}
 			displayPreferencesDto = result
-			cachedPreferences = result.customPrefs.toMutableMap()
+			writeSnapshot()
 
 			return true
 		} catch (err: ApiClientException) {
@@ -76,6 +189,29 @@ abstract class DisplayPreferencesStore(
 		}
 	}
 
+	private val snapshotKey get() = "$snapshotUserId:$app:$displayPreferencesId"
+
+	private fun readSnapshot() {
+		if (snapshotPreferences == null || snapshotUserId == null) return
+
+		val json = snapshotPreferences.getString(snapshotKey, null) ?: return
+		try {
+			val values = JSONObject(json)
+			values.keys().forEach { key -> cachedPreferences[key] = values.getString(key) }
+		} catch (err: JSONException) {
+			Timber.w(err, "Unable to read displaypreferences snapshot. (displayPreferencesId=$displayPreferencesId, app=$app)")
+		}
+	}
+
+	private fun writeSnapshot() {
+		// Don't write the values of a different user after the session changed
+		if (snapshotPreferences == null || snapshotUserId == null || snapshotUserId != api.userId) return
+
+		snapshotPreferences.edit()
+			.putString(snapshotKey, JSONObject(cachedPreferences.toMap()).toString())
+			.apply()
+	}
+
 	override fun getInt(key: String, defaultValue: Int) =
 		cachedPreferences[key]?.toIntOrNull() ?: defaultValue
 
@@ -90,44 +226,50 @@ abstract class DisplayPreferencesStore(
 
 	override fun setInt(key: String, value: Int) {
 		cachedPreferences[key] = value.toString()
+		changedKeys.add(key)
 	}
 
 	override fun setLong(key: String, value: Long) {
 		cachedPreferences[key] = value.toString()
+		changedKeys.add(key)
 	}
 
 	override fun setBool(key: String, value: Boolean) {
 		cachedPreferences[key] = value.toString()
+		changedKeys.add(key)
 	}
 
 	override fun setString(key: String, value: String) {
 		cachedPreferences[key] = value
+		changedKeys.add(key)
 	}
 
 	override fun <T : Any> delete(preference: Preference<T>) {
 		cachedPreferences.remove(preference.key)
+		changedKeys.add(preference.key)
 	}
 
-	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T {
-		val stringValue = cachedPreferences[preference.key]
-		return if (stringValue.isNullOrBlank()) preference.defaultValue
-		else preference.type.java.enumConstants?.find {
-			(it is PreferenceEnum && it.serializedName == stringValue) || it.name == stringValue
-		} ?: preference.defaultValue
-	}
+	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T =
+		parseEnum(preference, cachedPreferences[preference.key])
 
 	override fun <V : Enum<V>> setEnum(preference: Preference<*>, value: Enum<V>) =
-		setString(
-			preference.key, when (value) {
-				is PreferenceEnum -> value.serializedName
-				else -> value.toString()
-			}
-		)
+		setString(preference.key, serializeEnum(value))
 
 	override fun runMigrations(body: MigrationContext<Unit, Unit>.() -> Unit) {
 		TODO("The DisplayPreferencesStore does not support migrations")
 	}
 
+	companion object {
+		private const val COMMIT_DELAY_MS = 2_000L
+
+		// Shared by all stores, background updates and commits outlive the screens that started them
+		private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+		// Display preferences requests are not run in parallel as the server can't deal with that
+		// Relevant server issue: https://github.com/jellyfin/jellyfin/issues/5261
+		private val requestMutex = Mutex()
+	}
+
 	/**
 	 * Create an empty [DisplayPreferencesDto] with default values.
 	 */
@@ -2,19 +2,21 @@ package org.jellyfin.androidtv.ui
 
 import android.content.Context
 import android.graphics.drawable.Drawable
+import android.os.SystemClock
 import android.util.AttributeSet
 import android.widget.ImageView
 import androidx.appcompat.widget.AppCompatImageView
 import androidx.core.graphics.drawable.toDrawable
-import androidx.core.view.doOnAttach
 import androidx.lifecycle.findViewTreeLifecycleOwner
 import androidx.lifecycle.lifecycleScope
 import com.bumptech.glide.Glide
-import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
-import org.jellyfin.androidtv.util.BlurHashDecoder
+import org.jellyfin.androidtv.util.JellyfinImageBuckets
+import org.jellyfin.androidtv.util.decodeBlurHash
+import timber.log.Timber
 import kotlin.math.round
 import kotlin.time.Duration.Companion.milliseconds
 
@@ -43,10 +45,24 @@ class AsyncImageView @JvmOverloads constructor(
 	 */
 	var circleCrop = styledAttributes.getBoolean(R.styleable.AsyncImageView_circleCrop, false)
 
+	private data class LoadRequest(
+		val url: String?,
+		val blurHash: String?,
+		val placeholder: Drawable?,
+		val blurAspectRatio: Double,
+		val blurResolution: Int,
+	)
+
+	// The last requested image, kept so a load cancelled by detaching can continue when attached again
+	private var request: LoadRequest? = null
+	private var loadJob: Job? = null
+
 	/**
 	 * Load an image from the network using [url]. When the [url] is null or returns a bad response
 	 * the [placeholder] is shown. A [blurHash] is shown while loading the image. An aspect ratio is
 	 * required when using a BlurHash or the sizing will be incorrect.
+	 *
+	 * A previous load that did not finish yet is cancelled.
 	 */
 	fun load(
 		url: String? = null,
@@ -54,30 +70,95 @@ class AsyncImageView @JvmOverloads constructor(
 		placeholder: Drawable? = null,
 		blurAspectRatio: Double = 1.0,
 		blurResolution: Int = 32,
-	) = doOnAttach {
-		lifeCycleOwner?.lifecycleScope?.launch {
-			var placeholderOrBlurHash = placeholder
+	) {
+		val newRequest = LoadRequest(url, blurHash, placeholder, blurAspectRatio, blurResolution)
+		// Rebinding the same image while it's still loading, keep the current load
+		if (newRequest == request && loadJob?.isActive == true) return
+
+		val previousRequest = request
+		request = newRequest
+		if (loadJob?.isActive == true) LoadStats.cancelled++
+		loadJob?.cancel()
+		loadJob = null
+		// Make sure a running request for the previous image can't finish after this one
+		if (previousRequest != null && previousRequest.url != url) Glide.with(this).clear(this)
+
+		LoadStats.loaded()
+		if (isAttachedToWindow) startLoad(newRequest)
+	}
+
+	override fun onAttachedToWindow() {
+		super.onAttachedToWindow()
+
+		val request = request
+		if (request != null && loadJob == null) startLoad(request)
+	}
+
+	override fun onDetachedFromWindow() {
+		// The view is either recycled or will be bound again, there is no need to finish the load
+		if (loadJob?.isActive == true) {
+			LoadStats.cancelled++
+			loadJob?.cancel()
+			loadJob = null
+		}
+
+		super.onDetachedFromWindow()
+	}
+
+	private fun startLoad(request: LoadRequest) {
+		val scope = lifeCycleOwner?.lifecycleScope ?: return
+
+		loadJob = scope.launch {
+			var placeholderOrBlurHash = request.placeholder
 
 			// Only show blurhash if an image is going to be loaded from the network
-			if (url != null && blurHash != null) withContext(Dispatchers.IO) {
-				val blurHashBitmap = BlurHashDecoder.decode(
-					blurHash,
-					if (blurAspectRatio > 1) round(blurResolution * blurAspectRatio).toInt() else blurResolution,
-					if (blurAspectRatio >= 1) blurResolution else round(blurResolution / blurAspectRatio).toInt(),
+			if (request.url != null && request.blurHash != null) {
+				val blurHashBitmap = decodeBlurHash(
+					request.blurHash,
+					if (request.blurAspectRatio > 1) round(request.blurResolution * request.blurAspectRatio).toInt() else request.blurResolution,
+					if (request.blurAspectRatio >= 1) request.blurResolution else round(request.blurResolution / request.blurAspectRatio).toInt(),
 				)
 				if (blurHashBitmap != null) placeholderOrBlurHash = blurHashBitmap.toDrawable(resources)
 			}
 
+			// Rebound while decoding
+			ensureActive()
+
 			// Start loading image or placeholder
+			// NOTE: Glide shares the work of identical requests (same url and size) between views
 			Glide.with(this@AsyncImageView)
-				.load(url ?: placeholder).apply {
+				.load(request.url ?: request.placeholder).apply {
 					placeholder(placeholderOrBlurHash)
-					error(placeholder)
+					error(request.placeholder)
 					if (circleCrop) circleCrop()
 					// FIXME: Glide is unable to scale the image when transitions are enabled
 					//transition(DrawableTransitionOptions.withCrossFade(crossFadeDuration.inWholeMilliseconds.toInt()))
 				}
+				.apply(JellyfinImageBuckets.requestOptions(request.url))
 				.into(this@AsyncImageView)
 		}
 	}
+
+	// Logs how many images are bound per second, to measure scrolling throughput
+	private object LoadStats {
+		private const val INTERVAL_MS = 5000L
+
+		private var intervalStart = 0L
+		private var loads = 0
+		var cancelled = 0
+
+		fun loaded() {
+			val now = SystemClock.elapsedRealtime()
+			if (intervalStart == 0L) intervalStart = now
+			loads++
+
+			val duration = now - intervalStart
+			if (duration >= INTERVAL_MS) {
+				Timber.d("Bound %.1f images/s (%d cancelled)", loads * 1000f / duration, cancelled)
+				intervalStart = now
+				loads = 0
+				cancelled = 0
+			}
+		}
+	}
 }
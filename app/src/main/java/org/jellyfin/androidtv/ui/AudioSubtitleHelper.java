@@ -27,7 +27,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import kotlin.Lazy;
 import timber.log.Timber;
@@ -43,33 +43,166 @@ public class AudioSubtitleHelper {
         final public boolean mPreferSdhSubs;
         final public String mForcedAudioCodec;
 
+        // merit tables, compiled on first use
+        private TrackMerits mAudioMerits = null;
+        private LanguagesAudio mAudioMeritsLangSetting = null;
+        private TrackMerits mSubtitleMerits = null;
+
         public AudioSubPref(@NonNull final Lazy<UserPreferences> userPreferences) {
-            mHasDtsDecoder = userPreferences.getValue().get(UserPreferences.Companion.getDtsCapableDevice());
-            mAudioLangSetting = userPreferences.getValue().get(UserPreferences.Companion.getAudioLanguage());
-            mSubtitleLangSetting = userPreferences.getValue().get(UserPreferences.Companion.getSubtitleLanguage());
-            mNoForcedSubs = userPreferences.getValue().get(UserPreferences.Companion.getNoForcedSubtitles());
-            mAllowSameLanguageSubs = userPreferences.getValue().get(UserPreferences.Companion.getAllowSameLanguageSubs());
-            mPreferSdhSubs = userPreferences.getValue().get(UserPreferences.Companion.getUseSdhSubtitles());
-            mForcedAudioCodec = userPreferences.getValue().get(UserPreferences.Companion.getForcedAudioCodec()).getCodecName();
+            this(userPreferences.getValue().get(UserPreferences.Companion.getAudioLanguage()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getSubtitleLanguage()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getDtsCapableDevice()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getNoForcedSubtitles()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getAllowSameLanguageSubs()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getUseSdhSubtitles()),
+                    userPreferences.getValue().get(UserPreferences.Companion.getForcedAudioCodec()).getCodecName());
+        }
+
+        public AudioSubPref(@NonNull LanguagesAudio audioLangSetting, @NonNull LanguagesSubtitle subtitleLangSetting, boolean hasDtsDecoder, boolean noForcedSubs, boolean allowSameLanguageSubs, boolean preferSdhSubs, @NonNull String forcedAudioCodec) {
+            mAudioLangSetting = audioLangSetting;
+            mSubtitleLangSetting = subtitleLangSetting;
+            mHasDtsDecoder = hasDtsDecoder;
+            mNoForcedSubs = noForcedSubs;
+            mAllowSameLanguageSubs = allowSameLanguageSubs;
+            mPreferSdhSubs = preferSdhSubs;
+            mForcedAudioCodec = forcedAudioCodec;
+        }
+
+        @NonNull
+        synchronized TrackMerits getAudioMerits() {
+            // mAudioLangSetting can be overridden per library
+            if (mAudioMerits == null || mAudioMeritsLangSetting != mAudioLangSetting) {
+                mAudioMerits = compileAudioMerits(this);
+                mAudioMeritsLangSetting = mAudioLangSetting;
+            }
+            return mAudioMerits;
+        }
+
+        @NonNull
+        synchronized TrackMerits getSubtitleMerits() {
+            if (mSubtitleMerits == null) {
+                mSubtitleMerits = compileSubtitleMerits(this);
+            }
+            return mSubtitleMerits;
+        }
+    }
+
+    // Merit lookup tables for one stream type, keys are stored trimmed and lowercase
+    static class TrackMerits {
+        private final Map<String, Integer> mCodecs;
+        private final Map<String, Integer> mProfiles;
+        private final String[] mFilters;
+        private final int[] mFilterMerits;
+
+        TrackMerits(@NonNull Map<String, Integer> codecs, @NonNull Map<String, Integer> profiles, @NonNull Map<String, Integer> filters) {
+            mCodecs = normalizeKeys(codecs);
+            mProfiles = normalizeKeys(profiles);
+            Map<String, Integer> normalizedFilters = normalizeKeys(filters);
+            mFilters = new String[normalizedFilters.size()];
+            mFilterMerits = new int[normalizedFilters.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : normalizedFilters.entrySet()) {
+                mFilters[i] = entry.getKey();
+                mFilterMerits[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        @NonNull
+        private static Map<String, Integer> normalizeKeys(@NonNull Map<String, Integer> map) {
+            Map<String, Integer> out = new HashMap<>(map.size());
+            for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                String key = getSafeValue(entry.getKey(), "").trim().toLowerCase(Locale.US);
+                if (!key.isEmpty() && entry.getValue() != null) {
+                    out.put(key, entry.getValue());
+                }
+            }
+            return out;
+        }
+
+        int getMerit(@NonNull MediaStream stream, boolean ignoreFilters) {
+            int merit = 0;
+            if (!mCodecs.isEmpty() && stream.getCodec() != null) {
+                merit += getSafeValue(mCodecs.get(stream.getCodec().trim().toLowerCase(Locale.US)), 0);
+            }
+            if (!mProfiles.isEmpty() && stream.getProfile() != null) {
+                merit += getSafeValue(mProfiles.get(stream.getProfile().trim().toLowerCase(Locale.US)), 0);
+            }
+            if (!ignoreFilters && isNonEmptyTrim(stream.getTitle())) {
+                String title = stream.getTitle().toLowerCase(Locale.US);
+                for (int i = 0; i < mFilters.length; i++) {
+                    if (title.contains(mFilters[i])) {
+                        merit += mFilterMerits[i];
+                    }
+                }
+            }
+            return merit;
+        }
+    }
+
+    @NonNull
+    static TrackMerits compileAudioMerits(@NonNull AudioSubPref prefs) {
+        Map<String, Integer> merit_codec = new HashMap<>(AUDIO_CODECS);
+        Map<String, Integer> merit_filter = new HashMap<>(AUDIO_FILTERS);
+        Map<String, Integer> merit_profile = new HashMap<>();
+        if (prefs.mHasDtsDecoder) {
+            merit_profile.putAll(AUDIO_PROFILES);
+            merit_codec.put(Codec.Audio.DTS, AUDIO_CODECS.get(Codec.Audio.AC3) - 1); // match eac3 with MA
+            merit_filter.put("dts:x", 2); // match atmos
+        }
+        if (!prefs.mForcedAudioCodec.equals("none")) {
+            merit_codec.put(prefs.mForcedAudioCodec, 15); // favor forced codec's, surround should still win
+        }
+        if (prefs.mAudioLangSetting == LanguagesAudio.ORIGINAL) {
+            merit_filter.put("original", 20);
         }
+        return new TrackMerits(merit_codec, merit_profile, merit_filter);
+    }
+
+    @NonNull
+    static TrackMerits compileSubtitleMerits(@NonNull AudioSubPref prefs) {
+        Map<String, Integer> merit_filter = new HashMap<>(SUBTITLE_FILTERS);
+        if (prefs.mPreferSdhSubs) {
+            merit_filter.put("sdh", 50);
+            merit_filter.put("caption", 40);
+            merit_filter.put("hearing impaired", 30);
+        }
+        return new TrackMerits(SUBTITLE_CODECS, new HashMap<>(), merit_filter);
     }
 
+    private static final int MAX_ISO3_CACHE_SIZE = 256;
+    private static final String NO_ISO3_CODE = "";
+    // language tag -> ISO3 code, resolving locales is slow and files repeat the same few languages a lot
+    private static final Map<String, String> ISO3_CODE_CACHE = new ConcurrentHashMap<>();
+
     // handle terminology_code vs bibliographic_code
     // gets the language code from a IETF BCP 47 or 639-1 or 639-2 code
     @Nullable
     public static String getISO3LanguageCode(@Nullable String langCode) {
-        if (isNonEmptyTrim(langCode)) {
-            try {
-                String bcp_47 = Util.normalizeLanguageCode(langCode);
-                Locale locale = Locale.forLanguageTag(bcp_47);
-                String outISO3 = locale.getISO3Language();
-                if (isNonEmpty(outISO3)) {
-                    return outISO3;
-                }
-            } catch (MissingResourceException ignored) {
-            }
+        if (!isNonEmptyTrim(langCode)) {
+            return null;
+        }
+        String cached = ISO3_CODE_CACHE.get(langCode);
+        if (cached != null) {
+            return NO_ISO3_CODE.equals(cached) ? null : cached;
         }
-        return null;
+
+        String outISO3 = null;
+        try {
+            String bcp_47 = Util.normalizeLanguageCode(langCode);
+            Locale locale = Locale.forLanguageTag(bcp_47);
+            outISO3 = locale.getISO3Language();
+        } catch (MissingResourceException ignored) {
+        }
+        if (!isNonEmpty(outISO3)) {
+            outISO3 = null;
+        }
+
+        if (ISO3_CODE_CACHE.size() >= MAX_ISO3_CACHE_SIZE) {
+            ISO3_CODE_CACHE.clear();
+        }
+        ISO3_CODE_CACHE.put(langCode, outISO3 != null ? outISO3 : NO_ISO3_CODE);
+        return outISO3;
     }
 
     final static int DEFAULT_AUDIO_FLAG_MERIT = 1; // should this override even best picks?
@@ -178,53 +311,26 @@ public class AudioSubtitleHelper {
         return merit;
     }
 
+    // Returns the streams with a positive merit ranked from best to worst, streams with equal merits keep their natural order
     @NonNull
-    public static TreeMap<Integer, Pair<MediaStream, Integer>> evaluateMediaStreams(@NonNull ArrayList<MediaStream> mediaStreams, @NonNull AudioSubPref prefs, MediaStreamType mediaType, @Nullable String langCodeFilter, boolean ignoreForced, boolean ignoreFilters) {
+    public static ArrayList<Pair<MediaStream, Integer>> evaluateMediaStreams(@NonNull ArrayList<MediaStream> mediaStreams, @NonNull AudioSubPref prefs, MediaStreamType mediaType, @Nullable String langCodeFilter, boolean ignoreForced, boolean ignoreFilters) {
+        ArrayList<Pair<MediaStream, Integer>> outRanked = new ArrayList<>();
         if (!(mediaType == MediaStreamType.Audio || mediaType == MediaStreamType.Subtitle)) {
             Timber.w("Unsupported media type <%s>", mediaType);
-            return new TreeMap<>();
+            return outRanked;
         }
         if (isNonEmptyTrim(langCodeFilter) && langCodeFilter.length() != 3) {
             Timber.e("langCodeFilter is not a 3 letter code <%s>", langCodeFilter);
-            return new TreeMap<>();
-        }
-        // setup our merit maps
-        Map<String, Integer> merit_codec = null;
-        Map<String, Integer> merit_filter = null;
-        Map<String, Integer> merit_profile = null;
-
-        if (mediaType == MediaStreamType.Audio) {
-            merit_codec = new HashMap<>(AUDIO_CODECS);
-            merit_filter = new HashMap<>(AUDIO_FILTERS);
-            if (prefs.mHasDtsDecoder) {
-                merit_profile = new HashMap<>(AUDIO_PROFILES);
-                merit_codec.put(Codec.Audio.DTS, AUDIO_CODECS.get(Codec.Audio.AC3) - 1); // match eac3 with MA
-                merit_filter.put("dts:x", 2); // match atmos
-            } else {
-                merit_profile = new HashMap<>();
-            }
-            if (!prefs.mForcedAudioCodec.equals("none")) {
-                merit_codec.put(prefs.mForcedAudioCodec, 15); // favor forced codec's, surround should still win
-            }
-            if (prefs.mAudioLangSetting == LanguagesAudio.ORIGINAL) {
-                merit_filter.put("original", 20);
-            }
-        } else if (mediaType == MediaStreamType.Subtitle) {
-            merit_codec = new HashMap<>(SUBTITLE_CODECS);
-            merit_filter = new HashMap<>(SUBTITLE_FILTERS);
-            merit_profile = new HashMap<>();
-            if (prefs.mPreferSdhSubs) {
-                merit_filter.put("sdh", 50);
-                merit_filter.put("caption", 40);
-                merit_filter.put("hearing impaired", 30);
-            }
+            return outRanked;
         }
-        TreeMap<Integer, Pair<MediaStream, Integer>> outMeritMap = new TreeMap<>();
+        TrackMerits trackMerits = mediaType == MediaStreamType.Audio ? prefs.getAudioMerits() : prefs.getSubtitleMerits();
+        boolean filterLanguage = isNonEmptyTrim(langCodeFilter);
+        // merits of the ranked streams, same order as outRanked
+        int[] rankedMerits = new int[mediaStreams.size()];
         // NOTE: We need the natural per type index, not absolute.
         int naturalIdx = 0;
         // calculate merits for all streams
         for (MediaStream stream : mediaStreams) {
-            int merit = 0;
             if (stream.getType() != mediaType) {
                 continue;
             }
@@ -236,27 +342,14 @@ public class AudioSubtitleHelper {
                 naturalIdx++;
                 continue;
             }
-            if (isNonEmptyTrim(langCodeFilter)) {
-                String langCode = getISO3LanguageCode(getSafeValue(stream.getLanguage(), null));
+            if (filterLanguage) {
+                String langCode = getISO3LanguageCode(stream.getLanguage());
                 if (isEmpty(langCode) || !langCode.equals(langCodeFilter)) {
                     naturalIdx++;
                     continue;
                 }
             }
-            String codec = getSafeValue(stream.getCodec(), "").trim().toLowerCase(Locale.US);
-            String profile = getSafeValue(stream.getProfile(), "").trim().toLowerCase(Locale.US);
-            String title = getSafeValue(stream.getTitle(), "").trim().toLowerCase(Locale.US);
-
-            merit += getSafeValue(merit_codec.get(codec), 0);
-            merit += getSafeValue(merit_profile.get(profile), 0);
-            if (!ignoreFilters) {
-                for (Map.Entry<String, Integer> entry : merit_filter.entrySet()) {
-                    String filter = getSafeValue(entry.getKey(), "").trim().toLowerCase(Locale.US);
-                    if (!filter.isEmpty() && !title.isEmpty() && title.contains(filter)) {
-                        merit += getSafeValue(entry.getValue(), 0);
-                    }
-                }
-            }
+            int merit = trackMerits.getMerit(stream, ignoreFilters);
             if (stream.getType() == MediaStreamType.Audio) {
                 merit += calcMeritAudio(stream); // rate channels bitDepth sampleRate (we miss more audioProfiles)
                 if (isDefaultTrack(stream)) {
@@ -267,11 +360,18 @@ public class AudioSubtitleHelper {
             }
             // only use positive merits!
             if (merit >= 0) {
-                outMeritMap.put(merit, new Pair<>(stream, naturalIdx));
+                // insert behind all streams with a higher or equal merit
+                int rank = outRanked.size();
+                while (rank > 0 && rankedMerits[rank - 1] < merit) {
+                    rankedMerits[rank] = rankedMerits[rank - 1];
+                    rank--;
+                }
+                rankedMerits[rank] = merit;
+                outRanked.add(rank, new Pair<>(stream, naturalIdx));
             }
             naturalIdx++;
         }
-        return outMeritMap;
+        return outRanked;
     }
 
     @NonNull
@@ -460,12 +560,12 @@ public class AudioSubtitleHelper {
         }
         if (audIdx == null && prefs.mAudioLangSetting == LanguagesAudio.ORIGINAL) {
             // try none default now
-            TreeMap<Integer, Pair<MediaStream, Integer>> originalAudioTracks = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, audioCode, true, false);
+            ArrayList<Pair<MediaStream, Integer>> originalAudioTracks = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, audioCode, true, false);
             if (originalAudioTracks.isEmpty() && "kor".equals(audioCode)) { // fallback
                 originalAudioTracks = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, "jpn", true, false);
             }
             if (!originalAudioTracks.isEmpty()) {
-                audIdx = originalAudioTracks.lastEntry().getValue(); // great found native audio!
+                audIdx = originalAudioTracks.get(0); // great found native audio!
             }
         }
         if (audIdx == null && prefs.mAudioLangSetting == LanguagesAudio.DEFAULT) {
@@ -479,9 +579,9 @@ public class AudioSubtitleHelper {
         }
         // check if we get a native audio stream
         if (audIdx == null) {
-            TreeMap<Integer, Pair<MediaStream, Integer>> nativeAudioMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, audioCode, true, false);
+            ArrayList<Pair<MediaStream, Integer>> nativeAudioMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, audioCode, true, false);
             if (!nativeAudioMerits.isEmpty()) {
-                audIdx = nativeAudioMerits.lastEntry().getValue(); // great found native audio!
+                audIdx = nativeAudioMerits.get(0); // great found native audio!
             }
         }
         // try to find any audio track
@@ -492,9 +592,9 @@ public class AudioSubtitleHelper {
                 audIdx = defaultAudioTracks.get(0); // found default audio
             } else {
                 // now we can evaluate or just use track 0 ??
-                TreeMap<Integer, Pair<MediaStream, Integer>> audioTrackMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, null, true, true);
+                ArrayList<Pair<MediaStream, Integer>> audioTrackMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Audio, null, true, true);
                 if (!audioTrackMerits.isEmpty()) {
-                    audIdx = audioTrackMerits.lastEntry().getValue(); // found unfiltered none native audio
+                    audIdx = audioTrackMerits.get(0); // found unfiltered none native audio
                 }
             }
         }
@@ -525,9 +625,9 @@ public class AudioSubtitleHelper {
                 }
                 // find good same language subtitles
                 if (subIdx == null && prefs.mAllowSameLanguageSubs) {
-                    TreeMap<Integer, Pair<MediaStream, Integer>> nativeSubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, subtitleCode, true, false);
+                    ArrayList<Pair<MediaStream, Integer>> nativeSubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, subtitleCode, true, false);
                     if (!nativeSubtitleMerits.isEmpty()) {
-                        subIdx = nativeSubtitleMerits.lastEntry().getValue(); // found native filtered subtitle
+                        subIdx = nativeSubtitleMerits.get(0); // found native filtered subtitle
                     }
                 }
                 // disable subs
@@ -547,19 +647,19 @@ public class AudioSubtitleHelper {
                 }
                 // try find any native subs
                 if (subIdx == null) {
-                    TreeMap<Integer, Pair<MediaStream, Integer>> nativeSubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, subtitleCode, true, false);
+                    ArrayList<Pair<MediaStream, Integer>> nativeSubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, subtitleCode, true, false);
                     if (nativeSubtitleMerits.isEmpty()) { // try native low quality subs
                         nativeSubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, subtitleCode, true, true);
                     }
                     if (!nativeSubtitleMerits.isEmpty()) {
-                        subIdx = nativeSubtitleMerits.lastEntry().getValue(); // found native subtitle
+                        subIdx = nativeSubtitleMerits.get(0); // found native subtitle
                     }
                 }
                 // FALLBACK: assume bad language tagged subs first
                 if (subIdx == null) {
-                    TreeMap<Integer, Pair<MediaStream, Integer>> anySubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, null, true, false);
+                    ArrayList<Pair<MediaStream, Integer>> anySubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, null, true, false);
                     if (!anySubtitleMerits.isEmpty()) {
-                        subIdx = anySubtitleMerits.lastEntry().getValue(); // found ANY filtered subtitle track
+                        subIdx = anySubtitleMerits.get(0); // found ANY filtered subtitle track
                     }
                 }
                 // FALLBACK: try ANY forced
@@ -571,9 +671,9 @@ public class AudioSubtitleHelper {
                 }
                 // now ANY unfiltered would be left?
                 if (subIdx == null) {
-                    TreeMap<Integer, Pair<MediaStream, Integer>> anySubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, null, true, true);
+                    ArrayList<Pair<MediaStream, Integer>> anySubtitleMerits = evaluateMediaStreams(mediaStreams, prefs, MediaStreamType.Subtitle, null, true, true);
                     if (!anySubtitleMerits.isEmpty()) {
-                        subIdx = anySubtitleMerits.lastEntry().getValue(); // found ANY subtitle track
+                        subIdx = anySubtitleMerits.get(0); // found ANY subtitle track
                     }
                 }
             }
@@ -1,6 +1,5 @@
 package org.jellyfin.androidtv.ui;
 
-import android.app.Activity;
 import android.content.Context;
 import android.graphics.Rect;
 import android.util.AttributeSet;
@@ -23,14 +22,14 @@ public class GuidePagingButton extends RelativeLayout {
         super(context, attrs);
     }
 
-    public GuidePagingButton(final Activity activity, final LiveTvGuide guide, int start, String label) {
-        super(activity);
+    public GuidePagingButton(final Context context, final LiveTvGuide guide, int start, String label) {
+        super(context);
 
-        LayoutInflater inflater = LayoutInflater.from(activity);
+        LayoutInflater inflater = LayoutInflater.from(context);
         ProgramGridCellBinding binding = ProgramGridCellBinding.inflate(inflater, this, true);
         binding.programName.setText(label);
 
-        setBackgroundColor(Utils.getThemeColor(activity, R.attr.buttonDefaultNormalBackground));
+        setBackgroundColor(Utils.getThemeColor(context, R.attr.buttonDefaultNormalBackground));
         setFocusable(true);
         setOnClickListener(v -> guide.displayChannels(start, LiveTvGuideActivity.PAGE_SIZE));
     }
@@ -2,7 +2,6 @@ package org.jellyfin.androidtv.ui;
 
 import static org.koin.java.KoinJavaComponent.get;
 
-import android.app.Activity;
 import android.content.Context;
 import android.graphics.Color;
 import android.graphics.Rect;
@@ -40,11 +39,24 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
     private boolean isFirst;
 
     public ProgramGridCell(Context context, LiveTvGuide activity, BaseItemDto program, boolean keyListen) {
-        super(context);
-        initComponent((Activity) context, activity, program, keyListen);
+        this(context, activity);
+        setProgram(program, false, false);
+
+        if (keyListen) {
+            setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    mActivity.showProgramOptions();
+                }
+            });
+        }
     }
 
-    private void initComponent(Activity context, LiveTvGuide activity, BaseItemDto program, boolean keyListen) {
+    /**
+     * Create an empty cell, the program is set with {@link #setProgram} so the cell can be reused.
+     */
+    public ProgramGridCell(Context context, LiveTvGuide activity) {
+        super(context);
         mActivity = activity;
 
         LayoutInflater inflater = LayoutInflater.from(context);
@@ -55,20 +67,30 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
 
         mProgramName = findViewById(R.id.programName);
         mInfoRow = findViewById(R.id.infoRow);
-        mProgramName.setText(program.getName());
-        mProgram = program;
         mRecIndicator = findViewById(R.id.recIndicator);
+    }
 
+    public void setProgram(BaseItemDto program, boolean first, boolean last) {
+        Context context = getContext();
+        mProgram = program;
+        isFirst = first;
+        isLast = last;
+        mProgramName.setText(program.getName());
+        mInfoRow.removeAllViews();
+        mRecIndicator.setImageResource(R.drawable.blank10x10);
+
+        mBackgroundColor = 0;
         setCellBackground();
+        if (isFocused()) setBackgroundColor(Utils.getThemeColor(context, android.R.attr.colorAccent));
 
         if (program.getStartDate() != null && program.getEndDate() != null) {
             Date localStart = TimeUtils.convertToLocalDate(program.getStartDate());
-            if (localStart.getTime() + 60000 < activity.getCurrentLocalStartDate()) {
+            if (localStart.getTime() + 60000 < mActivity.getCurrentLocalStartDate()) {
                 mProgramName.setText("<< "+mProgramName.getText());
                 TextView time = new TextView(context);
                 time.setTypeface(Typeface.create("sans-serif-light", Typeface.NORMAL));
                 time.setTextSize(12);
-                time.setText(android.text.format.DateFormat.getTimeFormat(getContext()).format(TimeUtils.convertToLocalDate(program.getStartDate())));
+                time.setText(android.text.format.DateFormat.getTimeFormat(context).format(localStart));
                 mInfoRow.addView(time);
             }
         }
@@ -102,17 +124,6 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
         } else if (program.getTimerId() != null) {
             mRecIndicator.setImageResource(R.drawable.ic_record_red);
         }
-
-
-        if (keyListen) {
-            setOnClickListener(new OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    mActivity.showProgramOptions();
-                }
-            });
-        }
-
     }
 
     public void setCellBackground() {
@@ -128,9 +139,9 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
             } else if (Utils.isTrue(mProgram.getIsKids())) {
                 mBackgroundColor = getResources().getColor(R.color.guide_kids_bg);
             }
-
-            setBackgroundColor(mBackgroundColor);
         }
+
+        setBackgroundColor(mBackgroundColor);
     }
 
     @Override
@@ -1,5 +0,0 @@
-package org.jellyfin.androidtv.ui;
-
-public abstract class ScrollViewListener {
-    public abstract void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy);
-}
@@ -48,10 +48,12 @@ import org.jellyfin.androidtv.databinding.HorizontalGridBrowseBinding;
 import org.jellyfin.androidtv.databinding.PopupEmptyBinding;
 import org.jellyfin.androidtv.preference.LibraryPreferences;
 import org.jellyfin.androidtv.preference.PreferencesRepository;
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesStore;
 import org.jellyfin.androidtv.ui.AlphaPickerView;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.ItemLauncher;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
+import org.jellyfin.androidtv.ui.itemhandling.PlaceholderRowItem;
 import org.jellyfin.androidtv.ui.playback.MediaManager;
 import org.jellyfin.androidtv.ui.preference.PreferencesActivity;
 import org.jellyfin.androidtv.ui.presentation.CardPresenter;
@@ -59,7 +61,6 @@ import org.jellyfin.androidtv.ui.presentation.HorizontalGridPresenter;
 import org.jellyfin.androidtv.ui.shared.BaseActivity;
 import org.jellyfin.androidtv.ui.shared.KeyListener;
 import org.jellyfin.androidtv.ui.shared.MessageListener;
-import org.jellyfin.androidtv.util.CoroutineUtils;
 import org.jellyfin.androidtv.util.InfoLayoutHelper;
 import org.jellyfin.androidtv.util.KeyProcessor;
 import org.jellyfin.androidtv.util.Utils;
@@ -105,6 +106,11 @@ public class BrowseGridFragment extends Fragment {
     private UUID mParentId;
     private BaseItemDto mFolder;
     private LibraryPreferences libraryPreferences;
+    // the values may only be the defaults until the server values are loaded
+    private final DisplayPreferencesStore.UpdateListener libraryPreferencesListener = () -> {
+        mDirty = true;
+        if (isResumed()) applyLibraryPreferences();
+    };
 
     private HorizontalGridBrowseBinding binding;
     private ItemRowAdapter mAdapter;
@@ -170,6 +176,7 @@ public class BrowseGridFragment extends Fragment {
 
         mediaManager.getValue().setFolderViewDisplayPreferencesId(mFolder);
         libraryPreferences = preferencesRepository.getValue().getLibraryPreferences(Objects.requireNonNull(mFolder.getDisplayPreferencesId()));
+        libraryPreferences.addUpdateListener(libraryPreferencesListener);
         mPosterSizeSetting = libraryPreferences.get(LibraryPreferences.Companion.getPosterSize());
         mImageType = libraryPreferences.get(LibraryPreferences.Companion.getImageType());
         mGridDirection = libraryPreferences.get(LibraryPreferences.Companion.getGridDirection());
@@ -194,6 +201,7 @@ public class BrowseGridFragment extends Fragment {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        if (libraryPreferences != null) libraryPreferences.removeUpdateListener(libraryPreferencesListener);
         mediaManager.getValue().setFolderViewDisplayPreferencesId(null);
     }
 
@@ -629,6 +637,27 @@ public class BrowseGridFragment extends Fragment {
     public void onResume() {
         super.onResume();
 
+        applyLibraryPreferences();
+
+        if (!justLoaded) {
+            //Re-retrieve anything that needs it but delay slightly so we don't take away gui landing
+            if (mAdapter != null) {
+                mHandler.postDelayed(() -> {
+                    if (mActivity != null && mActivity.isFinishing()) return;
+                    if (getActivity() != null && getActivity().isFinishing()) return;
+                    if (mAdapter != null && mAdapter.size() > 0) {
+                        if (!mAdapter.ReRetrieveIfNeeded()) {
+                            refreshCurrentItem();
+                        }
+                    }
+                }, 500);
+            }
+        } else {
+            justLoaded = false;
+        }
+    }
+
+    private void applyLibraryPreferences() {
         PosterSize posterSizeSetting = libraryPreferences.get(LibraryPreferences.Companion.getPosterSize());
         ImageType imageType = libraryPreferences.get(LibraryPreferences.Companion.getImageType());
         GridDirection gridDirection = libraryPreferences.get(LibraryPreferences.Companion.getGridDirection());
@@ -655,23 +684,6 @@ public class BrowseGridFragment extends Fragment {
             loadGrid();
             determiningPosterSize = false;
         }
-
-        if (!justLoaded) {
-            //Re-retrieve anything that needs it but delay slightly so we don't take away gui landing
-            if (mAdapter != null) {
-                mHandler.postDelayed(() -> {
-                    if (mActivity != null && mActivity.isFinishing()) return;
-                    if (getActivity() != null && getActivity().isFinishing()) return;
-                    if (mAdapter != null && mAdapter.size() > 0) {
-                        if (!mAdapter.ReRetrieveIfNeeded()) {
-                            refreshCurrentItem();
-                        }
-                    }
-                }, 500);
-            }
-        } else {
-            justLoaded = false;
-        }
     }
 
     private void buildAdapter() {
@@ -685,6 +697,8 @@ public class BrowseGridFragment extends Fragment {
         }
         Timber.d("buildAdapter cardHeight <%s> getCardWidthBy <%s> chunks <%s> type <%s>", mCardHeight, (int) getCardWidthBy(mCardHeight, mImageType), mRowDef.getChunkSize(), mRowDef.getQueryType().toString());
         mAdapter = ItemRowAdapter.buildItemRowAdapter(requireContext(), mRowDef, mCardPresenter, null);
+        // Only keep the pages around the focused card in memory for large libraries
+        mAdapter.setSparse(true);
         mDirty = false;
 
         FilterOptions filters = new FilterOptions();
@@ -733,7 +747,7 @@ public class BrowseGridFragment extends Fragment {
         libraryPreferences.set(LibraryPreferences.Companion.getFilterUnwatchedOnly(), mAdapter.getFilters().isUnwatchedOnly());
         libraryPreferences.set(LibraryPreferences.Companion.getSortBy(), mAdapter.getSortBy());
         libraryPreferences.set(LibraryPreferences.Companion.getSortOrder(), getSortOption(mAdapter.getSortBy()).order);
-        CoroutineUtils.runBlocking((coroutineScope, continuation) -> libraryPreferences.commit(continuation));
+        libraryPreferences.commitDelayed();
     }
 
     private void addTools() {
@@ -947,16 +961,17 @@ public class BrowseGridFragment extends Fragment {
             mCurrentItem.refresh(new EmptyResponse() {
                 @Override
                 public void onResponse() {
+                    // The page holding the item may have been dropped in the meantime
+                    int index = mAdapter.indexOf(mCurrentItem);
+                    if (index < 0) return;
 
-                    mAdapter.notifyArrayItemRangeChanged(mAdapter.indexOf(mCurrentItem), 1);
+                    mAdapter.notifyArrayItemRangeChanged(index, 1);
                     //Now - if filtered make sure we still pass
                     if (mAdapter.getFilters() != null) {
                         if ((mAdapter.getFilters().isFavoriteOnly() && !mCurrentItem.isFavorite()) || (mAdapter.getFilters().isUnwatchedOnly() && mCurrentItem.isPlayed())) {
                             //if we are about to remove last item, throw focus to toolbar so framework doesn't crash
                             if (mAdapter.size() == 1) binding.toolBar.requestFocus();
-                            mAdapter.remove(mCurrentItem);
-                            mAdapter.setTotalItems(mAdapter.getTotalItems() - 1);
-                            updateCounter(mCurrentItem.getIndex());
+                            if (mAdapter.remove(mCurrentItem)) updateCounter(mCurrentItem.getIndex());
                         }
                     }
                 }
@@ -987,7 +1002,13 @@ public class BrowseGridFragment extends Fragment {
         public void onItemSelected(Presenter.ViewHolder itemViewHolder, Object item,
                                    RowPresenter.ViewHolder rowViewHolder, Row row) {
             mHandler.removeCallbacks(mDelayedSetItem);
-            if (!(item instanceof BaseRowItem)) {
+            if (item instanceof PlaceholderRowItem) {
+                // Page not loaded (anymore), request it
+                mCurrentItem = null;
+                binding.title.setText(mainTitle);
+                if (!determiningPosterSize)
+                    mAdapter.loadMoreItemsIfNeeded(((PlaceholderRowItem) item).getIndex());
+            } else if (!(item instanceof BaseRowItem)) {
                 mCurrentItem = null;
                 binding.title.setText(mainTitle);
                 //fill in default background
@@ -10,6 +10,7 @@ import androidx.leanback.app.RowsSupportFragment;
 import androidx.leanback.widget.ArrayObjectAdapter;
 import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ListRow;
+import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.OnItemViewClickedListener;
 import androidx.leanback.widget.OnItemViewSelectedListener;
 import androidx.leanback.widget.Presenter;
@@ -78,7 +79,7 @@ public class StdRowsFragment extends RowsSupportFragment implements RowLoader {
 
         //React to deletion
         DataRefreshService dataRefreshService = KoinJavaComponent.<DataRefreshService>get(DataRefreshService.class);
-        if (getActivity() != null && !getActivity().isFinishing() && mCurrentRow != null && mCurrentItem != null && mCurrentItem.getItemId() != null && mCurrentItem.getItemId().equals(dataRefreshService.getLastDeletedItemId())) {
+        if (getActivity() != null && !getActivity().isFinishing() && mCurrentRow != null && mCurrentRow.getAdapter() instanceof ItemRowAdapter && mCurrentItem != null && mCurrentItem.getItemId() != null && mCurrentItem.getItemId().equals(dataRefreshService.getLastDeletedItemId())) {
             ((ItemRowAdapter)mCurrentRow.getAdapter()).remove(mCurrentItem);
             dataRefreshService.setLastDeletedItemId(null);
         }
@@ -174,6 +175,8 @@ public class StdRowsFragment extends RowsSupportFragment implements RowLoader {
             mCurrentItem.refresh(new EmptyResponse() {
                 @Override
                 public void onResponse() {
+                    // the now playing row is not an ItemRowAdapter and updates itself
+                    if (!(mCurrentRow.getAdapter() instanceof ItemRowAdapter)) return;
                     ItemRowAdapter adapter = (ItemRowAdapter) ((ListRow)mCurrentRow).getAdapter();
                     adapter.notifyArrayItemRangeChanged(adapter.indexOf(mCurrentItem), 1);
                 }
@@ -188,7 +191,8 @@ public class StdRowsFragment extends RowsSupportFragment implements RowLoader {
                                   RowPresenter.ViewHolder rowViewHolder, Row row) {
 
             if (!(item instanceof BaseRowItem)) return;
-            ItemLauncher.launch((BaseRowItem) item, (ItemRowAdapter) ((ListRow)row).getAdapter(), ((BaseRowItem)item).getIndex(), getActivity());
+            ObjectAdapter adapter = ((ListRow) row).getAdapter();
+            ItemLauncher.launch((BaseRowItem) item, adapter instanceof ItemRowAdapter ? (ItemRowAdapter) adapter : null, ((BaseRowItem)item).getIndex(), getActivity());
         }
     }
 
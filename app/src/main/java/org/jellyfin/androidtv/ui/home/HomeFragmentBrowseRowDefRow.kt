@@ -15,6 +15,7 @@ class HomeFragmentBrowseRowDefRow(
 		val header = HeaderItem(browseRowDef.headerText)
 		val rowAdapter = ItemRowAdapter.buildItemRowAdapter(context, browseRowDef, cardPresenter, rowsAdapter)
 		rowAdapter.setReRetrieveTriggers(browseRowDef.changeTriggers)
+		rowAdapter.setUseResponseCache(true)
 		val row = ListRow(header, rowAdapter)
 		rowAdapter.setRow(row)
 		rowAdapter.Retrieve()
@@ -9,6 +9,7 @@ import android.content.ActivityNotFoundException;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.graphics.Point;
+import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
@@ -20,6 +21,7 @@ import android.view.MenuItem;
 import android.view.View;
 import android.widget.PopupMenu;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.view.ViewKt;
 import androidx.leanback.app.RowsSupportFragment;
@@ -49,6 +51,7 @@ import org.jellyfin.androidtv.databinding.ActivityFullDetailsBinding;
 import org.jellyfin.androidtv.preference.SystemPreferences;
 import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.preference.constant.ClockBehavior;
+import org.jellyfin.androidtv.preference.constant.LanguagesAudio;
 import org.jellyfin.androidtv.preference.constant.PreferredVideoPlayer;
 import org.jellyfin.androidtv.ui.RecordPopup;
 import org.jellyfin.androidtv.ui.RecordingIndicatorView;
@@ -60,6 +63,8 @@ import org.jellyfin.androidtv.ui.livetv.TvManager;
 import org.jellyfin.androidtv.ui.playback.ExternalPlayerActivity;
 import org.jellyfin.androidtv.ui.playback.MediaManager;
 import org.jellyfin.androidtv.ui.playback.PlaybackLauncher;
+import org.jellyfin.androidtv.ui.playback.ShareMountManager;
+import org.jellyfin.androidtv.ui.playback.TmdbLanguageCache;
 import org.jellyfin.androidtv.ui.presentation.CardPresenter;
 import org.jellyfin.androidtv.ui.presentation.CustomListRowPresenter;
 import org.jellyfin.androidtv.ui.presentation.InfoCardPresenter;
@@ -70,6 +75,7 @@ import org.jellyfin.androidtv.util.ImageHelper;
 import org.jellyfin.androidtv.util.ImageUtils;
 import org.jellyfin.androidtv.util.KeyProcessor;
 import org.jellyfin.androidtv.util.MarkdownRenderer;
+import org.jellyfin.androidtv.util.MediaUtils;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.BaseItemUtils;
@@ -159,6 +165,8 @@ public class FullDetailsActivity extends BaseActivity implements RecordingIndica
     private Lazy<BackgroundService> backgroundService = inject(BackgroundService.class);
     private Lazy<MediaManager> mediaManager = inject(MediaManager.class);
     private Lazy<MarkdownRenderer> markdownRenderer = inject(MarkdownRenderer.class);
+    private Lazy<ShareMountManager> shareMountManager = inject(ShareMountManager.class);
+    private Lazy<TmdbLanguageCache> tmdbLanguageCache = inject(TmdbLanguageCache.class);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -509,9 +517,33 @@ public class FullDetailsActivity extends BaseActivity implements RecordingIndica
                 mBaseItem.setRunTimeTicks(mProgramInfo.getRunTimeTicks());
             }
             new BuildDorTask().execute(item);
+            preMountShare(item);
+            warmOriginalLanguage(item);
         }
     }
 
+    // Mount the network share of items that would be played from their path by the Zidoo player
+    private void preMountShare(@Nullable BaseItemDto item) {
+        if (item == null || !Utils.isNonEmptyTrim(item.getPath()) || item.getBaseItemType() == null) return;
+        if (!userPreferences.getValue().get(UserPreferences.Companion.getExternalVideoPlayerSendPath())) return;
+        if (userPreferences.getValue().get(UserPreferences.Companion.getUseLegacySendPath())) return;
+        if (!MediaUtils.useExternalPlayer(item.getBaseItemType())) return;
+
+        Uri pathUri = ExternalPlayerActivity.getSendPathUri(item, null);
+        if ("smb".equals(pathUri.getScheme()) || "nfs".equals(pathUri.getScheme())) {
+            shareMountManager.getValue().preMount(pathUri);
+        }
+    }
+
+    // Look up the original language used for the audio track selection of the external player ahead of playback
+    private void warmOriginalLanguage(@NonNull BaseItemDto item) {
+        // not MediaUtils.useExternalPlayer, seasons can't be played themselves but their episodes can
+        if (userPreferences.getValue().get(UserPreferences.Companion.getVideoPlayer()) != PreferredVideoPlayer.EXTERNAL) return;
+        if (userPreferences.getValue().get(UserPreferences.Companion.getAudioLanguage()) != LanguagesAudio.ORIGINAL) return;
+
+        tmdbLanguageCache.getValue().warm(item);
+    }
+
     protected void addItemRow(ArrayObjectAdapter parent, ItemRowAdapter row, int index, String headerText) {
         HeaderItem header = new HeaderItem(index, headerText);
         ListRow listRow = new ListRow(header, row);
@@ -1527,6 +1559,7 @@ public class FullDetailsActivity extends BaseActivity implements RecordingIndica
                 mCurrentItem = null;
             } else {
                 mCurrentItem = (BaseRowItem)item;
+                preMountShare(mCurrentItem.getBaseItem());
             }
         }
     }
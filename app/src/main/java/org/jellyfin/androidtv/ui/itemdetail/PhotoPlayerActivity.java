@@ -41,6 +41,7 @@ import org.jellyfin.androidtv.ui.picture.PictureViewerActivity;
 import org.jellyfin.androidtv.ui.playback.MediaManager;
 import org.jellyfin.androidtv.ui.presentation.PositionableListRowPresenter;
 import org.jellyfin.androidtv.util.ImageHelper;
+import org.jellyfin.androidtv.util.JellyfinImageBuckets;
 import org.jellyfin.androidtv.util.sdk.compat.ModelCompat;
 import org.jellyfin.sdk.model.api.BaseItemDto;
 
@@ -355,8 +356,10 @@ public class PhotoPlayerActivity extends FragmentActivity {
             if (target == nextImage) isLoadingNext = true;
             if (target == prevImage) isLoadingPrev = true;
 
+            String url = imageHelper.getValue().getPrimaryImageUrl(photo, displayHeight, displayWidth);
             Glide.with(this)
-                    .load(imageHelper.getValue().getPrimaryImageUrl(photo, displayHeight, displayWidth))
+                    .load(url)
+                    .apply(JellyfinImageBuckets.requestOptions(url))
                     .override(displayWidth, displayHeight)
                     .centerInside()
                     .error(R.drawable.tile_land_photo)
@@ -0,0 +1,345 @@
+package org.jellyfin.androidtv.ui.itemhandling;
+
+import org.jellyfin.apiclient.model.dto.BaseItemDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Positional list of the audio queue entries. The entries are kept in a balanced tree indexed by
+ * position so inserting, removing and looking up an entry (or the position of an entry) takes
+ * O(log n) instead of shifting and re-indexing the whole queue. Changes are reported as ranges to
+ * the {@link Listener}s, normally the {@link AudioQueueAdapter}s showing the queue.
+ */
+public class AudioQueue {
+    public interface Listener {
+        void onItemRangeInserted(int positionStart, int itemCount);
+
+        void onItemRangeRemoved(int positionStart, int itemCount);
+
+        void onItemRangeChanged(int positionStart, int itemCount);
+
+        /**
+         * The queue was replaced or reordered.
+         */
+        void onChanged();
+    }
+
+    static final class Node {
+        private final AudioQueueItem item;
+        private Node left;
+        private Node right;
+        private Node parent;
+        private int size = 1;
+        private int height = 1;
+        // Position of the entry in the unshuffled queue, only compared to other entries
+        private long order;
+
+        private Node(AudioQueueItem item) {
+            this.item = item;
+        }
+    }
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private Node root;
+    private boolean shuffled = false;
+    private long nextOrder = 0;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isShuffled() {
+        return shuffled;
+    }
+
+    public AudioQueueItem get(int position) {
+        if (position < 0 || position >= size()) throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position == leftSize) {
+                return node.item;
+            } else {
+                position -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @return the current position of {@code item} or -1 when it is not part of this queue
+     */
+    public int indexOf(AudioQueueItem item) {
+        if (item == null || item.queue != this || item.node == null) return -1;
+
+        Node node = item.node;
+        int position = size(node.left);
+        while (node.parent != null) {
+            if (node == node.parent.right) position += size(node.parent.left) + 1;
+            node = node.parent;
+        }
+        return position;
+    }
+
+    public List<AudioQueueItem> toList() {
+        List<AudioQueueItem> items = new ArrayList<>(size());
+        collect(root, items);
+        return items;
+    }
+
+    public void add(BaseItemDto item) {
+        add(size(), item);
+    }
+
+    public void add(int position, BaseItemDto item) {
+        if (position < 0 || position > size()) throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+
+        root = insert(root, position, createNode(item));
+        root.parent = null;
+
+        for (Listener listener : listeners) listener.onItemRangeInserted(position, 1);
+    }
+
+    public void addAll(List<BaseItemDto> items) {
+        if (items.isEmpty()) return;
+
+        int position = size();
+        if (root == null) {
+            List<AudioQueueItem> queueItems = new ArrayList<>(items.size());
+            for (BaseItemDto item : items) queueItems.add(createNode(item).item);
+            setRoot(queueItems);
+        } else {
+            for (BaseItemDto item : items) {
+                root = insert(root, size(), createNode(item));
+                root.parent = null;
+            }
+        }
+
+        for (Listener listener : listeners) listener.onItemRangeInserted(position, items.size());
+    }
+
+    public AudioQueueItem remove(int position) {
+        AudioQueueItem item = get(position);
+
+        root = remove(root, position);
+        if (root != null) root.parent = null;
+        else shuffled = false;
+        item.queue = null;
+        item.node = null;
+
+        for (Listener listener : listeners) listener.onItemRangeRemoved(position, 1);
+        return item;
+    }
+
+    public void clear() {
+        int size = size();
+        for (AudioQueueItem item : toList()) {
+            item.queue = null;
+            item.node = null;
+        }
+        root = null;
+        shuffled = false;
+        nextOrder = 0;
+
+        if (size > 0) for (Listener listener : listeners) listener.onItemRangeRemoved(0, size);
+    }
+
+    /**
+     * Replace all entries, the new queue is not shuffled.
+     */
+    public void setItems(List<BaseItemDto> items) {
+        for (AudioQueueItem item : toList()) {
+            item.queue = null;
+            item.node = null;
+        }
+        shuffled = false;
+        nextOrder = 0;
+
+        List<AudioQueueItem> queueItems = new ArrayList<>(items.size());
+        for (BaseItemDto item : items) queueItems.add(createNode(item).item);
+        setRoot(queueItems);
+
+        for (Listener listener : listeners) listener.onChanged();
+    }
+
+    /**
+     * Shuffle the entries, the entry at {@code firstPosition} is moved to the start of the queue.
+     * The original order is kept so {@link #unshuffle()} can restore it.
+     */
+    public void shuffle(int firstPosition, Random random) {
+        if (shuffled || root == null) return;
+
+        List<AudioQueueItem> items = toList();
+        for (int i = 0; i < items.size(); i++) items.get(i).node.order = i;
+        nextOrder = items.size();
+
+        AudioQueueItem first = items.remove(Math.max(0, Math.min(firstPosition, items.size() - 1)));
+        Collections.shuffle(items, random);
+        items.add(0, first);
+        setRoot(items);
+        shuffled = true;
+
+        for (Listener listener : listeners) listener.onChanged();
+    }
+
+    /**
+     * Restore the order the entries were added in.
+     */
+    public void unshuffle() {
+        if (!shuffled) return;
+
+        List<AudioQueueItem> items = toList();
+        Collections.sort(items, new Comparator<AudioQueueItem>() {
+            @Override
+            public int compare(AudioQueueItem a, AudioQueueItem b) {
+                return Long.compare(a.node.order, b.node.order);
+            }
+        });
+        setRoot(items);
+        shuffled = false;
+
+        for (Listener listener : listeners) listener.onChanged();
+    }
+
+    /**
+     * Notify the listeners the entry at {@code position} changed, like its playing state.
+     */
+    public void notifyItemChanged(int position) {
+        for (Listener listener : listeners) listener.onItemRangeChanged(position, 1);
+    }
+
+    private Node createNode(BaseItemDto item) {
+        AudioQueueItem queueItem = new AudioQueueItem(-1, item);
+        Node node = new Node(queueItem);
+        // entries added while shuffled are restored after all other entries
+        node.order = nextOrder++;
+        queueItem.queue = this;
+        queueItem.node = node;
+        return node;
+    }
+
+    private void setRoot(List<AudioQueueItem> items) {
+        root = build(items, 0, items.size());
+        if (root != null) root.parent = null;
+    }
+
+    private static Node build(List<AudioQueueItem> items, int from, int to) {
+        if (from >= to) return null;
+
+        int middle = (from + to) >>> 1;
+        Node node = items.get(middle).node;
+        node.left = build(items, from, middle);
+        node.right = build(items, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    private static void collect(Node node, List<AudioQueueItem> items) {
+        while (node != null) {
+            collect(node.left, items);
+            items.add(node.item);
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, int position, Node newNode) {
+        if (node == null) {
+            newNode.left = null;
+            newNode.right = null;
+            update(newNode);
+            return newNode;
+        }
+
+        int leftSize = size(node.left);
+        if (position <= leftSize) node.left = insert(node.left, position, newNode);
+        else node.right = insert(node.right, position - leftSize - 1, newNode);
+        return balance(node);
+    }
+
+    private static Node remove(Node node, int position) {
+        int leftSize = size(node.left);
+        if (position < leftSize) {
+            node.left = remove(node.left, position);
+        } else if (position > leftSize) {
+            node.right = remove(node.right, position - leftSize - 1);
+        } else {
+            if (node.left == null || node.right == null) return node.left != null ? node.left : node.right;
+
+            // Nodes belong to their entry so the successor node takes the place of the removed one
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            successor.right = removeFirst(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private static Node removeFirst(Node node) {
+        if (node.left == null) return node.right;
+        node.left = removeFirst(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        if (node.left != null) node.left.parent = node;
+        if (node.right != null) node.right.parent = node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
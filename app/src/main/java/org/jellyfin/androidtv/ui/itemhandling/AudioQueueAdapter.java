@@ -0,0 +1,85 @@
+package org.jellyfin.androidtv.ui.itemhandling;
+
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.leanback.widget.Presenter;
+
+/**
+ * Leanback adapter showing an {@link AudioQueue} from a start position onwards. The queue changes
+ * are forwarded as range notifications so rows only rebind the affected cards.
+ */
+public class AudioQueueAdapter extends ObjectAdapter implements AudioQueue.Listener {
+    private final AudioQueue queue;
+    private int startPosition = 0;
+
+    public AudioQueueAdapter(AudioQueue queue, Presenter presenter) {
+        super(presenter);
+        this.queue = queue;
+        queue.addListener(this);
+    }
+
+    /**
+     * Stop receiving changes of the queue, the adapter should not be used afterwards.
+     */
+    public void release() {
+        queue.removeListener(this);
+    }
+
+    public int getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Only show the queue entries from {@code position} onwards.
+     */
+    public void setStartPosition(int position) {
+        position = Math.max(0, Math.min(position, queue.size()));
+        if (position == startPosition) return;
+
+        int previous = startPosition;
+        startPosition = position;
+        if (position > previous) notifyItemRangeRemoved(0, position - previous);
+        else notifyItemRangeInserted(0, previous - position);
+    }
+
+    @Override
+    public int size() {
+        return Math.max(queue.size() - startPosition, 0);
+    }
+
+    @Override
+    public Object get(int position) {
+        return queue.get(startPosition + position);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (positionStart < startPosition) startPosition += itemCount;
+        else notifyItemRangeInserted(positionStart - startPosition, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        int positionEnd = positionStart + itemCount;
+        // entries removed before the start position only move the visible ones
+        int removedBefore = Math.max(0, Math.min(positionEnd, startPosition) - positionStart);
+        int visibleStart = Math.max(positionStart, startPosition);
+        int removedVisible = positionEnd - visibleStart;
+
+        int previous = startPosition;
+        startPosition -= removedBefore;
+        if (removedVisible > 0) notifyItemRangeRemoved(visibleStart - previous, removedVisible);
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        int visibleStart = Math.max(positionStart, startPosition);
+        int changed = positionStart + itemCount - visibleStart;
+        if (changed > 0) notifyItemRangeChanged(visibleStart - startPosition, changed);
+    }
+
+    @Override
+    public void onChanged() {
+        startPosition = 0;
+        notifyChanged();
+    }
+}
@@ -3,7 +3,18 @@ package org.jellyfin.androidtv.ui.itemhandling;
 import org.jellyfin.apiclient.model.dto.BaseItemDto;
 
 public class AudioQueueItem extends BaseRowItem {
+    // Set while the item is part of an AudioQueue
+    AudioQueue queue;
+    AudioQueue.Node node;
+
     public AudioQueueItem(int index, BaseItemDto item) {
         super(index, item);
     }
+
+    @Override
+    public int getIndex() {
+        // The position changes with every insert or removal before this item
+        if (queue != null) return queue.indexOf(this);
+        return super.getIndex();
+    }
 }
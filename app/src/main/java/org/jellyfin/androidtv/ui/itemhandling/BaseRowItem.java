@@ -11,7 +11,9 @@ import androidx.core.content.ContextCompat;
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.auth.repository.UserRepository;
 import org.jellyfin.androidtv.data.model.ChapterItemInfo;
+import org.jellyfin.androidtv.data.model.TitleIndexEntry;
 import org.jellyfin.androidtv.ui.GridButton;
+import org.jellyfin.androidtv.ui.presentation.CardModel;
 import org.jellyfin.androidtv.util.ImageUtils;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
@@ -41,12 +43,15 @@ public class BaseRowItem {
     private BaseItemPerson person;
     private ChapterItemInfo chapterInfo;
     private SearchHint searchHint;
+    private TitleIndexEntry titleIndexEntry;
     private ChannelInfoDto channelInfo;
     private SeriesTimerInfoDto seriesTimerInfo;
     private GridButton gridButton;
     private ItemType type;
     private SelectAction selectAction = SelectAction.ShowDetails;
     private boolean isPlaying;
+    // cached card contents, see CardPresenter
+    private volatile CardModel cardModel;
 
     private Lazy<ApiClient> apiClient = inject(ApiClient.class);
 
@@ -86,6 +91,12 @@ public class BaseRowItem {
         type = ItemType.SearchHint;
     }
 
+    public BaseRowItem(int index, TitleIndexEntry entry) {
+        this.index = index;
+        this.titleIndexEntry = entry;
+        type = ItemType.TitleIndexEntry;
+    }
+
     public BaseRowItem(ChapterItemInfo chapter) {
         this.chapterInfo = chapter;
         this.type = ItemType.Chapter;
@@ -120,6 +131,25 @@ public class BaseRowItem {
         return searchHint;
     }
 
+    public TitleIndexEntry getTitleIndexEntry() {
+        return titleIndexEntry;
+    }
+
+    /**
+     * @return the item type name of search hints and title index entries, these have no base item
+     */
+    @Nullable
+    public String getSearchItemType() {
+        switch (type) {
+            case SearchHint:
+                return searchHint.getType();
+            case TitleIndexEntry:
+                return titleIndexEntry.getType();
+            default:
+                return null;
+        }
+    }
+
     public ChannelInfoDto getChannelInfo() {
         return channelInfo;
     }
@@ -193,6 +223,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case GridButton:
                 break;
@@ -210,6 +241,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case GridButton:
                 break;
@@ -247,6 +279,8 @@ public class BaseRowItem {
                 return seriesTimerInfo.getName();
             case SearchHint:
                 return (searchHint.getSeries() != null ? searchHint.getSeries() + " - " : "") + searchHint.getName();
+            case TitleIndexEntry:
+                return titleIndexEntry.getName();
         }
 
         return context.getString(R.string.lbl_bracket_unknown);
@@ -264,6 +298,8 @@ public class BaseRowItem {
                 return chapterInfo.getName();
             case SearchHint:
                 return searchHint.getName();
+            case TitleIndexEntry:
+                return titleIndexEntry.getName();
             case LiveTvChannel:
                 return channelInfo.getName();
             case GridButton:
@@ -291,6 +327,8 @@ public class BaseRowItem {
                 return null;
             case SearchHint:
                 return searchHint.getItemId().toString();
+            case TitleIndexEntry:
+                return titleIndexEntry.getId();
             case SeriesTimer:
                 return seriesTimerInfo.getId();
         }
@@ -317,7 +355,8 @@ public class BaseRowItem {
                         (android.text.format.DateFormat.getTimeFormat(context).format(TimeUtils.convertToLocalDate(baseItem.getStartDate())) + "-"
                                 + android.text.format.DateFormat.getTimeFormat(context).format(TimeUtils.convertToLocalDate(baseItem.getEndDate())));
             case SearchHint:
-                return searchHint.getType();
+            case TitleIndexEntry:
+                return getSearchItemType();
             case SeriesTimer:
                 return (Utils.isTrue(seriesTimerInfo.getRecordAnyChannel()) ? "All Channels" : seriesTimerInfo.getChannelName()) + " " + seriesTimerInfo.getDayPattern();
         }
@@ -341,6 +380,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case GridButton:
                 break;
@@ -359,6 +399,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case GridButton:
                 break;
@@ -376,6 +417,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case LiveTvRecording:
             case GridButton:
@@ -408,6 +450,8 @@ public class BaseRowItem {
                 return chapterInfo.getImagePath();
             case SearchHint:
                 return ImageUtils.getPrimaryImageUrl(searchHint, maxHeight);
+            case TitleIndexEntry:
+                return ImageUtils.getPrimaryImageUrl(titleIndexEntry, maxHeight);
             case LiveTvChannel:
                 return ImageUtils.getPrimaryImageUrl(channelInfo, apiClient.getValue());
             case GridButton:
@@ -452,6 +496,7 @@ public class BaseRowItem {
                         @Override
                         public void onResponse(BaseItemDto response) {
                             baseItem = response;
+                            cardModel = null;
                             outerResponse.onResponse();
                         }
                     });
@@ -462,6 +507,7 @@ public class BaseRowItem {
             case Person:
             case Chapter:
             case SearchHint:
+            case TitleIndexEntry:
             case LiveTvChannel:
             case LiveTvRecording:
             case GridButton:
@@ -482,11 +528,21 @@ public class BaseRowItem {
         isPlaying = value;
     }
 
+    @Nullable
+    public CardModel getCardModel() {
+        return cardModel;
+    }
+
+    public void setCardModel(@Nullable CardModel cardModel) {
+        this.cardModel = cardModel;
+    }
+
     public enum ItemType {
         BaseItem,
         Person,
         Chapter,
         SearchHint,
+        TitleIndexEntry,
         LiveTvChannel,
         LiveTvRecording,
         GridButton,
@@ -35,7 +35,6 @@ import org.jellyfin.apiclient.model.dto.BaseItemDto;
 import org.jellyfin.apiclient.model.dto.BaseItemType;
 import org.jellyfin.apiclient.model.library.PlayAccess;
 import org.jellyfin.apiclient.model.livetv.ChannelInfoDto;
-import org.jellyfin.sdk.model.api.SearchHint;
 import org.jellyfin.sdk.model.constant.CollectionType;
 import org.koin.java.KoinJavaComponent;
 
@@ -157,12 +156,21 @@ public class ItemLauncher {
                         } else {
                             Timber.d("playing audio item");
                             List<BaseItemDto> audioItemsAsList = new ArrayList<>();
-
-                            for (Object item : adapter.unmodifiableList()) {
-                                if (item instanceof BaseRowItem && ((BaseRowItem) item).getBaseItem() != null)
-                                    audioItemsAsList.add(((BaseRowItem) item).getBaseItem());
+                            int startPos = pos;
+
+                            // Sparse adapters only list the loaded items so find the position again
+                            if (adapter != null) {
+                                for (Object item : adapter.unmodifiableList()) {
+                                    if (item == rowItem) startPos = audioItemsAsList.size();
+                                    if (item instanceof BaseRowItem && ((BaseRowItem) item).getBaseItem() != null)
+                                        audioItemsAsList.add(((BaseRowItem) item).getBaseItem());
+                                }
+                            } else {
+                                // queue rows are not backed by an ItemRowAdapter
+                                audioItemsAsList.add(rowItem.getBaseItem());
+                                startPos = 0;
                             }
-                            mediaManager.playNow(activity, audioItemsAsList, pos, false);
+                            mediaManager.playNow(activity, audioItemsAsList, startPos, false);
                         }
 
                         return;
@@ -278,9 +286,9 @@ public class ItemLauncher {
                 break;
 
             case SearchHint:
-                final SearchHint hint = rowItem.getSearchHint();
+            case TitleIndexEntry:
                 //Retrieve full item for display and playback
-                KoinJavaComponent.<ApiClient>get(ApiClient.class).GetItemAsync(hint.getItemId().toString(), KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), new Response<BaseItemDto>() {
+                KoinJavaComponent.<ApiClient>get(ApiClient.class).GetItemAsync(rowItem.getItemId(), KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), new Response<BaseItemDto>() {
                     @Override
                     public void onResponse(BaseItemDto response) {
                         if (response.getIsFolderItem() && response.getBaseItemType() != BaseItemType.Series) {
@@ -3,6 +3,10 @@ package org.jellyfin.androidtv.ui.itemhandling;
 import static org.koin.java.KoinJavaComponent.inject;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.SparseArray;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -21,11 +25,15 @@ import org.jellyfin.androidtv.constant.QueryType;
 import org.jellyfin.androidtv.data.model.ChapterItemInfo;
 import org.jellyfin.androidtv.data.model.DataRefreshService;
 import org.jellyfin.androidtv.data.model.FilterOptions;
+import org.jellyfin.androidtv.data.model.ItemUpdate;
+import org.jellyfin.androidtv.data.model.LibraryChange;
+import org.jellyfin.androidtv.data.model.TitleIndexEntry;
 import org.jellyfin.androidtv.data.querying.AdditionalPartsQuery;
 import org.jellyfin.androidtv.data.querying.SpecialsQuery;
 import org.jellyfin.androidtv.data.querying.StdItemQuery;
 import org.jellyfin.androidtv.data.querying.TrailersQuery;
 import org.jellyfin.androidtv.data.querying.ViewQuery;
+import org.jellyfin.androidtv.data.repository.ItemResponseCache;
 import org.jellyfin.androidtv.data.repository.UserViewsRepository;
 import org.jellyfin.androidtv.ui.GridButton;
 import org.jellyfin.androidtv.ui.browsing.BrowseGridFragment;
@@ -33,6 +41,7 @@ import org.jellyfin.androidtv.ui.browsing.BrowseRowDef;
 import org.jellyfin.androidtv.ui.browsing.EnhancedBrowseFragment;
 import org.jellyfin.androidtv.ui.browsing.GenericGridActivity;
 import org.jellyfin.androidtv.ui.livetv.TvManager;
+import org.jellyfin.androidtv.ui.presentation.CardPresenter;
 import org.jellyfin.androidtv.ui.presentation.PositionableListRowPresenter;
 import org.jellyfin.androidtv.ui.presentation.TextItemPresenter;
 import org.jellyfin.androidtv.util.Utils;
@@ -45,7 +54,6 @@ import org.jellyfin.apiclient.model.livetv.ChannelInfoDto;
 import org.jellyfin.apiclient.model.livetv.LiveTvChannelQuery;
 import org.jellyfin.apiclient.model.livetv.RecommendedProgramQuery;
 import org.jellyfin.apiclient.model.livetv.RecordingQuery;
-import org.jellyfin.apiclient.model.livetv.SeriesTimerInfoDto;
 import org.jellyfin.apiclient.model.livetv.SeriesTimerQuery;
 import org.jellyfin.apiclient.model.querying.ArtistsQuery;
 import org.jellyfin.apiclient.model.querying.ItemQuery;
@@ -58,32 +66,41 @@ import org.jellyfin.apiclient.model.querying.SimilarItemsQuery;
 import org.jellyfin.apiclient.model.querying.UpcomingEpisodesQuery;
 import org.jellyfin.apiclient.model.results.ChannelInfoDtoResult;
 import org.jellyfin.apiclient.model.results.SeriesTimerInfoDtoResult;
-import org.jellyfin.apiclient.model.search.SearchHint;
-import org.jellyfin.apiclient.model.search.SearchHintResult;
-import org.jellyfin.apiclient.model.search.SearchQuery;
 import org.jellyfin.sdk.model.api.BaseItemPerson;
+import org.jellyfin.sdk.model.api.SearchHint;
 import org.jellyfin.sdk.model.api.SortOrder;
 import org.jellyfin.sdk.model.api.UserDto;
 import org.jellyfin.sdk.model.constant.ItemSortBy;
 import org.koin.java.KoinJavaComponent;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.TimeZone;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import kotlin.Lazy;
 import timber.log.Timber;
 
 public class ItemRowAdapter extends ArrayObjectAdapter {
+    private static final Executor ROW_BUILD_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final RowItemDiffCallback ROW_ITEM_DIFF_CALLBACK = new RowItemDiffCallback();
+
     private ItemQuery mQuery;
     private NextUpQuery mNextUpQuery;
     private SeasonQuery mSeasonQuery;
     private UpcomingEpisodesQuery mUpcomingQuery;
     private SimilarItemsQuery mSimilarQuery;
     private PersonsQuery mPersonsQuery;
-    private SearchQuery mSearchQuery;
     private SpecialsQuery mSpecialsQuery;
     private AdditionalPartsQuery mAdditionalPartsQuery;
     private TrailersQuery mTrailersQuery;
@@ -103,8 +120,16 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
 
     private ChangeTriggerType[] reRetrieveTriggers = new ChangeTriggerType[]{};
     private Calendar lastFullRetrieve;
+    // Time of the last library change that is reflected in this row
+    private long lastLibrarySync = 0;
+    // Time of the last item update that is reflected in this row
+    private long lastItemUpdateSync = 0;
+    // Maximum amount of ids requested when patching the row after a library change
+    private static final int MAX_LIBRARY_CHANGE_DELTA = 50;
 
     private BaseItemPerson[] mPersons;
+    private SearchHint[] mSearchHints;
+    private TitleIndexEntry[] mTitleIndexEntries;
     private List<ChapterItemInfo> mChapters;
     private List<BaseItemDto> mItems;
 
@@ -118,9 +143,30 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
 
     private final Object currentlyRetrievingSemaphore = new Object();
     private boolean currentlyRetrieving = false;
+    private final AtomicInteger retrieveGeneration = new AtomicInteger();
+
+    // Concurrent chunk loading for paged grids
+    private static final int MAX_PREFETCH_CHUNKS_AHEAD = 3;
+    private final PrefetchWindow prefetchWindow = new PrefetchWindow(MAX_PREFETCH_CHUNKS_AHEAD, 0);
+    private final Set<Integer> chunksInFlight = new HashSet<>();
+    private final TreeMap<Integer, List<Object>> pendingChunks = new TreeMap<>();
+    // Incremented when the chunks in flight are no longer wanted
+    private int chunkGeneration = 0;
+
+    // Sparse mode: the adapter reports all items but only keeps the pages near the focused position
+    private static final int MIN_SPARSE_PAGES = 6;
+    private boolean sparse = false;
+    private final LinkedHashMap<Integer, List<Object>> sparsePages = new LinkedHashMap<>(16, 0.75f, true);
+    private long focusedPosition = 0;
+    // Placeholders are reused so the presenter and diff see the same object until the page loads
+    private final SparseArray<PlaceholderRowItem> placeholders = new SparseArray<>();
 
     private final Lazy<ApiClient> apiClient = inject(ApiClient.class);
     private final Lazy<UserViewsRepository> userViewsRepository = inject(UserViewsRepository.class);
+    private final Lazy<ItemResponseCache> itemResponseCache = inject(ItemResponseCache.class);
+    private boolean useResponseCache = false;
+    // Cached responses shown while revalidating, the retrieve only finishes with the fresh response
+    private int cachedResponsesServed = 0;
     private Context context;
 
     public boolean isCurrentlyRetrieving() {
@@ -151,6 +197,14 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         this.reRetrieveTriggers = reRetrieveTriggers;
     }
 
+    /**
+     * Show the last known response for the query (if any) while an empty row is retrieved. Only
+     * applies to item, next up, latest items and view queries.
+     */
+    public void setUseResponseCache(boolean useResponseCache) {
+        this.useResponseCache = useResponseCache;
+    }
+
     public ItemRowAdapter(Context context, ItemQuery query, Presenter presenter, ArrayObjectAdapter parent) {
         this(context, query, QueryType.Items, presenter, parent);
     }
@@ -316,16 +370,22 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         queryType = QueryType.Persons;
     }
 
-    public ItemRowAdapter(Context context, SearchQuery query, Presenter presenter, ArrayObjectAdapter parent) {
+    public ItemRowAdapter(Context context, @NonNull SearchHint[] searchHints, Presenter presenter, ArrayObjectAdapter parent) {
         super(presenter);
         this.context = context;
         mParent = parent;
-        mSearchQuery = query;
-        mSearchQuery.setUserId(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString());
-        mSearchQuery.setLimit(50);
+        mSearchHints = searchHints;
         queryType = QueryType.Search;
     }
 
+    public ItemRowAdapter(Context context, @NonNull TitleIndexEntry[] entries, Presenter presenter, ArrayObjectAdapter parent) {
+        super(presenter);
+        this.context = context;
+        mParent = parent;
+        mTitleIndexEntries = entries;
+        queryType = QueryType.TitleIndex;
+    }
+
     public ItemRowAdapter(Context context, ViewQuery query, Presenter presenter, ArrayObjectAdapter parent) {
         super(presenter);
         this.context = context;
@@ -381,7 +441,6 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
             else if (mUpcomingQuery != null) mUpcomingQuery.setLimit(chunkSize);
             else if (mSimilarQuery != null) mSimilarQuery.setLimit(chunkSize);
             else if (mPersonsQuery != null) mPersonsQuery.setLimit(chunkSize);
-            else if (mSearchQuery != null) mSearchQuery.setLimit(chunkSize);
             else if (mTvChannelQuery != null) mTvChannelQuery.setLimit(chunkSize);
             else if (mTvProgramQuery != null) mTvProgramQuery.setLimit(chunkSize);
             else if (mTvRecordingQuery != null) mTvRecordingQuery.setLimit(chunkSize);
@@ -391,6 +450,151 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         return this;
     }
 
+    /**
+     * Enable sparse mode. The adapter then reports the total amount of items as its size, shows
+     * {@link PlaceholderRowItem}s for pages that are not loaded and evicts the least recently used
+     * pages away from the focused position. Only supported for paged item and album artist queries.
+     */
+    public void setSparse(boolean sparse) {
+        this.sparse = sparse && chunkSize > 0 && supportsChunkPrefetch();
+    }
+
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    @Override
+    public int size() {
+        if (sparse) return totalItems;
+        return super.size();
+    }
+
+    @Override
+    public Object get(int index) {
+        if (!sparse) return super.get(index);
+
+        int pageStart = getPageStart(index);
+        List<Object> page = sparsePages.get(pageStart);
+        if (page != null && index - pageStart < page.size()) return page.get(index - pageStart);
+
+        PlaceholderRowItem placeholder = placeholders.get(index);
+        if (placeholder == null) {
+            placeholder = new PlaceholderRowItem(index);
+            placeholders.put(index, placeholder);
+        }
+        return placeholder;
+    }
+
+    @Override
+    public int indexOf(Object item) {
+        if (!sparse) return super.indexOf(item);
+        if (!(item instanceof BaseRowItem)) return -1;
+
+        int index = ((BaseRowItem) item).getIndex();
+        List<Object> page = sparsePages.get(getPageStart(index));
+        return page != null && page.contains(item) ? index : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E> List<E> unmodifiableList() {
+        if (!sparse) return super.unmodifiableList();
+
+        // Only the loaded pages, in order
+        List<E> items = new ArrayList<>();
+        for (Integer pageStart : new TreeMap<>(sparsePages).keySet()) {
+            for (Object item : sparsePages.get(pageStart)) items.add((E) item);
+        }
+        return items;
+    }
+
+    @Override
+    public void clear() {
+        if (!sparse) {
+            super.clear();
+            return;
+        }
+
+        sparsePages.clear();
+        placeholders.clear();
+        totalItems = 0;
+        notifyChanged();
+    }
+
+    @Override
+    public boolean remove(Object item) {
+        if (!sparse) {
+            boolean removed = super.remove(item);
+            if (removed) setTotalItems(totalItems - 1);
+            return removed;
+        }
+
+        int index = indexOf(item);
+        if (index < 0) return false;
+
+        // Everything after the removed item shifts, drop those pages and load them again
+        Iterator<Integer> iterator = sparsePages.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() + chunkSize > index) iterator.remove();
+        }
+        invalidateChunks();
+        setTotalItems(totalItems - 1);
+        notifyChanged();
+        ensureSparseWindow(focusedPosition);
+        return true;
+    }
+
+    private int getPageStart(long index) {
+        return (int) (index / chunkSize) * chunkSize;
+    }
+
+    /**
+     * Request all pages in the prefetch window around the given position that are not loaded.
+     */
+    private void ensureSparseWindow(long pos) {
+        if (totalItems <= 0) return;
+
+        int first = getPageStart(Math.max(0, pos - (long) prefetchWindow.getChunksBackward(chunkSize) * chunkSize));
+        int last = getPageStart(Math.min(totalItems - 1, pos + (long) (chunkSize / 1.7) + (long) prefetchWindow.getChunksForward(chunkSize) * chunkSize));
+        for (int pageStart = first; pageStart <= last; pageStart += chunkSize) {
+            if (chunksInFlight.size() >= prefetchWindow.getMaxConcurrentChunks()) break;
+            // access the page to mark it as recently used
+            if (sparsePages.get(pageStart) != null || chunksInFlight.contains(pageStart)) continue;
+
+            Timber.d("Loading sparse page <%s> pos <%s> from total <%s> with chunkSize <%s>", pageStart, pos, totalItems, chunkSize);
+            retrieveChunk(pageStart);
+        }
+    }
+
+    private void storeSparsePage(int pageStart, List<Object> items) {
+        sparsePages.put(pageStart, items);
+        for (int i = pageStart; i < pageStart + items.size(); i++) placeholders.remove(i);
+        if (!items.isEmpty()) notifyItemRangeChanged(pageStart, items.size());
+        evictSparsePages();
+    }
+
+    /**
+     * Evict the least recently used pages until the budget is met, pages inside the prefetch window
+     * of the focused position are never evicted.
+     */
+    private void evictSparsePages() {
+        int keepBefore = prefetchWindow.getChunksBackward(chunkSize);
+        int keepAfter = prefetchWindow.getChunksForward(chunkSize) + 1;
+        int budget = Math.max(MIN_SPARSE_PAGES, keepBefore + keepAfter + 2);
+        int focusedPage = getPageStart(focusedPosition);
+
+        Iterator<Map.Entry<Integer, List<Object>>> iterator = sparsePages.entrySet().iterator();
+        while (sparsePages.size() > budget && iterator.hasNext()) {
+            Map.Entry<Integer, List<Object>> entry = iterator.next();
+            int pageStart = entry.getKey();
+            if (pageStart >= focusedPage - keepBefore * chunkSize && pageStart <= focusedPage + keepAfter * chunkSize) continue;
+
+            Timber.d("Evicting sparse page <%s> focused <%s>", pageStart, focusedPosition);
+            iterator.remove();
+            notifyItemRangeChanged(pageStart, entry.getValue().size());
+        }
+    }
+
     public void setItemsLoaded(int itemsLoaded) {
         this.itemsLoaded = itemsLoaded;
         this.fullyLoaded = chunkSize == 0 || itemsLoaded >= totalItems;
@@ -410,6 +614,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
 
     public void setSortBy(BrowseGridFragment.SortOption option) {
         if (!option.value.equals(mSortBy) || !option.order.equals(sortOrder)) {
+            invalidateChunks();
             mSortBy = option.value;
             sortOrder = option.order;
             switch (queryType) {
@@ -443,6 +648,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     public void setFilters(FilterOptions filters) {
+        invalidateChunks();
         mFilters = filters;
         switch (queryType) {
             case AlbumArtists:
@@ -469,6 +675,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     public void setStartLetter(String value) {
+        invalidateChunks();
         switch (queryType) {
             case AlbumArtists:
                 if (value != null && value.equals("#")) {
@@ -507,27 +714,152 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     public void loadMoreItemsIfNeeded(long pos) {
+        if (sparse) {
+            focusedPosition = pos;
+            prefetchWindow.onPositionChanged(pos);
+            if (!isCurrentlyRetrieving() || !chunksInFlight.isEmpty()) ensureSparseWindow(pos);
+            return;
+        }
         if (fullyLoaded) {
             //context.getLogger().Debug("Row is fully loaded");
             return;
         }
+        // This needs tobe based on the actual estimated cards on screen via type of presenter and WindowAlignmentOffsetPercent
+        if (chunkSize > 0 && context instanceof GenericGridActivity && supportsChunkPrefetch()) {
+            prefetchWindow.onPositionChanged(pos);
+            prefetchChunks(pos);
+            return;
+        }
         if (isCurrentlyRetrieving()) {
             Timber.d("Not loading more because currently retrieving");
             return;
         }
-        // This needs tobe based on the actual estimated cards on screen via type of presenter and WindowAlignmentOffsetPercent
-        if (chunkSize > 0 && context instanceof GenericGridActivity) {
-            // we can use chunkSize as indicator on when to load
-            if (pos >= (itemsLoaded - (chunkSize / 1.7))) {
-                Timber.d("Loading more items trigger pos <%s> itemsLoaded <%s> from total <%s> with chunkSize <%s>", pos, itemsLoaded, totalItems, chunkSize);
-                retrieveNext();
-            }
-        } else if (pos >= itemsLoaded - 20) {
+        if (pos >= itemsLoaded - 20) {
             Timber.d("Loading more items trigger pos <%s> itemsLoaded <%s> from total <%s>", pos, itemsLoaded, totalItems);
             retrieveNext();
         }
     }
 
+    private boolean supportsChunkPrefetch() {
+        return (queryType == QueryType.Items && mQuery != null) || (queryType == QueryType.AlbumArtists && mArtistsQuery != null);
+    }
+
+    /**
+     * Drop all chunk requests that are in flight or waiting to be published, their results no longer
+     * match the query.
+     */
+    private void invalidateChunks() {
+        retrieveGeneration.incrementAndGet();
+        cachedResponsesServed = 0;
+        chunkGeneration++;
+        chunksInFlight.clear();
+        pendingChunks.clear();
+        prefetchWindow.reset();
+    }
+
+    /**
+     * Request every chunk between the loaded items and the end of the prefetch window. The window
+     * grows with the scroll velocity so fast scrolling keeps multiple chunks in flight.
+     */
+    private void prefetchChunks(long pos) {
+        // Wait for the initial retrieve, it determines the total item count
+        if (isCurrentlyRetrieving() && chunksInFlight.isEmpty()) return;
+
+        // The original trigger point is kept as the minimum look-ahead
+        long windowEnd = pos + (long) (chunkSize / 1.7) + (long) prefetchWindow.getChunksForward(chunkSize) * chunkSize;
+        int nextStart = itemsLoaded;
+        while (nextStart < totalItems && nextStart <= windowEnd && chunksInFlight.size() < prefetchWindow.getMaxConcurrentChunks()) {
+            if (!chunksInFlight.contains(nextStart) && !pendingChunks.containsKey(nextStart)) {
+                Timber.d("Prefetching chunk <%s> pos <%s> itemsLoaded <%s> from total <%s> with chunkSize <%s>", nextStart, pos, itemsLoaded, totalItems, chunkSize);
+                retrieveChunk(nextStart);
+            }
+            nextStart += chunkSize;
+        }
+    }
+
+    private void retrieveChunk(final int startIndex) {
+        final int generation = retrieveGeneration.get();
+        final int chunkGeneration = this.chunkGeneration;
+        final long requestTime = SystemClock.uptimeMillis();
+        chunksInFlight.add(startIndex);
+        notifyRetrieveStarted();
+
+        Response<ItemsResult> response = new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                final BaseItemDto[] items = response.getItems() != null ? response.getItems() : new BaseItemDto[0];
+                buildRowItems(generation, () -> {
+                    List<Object> rowItems = new ArrayList<>(items.length);
+                    int i = startIndex;
+                    for (BaseItemDto item : items) {
+                        rowItems.add(new BaseRowItem(i++, item));
+                    }
+                    return rowItems;
+                }, rowItems -> {
+                    if (chunkGeneration != ItemRowAdapter.this.chunkGeneration) return;
+                    prefetchWindow.onChunkLoaded(SystemClock.uptimeMillis() - requestTime);
+                    onChunkLoaded(startIndex, rowItems);
+                });
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Timber.e(exception, "Error retrieving chunk at %s", startIndex);
+                if (generation != retrieveGeneration.get() || chunkGeneration != ItemRowAdapter.this.chunkGeneration) return;
+                chunksInFlight.remove(startIndex);
+                if (chunksInFlight.isEmpty()) notifyRetrieveFinished(exception);
+            }
+        };
+
+        Integer savedIdx;
+        if (queryType == QueryType.AlbumArtists) {
+            savedIdx = mArtistsQuery.getStartIndex();
+            mArtistsQuery.setStartIndex(startIndex);
+            apiClient.getValue().GetAlbumArtistsAsync(mArtistsQuery, response);
+            mArtistsQuery.setStartIndex(savedIdx); // is reused so reset
+        } else {
+            savedIdx = mQuery.getStartIndex();
+            mQuery.setStartIndex(startIndex);
+            apiClient.getValue().GetItemsAsync(mQuery, response);
+            mQuery.setStartIndex(savedIdx); // is reused so reset
+        }
+    }
+
+    /**
+     * Chunks can complete in any order, they are held back until all chunks before them are
+     * published so the adapter stays contiguous.
+     */
+    private void onChunkLoaded(int startIndex, List<Object> items) {
+        chunksInFlight.remove(startIndex);
+
+        if (sparse) {
+            storeSparsePage(startIndex, items);
+            if (chunksInFlight.isEmpty()) notifyRetrieveFinished();
+            return;
+        }
+
+        pendingChunks.put(startIndex, items);
+
+        while (!pendingChunks.isEmpty() && pendingChunks.firstKey() <= itemsLoaded) {
+            int chunkStart = pendingChunks.firstKey();
+            List<Object> chunk = pendingChunks.remove(chunkStart);
+            if (chunkStart < itemsLoaded) continue;
+
+            if (chunk.isEmpty()) {
+                // the server has less items than reported, the requests for later chunks are
+                // ignored when they complete
+                setTotalItems(itemsLoaded);
+                chunkGeneration++;
+                chunksInFlight.clear();
+            } else {
+                publishRowItems(itemsLoaded, chunk);
+            }
+            setItemsLoaded(itemsLoaded + chunk.size());
+        }
+
+        if (chunksInFlight.isEmpty()) notifyRetrieveFinished();
+    }
+
     private void retrieveNext() {
         if (fullyLoaded || isCurrentlyRetrieving()) {
             return;
@@ -595,11 +927,14 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         }
 
         boolean retrieve = false;
+        boolean watchesLibrary = false;
+        boolean libraryChanged = false;
         DataRefreshService dataRefreshService = KoinJavaComponent.get(DataRefreshService.class);
         for (ChangeTriggerType trigger : reRetrieveTriggers) {
             switch (trigger) {
                 case LibraryUpdated:
-                    retrieve |= lastFullRetrieve.getTimeInMillis() < dataRefreshService.getLastLibraryChange();
+                    watchesLibrary = true;
+                    libraryChanged = lastLibrarySync < dataRefreshService.getLastLibraryChange();
                     break;
                 case MoviePlayback:
                     retrieve |= lastFullRetrieve.getTimeInMillis() < dataRefreshService.getLastMoviePlayback();
@@ -617,10 +952,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                     retrieve |= lastFullRetrieve.getTimeInMillis() < dataRefreshService.getLastVideoQueueChange();
                     break;
                 case GuideNeedsLoad:
-                    Calendar start = new GregorianCalendar(TimeZone.getTimeZone("Z"));
-                    start.set(Calendar.MINUTE, start.get(Calendar.MINUTE) >= 30 ? 30 : 0);
-                    start.set(Calendar.SECOND, 0);
-                    retrieve |= TvManager.programsNeedLoad(start);
+                    retrieve |= TvManager.programsNeedLoad(System.currentTimeMillis());
                     break;
                 case Always:
                     retrieve = true;
@@ -628,6 +960,9 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
             }
         }
 
+        if (!retrieve && libraryChanged && !applyLibraryChange(dataRefreshService)) retrieve = true;
+        if (!retrieve && watchesLibrary) applyItemUpdates(dataRefreshService);
+
         if (retrieve) {
             Timber.i("Re-retrieving row of type %s", queryType.toString());
             Retrieve();
@@ -636,10 +971,202 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         return retrieve;
     }
 
+    /**
+     * Patch the row with the library changes since the last retrieve instead of reloading it.
+     * Removed items are dropped and added items are only requested when the query could include
+     * them.
+     *
+     * @return false when the row needs to be reloaded instead
+     */
+    private boolean applyLibraryChange(DataRefreshService dataRefreshService) {
+        LibraryChange change = dataRefreshService.getLibraryChangesSince(lastLibrarySync);
+        if (change == null || sparse) return false;
+
+        if (!change.getItemsAdded().isEmpty()) {
+            switch (queryType) {
+                case Items:
+                    // Added items are requested using the query itself
+                    if (mQuery == null) return false;
+                    break;
+                case LatestItems:
+                    if (change.mayHaveAddedTo(mLatestQuery.getParentId())) return false;
+                    break;
+                default:
+                    return false;
+            }
+        }
+
+        lastLibrarySync = change.getTimestamp();
+        Timber.i("Applying library change to row of type %s", queryType.toString());
+
+        int removed = 0;
+        for (int i = size() - 1; i >= 0; i--) {
+            if (!(get(i) instanceof BaseRowItem)) continue;
+
+            if (change.isRemoved(((BaseRowItem) get(i)).getItemId())) {
+                removeItems(i, 1);
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            totalItems = Math.max(0, totalItems - removed);
+            setItemsLoaded(Math.max(0, itemsLoaded - removed));
+            if (size() == 0 && change.getItemsAdded().isEmpty()) {
+                removeRow();
+                return true;
+            }
+        }
+
+        if (queryType == QueryType.Items && !change.getItemsAdded().isEmpty()) retrieveAddedItems(change);
+
+        return true;
+    }
+
+    /**
+     * Request the items in this row that were updated since the last retrieve again. Updates that
+     * are no longer known are skipped, they don't change what the row contains.
+     */
+    private void applyItemUpdates(DataRefreshService dataRefreshService) {
+        long lastItemUpdate = dataRefreshService.getLastItemUpdate();
+        if (lastItemUpdateSync >= lastItemUpdate || sparse) return;
+
+        ItemUpdate update = dataRefreshService.getItemUpdatesSince(lastItemUpdateSync);
+        lastItemUpdateSync = lastItemUpdate;
+        if (update == null) return;
+
+        List<String> updatedIds = new ArrayList<>();
+        for (int i = 0; i < size() && updatedIds.size() < MAX_LIBRARY_CHANGE_DELTA; i++) {
+            if (!(get(i) instanceof BaseRowItem)) continue;
+
+            String id = ((BaseRowItem) get(i)).getItemId();
+            if (update.contains(id)) updatedIds.add(id);
+        }
+
+        if (!updatedIds.isEmpty()) refreshItems(updatedIds);
+    }
+
+    private void refreshItems(List<String> ids) {
+        final int generation = retrieveGeneration.get();
+        StdItemQuery query = new StdItemQuery(mQuery != null ? mQuery.getFields() : null);
+        query.setUserId(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString());
+        query.setIds(ids.toArray(new String[0]));
+        apiClient.getValue().GetItemsAsync(query, new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                if (response.getItems() == null || generation != retrieveGeneration.get()) return;
+
+                for (BaseItemDto item : response.getItems()) {
+                    for (int i = 0; i < size(); i++) {
+                        if (!(get(i) instanceof BaseRowItem)) continue;
+
+                        BaseRowItem rowItem = (BaseRowItem) get(i);
+                        if (item.getId().equals(rowItem.getItemId())) {
+                            replace(i, new BaseRowItem(rowItem.getIndex(), item, rowItem.getSelectAction()));
+                            break;
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Timber.e(exception, "Error refreshing updated items");
+            }
+        });
+    }
+
+    /**
+     * Request the added items that match the query of this row. Rows showing the newest items first
+     * get them prepended, other rows are reloaded when at least one of the items matches.
+     */
+    private void retrieveAddedItems(LibraryChange change) {
+        final int generation = retrieveGeneration.get();
+        List<String> ids = new ArrayList<>();
+        for (UUID id : change.getItemsAdded()) {
+            if (ids.size() >= MAX_LIBRARY_CHANGE_DELTA) break;
+            ids.add(id.toString());
+        }
+
+        Response<ItemsResult> response = new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                if (response.getItems() == null || response.getItems().length == 0) return;
+                if (generation != retrieveGeneration.get()) return;
+
+                if (!isSortedByNewest() || ids.size() < change.getItemsAdded().size()) {
+                    Retrieve();
+                    return;
+                }
+
+                List<Object> items = new ArrayList<>();
+                for (BaseItemDto item : response.getItems()) {
+                    items.add(new BaseRowItem(items.size(), item));
+                }
+                int added = items.size();
+                for (int i = 0; i < size(); i++) {
+                    Object item = get(i);
+                    if (item instanceof BaseRowItem && change.isAdded(((BaseRowItem) item).getItemId())) {
+                        // Already shown, only counted once
+                        added--;
+                        continue;
+                    }
+
+                    // Shifted items are copied, the diff compares them with the items in the adapter
+                    if (item instanceof BaseRowItem && ((BaseRowItem) item).getBaseItem() != null) {
+                        BaseRowItem rowItem = (BaseRowItem) item;
+                        item = new BaseRowItem(items.size(), rowItem.getBaseItem(), rowItem.getSelectAction());
+                    }
+                    items.add(item);
+                }
+
+                // Keep rows without paging at their original limit
+                Integer limit = mQuery.getLimit();
+                if (chunkSize == 0 && limit != null && items.size() > limit) {
+                    items = new ArrayList<>(items.subList(0, limit));
+                }
+
+                publishRowItems(0, items);
+                totalItems += added;
+                setItemsLoaded(items.size());
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Timber.e(exception, "Error retrieving added items");
+            }
+        };
+
+        String[] savedIds = mQuery.getIds();
+        Integer savedIdx = mQuery.getStartIndex();
+        Integer savedLimit = mQuery.getLimit();
+        mQuery.setIds(ids.toArray(new String[0]));
+        mQuery.setStartIndex(null);
+        mQuery.setLimit(ids.size());
+        apiClient.getValue().GetItemsAsync(mQuery, response);
+        // is reused so reset
+        mQuery.setIds(savedIds);
+        mQuery.setStartIndex(savedIdx);
+        mQuery.setLimit(savedLimit);
+    }
+
+    private boolean isSortedByNewest() {
+        String[] sortBy = mQuery.getSortBy();
+        return sortBy != null && sortBy.length > 0 && ItemSortBy.DateCreated.equals(sortBy[0])
+                && mQuery.getSortOrder() == org.jellyfin.apiclient.model.entities.SortOrder.Descending;
+    }
+
     public void Retrieve() {
         notifyRetrieveStarted();
+        retrieveGeneration.incrementAndGet();
+        cachedResponsesServed = 0;
+        chunkGeneration++;
+        chunksInFlight.clear();
+        pendingChunks.clear();
 
         lastFullRetrieve = Calendar.getInstance();
+        lastLibrarySync = lastFullRetrieve.getTimeInMillis();
+        lastItemUpdateSync = lastLibrarySync;
         itemsLoaded = 0;
         switch (queryType) {
             case Items:
@@ -647,7 +1174,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 if (mSortBy != null && mFilters != null && mSortBy.contains(ItemSortBy.SeriesDatePlayed) && mFilters.isUnwatchedOnly()) {
                     mQuery.setFilters(null);
                     retrieve(mQuery, true);
-                    setFilters(mFilters);
+                    mQuery.setFilters(mFilters.getFilters());
                 } else {
                     retrieve(mQuery);
                 }
@@ -707,7 +1234,10 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 retrieve(mTrailersQuery);
                 break;
             case Search:
-                retrieve(mSearchQuery);
+                loadSearchHints();
+                break;
+            case TitleIndex:
+                loadTitleIndexEntries();
                 break;
             case AlbumArtists:
                 retrieve(mArtistsQuery);
@@ -737,6 +1267,19 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
         notifyRetrieveFinished();
     }
 
+    private void loadSearchHints() {
+        for (SearchHint hint : mSearchHints) {
+            add(new BaseRowItem(hint));
+        }
+
+        notifyRetrieveFinished();
+    }
+
+    private void loadTitleIndexEntries() {
+        final int generation = retrieveGeneration.get();
+        publishResponse(generation, 0, mTitleIndexEntries, mTitleIndexEntries.length, (index, entry) -> new BaseRowItem(index, entry));
+    }
+
     private void loadChapters() {
         if (mChapters != null) {
             for (ChapterItemInfo chapter : mChapters) {
@@ -751,16 +1294,13 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void loadStaticItems() {
+        final int generation = retrieveGeneration.get();
         if (mItems != null) {
-            for (BaseItemDto item : mItems) {
-                add(new BaseRowItem(item));
-            }
-            itemsLoaded = mItems.size();
+            publishResponse(generation, 0, mItems.toArray(new BaseItemDto[0]), mItems.size(), (index, item) -> new BaseRowItem(item));
         } else {
             removeRow();
+            notifyRetrieveFinished();
         }
-
-        notifyRetrieveFinished();
     }
 
     private void loadStaticAudioItems() {
@@ -779,34 +1319,23 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieveViews() {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         final UserDto user = KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue();
-        apiClient.getValue().GetUserViews(user.getId().toString(), new Response<ItemsResult>() {
+        retrieveWithCache(new ViewQuery(), ItemsResult.class, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getTotalRecordCount() > 0) {
-                    int i = 0;
-                    int prevItems = Math.max(adapter.size(), 0);
-                    for (BaseItemDto item : response.getItems()) {
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), (index, item) -> {
                         //re-map the display prefs id to our actual id
                         item.setDisplayPreferencesId(item.getId());
-                        if (userViewsRepository.getValue().isSupported(item.getCollectionType())) {
-                            adapter.add(new BaseRowItem(i++, item));
-                        }
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                        if (!userViewsRepository.getValue().isSupported(item.getCollectionType())) return null;
+                        return new BaseRowItem(index, item);
+                    });
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -815,89 +1344,36 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 removeRow();
                 notifyRetrieveFinished(exception);
             }
-        });
+        }, response -> apiClient.getValue().GetUserViews(user.getId().toString(), response));
 
     }
 
-    private void retrieve(SearchQuery query) {
-        final ItemRowAdapter adapter = this;
-        apiClient.getValue().GetSearchHintsAsync(query, new Response<SearchHintResult>() {
-            @Override
-            public void onResponse(SearchHintResult response) {
-                if (response.getSearchHints() != null && response.getSearchHints().length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (SearchHint item : response.getSearchHints()) {
-                        if (userViewsRepository.getValue().isSupported(item.getType())) {
-                            i++;
-                            adapter.add(new BaseRowItem(ModelCompat.asSdk(item)));
-                        }
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                }
-
-                notifyRetrieveFinished();
-            }
-
-            @Override
-            public void onError(Exception exception) {
-                Timber.e(exception, "Error retrieving search results");
-                notifyRetrieveFinished(exception);
-            }
-        });
-
-    }
-
-    public void addToParentIfResultsReceived() {
-        if (itemsLoaded > 0 && mParent != null) {
-            mParent.add(mRow);
-        }
-    }
-
     private void retrieve(final ItemQuery query) {
         retrieve(query, false);
     }
 
     private void retrieve(final ItemQuery query, final boolean filterPlayed) {
-        apiClient.getValue().GetItemsAsync(query, new Response<ItemsResult>() {
+        final int generation = retrieveGeneration.get();
+        retrieveWithCache(query, ItemsResult.class, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
                     int totalItems = query.getEnableTotalRecordCount() ? response.getTotalRecordCount() : response.getItems().length;
-                    BaseItemDto[] items = response.getItems();
-                    if (filterPlayed) {
-                        items = Arrays.stream(items).filter(x ->
-                                (x.getUserData() == null) || (!x.getUserData().getPlayed() &&
-                                    x.getUserData().getUnplayedItemCount() != null &&
-                                    x.getUserData().getUnplayedItemCount() > 0)
-                        ).toArray(BaseItemDto[]::new);
-                        totalItems = totalItems - (response.getItems().length - items.length);
-                    }
-                    setTotalItems(totalItems);
-                    int i = getItemsLoaded();
-                    int prevItems = i == 0 && size() > 0 ? size() : 0;
-                    for (BaseItemDto item : items) {
-                        add(new BaseRowItem(i++, item));
-                    }
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, getItemsLoaded(), response.getItems(), totalItems, (index, item) -> {
+                        if (filterPlayed && item.getUserData() != null && (item.getUserData().getPlayed() ||
+                                item.getUserData().getUnplayedItemCount() == null ||
+                                item.getUserData().getUnplayedItemCount() <= 0)) {
+                            return null;
+                        }
+                        return new BaseRowItem(index, item);
+                    });
                 } else {
                     // no results - don't show us
                     if (getItemsLoaded() == 0) {
                         removeRow();
                     }
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -906,7 +1382,7 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 removeRow();
                 notifyRetrieveFinished(exception);
             }
-        });
+        }, response -> apiClient.getValue().GetItemsAsync(query, response));
     }
 
     private void retrieveAudioPlaylists(final ItemQuery query) {
@@ -918,67 +1394,41 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(ArtistsQuery query) {
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetAlbumArtistsAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    setTotalItems(response.getTotalRecordCount());
-                    int i = getItemsLoaded();
-                    int prevItems = i == 0 && size() > 0 ? size() : 0;
-                    for (BaseItemDto item : response.getItems()) {
-                        add(new BaseRowItem(i++, item));
-                    }
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, getItemsLoaded(), response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     setTotalItems(0);
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
         });
     }
 
-    private void retrieve(LatestItemsQuery query) {
-        apiClient.getValue().GetLatestItems(query, new Response<BaseItemDto[]>() {
+    private void retrieve(final LatestItemsQuery query) {
+        final int generation = retrieveGeneration.get();
+        retrieveWithCache(query, BaseItemDto[].class, new Response<BaseItemDto[]>() {
             @Override
             public void onResponse(BaseItemDto[] response) {
                 if (response != null && response.length > 0) {
-                    setTotalItems(response.length);
-                    int i = getItemsLoaded();
-                    int prevItems = i == 0 && size() > 0 ? size() : 0;
-                    for (BaseItemDto item : response) {
-                        add(new BaseRowItem(i++, item));
-                    }
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, getItemsLoaded(), response, response.length, BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     setTotalItems(0);
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
-        });
+        }, response -> apiClient.getValue().GetLatestItems(query, response));
     }
 
     private void retrievePremieres(final ItemQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         //First we need current Next Up to filter our list with
         NextUpQuery nextUp = new NextUpQuery();
         nextUp.setUserId(query.getUserId());
@@ -990,14 +1440,13 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 apiClient.getValue().GetItemsAsync(query, new Response<ItemsResult>() {
                     @Override
                     public void onResponse(ItemsResult response) {
-                        if (adapter.size() > 0) {
-                            adapter.clear();
-                        }
-                        if (response.getItems() != null && response.getItems().length > 0) {
-                            int i = 0;
+                        buildRowItems(generation, () -> {
+                            List<Object> items = new ArrayList<>();
+                            if (response.getItems() == null) return items;
+
                             Calendar compare = Calendar.getInstance();
                             compare.add(Calendar.MONTH, -2);
-                            BaseItemDto[] nextUpItems = nextUpResponse.getItems();
+                            BaseItemDto[] nextUpItems = nextUpResponse.getItems() != null ? nextUpResponse.getItems() : new BaseItemDto[0];
                             for (BaseItemDto item : response.getItems()) {
                                 if (item.getIndexNumber() != null && item.getIndexNumber() == 1 && (item.getDateCreated() == null || item.getDateCreated().after(compare.getTime()))
                                         && (item.getUserData() == null || item.getUserData().getLikes() == null || item.getUserData().getLikes())
@@ -1015,21 +1464,21 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                                         //Now - let's be sure there isn't already a premiere for this series
                                         BaseRowItem existing = null;
                                         int existingPos = -1;
-                                        for (int n = 0; n < adapter.size(); n++) {
-                                            if (((BaseRowItem) adapter.get(n)).getBaseItem().getSeriesId().equals(item.getSeriesId())) {
-                                                existing = (BaseRowItem) adapter.get(n);
+                                        for (int n = 0; n < items.size(); n++) {
+                                            if (((BaseRowItem) items.get(n)).getBaseItem().getSeriesId().equals(item.getSeriesId())) {
+                                                existing = (BaseRowItem) items.get(n);
                                                 existingPos = n;
                                                 break;
                                             }
                                         }
                                         if (existing == null) {
                                             Timber.d("Adding new episode 1 to premieres %s", item.getSeriesName());
-                                            adapter.add(new BaseRowItem(i++, item));
+                                            items.add(new BaseRowItem(items.size(), item));
 
                                         } else if (existing.getBaseItem().getParentIndexNumber() > item.getParentIndexNumber()) {
                                             //Replace the newer item with the earlier season
                                             Timber.d("Replacing newer episode 1 with an older season for %s", item.getSeriesName());
-                                            adapter.replace(existingPos, new BaseRowItem(i++, item));
+                                            items.set(existingPos, new BaseRowItem(existingPos, item));
                                         } // otherwise, just ignore this newer season premiere since we have the older one already
 
                                     } else {
@@ -1037,14 +1486,15 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                                     }
                                 }
                             }
-                            setItemsLoaded(itemsLoaded + i);
-                        }
-
-
-                        if (adapter.size() == 0) {
-                            removeRow();
-                        }
-                        notifyRetrieveFinished();
+                            return items;
+                        }, items -> {
+                            publishRowItems(0, items);
+                            setItemsLoaded(items.size());
+                            if (items.isEmpty()) {
+                                removeRow();
+                            }
+                            notifyRetrieveFinished();
+                        });
                     }
                 });
 
@@ -1055,57 +1505,32 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final NextUpQuery query) {
+        final int generation = retrieveGeneration.get();
         final ItemRowAdapter adapter = this;
-        apiClient.getValue().GetNextUpEpisodesAsync(query, new Response<ItemsResult>() {
+        retrieveWithCache(query, ItemsResult.class, new Response<ItemsResult>() {
             @Override
             public void onResponse(final ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    int i = 0;
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                        notifyRetrieveFinished();
-                    } else {
-                        //If this was for a single series, get the rest of the episodes in the season
-                        if (query.getSeriesId() != null) {
-                            BaseItemDto first = adapter.size() == 1 ? ((BaseRowItem) adapter.get(0)).getBaseItem() : null;
-                            if (first != null && first.getIndexNumber() != null && first.getSeasonId() != null) {
-                                StdItemQuery rest = new StdItemQuery();
-                                rest.setUserId(query.getUserId());
-                                rest.setParentId(first.getSeasonId());
-                                rest.setStartIndex(first.getIndexNumber());
-                                apiClient.getValue().GetItemsAsync(rest, new Response<ItemsResult>() {
-                                    @Override
-                                    public void onResponse(ItemsResult innerResponse) {
-                                        if (response.getItems() != null) {
-                                            int n = response.getItems().length;
-                                            for (BaseItemDto item : innerResponse.getItems()) {
-                                                adapter.add(new BaseRowItem(n++, item));
-                                            }
-                                            totalItems += innerResponse.getTotalRecordCount();
-                                            setItemsLoaded(itemsLoaded + n);
-
-                                        }
-                                        notifyRetrieveFinished();
-                                    }
-
-                                    @Override
-                                    public void onError(Exception exception) {
-                                        Timber.e(exception, "Unable to retrieve subsequent episodes in next up");
-                                        notifyRetrieveFinished();
-                                    }
-                                });
-                            }
+                    buildRowItems(generation, () -> {
+                        List<Object> items = new ArrayList<>();
+                        int i = 0;
+                        for (BaseItemDto item : response.getItems()) {
+                            items.add(new BaseRowItem(i++, item));
                         }
+                        return items;
+                    }, items -> {
+                        adapter.publishRowItems(0, items);
+                        totalItems = response.getTotalRecordCount();
+                        setItemsLoaded(itemsLoaded + items.size());
 
-                    }
+                        //If this was for a single series, get the rest of the episodes in the season
+                        BaseItemDto first = query.getSeriesId() != null && items.size() == 1 ? ((BaseRowItem) items.get(0)).getBaseItem() : null;
+                        if (first != null && first.getIndexNumber() != null && first.getSeasonId() != null) {
+                            retrieveRestOfSeason(generation, query, first, response.getItems().length);
+                        } else {
+                            notifyRetrieveFinished();
+                        }
+                    });
                 } else {
                     // no results - don't show us
                     removeRow();
@@ -1120,35 +1545,64 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
                 removeRow();
                 notifyRetrieveFinished(exception);
             }
-        });
+        }, response -> apiClient.getValue().GetNextUpEpisodesAsync(query, response));
+
+    }
+
+    private void retrieveRestOfSeason(final int generation, final NextUpQuery query, final BaseItemDto first, final int startIndex) {
+        StdItemQuery rest = new StdItemQuery();
+        rest.setUserId(query.getUserId());
+        rest.setParentId(first.getSeasonId());
+        rest.setStartIndex(first.getIndexNumber());
+        apiClient.getValue().GetItemsAsync(rest, new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult innerResponse) {
+                if (innerResponse.getItems() == null) {
+                    notifyRetrieveFinished();
+                    return;
+                }
 
+                buildRowItems(generation, () -> {
+                    List<Object> items = new ArrayList<>();
+                    int n = startIndex;
+                    for (BaseItemDto item : innerResponse.getItems()) {
+                        items.add(new BaseRowItem(n++, item));
+                    }
+                    return items;
+                }, items -> {
+                    // Already added by a previous (cached) response
+                    if (size() != startIndex) {
+                        notifyRetrieveFinished();
+                        return;
+                    }
+
+                    publishRowItems(size(), items);
+                    totalItems += innerResponse.getTotalRecordCount();
+                    setItemsLoaded(itemsLoaded + items.size());
+                    notifyRetrieveFinished();
+                });
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Timber.e(exception, "Unable to retrieve subsequent episodes in next up");
+                notifyRetrieveFinished();
+            }
+        });
     }
 
     private void retrieve(final LiveTvChannelQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetLiveTvChannelsAsync(query, new Response<ChannelInfoDtoResult>() {
             @Override
             public void onResponse(ChannelInfoDtoResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = itemsLoaded;
-                    if (i == 0 && adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (ChannelInfoDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i, item));
-                        i++;
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, getItemsLoaded(), response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1162,33 +1616,18 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final RecommendedProgramQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetRecommendedLiveTvProgramsAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 TvManager.updateProgramsNeedsLoadTime();
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    int prevItems = Math.max(adapter.size(), 0);
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(item));
-                        i++;
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), (index, item) -> new BaseRowItem(item));
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1202,32 +1641,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final SeriesTimerQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetLiveTvSeriesTimersAsync(query, new Response<SeriesTimerInfoDtoResult>() {
             @Override
             public void onResponse(SeriesTimerInfoDtoResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    int prevItems = Math.max(adapter.size(), 0);
-                    for (SeriesTimerInfoDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(item));
-                        i++;
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), (index, item) -> new BaseRowItem(item));
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1240,46 +1664,41 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final RecordingQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetLiveTvRecordingsAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    int prevItems = Math.max(adapter.size(), 0);
-                    if (adapter.chunkSize == 0) {
-                        // and recordings as first item if showing all
-                        adapter.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_RECORDINGS_OPTION_ID, context.getString(R.string.lbl_recorded_tv), R.drawable.tile_port_record)));
-                        i++;
-                        if (Utils.canManageRecordings(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue())) {
-                            // and schedule
-                            adapter.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_SCHEDULE_OPTION_ID, context.getString(R.string.lbl_schedule), R.drawable.tile_port_time)));
-                            i++;
-                            // and series
-                            adapter.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_SERIES_OPTION_ID, context.getString(R.string.lbl_series), R.drawable.tile_port_series_timer)));
-                            i++;
+                    final boolean canManageRecordings = Utils.canManageRecordings(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue());
+                    buildRowItems(generation, () -> {
+                        List<Object> items = new ArrayList<>();
+                        if (chunkSize == 0) {
+                            // and recordings as first item if showing all
+                            items.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_RECORDINGS_OPTION_ID, context.getString(R.string.lbl_recorded_tv), R.drawable.tile_port_record)));
+                            if (canManageRecordings) {
+                                // and schedule
+                                items.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_SCHEDULE_OPTION_ID, context.getString(R.string.lbl_schedule), R.drawable.tile_port_time)));
+                                // and series
+                                items.add(new BaseRowItem(new GridButton(LiveTvOption.LIVE_TV_SERIES_OPTION_ID, context.getString(R.string.lbl_series), R.drawable.tile_port_series_timer)));
+                            }
                         }
-                    }
 
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(item));
-                        i++;
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    } else if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                        for (BaseItemDto item : response.getItems()) {
+                            items.add(new BaseRowItem(item));
+                        }
+                        return items;
+                    }, items -> {
+                        // replaces the previous items with a diff instead of clearing the adapter to avoid bugs in the framework elements
+                        publishRowItems(0, items);
+                        totalItems = response.getTotalRecordCount();
+                        setItemsLoaded(items.size());
+                        notifyRetrieveFinished();
+                    });
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1293,29 +1712,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final SpecialsQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetSpecialFeaturesAsync(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), query.getItemId(), new Response<BaseItemDto[]>() {
             @Override
             public void onResponse(BaseItemDto[] response) {
                 if (response.length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.length;
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, 0, response, response.length, BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1329,29 +1736,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final AdditionalPartsQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetAdditionalParts(query.getItemId(), KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1364,30 +1759,20 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final TrailersQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetLocalTrailersAsync(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), query.getItemId(), new Response<BaseItemDto[]>() {
             @Override
             public void onResponse(BaseItemDto[] response) {
                 if (response.length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response) {
-                        item.setName(context.getString(R.string.lbl_trailer) + (i + 1));
-                        adapter.add(new BaseRowItem(i++, item, BaseRowItem.SelectAction.Play));
-                    }
-                    totalItems = response.length;
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, 0, response, response.length, (index, item) -> {
+                        item.setName(context.getString(R.string.lbl_trailer) + (index + 1));
+                        return new BaseRowItem(index, item, BaseRowItem.SelectAction.Play);
+                    });
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1401,29 +1786,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieveSimilarSeries(final SimilarItemsQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetSimilarItems(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1437,29 +1810,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieveSimilarMovies(final SimilarItemsQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetSimilarItems(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1473,31 +1834,22 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final UpcomingEpisodesQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetUpcomingEpisodesAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    if (adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response.getItems()) {
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), (index, item) -> {
                         if (query.getParentId() == null || item.getSeriesId() == null || item.getSeriesId().equals(query.getParentId())) {
-                            adapter.add(new BaseRowItem(i++, item));
+                            return new BaseRowItem(index, item);
                         }
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                        return null;
+                    });
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1511,29 +1863,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(final PersonsQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetPeopleAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = itemsLoaded;
-                    if (i == 0 && adapter.size() > 0) {
-                        adapter.clear();
-                    }
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(i);
-                    if (i == 0) {
-                        removeRow();
-                    }
+                    publishResponse(generation, getItemsLoaded(), response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1547,29 +1887,17 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
     }
 
     private void retrieve(SeasonQuery query) {
-        final ItemRowAdapter adapter = this;
+        final int generation = retrieveGeneration.get();
         apiClient.getValue().GetSeasonsAsync(query, new Response<ItemsResult>() {
             @Override
             public void onResponse(ItemsResult response) {
                 if (response.getItems() != null && response.getItems().length > 0) {
-                    int i = 0;
-                    int prevItems = Math.max(adapter.size(), 0);
-                    for (BaseItemDto item : response.getItems()) {
-                        adapter.add(new BaseRowItem(i++, item));
-                    }
-                    totalItems = response.getTotalRecordCount();
-                    setItemsLoaded(itemsLoaded + i);
-                    if (prevItems > 0) {
-                        // remove previous items as we re-retrieved
-                        // this is done this way instead of clearing the adapter to avoid bugs in the framework elements
-                        removeItems(0, prevItems);
-                    }
+                    publishResponse(generation, 0, response.getItems(), response.getTotalRecordCount(), BaseRowItem::new);
                 } else {
                     // no results - don't show us
                     removeRow();
+                    notifyRetrieveFinished();
                 }
-
-                notifyRetrieveFinished();
             }
 
             @Override
@@ -1581,11 +1909,196 @@ public class ItemRowAdapter extends ArrayObjectAdapter {
 
     }
 
+    private interface ApiRequest<T> {
+        void execute(Response<T> response);
+    }
+
+    /**
+     * Execute a request. When the response cache is enabled and the row is still empty, the cached
+     * response for the same query is handed to the response callback first. Every successful
+     * response updates the cache.
+     */
+    private <T> void retrieveWithCache(Object query, final Class<T> type, final Response<T> response, ApiRequest<T> request) {
+        if (!useResponseCache || itemsLoaded > 0) {
+            request.execute(response);
+            return;
+        }
+
+        final ItemResponseCache cache = itemResponseCache.getValue();
+        final String key = cache.getKey(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString(), query);
+        final int generation = retrieveGeneration.get();
+        final boolean[] servedFromCache = {false};
+        final boolean[] revalidated = {false};
+
+        if (size() == 0) {
+            ROW_BUILD_EXECUTOR.execute(() -> {
+                final T cached = cache.read(key, type, reRetrieveTriggers);
+                if (cached == null) return;
+
+                MAIN_HANDLER.post(() -> {
+                    if (revalidated[0] || generation != retrieveGeneration.get()) return;
+
+                    Timber.d("Showing cached response for %s row while revalidating", queryType);
+                    servedFromCache[0] = true;
+                    cachedResponsesServed++;
+                    response.onResponse(cached);
+                });
+            });
+        }
+
+        request.execute(new Response<T>() {
+            @Override
+            public void onResponse(T result) {
+                revalidated[0] = true;
+                ROW_BUILD_EXECUTOR.execute(() -> cache.write(key, result));
+                if (!servedFromCache[0]) {
+                    response.onResponse(result);
+                    return;
+                }
+
+                // Queue behind the rows built from the cached response so the fresh response
+                // replaces them instead of being appended
+                ROW_BUILD_EXECUTOR.execute(() -> MAIN_HANDLER.post(() -> {
+                    if (generation != retrieveGeneration.get()) return;
+
+                    itemsLoaded = 0;
+                    response.onResponse(result);
+                }));
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                revalidated[0] = true;
+                if (servedFromCache[0]) {
+                    // Keep showing the cached items
+                    Timber.w(exception, "Unable to revalidate cached response for %s row", queryType);
+                    notifyRetrieveFinished(exception);
+                } else {
+                    response.onError(exception);
+                }
+            }
+        });
+    }
+
+    protected interface RowItemMapper<T> {
+        /**
+         * @return the row item for the item at the index in the row, or null to leave it out
+         */
+        @Nullable
+        Object map(int index, T item);
+    }
+
+    /**
+     * Build the row items of a response and publish them starting at startIndex. Items left out by
+     * the mapper are subtracted from the total, the row is removed when it ends up empty.
+     */
+    private <T> void publishResponse(final int generation, final int startIndex, final T[] source, final int totalRecordCount, final RowItemMapper<T> mapper) {
+        buildRowItems(generation, () -> {
+            List<Object> items = new ArrayList<>(source.length);
+            for (T item : source) {
+                Object rowItem = mapper.map(startIndex + items.size(), item);
+                if (rowItem != null) items.add(rowItem);
+            }
+            return items;
+        }, items -> {
+            setTotalItems(totalRecordCount - (source.length - items.size()));
+            publishRowItems(startIndex, items);
+            setItemsLoaded(startIndex + items.size());
+            if (getItemsLoaded() == 0) {
+                removeRow();
+            }
+            notifyRetrieveFinished();
+        });
+    }
+
+    protected interface RowItemsBuilder {
+        List<Object> build();
+    }
+
+    protected interface RowItemsConsumer {
+        void accept(List<Object> items);
+    }
+
+    /**
+     * Build row items on a background thread and hand them back on the main thread. Results of a
+     * request made before the query was changed or re-retrieved are dropped.
+     *
+     * @param generation the value of {@link #retrieveGeneration} when the request was made
+     */
+    protected void buildRowItems(final int generation, final RowItemsBuilder builder, final RowItemsConsumer consumer) {
+        ROW_BUILD_EXECUTOR.execute(() -> {
+            List<Object> items;
+            try {
+                items = builder.build();
+                prepareCardModels(items);
+            } catch (RuntimeException exception) {
+                Timber.e(exception, "Error building row items");
+                MAIN_HANDLER.post(() -> {
+                    if (generation == retrieveGeneration.get()) notifyRetrieveFinished(exception);
+                });
+                return;
+            }
+
+            MAIN_HANDLER.post(() -> {
+                if (generation != retrieveGeneration.get()) {
+                    Timber.d("Dropping stale row items for %s", queryType);
+                    return;
+                }
+                consumer.accept(items);
+            });
+        });
+    }
+
+    /**
+     * Create the card models of the items while still on the row build thread, binding the cards
+     * on the main thread then only copies the prepared values.
+     */
+    private void prepareCardModels(List<Object> items) {
+        for (Object item : items) {
+            if (!(item instanceof BaseRowItem)) continue;
+            Presenter presenter = getPresenter(item);
+            if (presenter instanceof CardPresenter) {
+                ((CardPresenter) presenter).getCardModel(context, (BaseRowItem) item);
+            }
+        }
+    }
+
+    /**
+     * Publish a batch of row items. A batch starting at index 0 replaces the current contents using
+     * a diff so unchanged cards keep their views and focus, and leanback receives one coalesced set
+     * of range notifications. Any other batch is appended as a single range insert, or stored as a
+     * page in sparse mode.
+     */
+    protected void publishRowItems(int startIndex, List<Object> items) {
+        if (sparse) {
+            if (startIndex == 0) {
+                // A full retrieve replaces all pages, the ones around the focused position are
+                // loaded again right away
+                sparsePages.clear();
+                placeholders.clear();
+                sparsePages.put(0, items);
+                notifyChanged();
+                ensureSparseWindow(focusedPosition);
+            } else {
+                storeSparsePage(startIndex, items);
+            }
+        } else if (startIndex == 0) {
+            setItems(items, ROW_ITEM_DIFF_CALLBACK);
+        } else {
+            addAll(size(), items);
+        }
+    }
+
     protected void notifyRetrieveFinished() {
         notifyRetrieveFinished(null);
     }
 
     protected void notifyRetrieveFinished(@Nullable Exception exception) {
+        if (cachedResponsesServed > 0) {
+            cachedResponsesServed--;
+            return;
+        }
+
         setCurrentlyRetrieving(false);
         if (mRetrieveFinishedListener != null) {
             if (exception == null) mRetrieveFinishedListener.onResponse();
@@ -0,0 +1,26 @@
+package org.jellyfin.androidtv.ui.itemhandling;
+
+/**
+ * Stand-in for an item of a sparse {@link ItemRowAdapter} whose page is not loaded (yet).
+ */
+public class PlaceholderRowItem {
+    private final int index;
+
+    public PlaceholderRowItem(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PlaceholderRowItem && ((PlaceholderRowItem) other).index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+}
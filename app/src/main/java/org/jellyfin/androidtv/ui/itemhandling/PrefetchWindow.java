@@ -0,0 +1,101 @@
+package org.jellyfin.androidtv.ui.itemhandling;
+
+import android.os.SystemClock;
+
+/**
+ * Tracks the focused position of a paged adapter and estimates how far ahead (and behind) data
+ * should be kept loaded. The estimate is based on the scroll velocity in items per second and the
+ * measured time it takes the server to deliver a chunk.
+ */
+public class PrefetchWindow {
+    // Weight of the newest sample in the moving averages
+    private static final double SMOOTHING = 0.3;
+    // Selections further apart than this are treated as a jump instead of a scroll
+    private static final long MAX_SAMPLE_INTERVAL_MS = 1500;
+    private static final long DEFAULT_CHUNK_LATENCY_MS = 800;
+
+    private final int maxChunksAhead;
+    private final int maxChunksBehind;
+
+    private long lastPosition = -1;
+    private long lastTimestamp = 0;
+    private double velocity = 0;
+    private double chunkLatencyMs = DEFAULT_CHUNK_LATENCY_MS;
+
+    public PrefetchWindow(int maxChunksAhead, int maxChunksBehind) {
+        this.maxChunksAhead = Math.max(1, maxChunksAhead);
+        this.maxChunksBehind = Math.max(0, maxChunksBehind);
+    }
+
+    /**
+     * Forget the scroll history, used when the underlying query changes.
+     */
+    public void reset() {
+        lastPosition = -1;
+        lastTimestamp = 0;
+        velocity = 0;
+    }
+
+    public void onPositionChanged(long position) {
+        onPositionChanged(position, SystemClock.uptimeMillis());
+    }
+
+    public void onPositionChanged(long position, long timestamp) {
+        long elapsed = timestamp - lastTimestamp;
+        if (lastPosition < 0 || elapsed <= 0 || elapsed > MAX_SAMPLE_INTERVAL_MS) {
+            velocity = 0;
+        } else {
+            double sample = (position - lastPosition) * 1000.0 / elapsed;
+            velocity = velocity * (1 - SMOOTHING) + sample * SMOOTHING;
+        }
+
+        lastPosition = position;
+        lastTimestamp = timestamp;
+    }
+
+    public void onChunkLoaded(long latencyMs) {
+        if (latencyMs <= 0) return;
+        chunkLatencyMs = chunkLatencyMs * (1 - SMOOTHING) + latencyMs * SMOOTHING;
+    }
+
+    /**
+     * @return 1 when scrolling forward, -1 when scrolling backward and 0 when idle
+     */
+    public int getDirection() {
+        if (velocity > 0.5) return 1;
+        if (velocity < -0.5) return -1;
+        return 0;
+    }
+
+    private int getChunksInScrollDirection(int chunkSize) {
+        if (chunkSize <= 0) return 1;
+
+        // Items the user will pass while the next chunks are loading, with one chunk as safety margin
+        double itemsDuringLoad = Math.abs(velocity) * chunkLatencyMs / 1000.0;
+        int chunks = 1 + (int) Math.ceil(itemsDuringLoad / chunkSize);
+        return Math.min(chunks, maxChunksAhead);
+    }
+
+    /**
+     * @return the amount of chunks after the focused position that should be loaded
+     */
+    public int getChunksForward(int chunkSize) {
+        if (getDirection() >= 0) return getChunksInScrollDirection(chunkSize);
+        return Math.max(1, maxChunksBehind);
+    }
+
+    /**
+     * @return the amount of chunks before the focused position that should be loaded
+     */
+    public int getChunksBackward(int chunkSize) {
+        if (getDirection() < 0) return getChunksInScrollDirection(chunkSize);
+        return maxChunksBehind;
+    }
+
+    /**
+     * @return the maximum amount of chunks that may be requested at the same time
+     */
+    public int getMaxConcurrentChunks() {
+        return maxChunksAhead + maxChunksBehind;
+    }
+}
@@ -0,0 +1,78 @@
+package org.jellyfin.androidtv.ui.itemhandling;
+
+import androidx.annotation.NonNull;
+import androidx.leanback.widget.DiffCallback;
+
+import org.jellyfin.androidtv.ui.GridButton;
+import org.jellyfin.apiclient.model.dto.BaseItemDto;
+import org.jellyfin.apiclient.model.dto.UserItemDataDto;
+
+import java.util.Objects;
+
+/**
+ * Diff callback used when re-publishing the contents of an {@link ItemRowAdapter}. Items are
+ * matched by their id and type, contents are compared using the parts of the item that are shown
+ * on a card (name, index, playing state and user data).
+ */
+public class RowItemDiffCallback extends DiffCallback<Object> {
+    @Override
+    public boolean areItemsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+        if (oldItem instanceof BaseRowItem && newItem instanceof BaseRowItem) {
+            BaseRowItem oldRowItem = (BaseRowItem) oldItem;
+            BaseRowItem newRowItem = (BaseRowItem) newItem;
+            if (oldRowItem.getItemType() != newRowItem.getItemType()) return false;
+
+            if (oldRowItem.getItemType() == BaseRowItem.ItemType.GridButton) {
+                return oldRowItem.getGridButton().getId() == newRowItem.getGridButton().getId();
+            }
+
+            String oldId = oldRowItem.getItemId();
+            return oldId != null && oldId.equals(newRowItem.getItemId());
+        }
+
+        if (oldItem instanceof GridButton && newItem instanceof GridButton) {
+            return ((GridButton) oldItem).getId() == ((GridButton) newItem).getId();
+        }
+
+        return oldItem.equals(newItem);
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+        if (oldItem instanceof BaseRowItem && newItem instanceof BaseRowItem) {
+            BaseRowItem oldRowItem = (BaseRowItem) oldItem;
+            BaseRowItem newRowItem = (BaseRowItem) newItem;
+
+            if (oldRowItem.getIndex() != newRowItem.getIndex()) return false;
+            if (oldRowItem.isPlaying() != newRowItem.isPlaying()) return false;
+
+            BaseItemDto oldBaseItem = oldRowItem.getBaseItem();
+            BaseItemDto newBaseItem = newRowItem.getBaseItem();
+            if (oldBaseItem == null || newBaseItem == null) return oldBaseItem == newBaseItem;
+
+            return Objects.equals(oldBaseItem.getName(), newBaseItem.getName())
+                    && Objects.equals(oldBaseItem.getImageTags(), newBaseItem.getImageTags())
+                    && Objects.equals(oldBaseItem.getChildCount(), newBaseItem.getChildCount())
+                    && getUserDataVersion(oldBaseItem.getUserData()) == getUserDataVersion(newBaseItem.getUserData());
+        }
+
+        return oldItem == newItem;
+    }
+
+    /**
+     * Compact hash of the user data fields that influence a card (watched indicator, progress bar,
+     * favorite badge, unplayed count).
+     */
+    static int getUserDataVersion(UserItemDataDto userData) {
+        if (userData == null) return 0;
+
+        return Objects.hash(
+                userData.getPlayed(),
+                userData.getIsFavorite(),
+                userData.getLikes(),
+                userData.getPlaybackPositionTicks(),
+                userData.getUnplayedItemCount(),
+                userData.getPlayedPercentage()
+        );
+    }
+}
@@ -0,0 +1,332 @@
+package org.jellyfin.androidtv.ui.livetv;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.jellyfin.androidtv.R;
+import org.jellyfin.androidtv.ui.GuideChannelHeader;
+import org.jellyfin.androidtv.ui.GuidePagingButton;
+import org.jellyfin.androidtv.ui.ProgramGridCell;
+import org.jellyfin.androidtv.util.Utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Program grid of the live tv guide. Channel rows are recycled while scrolling vertically and
+ * every row only binds the program cells around the visible part of the guide, all rows share the
+ * same horizontal offset.
+ */
+public class GuideGridView extends RecyclerView {
+    public interface OnOffsetChangedListener {
+        void onOffsetChanged(int offset);
+    }
+
+    /**
+     * A row to load another page of channels.
+     */
+    public static class Page {
+        private final int start;
+        private final String label;
+
+        public Page(int start, String label) {
+            this.start = start;
+            this.label = label;
+        }
+    }
+
+    private static final int TYPE_PAGE = 0;
+    private static final int TYPE_CHANNEL = 1;
+
+    private final int rowHeight;
+    private final int headerWidth;
+    private final int widthPerMin;
+    private final Deque<ProgramGridCell> cellPool = new ArrayDeque<>();
+    private final GuideAdapter adapter = new GuideAdapter();
+    private LiveTvGuide guide;
+    private OnOffsetChangedListener offsetChangedListener;
+    private long start;
+    private long end;
+    private int offset = 0;
+
+    private List<GuideRowModel> rows = new ArrayList<>();
+    private Page pageUp;
+    private Page pageDown;
+
+    private int pendingFocusPosition = NO_POSITION;
+    private boolean pendingFocusAtEnd = false;
+
+    public GuideGridView(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public GuideGridView(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        rowHeight = Utils.convertDpToPixel(context, LiveTvGuideActivity.GUIDE_ROW_HEIGHT_DP);
+        widthPerMin = Utils.convertDpToPixel(context, LiveTvGuideActivity.GUIDE_ROW_WIDTH_PER_MIN_DP);
+        headerWidth = Utils.convertDpToPixel(context, 160);
+
+        setLayoutManager(new LinearLayoutManager(context, LinearLayoutManager.VERTICAL, false));
+        setHasFixedSize(true);
+        setItemAnimator(null);
+        setAdapter(adapter);
+    }
+
+    public void setGuide(LiveTvGuide guide) {
+        this.guide = guide;
+    }
+
+    public void setOnOffsetChangedListener(OnOffsetChangedListener listener) {
+        offsetChangedListener = listener;
+    }
+
+    /**
+     * Set the local times shown by the guide, scrolls back to the start.
+     */
+    public void setTimeRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+        setOffset(0);
+    }
+
+    public void setRows(List<GuideRowModel> rows, @Nullable Page pageUp, @Nullable Page pageDown) {
+        this.rows = rows;
+        this.pageUp = pageUp;
+        this.pageDown = pageDown;
+        pendingFocusPosition = NO_POSITION;
+        adapter.notifyDataSetChanged();
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Nullable
+    public GuideRowModel getRow(String channelId) {
+        for (GuideRowModel row : rows) {
+            if (row.getChannel().getId().equals(channelId)) return row;
+        }
+        return null;
+    }
+
+    /**
+     * Focus the first (or last) program of a channel, or the first channel when it's not shown.
+     */
+    public void focusChannel(@Nullable String channelId, boolean atEnd) {
+        if (rows.isEmpty()) return;
+
+        int index = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getChannel().getId().equals(channelId)) {
+                index = i;
+                break;
+            }
+        }
+
+        pendingFocusPosition = index + (pageUp != null ? 1 : 0);
+        pendingFocusAtEnd = atEnd;
+        scrollToPosition(pendingFocusPosition);
+        requestLayout();
+    }
+
+    public void refreshFavorite(String channelId) {
+        for (int i = 0; i < getChildCount(); i++) {
+            ViewHolder holder = getChildViewHolder(getChildAt(i));
+            if (holder instanceof ChannelHolder) {
+                GuideChannelHeader header = ((ChannelHolder) holder).header;
+                if (header != null && header.getChannel().getId().equals(channelId)) header.refreshFavorite();
+            }
+        }
+    }
+
+    private void setOffset(int offset) {
+        int viewportWidth = getWidth() - headerWidth;
+        int contentWidth = (int) ((end - start) / 60000) * widthPerMin;
+        offset = Math.max(0, Math.min(offset, contentWidth - viewportWidth));
+        if (offset == this.offset) return;
+
+        this.offset = offset;
+        for (int i = 0; i < getChildCount(); i++) {
+            ViewHolder holder = getChildViewHolder(getChildAt(i));
+            if (holder instanceof ChannelHolder) ((ChannelHolder) holder).row.setOffset(offset);
+        }
+
+        if (offsetChangedListener != null) offsetChangedListener.onOffsetChanged(offset);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+
+        if (pendingFocusPosition == NO_POSITION) return;
+        ViewHolder holder = findViewHolderForAdapterPosition(pendingFocusPosition);
+        if (!(holder instanceof ChannelHolder)) return;
+
+        pendingFocusPosition = NO_POSITION;
+        GuideRowView row = ((ChannelHolder) holder).row;
+        GuideRowModel model = row.getRow();
+        if (model == null || model.size() == 0) return;
+
+        ProgramGridCell cell = row.getCell(pendingFocusAtEnd ? model.size() - 1 : 0);
+        if (cell != null) cell.requestFocus();
+    }
+
+    @Override
+    public void requestChildFocus(View child, View focused) {
+        // Scroll the program into view before the focused rectangle is checked
+        if (focused instanceof ProgramGridCell && focused.getParent() instanceof GuideRowView) {
+            GuideRowView row = (GuideRowView) focused.getParent();
+            int index = row.getSlotIndex((ProgramGridCell) focused);
+            if (index >= 0) {
+                int left = row.getSlotStart(index);
+                int right = row.getSlotEnd(index);
+                int width = row.getWidth();
+                if (left < offset) setOffset(left);
+                else if (right > offset + width) setOffset(Math.min(left, right - width));
+            }
+        }
+
+        super.requestChildFocus(child, focused);
+    }
+
+    @Override
+    public View focusSearch(View focused, int direction) {
+        if (!(focused instanceof ProgramGridCell) || !(focused.getParent() instanceof GuideRowView))
+            return super.focusSearch(focused, direction);
+
+        GuideRowView row = (GuideRowView) focused.getParent();
+        GuideRowModel model = row.getRow();
+        int index = row.getSlotIndex((ProgramGridCell) focused);
+        if (model == null || index < 0) return super.focusSearch(focused, direction);
+
+        switch (direction) {
+            case View.FOCUS_LEFT:
+                if (index > 0) return row.getCell(index - 1);
+                // the channel header
+                return super.focusSearch(focused, direction);
+            case View.FOCUS_RIGHT:
+                if (index < model.size() - 1) return row.getCell(index + 1);
+                // stay on the last program, the guide may offer to load the next hours
+                return focused;
+            case View.FOCUS_UP:
+            case View.FOCUS_DOWN:
+                View next = super.focusSearch(focused, direction);
+                ViewHolder holder = next != null ? findContainingViewHolder(next) : null;
+                if (!(holder instanceof ChannelHolder)) return next;
+
+                // the first program in the other row still playing when this one starts
+                GuideRowView nextRow = ((ChannelHolder) holder).row;
+                GuideRowModel nextModel = nextRow.getRow();
+                if (nextRow == row || nextModel == null) return next;
+                ProgramGridCell cell = nextRow.getCell(nextModel.indexAt(model.get(index).getStart()));
+                return cell != null ? cell : next;
+        }
+
+        return super.focusSearch(focused, direction);
+    }
+
+    private static class PageHolder extends ViewHolder {
+        private final FrameLayout container;
+
+        PageHolder(FrameLayout container) {
+            super(container);
+            this.container = container;
+        }
+    }
+
+    private static class ChannelHolder extends ViewHolder {
+        private final LinearLayout layout;
+        private final GuideRowView row;
+        private GuideChannelHeader header;
+
+        ChannelHolder(LinearLayout layout, GuideRowView row) {
+            super(layout);
+            this.layout = layout;
+            this.row = row;
+        }
+    }
+
+    private class GuideAdapter extends Adapter<ViewHolder> {
+        @Override
+        public int getItemCount() {
+            return rows.size() + (pageUp != null ? 1 : 0) + (pageDown != null ? 1 : 0);
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            if (pageUp != null && position == 0) return TYPE_PAGE;
+            if (pageDown != null && position == getItemCount() - 1) return TYPE_PAGE;
+            return TYPE_CHANNEL;
+        }
+
+        @NonNull
+        @Override
+        public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            Context context = parent.getContext();
+            if (viewType == TYPE_PAGE) {
+                FrameLayout container = new FrameLayout(context);
+                container.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, rowHeight));
+                container.setPaddingRelative(headerWidth, 0, 0, 0);
+                container.setBackgroundColor(ContextCompat.getColor(context, R.color.channel_scroller_bg));
+                return new PageHolder(container);
+            }
+
+            LinearLayout layout = new LinearLayout(context);
+            layout.setOrientation(LinearLayout.HORIZONTAL);
+            layout.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, rowHeight));
+            layout.setBackgroundColor(ContextCompat.getColor(context, R.color.channel_scroller_bg));
+
+            GuideRowView row = new GuideRowView(context);
+            row.setup(guide, cellPool);
+            row.setBackgroundColor(ContextCompat.getColor(context, R.color.program_scroller_bg));
+            layout.addView(row, new LinearLayout.LayoutParams(0, rowHeight, 1));
+            return new ChannelHolder(layout, row);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+            if (holder instanceof PageHolder) {
+                Page page = pageUp != null && position == 0 ? pageUp : pageDown;
+                FrameLayout container = ((PageHolder) holder).container;
+                container.removeAllViews();
+                container.addView(new GuidePagingButton(container.getContext(), guide, page.start, page.label));
+                return;
+            }
+
+            ChannelHolder channelHolder = (ChannelHolder) holder;
+            GuideRowModel row = rows.get(position - (pageUp != null ? 1 : 0));
+            if (channelHolder.header == null) {
+                channelHolder.header = new GuideChannelHeader(channelHolder.layout.getContext(), guide, row.getChannel());
+                channelHolder.layout.addView(channelHolder.header, 0, new LinearLayout.LayoutParams(headerWidth, rowHeight));
+            } else {
+                channelHolder.header.setChannel(row.getChannel());
+            }
+            channelHolder.header.loadImage();
+            channelHolder.row.setRow(row, offset);
+        }
+
+        @Override
+        public void onViewAttachedToWindow(@NonNull ViewHolder holder) {
+            // cached rows are attached again without a bind
+            if (holder instanceof ChannelHolder) ((ChannelHolder) holder).row.setOffset(offset);
+        }
+
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            if (holder instanceof ChannelHolder) ((ChannelHolder) holder).row.setRow(null, offset);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.jellyfin.androidtv.ui.livetv;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jellyfin.androidtv.util.TimeUtils;
+import org.jellyfin.apiclient.model.dto.BaseItemDto;
+import org.jellyfin.apiclient.model.livetv.ChannelInfoDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Time slots of a single channel in the guide. Only the times are stored, views for the slots are
+ * created by {@link GuideRowView} when they are scrolled into view.
+ */
+public class GuideRowModel {
+    private static final long EMPTY_SLOT_MS = 30 * 60000;
+
+    /**
+     * A program, or a gap without program data, clamped to the guide times.
+     */
+    public static class Slot {
+        private final long start;
+        private final long end;
+        private final boolean first;
+        private final boolean last;
+        @Nullable
+        private BaseItemDto program;
+        private final boolean empty;
+
+        Slot(long start, long end, @Nullable BaseItemDto program, boolean first, boolean last) {
+            this.start = start;
+            this.end = end;
+            this.program = program;
+            this.empty = program == null;
+            this.first = first;
+            this.last = last;
+        }
+
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+        public boolean isFirst() { return first; }
+        public boolean isLast() { return last; }
+        public boolean isEmpty() { return empty; }
+    }
+
+    private final ChannelInfoDto channel;
+    private final long start;
+    private final long end;
+    private final List<Slot> slots;
+    private final String emptyName;
+
+    private GuideRowModel(ChannelInfoDto channel, long start, long end, List<Slot> slots, String emptyName) {
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        this.slots = slots;
+        this.emptyName = emptyName;
+    }
+
+    public ChannelInfoDto getChannel() { return channel; }
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+    public int size() { return slots.size(); }
+    public Slot get(int index) { return slots.get(index); }
+
+    /**
+     * @return the index of the slot playing at {@code time} (local), the first slot ending after it
+     * or -1 when the time is after the last slot
+     */
+    public int indexAt(long time) {
+        int low = 0;
+        int high = slots.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (slots.get(middle).end > time) {
+                result = middle;
+                high = middle - 1;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the program (or placeholder) playing at {@code time} (local) or null when the time is
+     * outside of the guide
+     */
+    @Nullable
+    public BaseItemDto getProgramAt(long time) {
+        int index = indexAt(time);
+        if (index < 0 || slots.get(index).start > time) return null;
+        return getProgram(index);
+    }
+
+    /**
+     * The program of a slot. Gaps get a placeholder item without id when they are first shown.
+     */
+    @NonNull
+    public BaseItemDto getProgram(int index) {
+        Slot slot = slots.get(index);
+        if (slot.program == null) {
+            BaseItemDto empty = new BaseItemDto();
+            empty.setType("FOLDER");
+            empty.setName(emptyName);
+            empty.setChannelId(channel.getId());
+            empty.setStartDate(TimeUtils.convertToUtcDate(new Date(slot.start)));
+            empty.setEndDate(TimeUtils.convertToUtcDate(new Date(slot.end)));
+            slot.program = empty;
+        }
+        return slot.program;
+    }
+
+    /**
+     * Create the slots for {@code programs} (sorted by start date) between the local guide times,
+     * gaps are filled with empty slots.
+     */
+    public static GuideRowModel create(ChannelInfoDto channel, List<BaseItemDto> programs, long guideStart, long guideEnd, String emptyName) {
+        if (guideEnd <= guideStart) return new GuideRowModel(channel, guideStart, guideEnd, Collections.<Slot>emptyList(), emptyName);
+
+        List<Slot> slots = new ArrayList<>(programs.size() * 2 + 1);
+        if (programs.isEmpty()) {
+            // no data at all, use half hour slots to keep the focus movements short
+            for (long start = guideStart; start < guideEnd; start += EMPTY_SLOT_MS) {
+                long end = Math.min(start + EMPTY_SLOT_MS, guideEnd);
+                slots.add(new Slot(start, end, null, start == guideStart, end == guideEnd));
+            }
+            return new GuideRowModel(channel, guideStart, guideEnd, slots, emptyName);
+        }
+
+        long prevEnd = guideStart;
+        for (BaseItemDto item : programs) {
+            long start = item.getStartDate() != null ? TimeUtils.convertToLocalDate(item.getStartDate()).getTime() : guideStart;
+            if (start < guideStart) start = guideStart;
+            if (start >= guideEnd || start < prevEnd) continue;
+
+            if (start > prevEnd) {
+                // fill empty time slot
+                slots.add(new Slot(prevEnd, start, null, prevEnd == guideStart, false));
+            }
+
+            long end = item.getEndDate() != null ? TimeUtils.convertToLocalDate(item.getEndDate()).getTime() : guideEnd;
+            if (end > guideEnd) end = guideEnd;
+            prevEnd = end;
+            if ((end - start) / 60000 > 0) {
+                slots.add(new Slot(start, end, item, start == guideStart, end == guideEnd));
+            }
+        }
+
+        //If not at end of time period - fill in the rest
+        if (prevEnd < guideEnd) slots.add(new Slot(prevEnd, guideEnd, null, prevEnd == guideStart, true));
+
+        return new GuideRowModel(channel, guideStart, guideEnd, slots, emptyName);
+    }
+}
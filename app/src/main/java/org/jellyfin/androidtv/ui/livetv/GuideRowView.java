@@ -0,0 +1,170 @@
+package org.jellyfin.androidtv.ui.livetv;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.ViewGroup;
+
+import androidx.annotation.Nullable;
+
+import org.jellyfin.androidtv.ui.ProgramGridCell;
+import org.jellyfin.androidtv.util.Utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The programs of a single channel in the {@link GuideGridView}. Only the cells of the slots
+ * around the visible part of the row are bound, cells scrolled out are returned to a pool shared
+ * by all rows of the guide.
+ */
+public class GuideRowView extends ViewGroup {
+    // Bind cells this far outside of the visible part so focus moves don't have to wait for a bind
+    private static final long BUFFER_MS = 60 * 60000;
+
+    private final int rowHeight;
+    private final int widthPerMin;
+    private final SparseArray<ProgramGridCell> cells = new SparseArray<>();
+    private LiveTvGuide guide;
+    private Deque<ProgramGridCell> pool = new ArrayDeque<>();
+    private GuideRowModel row;
+    private int offset = 0;
+
+    public GuideRowView(Context context) {
+        this(context, null);
+    }
+
+    public GuideRowView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        rowHeight = Utils.convertDpToPixel(context, LiveTvGuideActivity.GUIDE_ROW_HEIGHT_DP);
+        widthPerMin = Utils.convertDpToPixel(context, LiveTvGuideActivity.GUIDE_ROW_WIDTH_PER_MIN_DP);
+        setFocusable(false);
+    }
+
+    void setup(LiveTvGuide guide, Deque<ProgramGridCell> pool) {
+        this.guide = guide;
+        this.pool = pool;
+    }
+
+    @Nullable
+    public GuideRowModel getRow() {
+        return row;
+    }
+
+    /**
+     * Show {@code row} scrolled to {@code offset}, the cells of the previous row are recycled.
+     */
+    public void setRow(@Nullable GuideRowModel row, int offset) {
+        for (int i = 0; i < cells.size(); i++) recycle(cells.valueAt(i));
+        cells.clear();
+
+        this.row = row;
+        this.offset = offset;
+        updateCells();
+    }
+
+    public void setOffset(int offset) {
+        if (this.offset == offset) return;
+
+        this.offset = offset;
+        updateCells();
+    }
+
+    /**
+     * @return the cell for the slot at {@code index}, it is bound when it was not visible yet
+     */
+    @Nullable
+    public ProgramGridCell getCell(int index) {
+        if (row == null || index < 0 || index >= row.size()) return null;
+
+        ProgramGridCell cell = cells.get(index);
+        if (cell == null) {
+            cell = pool.poll();
+            if (cell == null) cell = new ProgramGridCell(getContext(), guide);
+
+            GuideRowModel.Slot slot = row.get(index);
+            cell.setProgram(row.getProgram(index), slot.isFirst(), slot.isLast());
+            cells.put(index, cell);
+            addViewInLayout(cell, -1, generateDefaultLayoutParams(), true);
+            layoutCell(index, cell);
+            invalidate();
+        }
+        return cell;
+    }
+
+    /**
+     * @return the index of the slot shown by {@code cell} or -1 when it is not part of this row
+     */
+    public int getSlotIndex(ProgramGridCell cell) {
+        int i = cells.indexOfValue(cell);
+        return i < 0 ? -1 : cells.keyAt(i);
+    }
+
+    /**
+     * @return the position of the start of the slot at {@code index} within the full row
+     */
+    public int getSlotStart(int index) {
+        return getPosition(row.get(index).getStart());
+    }
+
+    /**
+     * @return the position of the end of the slot at {@code index} within the full row
+     */
+    public int getSlotEnd(int index) {
+        return getPosition(row.get(index).getEnd());
+    }
+
+    private int getPosition(long time) {
+        return (int) ((time - row.getStart()) / 60000) * widthPerMin;
+    }
+
+    private void updateCells() {
+        int first = -1;
+        int last = -2;
+        int width = getWidth();
+        if (row != null && row.size() > 0 && width > 0) {
+            first = row.indexAt(row.getStart() + (long) offset / widthPerMin * 60000 - BUFFER_MS);
+            last = row.indexAt(row.getStart() + (long) (offset + width) / widthPerMin * 60000 + BUFFER_MS);
+            if (last == -1) last = row.size() - 1;
+        }
+
+        for (int i = cells.size() - 1; i >= 0; i--) {
+            int index = cells.keyAt(i);
+            ProgramGridCell cell = cells.valueAt(i);
+            // keep the focused cell, it's moved back into view by the grid
+            if ((index < first || index > last) && !cell.hasFocus()) {
+                cells.removeAt(i);
+                recycle(cell);
+            }
+        }
+
+        for (int index = Math.max(first, 0); index <= last; index++) getCell(index);
+        for (int i = 0; i < cells.size(); i++) layoutCell(cells.keyAt(i), cells.valueAt(i));
+        invalidate();
+    }
+
+    private void recycle(ProgramGridCell cell) {
+        removeViewInLayout(cell);
+        pool.push(cell);
+    }
+
+    private void layoutCell(int index, ProgramGridCell cell) {
+        int left = getSlotStart(index) - offset;
+        int right = getSlotEnd(index) - offset;
+        if (cell.isLayoutRequested() || cell.getMeasuredWidth() != right - left) {
+            cell.measure(MeasureSpec.makeMeasureSpec(right - left, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(rowHeight, MeasureSpec.EXACTLY));
+        }
+        cell.layout(left, 0, right, rowHeight);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), rowHeight);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        updateCells();
+    }
+}
@@ -3,16 +3,13 @@ package org.jellyfin.androidtv.ui.livetv;
 import static org.koin.java.KoinJavaComponent.inject;
 
 import android.app.AlertDialog;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.graphics.Color;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.KeyEvent;
 import android.view.View;
-import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.HorizontalScrollView;
 import android.widget.ImageView;
@@ -28,18 +25,14 @@ import org.jellyfin.androidtv.constant.CustomMessage;
 import org.jellyfin.androidtv.data.model.DataRefreshService;
 import org.jellyfin.androidtv.ui.FriendlyDateButton;
 import org.jellyfin.androidtv.ui.GuideChannelHeader;
-import org.jellyfin.androidtv.ui.GuidePagingButton;
-import org.jellyfin.androidtv.ui.HorizontalScrollViewListener;
 import org.jellyfin.androidtv.ui.LiveProgramDetailPopup;
-import org.jellyfin.androidtv.ui.ObservableHorizontalScrollView;
-import org.jellyfin.androidtv.ui.ObservableScrollView;
 import org.jellyfin.androidtv.ui.ProgramGridCell;
-import org.jellyfin.androidtv.ui.ScrollViewListener;
 import org.jellyfin.androidtv.ui.preference.PreferencesActivity;
 import org.jellyfin.androidtv.ui.shared.BaseActivity;
 import org.jellyfin.androidtv.ui.shared.MessageListener;
 import org.jellyfin.androidtv.util.ImageUtils;
 import org.jellyfin.androidtv.util.InfoLayoutHelper;
+import org.jellyfin.androidtv.util.JellyfinImageBuckets;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.PlaybackHelper;
@@ -52,10 +45,10 @@ import org.jellyfin.apiclient.model.dto.UserItemDataDto;
 import org.jellyfin.apiclient.model.livetv.ChannelInfoDto;
 import org.koin.java.KoinJavaComponent;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
 
 import kotlin.Lazy;
 import timber.log.Timber;
@@ -75,10 +68,8 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     private TextView mSummary;
     private ImageView mImage;
     private LinearLayout mInfoRow;
-    private LinearLayout mChannels;
     private LinearLayout mTimeline;
-    private LinearLayout mProgramRows;
-    private ObservableScrollView mChannelScroller;
+    private GuideGridView mGuideGrid;
     private HorizontalScrollView mTimelineScroller;
     private View mSpinner;
     private View mResetButton;
@@ -98,7 +89,6 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     private int mCurrentDisplayChannelStartNdx = 0;
     private int mCurrentDisplayChannelEndNdx = 0;
 
-    private int guideRowHeightPx;
     private int guideRowWidthPerMinPx;
 
     private Handler mHandler = new Handler();
@@ -111,7 +101,6 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
 
         mActivity = this;
 
-        guideRowHeightPx = Utils.convertDpToPixel(this, GUIDE_ROW_HEIGHT_DP);
         guideRowWidthPerMinPx = Utils.convertDpToPixel(this, GUIDE_ROW_WIDTH_PER_MIN_DP);
 
         setContentView(R.layout.live_tv_guide);
@@ -125,9 +114,8 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
         mFilterStatus.setTextColor(Color.GRAY);
         mInfoRow = findViewById(R.id.infoRow);
         mImage = findViewById(R.id.programImage);
-        mChannels = findViewById(R.id.channels);
         mTimeline = findViewById(R.id.timeline);
-        mProgramRows = findViewById(R.id.programRows);
+        mGuideGrid = findViewById(R.id.guideGrid);
         mSpinner = findViewById(R.id.spinner);
         mSpinner.setVisibility(View.VISIBLE);
 
@@ -166,43 +154,20 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
             }
         });
 
-        mProgramRows.setFocusable(false);
-        mChannelScroller = findViewById(R.id.channelScroller);
-        ObservableScrollView programVScroller = findViewById(R.id.programVScroller);
-        programVScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mChannelScroller.scrollTo(x, y);
-            }
-        });
-        mChannelScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                programVScroller.scrollTo(x, y);
-            }
-        });
-
         mTimelineScroller = findViewById(R.id.timelineHScroller);
         mTimelineScroller.setFocusable(false);
         mTimelineScroller.setFocusableInTouchMode(false);
         mTimeline.setFocusable(false);
         mTimeline.setFocusableInTouchMode(false);
-        mChannelScroller.setFocusable(false);
-        mChannelScroller.setFocusableInTouchMode(false);
-        ObservableHorizontalScrollView programHScroller = findViewById(R.id.programHScroller);
-        programHScroller.setScrollViewListener(new HorizontalScrollViewListener() {
+
+        mGuideGrid.setGuide(this);
+        mGuideGrid.setOnOffsetChangedListener(new GuideGridView.OnOffsetChangedListener() {
             @Override
-            public void onScrollChanged(ObservableHorizontalScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mTimelineScroller.scrollTo(x, y);
+            public void onOffsetChanged(int offset) {
+                mTimelineScroller.scrollTo(offset, 0);
             }
         });
 
-        programHScroller.setFocusable(false);
-        programHScroller.setFocusableInTouchMode(false);
-
-        mChannels.setFocusable(false);
-        mChannelScroller.setFocusable(false);
-
         //Register to receive message from popup
         registerMessageListener(new MessageListener() {
             @Override
@@ -221,16 +186,14 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
         TvManager.loadAllChannels(new Response<Integer>() {
             @Override
             public void onResponse(Integer ndx) {
-                if (ndx  >= PAGE_SIZE) {
-                    // last channel is not in first page so grab a set where it will be in the middle
-                    ndx = ndx - (PAGE_SIZE / 2);
-                } else {
-                    ndx = 0; // just start at beginning
+                // called again after showing the guide snapshot, keep the focus on the selected channel
+                if (mFirstFocusChannelId == null && mSelectedProgram != null) {
+                    mFirstFocusChannelId = mSelectedProgram.getChannelId();
                 }
 
                 mAllChannels = TvManager.getAllChannels();
                 if (mAllChannels.size() > 0) {
-                    displayChannels(ndx, PAGE_SIZE);
+                    displayChannels(TvManager.getFirstPageStart(ndx, PAGE_SIZE), PAGE_SIZE);
                 } else {
                     mSpinner.setVisibility(View.GONE);
                 }
@@ -239,11 +202,7 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     }
 
     public void refreshFavorite(String channelId){
-        for (int i = 0; i < mChannels.getChildCount(); i++) {
-            GuideChannelHeader gch = (GuideChannelHeader)mChannels.getChildAt(i);
-            if (gch.getChannel().getId().equals(channelId))
-                gch.refreshFavorite();
-        }
+        mGuideGrid.refreshFavorite(channelId);
     }
 
     @Override
@@ -255,7 +214,7 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     }
 
     protected void doLoad() {
-        if (TvManager.shouldForceReload() || System.currentTimeMillis() >= mCurrentLocalGuideStart + 1800000  || mChannels.getChildCount() == 0) {
+        if (TvManager.shouldForceReload() || System.currentTimeMillis() >= mCurrentLocalGuideStart + 1800000  || mGuideGrid.getRowCount() == 0) {
             load();
 
             mFirstFocusChannelId = TvManager.getLastLiveTvChannel();
@@ -266,23 +225,11 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     protected void onPause() {
         super.onPause();
 
-        if (mDisplayProgramsTask != null) {
-            mDisplayProgramsTask.cancel(true);
-        }
         if (mDetailPopup != null) {
             mDetailPopup.dismiss();
         }
     }
 
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-
-        if (mCurrentLocalGuideStart > System.currentTimeMillis()) {
-            TvManager.forceReload(); //we paged ahead - force a re-load if we come back in
-        }
-    }
-
     @Override
     public boolean onKeyDown(int keyCode, KeyEvent event) {
         switch (keyCode){
@@ -419,7 +366,6 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     private void pageGuideTo(long startTime) {
         if (startTime < System.currentTimeMillis()) startTime = System.currentTimeMillis(); // don't allow the past
         Timber.i("page to %s", (new Date(startTime)).toString());
-        TvManager.forceReload(); // don't allow cache
         if (mSelectedProgram != null) {
             mFirstFocusChannelId = mSelectedProgram.getChannelId();
         }
@@ -485,228 +431,66 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
     }
 
     private void loadProgramData() {
-        mProgramRows.removeAllViews();
-        mChannels.removeAllViews();
         mChannelStatus.setText("");
         mFilterStatus.setText("");
         TvManager.getProgramsAsync(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
             @Override
             public void onResponse() {
                 Timber.d("*** Programs response");
-                if (mDisplayProgramsTask != null) mDisplayProgramsTask.cancel(true);
-                mDisplayProgramsTask = new DisplayProgramsTask();
-                mDisplayProgramsTask.execute(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
+                displayPrograms();
             }
         });
     }
 
-    DisplayProgramsTask mDisplayProgramsTask;
-    class DisplayProgramsTask extends AsyncTask<Integer, Integer, Void> {
-
-        View firstFocusView;
-        int displayedChannels = 0;
-
-        @Override
-        protected void onPreExecute() {
-            Timber.d("*** Display programs pre-execute");
-            mChannels.removeAllViews();
-            mProgramRows.removeAllViews();
-
-            if (mCurrentDisplayChannelStartNdx > 0) {
-                // Show a paging row for channels above
-                int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
-                if (pageUpStart < 0) {
-                    pageUpStart = 0;
-                }
-
-                TextView placeHolder = new TextView(mActivity);
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-                displayedChannels = 0;
-
-                mProgramRows.addView(new GuidePagingButton(mActivity, mActivity, pageUpStart, getString(R.string.lbl_load_channels)+mAllChannels.get(pageUpStart).getNumber() + " - "+mAllChannels.get(mCurrentDisplayChannelStartNdx-1).getNumber()));
-            }
-        }
-
-        @Override
-        protected Void doInBackground(Integer... params) {
-            int start = params[0];
-            int end = params[1];
-            boolean first = true;
-
-            Timber.d("*** About to iterate programs");
-            LinearLayout prevRow = null;
-            for (int i = start; i <= end; i++) {
-                if (isCancelled()) return null;
-                final ChannelInfoDto channel = TvManager.getChannel(i);
-                List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mFilters);
-                final LinearLayout row = getProgramRow(programs, channel.getId());
-                if (row == null) continue; // no row to show
-
-                if (first) {
-                    first = false;
-                    firstFocusView = row;
-                }
-
-                // set focus parameters if we are not on first row
-                // this makes focus movements more predictable for the grid view
-                if (prevRow != null) {
-                    TvManager.setFocusParms(row, prevRow, true);
-                    TvManager.setFocusParms(prevRow, row, false);
-                }
-                prevRow = row;
-
-                runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        GuideChannelHeader header = getChannelHeader(mActivity, channel);
-                        mChannels.addView(header);
-                        header.loadImage();
-                        mProgramRows.addView(row);
-                        // put focus on the last tuned channel
-                        if (channel.getId().equals(mFirstFocusChannelId)) {
-                            firstFocusView = focusAtEnd ? row.getChildAt(row.getChildCount()-1) : row;
-                            focusAtEnd = false;
-                            mFirstFocusChannelId = null;
-                        }
-
-                    }
-                });
+    private void displayPrograms() {
+        String emptyName = getString(R.string.no_program_data);
+        List<GuideRowModel> rows = new ArrayList<>();
+        for (int i = mCurrentDisplayChannelStartNdx; i <= mCurrentDisplayChannelEndNdx; i++) {
+            ChannelInfoDto channel = TvManager.getChannel(i);
+            List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mCurrentLocalGuideStart, mCurrentLocalGuideEnd, mFilters);
+            if (programs.isEmpty() && mFilters.any()) continue; // don't show rows with no program data
 
-                displayedChannels++;
-            }
-            return null;
+            rows.add(GuideRowModel.create(channel, programs, mCurrentLocalGuideStart, mCurrentLocalGuideEnd, emptyName));
         }
 
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Timber.d("*** Display programs post execute");
-            if (mCurrentDisplayChannelEndNdx < mAllChannels.size()-1 && !mFilters.any()) {
-                // Show a paging row for channels below
-                int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
-                if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size()-1;
-
-                TextView placeHolder = new TextView(mActivity);
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-
-                mProgramRows.addView(new GuidePagingButton(mActivity, mActivity, mCurrentDisplayChannelEndNdx + 1, getString(R.string.lbl_load_channels)+mAllChannels.get(mCurrentDisplayChannelEndNdx+1).getNumber() + " - "+mAllChannels.get(pageDnEnd).getNumber()));
+        GuideGridView.Page pageUp = null;
+        if (mCurrentDisplayChannelStartNdx > 0) {
+            // Show a paging row for channels above
+            int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
+            if (pageUpStart < 0) {
+                pageUpStart = 0;
             }
 
-            mChannelStatus.setText(displayedChannels+" of "+mAllChannels.size()+" channels");
-            mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
-            mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
-
-            mResetButton.setVisibility(mCurrentLocalGuideStart > System.currentTimeMillis() ? View.VISIBLE : View.GONE); // show reset button if paged ahead
-
-            mSpinner.setVisibility(View.GONE);
-            if (firstFocusView != null) {
-                firstFocusView.requestFocus();
-            }
+            pageUp = new GuideGridView.Page(pageUpStart, getString(R.string.lbl_load_channels)+mAllChannels.get(pageUpStart).getNumber() + " - "+mAllChannels.get(mCurrentDisplayChannelStartNdx-1).getNumber());
         }
-    }
 
-    private int currentCellId = 0;
+        GuideGridView.Page pageDown = null;
+        if (mCurrentDisplayChannelEndNdx < mAllChannels.size()-1 && !mFilters.any()) {
+            // Show a paging row for channels below
+            int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
+            if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size()-1;
 
-    private GuideChannelHeader getChannelHeader(Context context, ChannelInfoDto channel){
-        return new GuideChannelHeader(context, this, channel);
-    }
-
-    private LinearLayout getProgramRow(List<BaseItemDto> programs, String channelId) {
-
-        LinearLayout programRow = new LinearLayout(this);
-
-        if (programs.size() == 0) {
-            if (mFilters.any()) return null; // don't show rows with no program data
-
-            int minutes = ((Long)((mCurrentLocalGuideEnd - mCurrentLocalGuideStart) / 60000)).intValue();
-            int slot = 0;
-            do {
-                BaseItemDto empty = new BaseItemDto();
-                empty.setId(UUID.randomUUID().toString());
-                empty.setType("FOLDER");
-                empty.setName(getString(R.string.no_program_data));
-                empty.setChannelId(channelId);
-                empty.setStartDate(TimeUtils.convertToUtcDate(new Date(mCurrentLocalGuideStart + ((30*slot) * 60000))));
-                empty.setEndDate(TimeUtils.convertToUtcDate(new Date(mCurrentLocalGuideStart + ((30*(slot+1)) * 60000))));
-                ProgramGridCell cell = new ProgramGridCell(this, this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(30 * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-                if (slot == 0)
-                    cell.setFirst();
-                if (slot == (minutes / 30) - 1)
-                    cell.setLast();
-                slot++;
-            } while((30*slot) < minutes);
-            return programRow;
+            pageDown = new GuideGridView.Page(mCurrentDisplayChannelEndNdx + 1, getString(R.string.lbl_load_channels)+mAllChannels.get(mCurrentDisplayChannelEndNdx+1).getNumber() + " - "+mAllChannels.get(pageDnEnd).getNumber());
         }
 
-        long prevEnd = getCurrentLocalStartDate();
-        for (BaseItemDto item : programs) {
-            long start = item.getStartDate() != null ? TimeUtils.convertToLocalDate(item.getStartDate()).getTime() : getCurrentLocalStartDate();
-            if (start < getCurrentLocalStartDate()) {
-                start = getCurrentLocalStartDate();
-            }
+        mGuideGrid.setRows(rows, pageUp, pageDown);
 
-            if (start < prevEnd)
-                continue;
-
-            if (start > prevEnd) {
-                // fill empty time slot
-                BaseItemDto empty = new BaseItemDto();
-                empty.setId(UUID.randomUUID().toString());
-                empty.setType("FOLDER");
-                empty.setName(getString(R.string.no_program_data));
-                empty.setChannelId(channelId);
-                empty.setStartDate(TimeUtils.convertToUtcDate(new Date(prevEnd)));
-                Long duration = (start - prevEnd);
-                empty.setEndDate(TimeUtils.convertToUtcDate(new Date(prevEnd+duration)));
-                ProgramGridCell cell = new ProgramGridCell(this, this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(((Long)(duration / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (prevEnd == mCurrentLocalGuideStart) {
-                    cell.setFirst();
-                }
-                programRow.addView(cell);
-            }
-            long end = item.getEndDate() != null ? TimeUtils.convertToLocalDate(item.getEndDate()).getTime() : getCurrentLocalEndDate();
-            if (end > getCurrentLocalEndDate()) end = getCurrentLocalEndDate();
-            prevEnd = end;
-            Long duration = (end - start) / 60000;
-            if (duration > 0) {
-                ProgramGridCell program = new ProgramGridCell(this, this, item, false);
-                program.setId(currentCellId++);
-                program.setLayoutParams(new ViewGroup.LayoutParams(duration.intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (start == mCurrentLocalGuideStart) {
-                    program.setFirst();
-                }
-                if (end == mCurrentLocalGuideEnd) {
-                    program.setLast();
-                }
+        mChannelStatus.setText(rows.size()+" of "+mAllChannels.size()+" channels");
+        mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
+        mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
 
-                programRow.addView(program);
-            }
-        }
+        mResetButton.setVisibility(mCurrentLocalGuideStart > System.currentTimeMillis() ? View.VISIBLE : View.GONE); // show reset button if paged ahead
 
-        //If not at end of time period - fill in the rest
-        if (prevEnd < mCurrentLocalGuideEnd) {
-            // fill empty time slot
-            BaseItemDto empty = new BaseItemDto();
-            empty.setId(UUID.randomUUID().toString());
-            empty.setType("FOLDER");
-            empty.setName(getString(R.string.no_program_data));
-            empty.setChannelId(channelId);
-            empty.setStartDate(TimeUtils.convertToUtcDate(new Date(prevEnd)));
-            Long duration = (mCurrentLocalGuideEnd - prevEnd);
-            empty.setEndDate(TimeUtils.convertToUtcDate(new Date(prevEnd+duration)));
-            ProgramGridCell cell = new ProgramGridCell(this, this, empty, false);
-            cell.setId(currentCellId++);
-            cell.setLayoutParams(new ViewGroup.LayoutParams(((Long)(duration / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-            programRow.addView(cell);
-        }
+        mSpinner.setVisibility(View.GONE);
 
-        return programRow;
+        // put focus on the last tuned channel
+        if (mFirstFocusChannelId != null && mGuideGrid.getRow(mFirstFocusChannelId) != null) {
+            mGuideGrid.focusChannel(mFirstFocusChannelId, focusAtEnd);
+            focusAtEnd = false;
+            mFirstFocusChannelId = null;
+        } else {
+            mGuideGrid.focusChannel(null, false);
+        }
     }
 
     private void fillTimeLine(long start, int hours) {
@@ -735,6 +519,7 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
             //after first one, we always go on hours
             interval = 60;
         }
+        mGuideGrid.setTimeRange(mCurrentLocalGuideStart, mCurrentLocalGuideEnd);
     }
 
     public long getCurrentLocalStartDate() { return mCurrentLocalGuideStart; }
@@ -780,6 +565,7 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
             int imageSize = Utils.convertDpToPixel(this, 150);
             Glide.with(mActivity)
                     .load(url)
+                    .apply(JellyfinImageBuckets.requestOptions(url))
                     .override(imageSize, imageSize)
                     .centerInside()
                     .into(mImage);
@@ -795,24 +581,12 @@ public class LiveTvGuideActivity extends BaseActivity implements LiveTvGuide {
             mHandler.removeCallbacks(detailUpdateTask);
             mHandler.postDelayed(detailUpdateTask, 500);
         } else if (mSelectedProgramView instanceof GuideChannelHeader) {
-            for (int i = 0; i < mChannels.getChildCount(); i++) {
-                if (mSelectedProgramView == mChannels.getChildAt(i)) {
-                    LinearLayout programRow = (LinearLayout)mProgramRows.getChildAt(i);
-                    if (programRow == null)
-                        return;
-                    Date utcTime = TimeUtils.convertToUtcDate(new Date());
-                    for (int ii = 0; ii < programRow.getChildCount(); ii++) {
-                        ProgramGridCell prog = (ProgramGridCell)programRow.getChildAt(ii);
-                        if (prog.getProgram() != null && prog.getProgram().getStartDate().before(utcTime) && prog.getProgram().getEndDate().after(utcTime)) {
-                            mSelectedProgram = prog.getProgram();
-                            if (mSelectedProgram != null) {
-                                mHandler.removeCallbacks(detailUpdateTask);
-                                mHandler.postDelayed(detailUpdateTask, 500);
-                            }
-                            return;
-                        }
-                    }
-                }
+            GuideRowModel row = mGuideGrid.getRow(((GuideChannelHeader) mSelectedProgramView).getChannel().getId());
+            BaseItemDto program = row != null ? row.getProgramAt(System.currentTimeMillis()) : null;
+            if (program != null) {
+                mSelectedProgram = program;
+                mHandler.removeCallbacks(detailUpdateTask);
+                mHandler.postDelayed(detailUpdateTask, 500);
             }
         }
     }
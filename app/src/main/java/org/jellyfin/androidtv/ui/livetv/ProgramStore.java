@@ -0,0 +1,163 @@
+package org.jellyfin.androidtv.ui.livetv;
+
+import androidx.annotation.Nullable;
+
+import org.jellyfin.androidtv.util.TimeUtils;
+import org.jellyfin.apiclient.model.dto.BaseItemDto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Guide programs indexed by channel and start time. The store remembers which half hour tiles
+ * were loaded for every channel so only the missing parts of a guide page have to be requested.
+ * Times passed to the store are local, the programs are indexed by their (utc) start date so they
+ * don't need to be converted when they are added.
+ */
+class ProgramStore {
+    static final long TILE_MS = 30 * 60000;
+
+    /**
+     * The channels and (local) times to request, covering all tiles missing for these channels.
+     */
+    static class Request {
+        private final String[] channelIds;
+        private final long start;
+        private final long end;
+
+        Request(String[] channelIds, long start, long end) {
+            this.channelIds = channelIds;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String[] getChannelIds() { return channelIds; }
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+    }
+
+    private static class ChannelPrograms {
+        private final TreeMap<Long, BaseItemDto> programs = new TreeMap<>();
+        private final TreeSet<Long> tiles = new TreeSet<>();
+    }
+
+    private final Map<String, ChannelPrograms> channels = new HashMap<>();
+    private int generation = 0;
+
+    static long getTile(long time) {
+        return time / TILE_MS * TILE_MS;
+    }
+
+    /**
+     * Changed every time the store is cleared.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the request for the tiles missing between {@code start} and {@code end} or null when
+     * everything is loaded
+     */
+    @Nullable
+    public Request getMissing(String[] channelIds, long start, long end) {
+        long firstTile = getTile(start);
+        long missingStart = Long.MAX_VALUE;
+        long missingEnd = Long.MIN_VALUE;
+        List<String> missingChannels = new ArrayList<>();
+
+        for (String channelId : channelIds) {
+            ChannelPrograms channel = channels.get(channelId);
+            boolean missing = false;
+            for (long tile = firstTile; tile < end; tile += TILE_MS) {
+                if (channel != null && channel.tiles.contains(tile)) continue;
+
+                missing = true;
+                missingStart = Math.min(missingStart, tile);
+                missingEnd = Math.max(missingEnd, tile + TILE_MS);
+            }
+            if (missing) missingChannels.add(channelId);
+        }
+
+        if (missingChannels.isEmpty()) return null;
+        return new Request(missingChannels.toArray(new String[0]), missingStart, missingEnd);
+    }
+
+    /**
+     * Add the response of {@code request}, replacing the programs previously loaded for its times.
+     */
+    public void add(Request request, BaseItemDto[] programs) {
+        long utcStart = toUtc(request.start);
+        long utcEnd = toUtc(request.end);
+        for (String channelId : request.channelIds) {
+            ChannelPrograms channel = getOrCreate(channelId);
+            // the response contains all programs playing in the requested times
+            Map.Entry<Long, BaseItemDto> previous = channel.programs.lowerEntry(utcStart);
+            if (previous != null && previous.getValue().getEndDate().getTime() > utcStart) channel.programs.remove(previous.getKey());
+            channel.programs.subMap(utcStart, utcEnd).clear();
+            for (long tile = request.start; tile < request.end; tile += TILE_MS) channel.tiles.add(tile);
+        }
+
+        if (programs == null) return;
+        for (BaseItemDto program : programs) {
+            if (program.getChannelId() == null || program.getStartDate() == null || program.getEndDate() == null) continue;
+            getOrCreate(program.getChannelId()).programs.put(program.getStartDate().getTime(), program);
+        }
+    }
+
+    /**
+     * @return the programs of a channel playing between the local {@code start} and {@code end},
+     * sorted by start date
+     */
+    public List<BaseItemDto> getPrograms(String channelId, long start, long end) {
+        List<BaseItemDto> results = new ArrayList<>();
+        ChannelPrograms channel = channels.get(channelId);
+        if (channel == null) return results;
+
+        long utcStart = toUtc(start);
+        long utcEnd = toUtc(end);
+        // a program started before the start time can still be playing
+        Map.Entry<Long, BaseItemDto> previous = channel.programs.lowerEntry(utcStart);
+        if (previous != null && previous.getValue().getEndDate().getTime() > utcStart) results.add(previous.getValue());
+        results.addAll(channel.programs.subMap(utcStart, utcEnd).values());
+        return results;
+    }
+
+    /**
+     * Drop the tiles before the one {@code now} is in and the programs ending before it.
+     */
+    public void expire(long now) {
+        long currentTile = getTile(now);
+        long utcCurrentTile = toUtc(currentTile);
+        for (ChannelPrograms channel : channels.values()) {
+            channel.tiles.headSet(currentTile).clear();
+
+            Map<Long, BaseItemDto> started = channel.programs.headMap(utcCurrentTile);
+            started.values().removeIf(program -> program.getEndDate().getTime() <= utcCurrentTile);
+        }
+        channels.values().removeIf(channel -> channel.tiles.isEmpty() && channel.programs.isEmpty());
+    }
+
+    public void clear() {
+        channels.clear();
+        generation++;
+    }
+
+    private ChannelPrograms getOrCreate(String channelId) {
+        ChannelPrograms channel = channels.get(channelId);
+        if (channel == null) {
+            channel = new ChannelPrograms();
+            channels.put(channelId, channel);
+        }
+        return channel;
+    }
+
+    private static long toUtc(long localTime) {
+        return TimeUtils.convertToUtcDate(new Date(localTime)).getTime();
+    }
+}
@@ -5,6 +5,8 @@ import static org.koin.java.KoinJavaComponent.get;
 import android.app.Activity;
 import android.content.Context;
 import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.format.DateUtils;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -17,9 +19,10 @@ import androidx.leanback.widget.Presenter;
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.auth.repository.UserRepository;
 import org.jellyfin.androidtv.constant.QueryType;
+import org.jellyfin.androidtv.data.repository.GuideSnapshot;
+import org.jellyfin.androidtv.data.repository.GuideSnapshotRepository;
 import org.jellyfin.androidtv.preference.LiveTvPreferences;
 import org.jellyfin.androidtv.preference.SystemPreferences;
-import org.jellyfin.androidtv.ui.ProgramGridCell;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
@@ -46,19 +49,24 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import timber.log.Timber;
 
 public class TvManager {
+    private static final Executor SNAPSHOT_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
     private static List<ChannelInfoDto> allChannels;
     private static String[] channelIds;
-    private static HashMap<String, ArrayList<BaseItemDto>> mProgramsDict = new HashMap<>();
-    private static Calendar needLoadTime;
-    private static Calendar programNeedLoadTime;
+    private static final ProgramStore programStore = new ProgramStore();
+    private static long programsLoadedTile = -1;
+    private static int programsLoadedGeneration = -1;
+    // the programs added from the guide snapshot, reloaded once the channels are loaded
+    private static ProgramStore.Request snapshotRequest;
     private static boolean forceReload;
 
     public static String getLastLiveTvChannel() {
@@ -108,10 +116,10 @@ public class TvManager {
         }
     }
 
-    public static void loadAllChannels(final Response<Integer> outerResponse) {
+    public static LiveTvChannelQuery createChannelQuery(String userId) {
         LiveTvPreferences liveTvPreferences = get(LiveTvPreferences.class);
         LiveTvChannelQuery query = new LiveTvChannelQuery();
-        query.setUserId(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString());
+        query.setUserId(userId);
         query.setAddCurrentProgram(true);
         query.setEnableFavoriteSorting(liveTvPreferences.get(LiveTvPreferences.Companion.getFavsAtTop()));
         if (ItemSortBy.DatePlayed.equals(liveTvPreferences.get(LiveTvPreferences.Companion.getChannelOrder()))) {
@@ -120,6 +128,67 @@ public class TvManager {
         } else {
             query.setSortBy(new String[] { ItemSortBy.SortName });
         }
+        return query;
+    }
+
+    public static ProgramQuery createProgramQuery(String userId, String[] channelIds, long start, long end) {
+        ProgramQuery query = new ProgramQuery();
+        query.setUserId(userId);
+        query.setChannelIds(channelIds);
+        query.setEnableImages(false);
+        query.setSortBy(new String[] {ItemSortBy.StartDate});
+        query.setMaxStartDate(new Date(end - 1000));
+        query.setMinEndDate(new Date(start + 1000));
+        return query;
+    }
+
+    /**
+     * @return the start of the half hour {@code time} is in, the guide pages and the loaded
+     * programs start at these times
+     */
+    public static long getGuideTile(long time) {
+        return ProgramStore.getTile(time);
+    }
+
+    /**
+     * @return the index of the first channel shown when the guide opens on the channel returned by
+     * {@link #loadAllChannels}
+     */
+    public static int getFirstPageStart(int ndx, int pageSize) {
+        // when the last channel is not in the first page grab a set where it will be in the middle
+        return ndx >= pageSize ? ndx - (pageSize / 2) : 0;
+    }
+
+    /**
+     * Load all channels. When no channels are loaded yet the snapshot written by the
+     * {@link org.jellyfin.androidtv.integration.GuidePrefetchWorker} is used while the channels are
+     * requested, {@code outerResponse} is then called a second time after the snapshot is
+     * reconciled with the server.
+     */
+    public static void loadAllChannels(final Response<Integer> outerResponse) {
+        LiveTvPreferences liveTvPreferences = get(LiveTvPreferences.class);
+        final String userId = KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString();
+        LiveTvChannelQuery query = createChannelQuery(userId);
+        final boolean[] servedFromSnapshot = {false};
+        final boolean[] revalidated = {false};
+
+        if (allChannels == null) {
+            final GuideSnapshotRepository snapshotRepository = KoinJavaComponent.<GuideSnapshotRepository>get(GuideSnapshotRepository.class);
+            final int generation = programStore.getGeneration();
+            SNAPSHOT_EXECUTOR.execute(() -> {
+                final GuideSnapshot snapshot = snapshotRepository.read(userId);
+                if (snapshot == null) return;
+
+                MAIN_HANDLER.post(() -> {
+                    if (revalidated[0] || allChannels != null || generation != programStore.getGeneration()) return;
+
+                    Timber.d("*** Showing guide snapshot while loading channels");
+                    servedFromSnapshot[0] = true;
+                    addSnapshot(snapshot);
+                    outerResponse.onResponse(fillChannelIds());
+                });
+            });
+        }
 
         Timber.d("*** About to load channels");
         Timber.d("Preferences: EnableFavoriteSorting=%s, ChannelOrder=%s", liveTvPreferences.get(LiveTvPreferences.Companion.getFavsAtTop()), liveTvPreferences.get(LiveTvPreferences.Companion.getChannelOrder()));
@@ -127,12 +196,73 @@ public class TvManager {
             @Override
             public void onResponse(final ChannelInfoDtoResult response) {
                 Timber.d("*** channel query response");
+                revalidated[0] = true;
                 allChannels = new ArrayList<>();
                 if (response.getTotalRecordCount() > 0) {
                     Collections.addAll(allChannels, response.getItems());
                 }
 
-                outerResponse.onResponse(fillChannelIds());
+                final int ndx = fillChannelIds();
+                if (!servedFromSnapshot[0]) {
+                    outerResponse.onResponse(ndx);
+                    return;
+                }
+
+                // the programs in the snapshot may have changed as well
+                reloadSnapshotPrograms(userId, new EmptyResponse() {
+                    @Override
+                    public void onResponse() {
+                        outerResponse.onResponse(ndx);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        Timber.w(exception, "Unable to reload the programs of the guide snapshot");
+                        outerResponse.onResponse(ndx);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                revalidated[0] = true;
+                // keep showing the snapshot
+                if (servedFromSnapshot[0]) Timber.w(exception, "Unable to reconcile the guide snapshot");
+            }
+        });
+    }
+
+    private static void addSnapshot(GuideSnapshot snapshot) {
+        allChannels = new ArrayList<>();
+        Collections.addAll(allChannels, snapshot.getChannels());
+
+        long start = Math.max(ProgramStore.getTile(System.currentTimeMillis()), snapshot.getStart());
+        if (start >= snapshot.getEnd() || snapshot.getProgramChannelIds().length == 0) return;
+
+        snapshotRequest = new ProgramStore.Request(snapshot.getProgramChannelIds(), start, snapshot.getEnd());
+        programStore.add(snapshotRequest, snapshot.getPrograms());
+    }
+
+    private static void reloadSnapshotPrograms(String userId, final EmptyResponse outerResponse) {
+        final ProgramStore.Request request = snapshotRequest;
+        snapshotRequest = null;
+        if (request == null) {
+            outerResponse.onResponse();
+            return;
+        }
+
+        final int generation = programStore.getGeneration();
+        ProgramQuery query = createProgramQuery(userId, request.getChannelIds(), request.getStart(), request.getEnd());
+        KoinJavaComponent.<ApiClient>get(ApiClient.class).GetLiveTvProgramsAsync(query, new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                if (generation == programStore.getGeneration()) programStore.add(request, response.getItems());
+                outerResponse.onResponse();
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                outerResponse.onError(exception);
             }
         });
     }
@@ -152,74 +282,61 @@ public class TvManager {
         return ndx;
     }
 
+    /**
+     * Make sure the programs of the channels between {@code startNdx} and {@code endNdx} are loaded
+     * for the guide times. Only the parts not in the program store yet are requested.
+     */
     public static void getProgramsAsync(int startNdx, int endNdx, final Calendar start, Calendar endTime, final EmptyResponse outerResponse) {
-        start.set(Calendar.MINUTE, start.get(Calendar.MINUTE) >= 30 ? 30 : 0);
-        start.set(Calendar.SECOND, 1);
-        if (forceReload || needLoadTime == null || start.after(needLoadTime) || !mProgramsDict.containsKey(channelIds[startNdx]) || !mProgramsDict.containsKey(channelIds[endNdx])) {
+        if (forceReload) {
             forceReload = false;
-            ProgramQuery query = new ProgramQuery();
-            query.setUserId(KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString());
-            endNdx = endNdx > channelIds.length ? channelIds.length : endNdx+1; //array copy range final ndx is exclusive
-            query.setChannelIds(Arrays.copyOfRange(channelIds, startNdx, endNdx));
-            query.setEnableImages(false);
-            query.setSortBy(new String[] {ItemSortBy.StartDate});
-            Calendar end = (Calendar) endTime.clone();
-            end.setTimeZone(TimeZone.getTimeZone("Z"));
-            end.add(Calendar.SECOND, -1);
-            query.setMaxStartDate(end.getTime());
-            query.setMinEndDate(start.getTime());
-
-            Timber.d("*** About to get programs");
-
-            KoinJavaComponent.<ApiClient>get(ApiClient.class).GetLiveTvProgramsAsync(query, new Response<ItemsResult>() {
-                @Override
-                public void onResponse(ItemsResult response) {
-                    Timber.d("*** About to build dictionary");
-                    buildProgramsDict(response.getItems(), start);
-                    Timber.d("*** Programs retrieval finished");
-
-                    outerResponse.onResponse();
-                }
-
-                @Override
-                public void onError(Exception exception) {
-                    outerResponse.onError(exception);
-                }
-            });
+            programStore.clear();
+        }
+        programStore.expire(System.currentTimeMillis());
 
-        } else {
+        endNdx = endNdx >= channelIds.length ? channelIds.length : endNdx+1; //array copy range final ndx is exclusive
+        final ProgramStore.Request request = programStore.getMissing(Arrays.copyOfRange(channelIds, startNdx, endNdx), start.getTimeInMillis(), endTime.getTimeInMillis());
+        if (request == null) {
             outerResponse.onResponse();
+            return;
         }
-    }
 
-    private static void buildProgramsDict(BaseItemDto[] programs, Calendar startTime) {
-        mProgramsDict = new HashMap<>();
-        long start = startTime.getTimeInMillis();
-        for (BaseItemDto program : programs) {
-            String id = program.getChannelId();
-            if (!mProgramsDict.containsKey(id)) mProgramsDict.put(id, new ArrayList<BaseItemDto>());
-            if (TimeUtils.convertToLocalDate(program.getEndDate()).getTime() > start)
-                mProgramsDict.get(id).add(program);
-        }
-        needLoadTime = (Calendar) startTime.clone();
-        needLoadTime.setTimeZone(TimeZone.getTimeZone("Z"));
-        needLoadTime.add(Calendar.MINUTE, 29);
+        String userId = KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue().getId().toString();
+        ProgramQuery query = createProgramQuery(userId, request.getChannelIds(), request.getStart(), request.getEnd());
 
-    }
+        Timber.d("*** About to get programs for %d channels", request.getChannelIds().length);
+        final int generation = programStore.getGeneration();
+        KoinJavaComponent.<ApiClient>get(ApiClient.class).GetLiveTvProgramsAsync(query, new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                // the store was cleared while loading, the programs may be outdated
+                if (generation == programStore.getGeneration()) programStore.add(request, response.getItems());
+                Timber.d("*** Programs retrieval finished");
+
+                outerResponse.onResponse();
+            }
 
-    public static Calendar updateProgramsNeedsLoadTime() {
-        programNeedLoadTime = new GregorianCalendar(TimeZone.getTimeZone("Z"));
-        programNeedLoadTime.set(Calendar.MINUTE, programNeedLoadTime.get(Calendar.MINUTE) >= 30 ? 30 : 0);
-        programNeedLoadTime.set(Calendar.SECOND, 0);
-        return programNeedLoadTime;
+            @Override
+            public void onError(Exception exception) {
+                outerResponse.onError(exception);
+            }
+        });
     }
 
-    public static boolean programsNeedLoad(Calendar now) { return programNeedLoadTime == null || now.after(programNeedLoadTime); }
+    public static void updateProgramsNeedsLoadTime() {
+        programsLoadedTile = ProgramStore.getTile(System.currentTimeMillis());
+        programsLoadedGeneration = programStore.getGeneration();
+    }
 
-    public static List<BaseItemDto> getProgramsForChannel(String channelId, GuideFilters filters) {
-        if (!mProgramsDict.containsKey(channelId)) return new ArrayList<>();
+    /**
+     * @return true when the programs shown outside of the guide should be loaded again because the
+     * half hour they were loaded in has passed or the program store was reloaded since
+     */
+    public static boolean programsNeedLoad(long now) {
+        return ProgramStore.getTile(now) != programsLoadedTile || programStore.getGeneration() != programsLoadedGeneration;
+    }
 
-        List<BaseItemDto> results = mProgramsDict.get(channelId);
+    public static List<BaseItemDto> getProgramsForChannel(String channelId, long start, long end, GuideFilters filters) {
+        List<BaseItemDto> results = programStore.getPrograms(channelId, start, end);
         boolean passes = filters == null || !filters.any();
         if (passes) return results;
 
@@ -231,9 +348,8 @@ public class TvManager {
         return passes ? results : new ArrayList<BaseItemDto>();
     }
 
-    public static List<BaseItemDto> getProgramsForChannel(String channelId) {
-        return !mProgramsDict.containsKey(channelId) ? new ArrayList<BaseItemDto>() : mProgramsDict.get(channelId);
-
+    public static List<BaseItemDto> getProgramsForChannel(String channelId, long start, long end) {
+        return programStore.getPrograms(channelId, start, end);
     }
 
     public static void setTimelineRow(Activity activity, LinearLayout timelineRow, BaseItemDto program) {
@@ -253,34 +369,6 @@ public class TvManager {
 
     }
 
-    // this makes focus movements more predictable for the grid view
-    public static void setFocusParms(LinearLayout currentRow, LinearLayout otherRow, boolean up) {
-
-        for (int currentRowNdx = 0; currentRowNdx < currentRow.getChildCount(); currentRowNdx++) {
-            ProgramGridCell cell = (ProgramGridCell) currentRow.getChildAt(currentRowNdx);
-            ProgramGridCell otherCell = getOtherCell(otherRow, cell);
-            if (otherCell != null) {
-                if (up) {
-                    cell.setNextFocusUpId(otherCell.getId());
-                } else {
-                    cell.setNextFocusDownId(otherCell.getId());
-                }
-            }
-        }
-    }
-
-    private static ProgramGridCell getOtherCell(LinearLayout otherRow, ProgramGridCell cell) {
-        // find first cell in other row where our left edge is within its body (will be first one who's right edge is greater than our left)
-        for (int otherRowNdx = 0; otherRowNdx < otherRow.getChildCount(); otherRowNdx++) {
-            ProgramGridCell otherCell = (ProgramGridCell) otherRow.getChildAt(otherRowNdx);
-            if (otherCell.getProgram().getEndDate() != null && cell.getProgram().getStartDate() != null &&
-                    otherCell.getProgram().getEndDate().getTime() > cell.getProgram().getStartDate().getTime()) {
-                return otherCell;
-            }
-        }
-        return null;
-    }
-
     public static void getScheduleRowsAsync(Context context, TimerQuery query, final Presenter presenter, final ArrayObjectAdapter rowAdapter, final Response<Integer> outerResponse) {
         KoinJavaComponent.<ApiClient>get(ApiClient.class).GetLiveTvTimersAsync(query, new Response<TimerInfoDtoResult>() {
             @Override
@@ -279,7 +279,6 @@ public class AudioNowPlayingActivity extends BaseActivity {
 
     protected void addQueue() {
         mQueueRow = new ListRow(new HeaderItem("Current Queue"), mediaManager.getValue().getCurrentAudioQueue());
-        mediaManager.getValue().getCurrentAudioQueue().setRow(mQueueRow);
         mRowsAdapter.add(mQueueRow);
     }
 
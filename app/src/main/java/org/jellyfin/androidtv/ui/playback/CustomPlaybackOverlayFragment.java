@@ -7,7 +7,6 @@ import android.content.Context;
 import android.content.Intent;
 import android.graphics.Color;
 import android.media.AudioManager;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.text.Spannable;
@@ -19,7 +18,6 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
-import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
@@ -45,17 +43,13 @@ import org.jellyfin.androidtv.databinding.OverlayTvGuideBinding;
 import org.jellyfin.androidtv.databinding.VlcPlayerInterfaceBinding;
 import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.ui.GuideChannelHeader;
-import org.jellyfin.androidtv.ui.GuidePagingButton;
-import org.jellyfin.androidtv.ui.HorizontalScrollViewListener;
 import org.jellyfin.androidtv.ui.LiveProgramDetailPopup;
-import org.jellyfin.androidtv.ui.ObservableHorizontalScrollView;
-import org.jellyfin.androidtv.ui.ObservableScrollView;
 import org.jellyfin.androidtv.ui.ProgramGridCell;
-import org.jellyfin.androidtv.ui.ScrollViewListener;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
+import org.jellyfin.androidtv.ui.livetv.GuideGridView;
+import org.jellyfin.androidtv.ui.livetv.GuideRowModel;
 import org.jellyfin.androidtv.ui.livetv.LiveTvGuide;
-import org.jellyfin.androidtv.ui.livetv.LiveTvGuideActivity;
 import org.jellyfin.androidtv.ui.livetv.TvManager;
 import org.jellyfin.androidtv.ui.playback.nextup.NextUpActivity;
 import org.jellyfin.androidtv.ui.playback.overlay.LeanbackOverlayFragment;
@@ -87,7 +81,6 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
 
 import kotlin.Lazy;
 import timber.log.Timber;
@@ -115,7 +108,6 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
     private int mCurrentDisplayChannelStartNdx = 0;
     private int mCurrentDisplayChannelEndNdx = 0;
     private List<ChannelInfoDto> mAllChannels;
-    private String mFirstFocusChannelId;
 
     private PlaybackController mPlaybackController;
     private List<BaseItemDto> mItemsToPlay;
@@ -262,39 +254,13 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         tvGuideBinding.channelsStatus.setTextColor(Color.GRAY);
         tvGuideBinding.filterStatus.setTextColor(Color.GRAY);
 
-        tvGuideBinding.programRows.setFocusable(false);
-        tvGuideBinding.programVScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.channelScroller.scrollTo(x, y);
-            }
-        });
-
-        tvGuideBinding.channelScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.programVScroller.scrollTo(x, y);
-            }
-        });
-
         tvGuideBinding.timelineHScroller.setFocusable(false);
         tvGuideBinding.timelineHScroller.setFocusableInTouchMode(false);
         tvGuideBinding.timeline.setFocusable(false);
         tvGuideBinding.timeline.setFocusableInTouchMode(false);
-        tvGuideBinding.channelScroller.setFocusable(false);
-        tvGuideBinding.channelScroller.setFocusableInTouchMode(false);
-
-        tvGuideBinding.programHScroller.setScrollViewListener(new HorizontalScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableHorizontalScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.timelineHScroller.scrollTo(x, y);
-            }
-        });
-        tvGuideBinding.programHScroller.setFocusable(false);
-        tvGuideBinding.programHScroller.setFocusableInTouchMode(false);
 
-        tvGuideBinding.channels.setFocusable(false);
-        tvGuideBinding.channelScroller.setFocusable(false);
+        tvGuideBinding.guideGrid.setGuide(this);
+        tvGuideBinding.guideGrid.setOnOffsetChangedListener(offset -> tvGuideBinding.timelineHScroller.scrollTo(offset, 0));
 
         // register to receive message from popup
         ((PlaybackOverlayActivity) requireActivity()).registerMessageListener(message -> {
@@ -436,11 +402,7 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
     }
 
     public void refreshFavorite(String channelId){
-        for (int i = 0; i < tvGuideBinding.channels.getChildCount(); i++) {
-            GuideChannelHeader gch = (GuideChannelHeader) tvGuideBinding.channels.getChildAt(i);
-            if (gch.getChannel().getId().equals(channelId))
-                gch.refreshFavorite();
-        }
+        tvGuideBinding.guideGrid.refreshFavorite(channelId);
     }
 
     private void toggleFavorite() {
@@ -744,16 +706,9 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         TvManager.loadAllChannels(new Response<Integer>() {
             @Override
             public void onResponse(Integer ndx) {
-                if (ndx >= PAGE_SIZE) {
-                    // last channel is not in first page so grab a set where it will be in the middle
-                    ndx = ndx - (PAGE_SIZE / 2);
-                } else {
-                    ndx = 0; // just start at beginning
-                }
-
                 mAllChannels = TvManager.getAllChannels();
                 if (mAllChannels.size() > 0) {
-                    displayChannels(ndx, PAGE_SIZE);
+                    displayChannels(TvManager.getFirstPageStart(ndx, PAGE_SIZE), PAGE_SIZE);
                 } else {
                     tvGuideBinding.spinner.setVisibility(View.GONE);
                 }
@@ -770,203 +725,54 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         Timber.d("*** Display channels pre-execute");
         tvGuideBinding.spinner.setVisibility(View.VISIBLE);
 
-        tvGuideBinding.channels.removeAllViews();
-        tvGuideBinding.programRows.removeAllViews();
         tvGuideBinding.channelsStatus.setText("");
         tvGuideBinding.filterStatus.setText("");
-        final CustomPlaybackOverlayFragment self = this;
         TvManager.getProgramsAsync(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
             @Override
             public void onResponse() {
                 Timber.d("*** Programs response");
-                if (mDisplayProgramsTask != null) mDisplayProgramsTask.cancel(true);
-                mDisplayProgramsTask = new DisplayProgramsTask(self);
-                mDisplayProgramsTask.execute(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
+                if (!isAdded()) return;
+                displayPrograms();
             }
         });
     }
 
-    DisplayProgramsTask mDisplayProgramsTask;
-
-    class DisplayProgramsTask extends AsyncTask<Integer, Integer, Void> {
-        private View firstRow;
-        private int displayedChannels = 0;
-        private final LiveTvGuide guide;
-
-        DisplayProgramsTask(LiveTvGuide guide) {
-            super();
-            this.guide = guide;
+    private void displayPrograms() {
+        String emptyName = getString(R.string.no_program_data);
+        List<GuideRowModel> rows = new ArrayList<>();
+        for (int i = mCurrentDisplayChannelStartNdx; i <= mCurrentDisplayChannelEndNdx; i++) {
+            ChannelInfoDto channel = TvManager.getChannel(i);
+            List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mCurrentLocalGuideStart, mCurrentLocalGuideEnd);
+            rows.add(GuideRowModel.create(channel, programs, mCurrentLocalGuideStart, mCurrentLocalGuideEnd, emptyName));
         }
 
-        @Override
-        protected void onPreExecute() {
-            Timber.d("*** Display programs pre-execute");
-            tvGuideBinding.channels.removeAllViews();
-            tvGuideBinding.programRows.removeAllViews();
-            mFirstFocusChannelId = mPlaybackController.getCurrentlyPlayingItem().getId();
-
-            if (mCurrentDisplayChannelStartNdx > 0) {
-                // Show a paging row for channels above
-                int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
-                if (pageUpStart < 0) pageUpStart = 0;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(Utils.convertDpToPixel(getContext(), LiveTvGuideActivity.GUIDE_ROW_HEIGHT_DP));
-                tvGuideBinding.channels.addView(placeHolder);
-                displayedChannels = 0;
-
-                tvGuideBinding.programRows.addView(new GuidePagingButton(requireActivity(), guide, pageUpStart, getString(R.string.lbl_load_channels) + mAllChannels.get(pageUpStart).getNumber() + " - " + mAllChannels.get(mCurrentDisplayChannelStartNdx - 1).getNumber()));
-            }
-        }
-
-        @Override
-        protected Void doInBackground(Integer... params) {
-            int start = params[0];
-            int end = params[1];
-
-            boolean first = true;
-
-            Timber.d("*** About to iterate programs");
-            LinearLayout prevRow = null;
-            for (int i = start; i <= end; i++) {
-                if (isCancelled()) return null;
-                final ChannelInfoDto channel = TvManager.getChannel(i);
-                List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId());
-                final LinearLayout row = getProgramRow(programs, channel.getId());
-                if (first) {
-                    first = false;
-                    firstRow = row;
-                }
-
-                // put focus on the last tuned channel
-                if (channel.getId().equals(mFirstFocusChannelId)) {
-                    firstRow = row;
-                    mFirstFocusChannelId = null; // only do this first time in not while paging around
-                }
-
-                // set focus parameters if we are not on first row
-                // this makes focus movements more predictable for the grid view
-                if (prevRow != null) {
-                    TvManager.setFocusParms(row, prevRow, true);
-                    TvManager.setFocusParms(prevRow, row, false);
-                }
-                prevRow = row;
-
-                requireActivity().runOnUiThread(() -> {
-                    GuideChannelHeader header = getChannelHeader(requireContext(), channel);
-                    tvGuideBinding.channels.addView(header);
-                    header.loadImage();
-                    tvGuideBinding.programRows.addView(row);
-                });
+        GuideGridView.Page pageUp = null;
+        if (mCurrentDisplayChannelStartNdx > 0) {
+            // Show a paging row for channels above
+            int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
+            if (pageUpStart < 0) pageUpStart = 0;
 
-                displayedChannels++;
-            }
-            return null;
+            pageUp = new GuideGridView.Page(pageUpStart, getString(R.string.lbl_load_channels) + mAllChannels.get(pageUpStart).getNumber() + " - " + mAllChannels.get(mCurrentDisplayChannelStartNdx - 1).getNumber());
         }
 
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Timber.d("*** Display programs post execute");
-            if (mCurrentDisplayChannelEndNdx < mAllChannels.size() - 1) {
-                // Show a paging row for channels below
-                int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
-                if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size() - 1;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(Utils.convertDpToPixel(getContext(), LiveTvGuideActivity.GUIDE_ROW_HEIGHT_DP));
-                tvGuideBinding.channels.addView(placeHolder);
-
-                tvGuideBinding.programRows.addView(new GuidePagingButton(requireActivity(), guide, mCurrentDisplayChannelEndNdx + 1, getString(R.string.lbl_load_channels) + mAllChannels.get(mCurrentDisplayChannelEndNdx + 1).getNumber() + " - " + mAllChannels.get(pageDnEnd).getNumber()));
-            }
-
-            tvGuideBinding.channelsStatus.setText(getResources().getString(R.string.lbl_tv_channel_status, displayedChannels, mAllChannels.size()));
-            tvGuideBinding.filterStatus.setText(getResources().getString(R.string.lbl_tv_filter_status, GUIDE_HOURS));
-
-            tvGuideBinding.spinner.setVisibility(View.GONE);
+        GuideGridView.Page pageDown = null;
+        if (mCurrentDisplayChannelEndNdx < mAllChannels.size() - 1) {
+            // Show a paging row for channels below
+            int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
+            if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size() - 1;
 
-            if (firstRow != null) firstRow.requestFocus();
+            pageDown = new GuideGridView.Page(mCurrentDisplayChannelEndNdx + 1, getString(R.string.lbl_load_channels) + mAllChannels.get(mCurrentDisplayChannelEndNdx + 1).getNumber() + " - " + mAllChannels.get(pageDnEnd).getNumber());
         }
-    }
 
-    private int currentCellId = 0;
+        tvGuideBinding.guideGrid.setRows(rows, pageUp, pageDown);
 
-    private GuideChannelHeader getChannelHeader(Context context, ChannelInfoDto channel){
-        return new GuideChannelHeader(context, this, channel);
-    }
+        tvGuideBinding.channelsStatus.setText(getResources().getString(R.string.lbl_tv_channel_status, rows.size(), mAllChannels.size()));
+        tvGuideBinding.filterStatus.setText(getResources().getString(R.string.lbl_tv_filter_status, GUIDE_HOURS));
 
-    private LinearLayout getProgramRow(List<BaseItemDto> programs, String channelId) {
-        int guideRowHeightPx = Utils.convertDpToPixel(getContext(), LiveTvGuideActivity.GUIDE_ROW_HEIGHT_DP);
-        int guideRowWidthPerMinPx = Utils.convertDpToPixel(getContext(), LiveTvGuideActivity.GUIDE_ROW_WIDTH_PER_MIN_DP);
-
-        LinearLayout programRow = new LinearLayout(requireContext());
-        if (programs.size() == 0) {
-
-            int minutes = ((Long)((mCurrentLocalGuideEnd - mCurrentLocalGuideStart) / 60000)).intValue();
-            int slot = 0;
-
-            do {
-                BaseItemDto empty = new BaseItemDto();
-                empty.setId(UUID.randomUUID().toString());
-                empty.setType("FOLDER");
-                empty.setName(getString(R.string.no_program_data));
-                empty.setChannelId(channelId);
-                empty.setStartDate(TimeUtils.convertToUtcDate(new Date(mCurrentLocalGuideStart + ((30*slot) * 60000))));
-                empty.setEndDate(TimeUtils.convertToUtcDate(new Date(mCurrentLocalGuideStart + ((30*(slot+1)) * 60000))));
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(30 * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-                if (slot == 0)
-                    cell.setFirst();
-                if (slot == (minutes / 30) - 1)
-                    cell.setLast();
-                slot++;
-            } while((30*slot) < minutes);
-
-            return programRow;
-        }
+        tvGuideBinding.spinner.setVisibility(View.GONE);
 
-        long prevEnd = getCurrentLocalStartDate();
-        for (BaseItemDto item : programs) {
-            long start = item.getStartDate() != null ? TimeUtils.convertToLocalDate(item.getStartDate()).getTime() : getCurrentLocalStartDate();
-            if (start < getCurrentLocalStartDate()) start = getCurrentLocalStartDate();
-            if (start > getCurrentLocalEndDate()) continue;
-            if (start < prevEnd) continue;
-
-            if (start > prevEnd) {
-                // fill empty time slot
-                BaseItemDto empty = new BaseItemDto();
-                empty.setId(UUID.randomUUID().toString());
-                empty.setType("FOLDER");
-                empty.setName(getString(R.string.no_program_data));
-                empty.setChannelId(channelId);
-                empty.setStartDate(TimeUtils.convertToUtcDate(new Date(prevEnd)));
-                Long duration = (start - prevEnd);
-                empty.setEndDate(TimeUtils.convertToUtcDate(new Date(prevEnd + duration)));
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(((Long) (duration / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-            }
-            long end = item.getEndDate() != null ? TimeUtils.convertToLocalDate(item.getEndDate()).getTime() : getCurrentLocalEndDate();
-            if (end > getCurrentLocalEndDate()) end = getCurrentLocalEndDate();
-            prevEnd = end;
-            Long duration = (end - start) / 60000;
-            if (duration > 0) {
-                ProgramGridCell program = new ProgramGridCell(requireContext(), this, item, false);
-                program.setId(currentCellId++);
-                program.setLayoutParams(new ViewGroup.LayoutParams(duration.intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-
-                if (start == getCurrentLocalStartDate())
-                    program.setFirst();
-                if (end == getCurrentLocalEndDate())
-                    program.setLast();
-
-                programRow.addView(program);
-            }
-        }
-
-        return programRow;
+        // put focus on the current channel
+        tvGuideBinding.guideGrid.focusChannel(mPlaybackController.getCurrentlyPlayingItem().getId(), false);
     }
 
     private void fillTimeLine(int hours) {
@@ -994,6 +800,7 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
             //after first one, we always go on hours
             interval = 60;
         }
+        tvGuideBinding.guideGrid.setTimeRange(mCurrentLocalGuideStart, mCurrentLocalGuideEnd);
     }
 
     private Runnable detailUpdateTask = new Runnable() {
@@ -1037,24 +844,12 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
             mHandler.removeCallbacks(detailUpdateTask);
             mHandler.postDelayed(detailUpdateTask, 500);
         } else if (mSelectedProgramView instanceof GuideChannelHeader) {
-            for (int i = 0; i < tvGuideBinding.channels.getChildCount(); i++) {
-                if (mSelectedProgramView == tvGuideBinding.channels.getChildAt(i)) {
-                    LinearLayout programRow = (LinearLayout) tvGuideBinding.programRows.getChildAt(i);
-                    if (programRow == null)
-                        return;
-                    Date utcTime = TimeUtils.convertToUtcDate(new Date());
-                    for (int ii = 0; ii < programRow.getChildCount(); ii++) {
-                        ProgramGridCell prog = (ProgramGridCell)programRow.getChildAt(ii);
-                        if (prog.getProgram() != null && prog.getProgram().getStartDate().before(utcTime) && prog.getProgram().getEndDate().after(utcTime)) {
-                            mSelectedProgram = prog.getProgram();
-                            if (mSelectedProgram != null) {
-                                mHandler.removeCallbacks(detailUpdateTask);
-                                mHandler.postDelayed(detailUpdateTask, 500);
-                            }
-                            return;
-                        }
-                    }
-                }
+            GuideRowModel row = tvGuideBinding.guideGrid.getRow(((GuideChannelHeader) mSelectedProgramView).getChannel().getId());
+            BaseItemDto program = row != null ? row.getProgramAt(System.currentTimeMillis()) : null;
+            if (program != null) {
+                mSelectedProgram = program;
+                mHandler.removeCallbacks(detailUpdateTask);
+                mHandler.postDelayed(detailUpdateTask, 500);
             }
         }
     }
@@ -724,7 +724,7 @@ public class ExternalPlayerActivity extends FragmentActivity {
     }
 
     @NonNull
-    protected static Uri getSendPathUri(@NonNull BaseItemDto baseItem, @Nullable MediaSourceInfo mediaSource) {
+    public static Uri getSendPathUri(@NonNull BaseItemDto baseItem, @Nullable MediaSourceInfo mediaSource) {
         String basePath = baseItem.getPath();
         if (!basePath.contains("://")) {
             basePath = basePath.replace("\\\\", ""); // remove UNC prefix if there
@@ -19,16 +19,18 @@ import com.google.android.exoplayer2.ExoPlayer;
 import com.google.android.exoplayer2.MediaItem;
 import com.google.android.exoplayer2.PlaybackException;
 import com.google.android.exoplayer2.Player;
+import com.google.android.exoplayer2.source.MediaSource;
 import com.google.android.exoplayer2.source.ProgressiveMediaSource;
 import com.google.android.exoplayer2.upstream.DataSource;
 import com.google.android.exoplayer2.upstream.DefaultDataSourceFactory;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.auth.repository.UserRepository;
-import org.jellyfin.androidtv.constant.QueryType;
 import org.jellyfin.androidtv.data.compat.AudioOptions;
 import org.jellyfin.androidtv.data.compat.StreamInfo;
 import org.jellyfin.androidtv.data.model.DataRefreshService;
+import org.jellyfin.androidtv.ui.itemhandling.AudioQueue;
+import org.jellyfin.androidtv.ui.itemhandling.AudioQueueAdapter;
 import org.jellyfin.androidtv.ui.itemhandling.AudioQueueItem;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
@@ -54,7 +56,6 @@ import org.videolan.libvlc.LibVLC;
 import org.videolan.libvlc.Media;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
@@ -67,13 +68,13 @@ public class MediaManager {
     private int mCurrentMediaPosition = -1;
     private String currentMediaTitle;
 
-    private ItemRowAdapter mCurrentAudioQueue;
-    private ItemRowAdapter mManagedAudioQueue;
+    private final AudioQueue mAudioQueue = new AudioQueue();
+    // The full queue and the queue from the current item onwards
+    private AudioQueueAdapter mCurrentAudioQueue;
+    private AudioQueueAdapter mManagedAudioQueue;
 
     private CardPresenter mManagedAudioQueuePresenter;
 
-    private List<Integer>  mUnShuffledAudioQueueIndexes;
-
     private int mCurrentAudioQueuePosition = -1;
     private BaseItemDto mCurrentAudioItem;
     private StreamInfo mCurrentAudioStreamInfo;
@@ -98,6 +99,14 @@ public class MediaManager {
 
     private boolean mRepeat;
 
+    // Number of queue entries after the current one to resolve ahead of time
+    private static final int AUDIO_PREFETCH_COUNT = 2;
+    // Stream info of the next queue entries, in playback order. With ExoPlayer they are also added
+    // to the player playlist so the next track starts without a gap.
+    private final List<PrefetchedAudio> mPrefetchedAudio = new ArrayList<>();
+    private int mPrefetchGeneration = 0;
+    private boolean mPrefetching = false;
+
     private List<BaseItemDto> mCurrentVideoQueue;
     private String mFolderViewDisplayPreferencesId;
 
@@ -108,7 +117,7 @@ public class MediaManager {
     public ItemRowAdapter getCurrentMediaAdapter() {
         return mCurrentMediaAdapter;
     }
-    public boolean hasAudioQueueItems() { return mCurrentAudioQueue != null && mCurrentAudioQueue.size() > 0; }
+    public boolean hasAudioQueueItems() { return mAudioQueue.size() > 0; }
     public boolean hasVideoQueueItems() { return mCurrentVideoQueue != null && mCurrentVideoQueue.size() > 0; }
 
     public void setCurrentMediaAdapter(ItemRowAdapter currentMediaAdapter) {
@@ -136,15 +145,21 @@ public class MediaManager {
 
     public List<BaseItemDto> getCurrentVideoQueue() { return mCurrentVideoQueue; }
 
-    public int getCurrentAudioQueueSize() { return mCurrentAudioQueue != null ? mCurrentAudioQueue.size() : 0; }
+    public int getCurrentAudioQueueSize() { return mAudioQueue.size(); }
     public int getCurrentAudioQueuePosition() { return hasAudioQueueItems() && mCurrentAudioQueuePosition >= 0 ? mCurrentAudioQueuePosition : 0; }
     public long getCurrentAudioPosition() { return mCurrentAudioPosition; }
     public String getCurrentAudioQueueDisplayPosition() { return Integer.toString(getCurrentAudioQueuePosition() + 1); }
-    public String getCurrentAudioQueueDisplaySize() { return mCurrentAudioQueue != null ? Integer.toString(mCurrentAudioQueue.size()) : "0"; }
+    public String getCurrentAudioQueueDisplaySize() { return Integer.toString(mAudioQueue.size()); }
 
-    public BaseItemDto getCurrentAudioItem() { return mCurrentAudioItem != null ? mCurrentAudioItem : hasAudioQueueItems() ? ((BaseRowItem)mCurrentAudioQueue.get(0)).getBaseItem() : null; }
+    public BaseItemDto getCurrentAudioItem() { return mCurrentAudioItem != null ? mCurrentAudioItem : hasAudioQueueItems() ? mAudioQueue.get(0).getBaseItem() : null; }
 
-    public boolean toggleRepeat() { mRepeat = !mRepeat; return mRepeat; }
+    public boolean toggleRepeat() {
+        mRepeat = !mRepeat;
+        // the entries after the last item change
+        invalidatePrefetchedAudio();
+        prefetchAudio();
+        return mRepeat;
+    }
     public boolean isRepeatMode() { return mRepeat; }
 
     public boolean getIsAudioPlayerInitialized() {
@@ -152,18 +167,16 @@ public class MediaManager {
     }
 
     public boolean isShuffleMode() {
-        if (mUnShuffledAudioQueueIndexes != null) {
-            return true;
-        }
-        return false;
+        return mAudioQueue.isShuffled();
     }
 
-    private void clearUnShuffledQueue() {
-        mUnShuffledAudioQueueIndexes = null;
+    public AudioQueueAdapter getCurrentAudioQueue() {
+        if (mCurrentAudioQueue == null) {
+            mCurrentAudioQueue = new AudioQueueAdapter(mAudioQueue, new CardPresenter(true, Utils.convertDpToPixel(context, 140)));
+        }
+        return mCurrentAudioQueue;
     }
-
-    public ItemRowAdapter getCurrentAudioQueue() { return mCurrentAudioQueue; }
-    public ItemRowAdapter getManagedAudioQueue() {
+    public AudioQueueAdapter getManagedAudioQueue() {
         createManagedAudioQueue(false);
         return mManagedAudioQueue;
     }
@@ -178,28 +191,13 @@ public class MediaManager {
     }
 
     public void createManagedAudioQueue(boolean reCreate) {
-        if (mCurrentAudioQueue != null) {
-            if (mManagedAudioQueue != null && !reCreate) {
-                //re-create existing one
-                mManagedAudioQueue.clear();
-                for (int i = getCurrentAudioQueuePosition(); i < mCurrentAudioQueue.size(); i++) {
-                    mManagedAudioQueue.add(mCurrentAudioQueue.get(i));
-                }
-            } else {
-                List<BaseItemDto> managedItems = new ArrayList<>();
-                for (int i = getCurrentAudioQueuePosition(); i < mCurrentAudioQueue.size(); i++) {
-                    managedItems.add(((BaseRowItem)mCurrentAudioQueue.get(i)).getBaseItem());
-                }
-                CardPresenter presenter = mManagedAudioQueuePresenter != null ? mManagedAudioQueuePresenter : new CardPresenter(true, Utils.convertDpToPixel(context, 150));
-                mManagedAudioQueue = new ItemRowAdapter(context, managedItems, QueryType.StaticAudioQueueItems, presenter, null);
-                mManagedAudioQueue.Retrieve();
-            }
-            if (mManagedAudioQueue.size() > 0 && isPlayingAudio()) {
-                ((BaseRowItem)mManagedAudioQueue.get(0)).setIsPlaying(true);
-            } else if (mManagedAudioQueue.size() < 1) {
-                Timber.d("error creating managed audio queue from size of: %s", mCurrentAudioQueue.size());
-            }
+        if (mManagedAudioQueue == null || reCreate) {
+            if (mManagedAudioQueue != null) mManagedAudioQueue.release();
+            CardPresenter presenter = mManagedAudioQueuePresenter != null ? mManagedAudioQueuePresenter : new CardPresenter(true, Utils.convertDpToPixel(context, 150));
+            mManagedAudioQueue = new AudioQueueAdapter(mAudioQueue, presenter);
         }
+        // shares the entries of the full queue, only the start moves along with playback
+        mManagedAudioQueue.setStartPosition(getCurrentAudioQueuePosition());
     }
 
     public void addAudioEventListener(AudioEventListener listener) {
@@ -312,6 +310,12 @@ public class MediaManager {
                         }
                     }
                     @Override
+                    public void onMediaItemTransition(@Nullable MediaItem mediaItem, int reason) {
+                        if (reason == Player.MEDIA_ITEM_TRANSITION_REASON_AUTO) {
+                            onPrefetchedAudioStarted();
+                        }
+                    }
+                    @Override
                     public void onPlayerError(PlaybackException error) {
                         Timber.d("player error!");
                         stopAudio(true);
@@ -433,9 +437,8 @@ public class MediaManager {
     }
 
     private void createAudioQueue(List<BaseItemDto> items) {
-        mCurrentAudioQueue = new ItemRowAdapter(context, items, QueryType.StaticAudioQueueItems, new CardPresenter(true, Utils.convertDpToPixel(context, 140)), null);
-        mCurrentAudioQueue.Retrieve();
-        mManagedAudioQueue = null;
+        invalidatePrefetchedAudio();
+        mAudioQueue.setItems(items);
         fireQueueStatusChange();
     }
 
@@ -489,11 +492,8 @@ public class MediaManager {
     private ArrayList<String> getCurrentAudioQueueItemIds() {
         ArrayList<String> result = new ArrayList<>();
 
-        if (mCurrentAudioQueue != null) {
-            for (int i = 0; i < mCurrentAudioQueue.size(); i++) {
-                AudioQueueItem item = (AudioQueueItem) mCurrentAudioQueue.get(i);
-                result.add(item.getItemId());
-            }
+        for (AudioQueueItem item : mAudioQueue.toList()) {
+            result.add(item.getItemId());
         }
 
         return result;
@@ -512,14 +512,10 @@ public class MediaManager {
     }
 
     public int queueAudioItem(BaseItemDto item) {
-        if (mCurrentAudioQueue == null) {
-            createAudioQueue(new ArrayList<BaseItemDto>());
-            clearUnShuffledQueue();
-        }
-        pushToUnShuffledQueue(item);
-        mCurrentAudioQueue.add(new AudioQueueItem(mCurrentAudioQueue.size(), item));
+        mAudioQueue.add(item);
         fireQueueStatusChange();
-        return mCurrentAudioQueue.size()-1;
+        prefetchAudio();
+        return mAudioQueue.size()-1;
     }
 
     public int addToVideoQueue(BaseItemDto item) {
@@ -546,71 +542,45 @@ public class MediaManager {
     public void clearAudioQueue(boolean releasePlayer) {
         Timber.d("clearing the audio queue");
         stopAudio(releasePlayer);
-        clearUnShuffledQueue();
-        if (mCurrentAudioQueue == null) {
-            createAudioQueue(new ArrayList<BaseItemDto>());
-        }
-        else {
-            mCurrentAudioQueue.clear();
-            fireQueueStatusChange();
-        }
+        invalidatePrefetchedAudio();
+        mAudioQueue.clear();
+        fireQueueStatusChange();
         mCurrentAudioQueuePosition = -1;
-        if (mManagedAudioQueue != null) mManagedAudioQueue.clear();
     }
 
     public void addToAudioQueue(List<BaseItemDto> items) {
-        if (mCurrentAudioQueue == null) {
-            createAudioQueue(items);
-            clearUnShuffledQueue();
-        } else {
-            int ndx = mCurrentAudioQueue.size();
-            for (BaseItemDto item : items) {
-                AudioQueueItem queueItem = new AudioQueueItem(ndx++, item);
-                mCurrentAudioQueue.add(queueItem);
-                if (mManagedAudioQueue != null) mManagedAudioQueue.add(queueItem);
-                pushToUnShuffledQueue(item);
-            }
-            fireQueueStatusChange();
-        }
+        mAudioQueue.addAll(items);
+        fireQueueStatusChange();
+        prefetchAudio();
 
         Toast.makeText(context, items.size() + (items.size() > 1 ? context.getString(R.string.msg_items_added) : context.getString(R.string.msg_item_added)), Toast.LENGTH_LONG).show();
     }
 
     public void removeFromAudioQueue(int ndx) {
-        if (!hasAudioQueueItems() || ndx > getCurrentAudioQueueSize()) return;
+        if (!hasAudioQueueItems() || ndx < 0 || ndx >= getCurrentAudioQueueSize()) return;
 
-        removeFromUnShuffledQueue(ndx);
-        if (mManagedAudioQueue != null) mManagedAudioQueue.remove(mCurrentAudioQueue.get(ndx));
+        // positions of the queue entries change
+        invalidatePrefetchedAudio();
 
         if (mCurrentAudioQueuePosition == ndx) {
             // current item - stop audio, remove and re-start
             stopAudio(false);
-            if (mManagedAudioQueue != null) {
-                mManagedAudioQueue.remove(mCurrentAudioQueue.get(ndx));
-            }
-            mCurrentAudioQueue.removeItems(ndx, 1);
+            mAudioQueue.remove(ndx);
             mCurrentAudioQueuePosition--;
             mCurrentAudioPosition = 0;
-            if (ndx >= 0 && ndx < mCurrentAudioQueue.size()) {
+            if (ndx < mAudioQueue.size()) {
                 nextAudioItem();
             } else {
-                if (mCurrentAudioQueuePosition >= 0) mCurrentAudioItem = ((BaseRowItem)mCurrentAudioQueue.get(mCurrentAudioQueuePosition)).getBaseItem();
+                if (mCurrentAudioQueuePosition >= 0) mCurrentAudioItem = mAudioQueue.get(mCurrentAudioQueuePosition).getBaseItem();
                 // fire a change to update current item
             }
         } else {
             //just remove it
-            mCurrentAudioQueue.removeItems(ndx, 1);
+            mAudioQueue.remove(ndx);
             if (mCurrentAudioQueuePosition > ndx) mCurrentAudioQueuePosition--;
+            prefetchAudio();
         }
 
-        // now need to update indexes for subsequent items
-        if (hasAudioQueueItems()) {
-            for (int i = ndx; i < mCurrentAudioQueue.size(); i++){
-                ((BaseRowItem)mCurrentAudioQueue.get(i)).setIndex(i);
-            }
-        } else {
-            clearUnShuffledQueue();
-        }
         fireQueueStatusChange();
     }
 
@@ -669,7 +639,6 @@ public class MediaManager {
         if (isPlayingAudio()) {
             stopAudio(false);
         }
-        clearUnShuffledQueue();
         createAudioQueue(items);
 
         mCurrentAudioQueuePosition = shuffle ? new Random().nextInt(items.size()) : position;
@@ -687,7 +656,7 @@ public class MediaManager {
     }
 
     public boolean playFrom(int ndx) {
-        if (mCurrentAudioQueue == null || ndx >= mCurrentAudioQueue.size()) return false;
+        if (ndx >= mAudioQueue.size()) return false;
 
         if (!ensureInitialized()) return false;
 
@@ -695,7 +664,7 @@ public class MediaManager {
 
         Timber.d("playing audio queue from pos %s", ndx);
 
-        mCurrentAudioQueuePosition = ndx < 0 || ndx >= mCurrentAudioQueue.size() ? -1 : ndx - 1;
+        mCurrentAudioQueuePosition = ndx < 0 || ndx >= mAudioQueue.size() ? -1 : ndx - 1;
         createManagedAudioQueue();
         nextAudioItem();
         return true;
@@ -715,6 +684,30 @@ public class MediaManager {
         if (!ensureInitialized()) return;
 
         ensureAudioFocus();
+        PrefetchedAudio prefetched = takePrefetchedAudio(item, pos);
+        // the player playlist is replaced
+        invalidatePrefetchedAudio();
+        if (prefetched != null) {
+            Timber.d("Using prefetched stream info for %s", item.getName());
+            startAudio(item, pos, prefetched.streamInfo);
+            return;
+        }
+
+        resolveAudioStreamInfo(item, new Response<StreamInfo>() {
+            @Override
+            public void onResponse(StreamInfo response) {
+                startAudio(item, pos, response);
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Utils.showToast(context, context.getString(R.string.audio_error, exception.getLocalizedMessage()));
+            }
+        });
+
+    }
+
+    private void resolveAudioStreamInfo(BaseItemDto item, Response<StreamInfo> response) {
         final ApiClient apiClient = KoinJavaComponent.<ApiClient>get(ApiClient.class);
         AudioOptions options = new AudioOptions();
         options.setItemId(item.getId());
@@ -730,167 +723,202 @@ public class MediaManager {
         options.setProfile(profile);
 
         DeviceInfo deviceInfo = KoinJavaComponent.<org.jellyfin.sdk.api.client.ApiClient>get(org.jellyfin.sdk.api.client.ApiClient.class).getDeviceInfo();
-        KoinJavaComponent.<PlaybackManager>get(PlaybackManager.class).getAudioStreamInfo(deviceInfo, options, item.getResumePositionTicks(), apiClient, new Response<StreamInfo>() {
-            @Override
-            public void onResponse(StreamInfo response) {
-                mCurrentAudioItem = item;
-                mCurrentAudioStreamInfo = response;
-                mCurrentAudioQueuePosition = pos;
-                mCurrentAudioPosition = 0;
-                if (nativeMode) {
-                    DataSource.Factory dataSourceFactory = new DefaultDataSourceFactory(context, "ATV/ExoPlayer");
-
-                    mExoPlayer.setPlayWhenReady(true);
-                    Uri mediaUri = Uri.parse(response.ToUrl(apiClient.getApiUrl(), apiClient.getAccessToken()));
-                    MediaItem source = new MediaItem.Builder().setUri(mediaUri).build();
-                    mExoPlayer.setMediaSource(new ProgressiveMediaSource.Factory(dataSourceFactory).createMediaSource(source));
-                    mExoPlayer.prepare();
-                } else {
-                    Timber.i("Playback attempt via VLC of %s", response.getMediaUrl());
-                    Media media = new Media(mLibVLC, Uri.parse(response.getMediaUrl()));
-                    media.parse();
-                    mVlcPlayer.setMedia(media);
+        KoinJavaComponent.<PlaybackManager>get(PlaybackManager.class).getAudioStreamInfo(deviceInfo, options, item.getResumePositionTicks(), apiClient, response);
+    }
 
-                    media.release();
-                    mVlcPlayer.play();
+    private MediaSource createExoMediaSource(StreamInfo streamInfo) {
+        final ApiClient apiClient = KoinJavaComponent.<ApiClient>get(ApiClient.class);
+        DataSource.Factory dataSourceFactory = new DefaultDataSourceFactory(context, "ATV/ExoPlayer");
+        Uri mediaUri = Uri.parse(streamInfo.ToUrl(apiClient.getApiUrl(), apiClient.getAccessToken()));
+        MediaItem source = new MediaItem.Builder().setUri(mediaUri).build();
+        return new ProgressiveMediaSource.Factory(dataSourceFactory).createMediaSource(source);
+    }
+
+    private void startAudio(BaseItemDto item, int pos, StreamInfo streamInfo) {
+        mCurrentAudioItem = item;
+        mCurrentAudioStreamInfo = streamInfo;
+        mCurrentAudioQueuePosition = pos;
+        mCurrentAudioPosition = 0;
+        if (nativeMode) {
+            mExoPlayer.setPlayWhenReady(true);
+            mExoPlayer.setMediaSource(createExoMediaSource(streamInfo));
+            mExoPlayer.prepare();
+        } else {
+            Timber.i("Playback attempt via VLC of %s", streamInfo.getMediaUrl());
+            Media media = new Media(mLibVLC, Uri.parse(streamInfo.getMediaUrl()));
+            media.parse();
+            mVlcPlayer.setMedia(media);
 
-                }
-                if (mCurrentAudioQueuePosition == 0) {
-                    //we just started or repeated - re-create managed queue
-                    createManagedAudioQueue();
-                }
+            media.release();
+            mVlcPlayer.play();
 
-                updateCurrentAudioItemPlaying(true);
-                DataRefreshService dataRefreshService = KoinJavaComponent.<DataRefreshService>get(DataRefreshService.class);
-                dataRefreshService.setLastMusicPlayback(System.currentTimeMillis());
+        }
+        onAudioItemStarted(item);
+        prefetchAudio();
+    }
+
+    private void onAudioItemStarted(BaseItemDto item) {
+        // the managed queue starts at the current item
+        createManagedAudioQueue();
+
+        updateCurrentAudioItemPlaying(true);
+        DataRefreshService dataRefreshService = KoinJavaComponent.<DataRefreshService>get(DataRefreshService.class);
+        dataRefreshService.setLastMusicPlayback(System.currentTimeMillis());
+
+        ReportingHelper.reportStart(item, mCurrentAudioPosition * 10000);
+    }
 
-                ReportingHelper.reportStart(item, mCurrentAudioPosition * 10000);
+    /**
+     * Resolve the stream info of the next queue entries while the current one is playing. With
+     * ExoPlayer the streams are added to the player so it continues without stopping.
+     */
+    private void prefetchAudio() {
+        if (mPrefetching || mPrefetchedAudio.size() >= AUDIO_PREFETCH_COUNT) return;
+        if (mCurrentAudioItem == null || mCurrentAudioQueuePosition < 0 || !hasAudioQueueItems() || !getIsAudioPlayerInitialized()) return;
+
+        int ndx = (mPrefetchedAudio.isEmpty() ? mCurrentAudioQueuePosition : mPrefetchedAudio.get(mPrefetchedAudio.size() - 1).queuePosition) + 1;
+        if (ndx >= mAudioQueue.size()) {
+            if (!mRepeat) return;
+            ndx = 0;
+        }
+        // the whole queue is prefetched
+        if (ndx == mCurrentAudioQueuePosition) return;
+
+        final int queuePosition = ndx;
+        final BaseItemDto item = mAudioQueue.get(queuePosition).getBaseItem();
+        final int generation = mPrefetchGeneration;
+        mPrefetching = true;
+        resolveAudioStreamInfo(item, new Response<StreamInfo>() {
+            @Override
+            public void onResponse(StreamInfo response) {
+                if (generation != mPrefetchGeneration) return;
+                mPrefetching = false;
+
+                mPrefetchedAudio.add(new PrefetchedAudio(queuePosition, item, response));
+                if (nativeMode && mExoPlayer != null) {
+                    mExoPlayer.addMediaSource(createExoMediaSource(response));
+                }
+                prefetchAudio();
             }
 
             @Override
             public void onError(Exception exception) {
-                Utils.showToast(context, context.getString(R.string.audio_error, exception.getLocalizedMessage()));
+                if (generation != mPrefetchGeneration) return;
+                mPrefetching = false;
+
+                Timber.w(exception, "Unable to prefetch stream info for %s", item.getName());
             }
         });
-
     }
 
-    private void pushToUnShuffledQueue(BaseItemDto newItem) {
-        if (isShuffleMode()) {
-            mUnShuffledAudioQueueIndexes.add(mUnShuffledAudioQueueIndexes.size());
-        }
-    }
-
-    private void removeFromUnShuffledQueue(int ndx) {
-        if (hasAudioQueueItems() && isShuffleMode() && ndx < mUnShuffledAudioQueueIndexes.size()) {
-            int OriginalNdx = mUnShuffledAudioQueueIndexes.get(ndx);
-            for(int i = 0; i < mUnShuffledAudioQueueIndexes.size(); i++) {
-                int oldNdx = mUnShuffledAudioQueueIndexes.get(i);
-                if (oldNdx > OriginalNdx) mUnShuffledAudioQueueIndexes.set(i, --oldNdx);
+    @Nullable
+    private PrefetchedAudio takePrefetchedAudio(BaseItemDto item, int pos) {
+        for (PrefetchedAudio prefetched : mPrefetchedAudio) {
+            if (prefetched.queuePosition == pos && prefetched.item.getId().equals(item.getId())) {
+                mPrefetchedAudio.remove(prefetched);
+                return prefetched;
             }
-            mUnShuffledAudioQueueIndexes.remove(ndx);
         }
+        return null;
+    }
+
+    /**
+     * Drop the prefetched streams after a queue change, ExoPlayer keeps playing the current item.
+     */
+    private void invalidatePrefetchedAudio() {
+        mPrefetchGeneration++;
+        mPrefetching = false;
+        if (!mPrefetchedAudio.isEmpty() && nativeMode && mExoPlayer != null) {
+            int next = mExoPlayer.getCurrentMediaItemIndex() + 1;
+            int count = mExoPlayer.getMediaItemCount();
+            if (count > next) mExoPlayer.removeMediaItems(next, count);
+        }
+        mPrefetchedAudio.clear();
     }
 
-    public void shuffleAudioQueue() {
-        if (!hasAudioQueueItems()) return;
+    /**
+     * ExoPlayer continued with the next prefetched stream.
+     */
+    private void onPrefetchedAudioStarted() {
+        if (mPrefetchedAudio.isEmpty()) return;
 
-        /*
-            # Shuffle feature
+        PrefetchedAudio next = mPrefetchedAudio.remove(0);
+        Timber.d("Continuing gapless with %s", next.item.getName());
 
-            # Dependencies
-                * mUnShuffledAudioQueueIndexes - List<Integer> shuffled list of the original queue item indexes
+        // remove the finished item from the player playlist
+        while (mExoPlayer.getCurrentMediaItemIndex() > 0) mExoPlayer.removeMediaItem(0);
 
-            # Methods
-                * isShuffleMode()                    - true/false for checking if shuffled
-                * clearUnShuffledQueue()             - set the saved queue to null
-                * pushToUnShuffledQueue()            - push a new items index to the shuffled queue of original indexes
-                * removeFromUnShuffledQueue(int ndx) - updates the original indexes to reflect the removal, and removes the item from the saved queue
+        updateCurrentAudioItemPlaying(false);
+        ReportingHelper.reportStopped(mCurrentAudioItem, mCurrentAudioStreamInfo, mCurrentAudioPosition * 10000);
 
-            # Implementation
-                1) create a fixed size BaseItemDto[] of queue size to be populated with shuffled or unshuffled items
-                2)
-                    A) if not shuffled
-                        1A) create new queue for saving the original queue state
-                        2A) push all but the currently playing item's indexes to the list
-                        3A) shuffle the list of indexes then insert the currently playing item's index at pos 0 in the list
-                        4A) loop through the shuffled list of indexes and insert the corresponding items into the array
+        mCurrentAudioItem = next.item;
+        mCurrentAudioStreamInfo = next.streamInfo;
+        mCurrentAudioQueuePosition = next.queuePosition;
+        mCurrentAudioPosition = 0;
+        onAudioItemStarted(next.item);
+        // notifies the listeners of the new item
+        startProgressLoop();
+        prefetchAudio();
+    }
 
-                    B) if shuffled
-                        1B) inserts each queue item into the array using its original index
+    private static class PrefetchedAudio {
+        private final int queuePosition;
+        private final BaseItemDto item;
+        private final StreamInfo streamInfo;
 
-                3) create a new list and push all items from the array into the list, and set the current queue position when its found
-                4) create a new queue from the list
+        private PrefetchedAudio(int queuePosition, BaseItemDto item, StreamInfo streamInfo) {
+            this.queuePosition = queuePosition;
+            this.item = item;
+            this.streamInfo = streamInfo;
+        }
+    }
 
-         */
-        BaseItemDto[] items = new BaseItemDto[isShuffleMode() ? mUnShuffledAudioQueueIndexes.size() : mCurrentAudioQueue.size()];
+    public void shuffleAudioQueue() {
+        if (!hasAudioQueueItems()) return;
 
+        // the queue keeps the original order of the entries so shuffling can be undone
+        AudioQueueItem current = mAudioQueue.get(getCurrentAudioQueuePosition());
         if (isShuffleMode()) {
             Timber.d("queue is already shuffled, restoring original order");
-
-            for(int i = 0; i < mUnShuffledAudioQueueIndexes.size(); i++) {
-                items[mUnShuffledAudioQueueIndexes.get(i)] = ((BaseRowItem) mCurrentAudioQueue.get(i)).getBaseItem();
-            }
-            mUnShuffledAudioQueueIndexes = null;
+            mAudioQueue.unshuffle();
         } else {
             Timber.d("Queue is not shuffled, shuffling");
-            mUnShuffledAudioQueueIndexes = new ArrayList<>();
-
-            for(int i = 0; i < mCurrentAudioQueue.size(); i++) {
-                if (i != getCurrentAudioQueuePosition()) {
-                    mUnShuffledAudioQueueIndexes.add(i);
-                }
-            }
-            Collections.shuffle(mUnShuffledAudioQueueIndexes);
-            mUnShuffledAudioQueueIndexes.add(0, getCurrentAudioQueuePosition());
-            for(int i = 0; i < mUnShuffledAudioQueueIndexes.size(); i++) {
-                items[i] = ((BaseRowItem) mCurrentAudioQueue.get(mUnShuffledAudioQueueIndexes.get(i))).getBaseItem();
-            }
+            mAudioQueue.shuffle(getCurrentAudioQueuePosition(), new Random());
         }
+        if (mCurrentAudioQueuePosition >= 0) mCurrentAudioQueuePosition = current.getIndex();
 
-        List<BaseItemDto> itemsList = new ArrayList<>();
-        for(int i = 0; i < items.length; i++) {
-            if (items[i] == getCurrentAudioItem()) {
-                mCurrentAudioQueuePosition = i;
-            }
-            itemsList.add(items[i]);
-        }
-        createAudioQueue(itemsList);
+        invalidatePrefetchedAudio();
+        createManagedAudioQueue();
+        fireQueueStatusChange();
         updateCurrentAudioItemPlaying(isPlayingAudio());
         fireQueueReplaced();
+        prefetchAudio();
     }
 
     public BaseItemDto getNextAudioItem() {
-        if (mCurrentAudioQueue == null || mCurrentAudioQueue.size() == 0 || (!mRepeat && mCurrentAudioQueuePosition == mCurrentAudioQueue.size() - 1)) return null;
+        if (!hasAudioQueueItems() || (!mRepeat && mCurrentAudioQueuePosition == mAudioQueue.size() - 1)) return null;
 
         int ndx = mCurrentAudioQueuePosition+1;
-        if (ndx >= mCurrentAudioQueue.size()) ndx = 0;
-        return ((BaseRowItem)mCurrentAudioQueue.get(ndx)).getBaseItem();
+        if (ndx >= mAudioQueue.size()) ndx = 0;
+        return mAudioQueue.get(ndx).getBaseItem();
     }
 
     public BaseItemDto getPrevAudioItem() {
-        if (mCurrentAudioQueue == null || mCurrentAudioQueue.size() == 0 || (!mRepeat && mCurrentAudioQueuePosition == 0)) return null;
+        if (!hasAudioQueueItems() || (!mRepeat && mCurrentAudioQueuePosition == 0)) return null;
 
         int ndx = mCurrentAudioQueuePosition-1;
-        if (ndx < 0) ndx = mCurrentAudioQueue.size() - 1;
-        return ((BaseRowItem)mCurrentAudioQueue.get(ndx)).getBaseItem();
+        if (ndx < 0) ndx = mAudioQueue.size() - 1;
+        return mAudioQueue.get(ndx).getBaseItem();
     }
 
-    public boolean hasNextAudioItem() { return mCurrentAudioQueue != null && mCurrentAudioQueue.size() > 0 && (mRepeat || mCurrentAudioQueuePosition < mCurrentAudioQueue.size()-1); }
-    public boolean hasPrevAudioItem() { return mCurrentAudioQueue != null && mCurrentAudioQueue.size() > 0 && (mRepeat || mCurrentAudioQueuePosition > 0); }
+    public boolean hasNextAudioItem() { return hasAudioQueueItems() && (mRepeat || mCurrentAudioQueuePosition < mAudioQueue.size()-1); }
+    public boolean hasPrevAudioItem() { return hasAudioQueueItems() && (mRepeat || mCurrentAudioQueuePosition > 0); }
 
     public void updateCurrentAudioItemPlaying(boolean playing) {
-        if (mCurrentAudioQueuePosition < 0) return;
-        BaseRowItem rowItem = (BaseRowItem) mCurrentAudioQueue.get(mCurrentAudioQueuePosition);
-        if (rowItem != null) {
-            rowItem.setIsPlaying(playing);
-            mCurrentAudioQueue.notifyArrayItemRangeChanged(mCurrentAudioQueuePosition, 1);
-            if (mManagedAudioQueue != null && mManagedAudioQueue.size() > 0) {
-                BaseRowItem managedItem = (BaseRowItem) mManagedAudioQueue.get(0);
-                managedItem.setIsPlaying(playing);
-                mManagedAudioQueue.notifyArrayItemRangeChanged(0, 1);
-            }
-        }
+        if (mCurrentAudioQueuePosition < 0 || mCurrentAudioQueuePosition >= mAudioQueue.size()) return;
+        // both adapters show the same entry
+        mAudioQueue.get(mCurrentAudioQueuePosition).setIsPlaying(playing);
+        mAudioQueue.notifyItemChanged(mCurrentAudioQueuePosition);
     }
 
     public int nextAudioItem() {
@@ -899,20 +927,16 @@ public class MediaManager {
             updateCurrentAudioItemPlaying(false);
         }
 
-        if (mCurrentAudioQueue == null || mCurrentAudioQueue.size() == 0 || (!mRepeat && mCurrentAudioQueuePosition == mCurrentAudioQueue.size() - 1)) return -1;
+        if (!hasAudioQueueItems() || (!mRepeat && mCurrentAudioQueuePosition == mAudioQueue.size() - 1)) return -1;
         stopAudio(false);
-        if (mManagedAudioQueue != null && mManagedAudioQueue.size() > 1) {
-            //don't remove last item as it causes framework crashes
-            mManagedAudioQueue.removeItems(0, 1);
-        }
         int ndx = mCurrentAudioQueuePosition +1;
-        if (ndx >= mCurrentAudioQueue.size()) ndx = 0;
+        if (ndx >= mAudioQueue.size()) ndx = 0;
         playInternal(getNextAudioItem(), ndx);
         return ndx;
     }
 
     public int prevAudioItem() {
-        if (mCurrentAudioQueue == null || (!mRepeat && mCurrentAudioQueue.size() == 0)) return -1;
+        if (!hasAudioQueueItems()) return -1;
         if (isPlayingAudio() && mCurrentAudioPosition > 10000) {
             //just back up to the beginning of current item
             if (nativeMode) mExoPlayer.seekTo(0);
@@ -926,10 +950,7 @@ public class MediaManager {
         }
 
         stopAudio(false);
-        int ndx = mCurrentAudioQueuePosition == 0 ? mCurrentAudioQueue.size() - 1 : mCurrentAudioQueuePosition - 1;
-        if (mManagedAudioQueue != null) {
-            mManagedAudioQueue.add(0, mCurrentAudioQueue.get(ndx));
-        }
+        int ndx = mCurrentAudioQueuePosition == 0 ? mAudioQueue.size() - 1 : mCurrentAudioQueuePosition - 1;
         playInternal(getPrevAudioItem(), ndx);
         return ndx;
     }
@@ -998,7 +1019,7 @@ public class MediaManager {
             }
         } else if (hasAudioQueueItems()) {
             //play from start
-            playInternal(mCurrentAudioItem != null ? mCurrentAudioItem : ((BaseRowItem)mCurrentAudioQueue.get(0)).getBaseItem(), mCurrentAudioItem != null ? getCurrentAudioQueuePosition() : 0);
+            playInternal(mCurrentAudioItem != null ? mCurrentAudioItem : mAudioQueue.get(0).getBaseItem(), mCurrentAudioItem != null ? getCurrentAudioQueuePosition() : 0);
         }
     }
 
@@ -1012,7 +1033,11 @@ public class MediaManager {
     }
 
     public BaseRowItem getMediaItem(int pos) {
-        return mCurrentMediaAdapter != null && mCurrentMediaAdapter.size() > pos ? (BaseRowItem) mCurrentMediaAdapter.get(pos) : null;
+        if (mCurrentMediaAdapter == null || mCurrentMediaAdapter.size() <= pos) return null;
+
+        // Sparse adapters return placeholders for items that are not loaded
+        Object item = mCurrentMediaAdapter.get(pos);
+        return item instanceof BaseRowItem ? (BaseRowItem) item : null;
     }
 
     public BaseRowItem getCurrentMediaItem() { return getMediaItem(mCurrentMediaPosition); }
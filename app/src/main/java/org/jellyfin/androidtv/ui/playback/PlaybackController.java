@@ -7,6 +7,7 @@ import android.annotation.TargetApi;
 import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.view.Display;
 import android.view.WindowManager;
 
@@ -684,92 +685,150 @@ public class PlaybackController implements PlaybackControllerNotifiable {
 
             }
         } else {
-            // Get playback info for each player and then decide on which one to use
-            playbackManager.getValue().getVideoStreamInfo(api.getValue().getDeviceInfo(), vlcOptions, position * 10000, apiClient.getValue(), new Response<StreamInfo>() {
-                @Override
-                public void onResponse(final StreamInfo vlcResponse) {
-                    Timber.i("VLC would %s", vlcResponse.getPlayMethod().equals(PlayMethod.Transcode) ? "transcode" : "direct stream");
-                    playbackManager.getValue().getVideoStreamInfo(api.getValue().getDeviceInfo(), internalOptions, position * 10000, apiClient.getValue(), new Response<StreamInfo>() {
-                        @Override
-                        public void onResponse(StreamInfo internalResponse) {
-                            Timber.i("Internal player would %s", internalResponse.getPlayMethod().equals(PlayMethod.Transcode) ? "transcode" : "direct stream");
-                            boolean useDeinterlacing = vlcResponse.getMediaSource().getVideoStream() != null &&
-                                    vlcResponse.getMediaSource().getVideoStream().getIsInterlaced() &&
-                                    (vlcResponse.getMediaSource().getVideoStream().getWidth() == null ||
-                                            vlcResponse.getMediaSource().getVideoStream().getWidth() > 1200);
-                            Timber.i(useDeinterlacing ? "Explicit deinterlacing will be used" : "Explicit deinterlacing will NOT be used");
-
-                            PreferredVideoPlayer preferredVideoPlayer = userPreferences.getValue().get(UserPreferences.Companion.getVideoPlayer());
-
-                            Timber.i("User preferred player is: %s", preferredVideoPlayer);
-
-                            if (preferredVideoPlayer == PreferredVideoPlayer.VLC) {
-                                // Force VLC
-                                useVlc = true;
-                            } else if (preferredVideoPlayer == PreferredVideoPlayer.EXOPLAYER) {
-                                // Make sure to not use VLC
-                                useVlc = false;
-                            } else if (preferredVideoPlayer == PreferredVideoPlayer.AUTO) {
-                                // TODO: Clean up this logic
-                                // Now look at both responses and choose the one that direct plays or bitstreams - favor VLC
-                                useVlc = !vlcErrorEncountered &&
-                                        !vlcResponse.getPlayMethod().equals(PlayMethod.Transcode) &&
-                                        (DeviceUtils.is60() ||
-                                                !userPreferences.getValue().get(UserPreferences.Companion.getAc3Enabled()) ||
-                                                vlcResponse.getMediaSource() == null ||
-                                                vlcResponse.getMediaSource().getDefaultAudioStream() == null ||
-                                                (!"ac3".equals(vlcResponse.getMediaSource().getDefaultAudioStream().getCodec()) &&
-                                                        !"truehd".equals(vlcResponse.getMediaSource().getDefaultAudioStream().getCodec()))) &&
-                                        (Utils.downMixAudio(mFragment.getContext()) ||
-                                                !DeviceUtils.is60() ||
-                                                internalResponse.getPlayMethod().equals(PlayMethod.Transcode) ||
-                                                !userPreferences.getValue().get(UserPreferences.Companion.getDtsEnabled()) ||
-                                                internalResponse.getMediaSource() == null ||
-                                                internalResponse.getMediaSource().getDefaultAudioStream() == null ||
-                                                (vlcResponse.getMediaSource().getVideoStream() != null && vlcResponse.getMediaSource().getVideoStream().getWidth() < 1000));
-                            } else if (preferredVideoPlayer == PreferredVideoPlayer.CHOOSE) {
-                                PreferredVideoPlayer preferredVideoPlayerByPlayWith = systemPreferences.getValue().get(SystemPreferences.Companion.getChosenPlayer());
-
-                                useVlc = preferredVideoPlayerByPlayWith == PreferredVideoPlayer.VLC;
-
-                                Timber.i("PREFERRED PLAYER %s", preferredVideoPlayerByPlayWith.name());
-                            }
+            negotiatePlayers(item, position, vlcOptions, internalOptions);
+        }
+    }
 
-                            Timber.i(useVlc ? "Preferring VLC" : "Will use internal player");
-                            if (mVideoManager == null)
-                                return;
-                            mVideoManager.init(getBufferAmount(), useDeinterlacing);
-                            mCurrentOptions = useVlc ? vlcOptions : internalOptions;
-                            startItem(item, position, useVlc ? vlcResponse : internalResponse);
-                        }
+    /**
+     * Get the playback info for both players at the same time and decide on which one to use when
+     * both are known. The info of a player that can't be used because of the user preferences is
+     * not requested.
+     */
+    private void negotiatePlayers(final BaseItemDto item, final Long position, final VideoOptions vlcOptions, final VideoOptions internalOptions) {
+        final PreferredVideoPlayer preferredVideoPlayer = userPreferences.getValue().get(UserPreferences.Companion.getVideoPlayer());
+        Timber.i("User preferred player is: %s", preferredVideoPlayer);
+
+        final PreferredVideoPlayer forcedVideoPlayer;
+        if (preferredVideoPlayer == PreferredVideoPlayer.VLC || preferredVideoPlayer == PreferredVideoPlayer.EXOPLAYER) {
+            forcedVideoPlayer = preferredVideoPlayer;
+        } else if (preferredVideoPlayer == PreferredVideoPlayer.CHOOSE) {
+            PreferredVideoPlayer preferredVideoPlayerByPlayWith = systemPreferences.getValue().get(SystemPreferences.Companion.getChosenPlayer());
+            Timber.i("PREFERRED PLAYER %s", preferredVideoPlayerByPlayWith.name());
+            forcedVideoPlayer = preferredVideoPlayerByPlayWith == PreferredVideoPlayer.VLC ? PreferredVideoPlayer.VLC : PreferredVideoPlayer.EXOPLAYER;
+        } else {
+            forcedVideoPlayer = null;
+        }
 
-                        @Override
-                        public void onError(Exception exception) {
-                            Timber.e(exception, "Unable to get stream info for internal player - falling back to libVLC");
-                            if (mVideoManager == null)
-                                return;
+        final boolean requestVlc = forcedVideoPlayer != PreferredVideoPlayer.EXOPLAYER;
+        final boolean requestInternal = forcedVideoPlayer != PreferredVideoPlayer.VLC;
+        final long negotiationStart = SystemClock.elapsedRealtime();
+        final StreamInfo[] responses = new StreamInfo[2];
+        final Exception[] errors = new Exception[2];
+        final int[] pending = {(requestVlc ? 1 : 0) + (requestInternal ? 1 : 0)};
 
-                            boolean useDeinterlacing = vlcResponse.getMediaSource().getVideoStream() != null &&
-                                    vlcResponse.getMediaSource().getVideoStream().getIsInterlaced() &&
-                                    (vlcResponse.getMediaSource().getVideoStream().getWidth() == null ||
-                                            vlcResponse.getMediaSource().getVideoStream().getWidth() > 1200);
+        // Responses are delivered on the main thread so no synchronization is needed
+        final Runnable onResponse = () -> {
+            if (--pending[0] > 0) return;
 
-                            mVideoManager.init(getBufferAmount(), useDeinterlacing);
-                            mCurrentOptions = vlcOptions;
-                            startItem(item, position, vlcResponse);
-                        }
-                    });
+            Timber.i("Player negotiation took %sms", SystemClock.elapsedRealtime() - negotiationStart);
+            onPlayersNegotiated(item, position, vlcOptions, responses[0], errors[0], internalOptions, responses[1], errors[1], forcedVideoPlayer);
+        };
 
+        if (requestVlc) {
+            playbackManager.getValue().getVideoStreamInfo(api.getValue().getDeviceInfo(), vlcOptions, position * 10000, apiClient.getValue(), new Response<StreamInfo>() {
+                @Override
+                public void onResponse(StreamInfo response) {
+                    Timber.i("VLC would %s (%sms)", response.getPlayMethod().equals(PlayMethod.Transcode) ? "transcode" : "direct stream", SystemClock.elapsedRealtime() - negotiationStart);
+                    responses[0] = response;
+                    onResponse.run();
+                }
+
+                @Override
+                public void onError(Exception exception) {
+                    errors[0] = exception;
+                    onResponse.run();
+                }
+            });
+        }
+
+        if (requestInternal) {
+            playbackManager.getValue().getVideoStreamInfo(api.getValue().getDeviceInfo(), internalOptions, position * 10000, apiClient.getValue(), new Response<StreamInfo>() {
+                @Override
+                public void onResponse(StreamInfo response) {
+                    Timber.i("Internal player would %s (%sms)", response.getPlayMethod().equals(PlayMethod.Transcode) ? "transcode" : "direct stream", SystemClock.elapsedRealtime() - negotiationStart);
+                    responses[1] = response;
+                    onResponse.run();
                 }
 
                 @Override
                 public void onError(Exception exception) {
-                    handlePlaybackInfoError(exception);
+                    errors[1] = exception;
+                    onResponse.run();
                 }
             });
         }
     }
 
+    private void onPlayersNegotiated(final BaseItemDto item, final Long position, final VideoOptions vlcOptions, StreamInfo vlcResponse, Exception vlcError, final VideoOptions internalOptions, StreamInfo internalResponse, Exception internalError, PreferredVideoPlayer forcedVideoPlayer) {
+        if (vlcError != null) {
+            handlePlaybackInfoError(vlcError);
+            return;
+        }
+
+        if (internalError != null) {
+            Timber.e(internalError, "Unable to get stream info for internal player - falling back to libVLC");
+
+            if (vlcResponse == null) {
+                // Not requested because the internal player was forced
+                playbackManager.getValue().getVideoStreamInfo(api.getValue().getDeviceInfo(), vlcOptions, position * 10000, apiClient.getValue(), new Response<StreamInfo>() {
+                    @Override
+                    public void onResponse(StreamInfo response) {
+                        onPlayersNegotiated(item, position, vlcOptions, response, null, internalOptions, null, null, PreferredVideoPlayer.VLC);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        handlePlaybackInfoError(exception);
+                    }
+                });
+                return;
+            }
+
+            forcedVideoPlayer = PreferredVideoPlayer.VLC;
+        }
+
+        if (mVideoManager == null)
+            return;
+
+        StreamInfo videoResponse = vlcResponse != null ? vlcResponse : internalResponse;
+        boolean useDeinterlacing = videoResponse.getMediaSource().getVideoStream() != null &&
+                videoResponse.getMediaSource().getVideoStream().getIsInterlaced() &&
+                (videoResponse.getMediaSource().getVideoStream().getWidth() == null ||
+                        videoResponse.getMediaSource().getVideoStream().getWidth() > 1200);
+        Timber.i(useDeinterlacing ? "Explicit deinterlacing will be used" : "Explicit deinterlacing will NOT be used");
+
+        if (forcedVideoPlayer == PreferredVideoPlayer.VLC) {
+            // Force VLC
+            useVlc = true;
+        } else if (forcedVideoPlayer == PreferredVideoPlayer.EXOPLAYER) {
+            // Make sure to not use VLC
+            useVlc = false;
+        } else {
+            // TODO: Clean up this logic
+            // Now look at both responses and choose the one that direct plays or bitstreams - favor VLC
+            useVlc = !vlcErrorEncountered &&
+                    !vlcResponse.getPlayMethod().equals(PlayMethod.Transcode) &&
+                    (DeviceUtils.is60() ||
+                            !userPreferences.getValue().get(UserPreferences.Companion.getAc3Enabled()) ||
+                            vlcResponse.getMediaSource() == null ||
+                            vlcResponse.getMediaSource().getDefaultAudioStream() == null ||
+                            (!"ac3".equals(vlcResponse.getMediaSource().getDefaultAudioStream().getCodec()) &&
+                                    !"truehd".equals(vlcResponse.getMediaSource().getDefaultAudioStream().getCodec()))) &&
+                    (Utils.downMixAudio(mFragment.getContext()) ||
+                            !DeviceUtils.is60() ||
+                            internalResponse.getPlayMethod().equals(PlayMethod.Transcode) ||
+                            !userPreferences.getValue().get(UserPreferences.Companion.getDtsEnabled()) ||
+                            internalResponse.getMediaSource() == null ||
+                            internalResponse.getMediaSource().getDefaultAudioStream() == null ||
+                            (vlcResponse.getMediaSource().getVideoStream() != null && vlcResponse.getMediaSource().getVideoStream().getWidth() < 1000));
+        }
+
+        Timber.i(useVlc ? "Preferring VLC" : "Will use internal player");
+        mVideoManager.init(getBufferAmount(), useDeinterlacing);
+        mCurrentOptions = useVlc ? vlcOptions : internalOptions;
+        startItem(item, position, useVlc ? vlcResponse : internalResponse);
+    }
+
     private void handlePlaybackInfoError(Exception exception) {
         Timber.e(exception, "Error getting playback stream info");
         if (mFragment == null) return;
@@ -5,18 +5,10 @@ import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP
 import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PAUSE;
 import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PLAYING;
 import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.SUBTITLE_DISABLED;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getFromTmdbHttp_API;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getNfsRoot;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getSmbUserPass;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getZidooPlayStatusEx;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.setZidooAudioTrack;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.setZidooSeekPosition;
-import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.setZidooSubtitleTrack;
 import static org.jellyfin.androidtv.util.Utils.RUNTIME_TICKS_TO_MS;
 import static org.jellyfin.androidtv.util.Utils.getMillisecondsFormated;
 import static org.jellyfin.androidtv.util.Utils.getSafeValue;
 import static org.jellyfin.androidtv.util.Utils.isEmptyTrim;
-import static org.jellyfin.androidtv.util.Utils.isNonEmpty;
 import static org.jellyfin.androidtv.util.Utils.isNonEmptyTrim;
 import static org.koin.java.KoinJavaComponent.inject;
 
@@ -25,6 +17,7 @@ import android.content.Intent;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.os.SystemClock;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -42,15 +35,15 @@ import org.jellyfin.apiclient.model.dto.BaseItemType;
 import org.jellyfin.apiclient.model.dto.MediaSourceInfo;
 import org.jellyfin.apiclient.model.entities.MediaStream;
 import org.jellyfin.apiclient.model.session.PlayMethod;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.koin.java.KoinJavaComponent;
 
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import jcifs.Address;
-import jcifs.CIFSException;
 import kotlin.Lazy;
 import timber.log.Timber;
 
@@ -107,68 +100,39 @@ abstract class PlayerTask implements Runnable {
         }
         return false;
     }
+
+    protected boolean isTaskThread() {
+        Handler taskHandler = mTaskHandler;
+        return taskHandler != null && taskHandler.getLooper().getThread() == Thread.currentThread();
+    }
+
+    // run the task now instead of at the scheduled time
+    protected void runNow() {
+        Handler taskHandler = mTaskHandler;
+        if (!mIsFinished && taskHandler != null) {
+            taskHandler.removeCallbacks(this);
+            taskHandler.post(this);
+        }
+    }
 }
 
 class MountTask extends PlayerTask {
     final Response<String> mCallback;
-    final String mInputPath;
-    String mShareName;
-    String mServerHostName;
-    String mUserName;
-    String mPassword;
-    String mMountPath;
-    String mRelativePath;
-    boolean isNfs;
+    final Uri mPathUri;
+    final Lazy<ShareMountManager> mShareMountManager = inject(ShareMountManager.class);
+    String mMountedPath;
 
     public MountTask(@NonNull final Activity activity, @NonNull Uri pathUri, @NonNull final Response<String> callback) {
         super(activity);
         mCallback = callback;
-        mMountPath = null;
-        mShareName = null;
-        mServerHostName = null;
-        mUserName = null;
-        mPassword = null;
-        mRelativePath = null;
-
-        mInputPath = pathUri.getPath();
-        if (isNonEmptyTrim(pathUri.getHost())) {
-            mServerHostName = pathUri.getHost();
-        }
-        Timber.d("MountTask with host <%s> path <%s>", mServerHostName, mInputPath);
-        if ("smb".equals(pathUri.getScheme()) && isNonEmptyTrim(mInputPath)) {
-            if (isNonEmpty(pathUri.getPathSegments())) {
-                mShareName = pathUri.getPathSegments().get(0);
-            }
-            mRelativePath = mInputPath.replaceFirst("/" + mShareName,""); // FIXME needs tobe the first / anchor?
-            Pair<String, String> smbUserPass = getSmbUserPass(pathUri);
-            mUserName = smbUserPass.first;
-            mPassword = smbUserPass.second;
-            Timber.d("MountTask using SMB username <%s>", mUserName);
-            if (mPassword != null) {
-                Timber.d("MountTask using SMB password <*******>");
-            }
-        } else if ("nfs".equals(pathUri.getScheme()) && isNonEmptyTrim(mInputPath)) {
-            isNfs = true;
-            Pair<String, String> nfsRootShare = getNfsRoot(pathUri);
-            mShareName = nfsRootShare.second;
-            mRelativePath = mInputPath.replace("/:", ""); // remove old NFS marker
-            mRelativePath = mRelativePath.replaceFirst("/" + nfsRootShare.second,""); // FIXME needs tobe the first / anchor?
-        }
-        if (mServerHostName == null || mShareName == null) {
-            Timber.e("MountTask invalid HostName/ShareName, ending!");
-            finishTask(false);
-        } else {
-            post(this, 0);
-        }
+        mPathUri = pathUri;
+        mMountedPath = null;
+        Timber.d("MountTask with host <%s> path <%s>", pathUri.getHost(), pathUri.getPath());
+        post(this, 0);
     }
 
     private void handleCallback() {
-        if (isNonEmptyTrim(mMountPath)) {
-            Timber.d("Using mountPath <%s> rPath <%s>", mMountPath, mRelativePath);
-            mCallback.onResponse(mMountPath + mRelativePath);
-        } else {
-            mCallback.onResponse(null);
-        }
+        mCallback.onResponse(isNonEmptyTrim(mMountedPath) ? mMountedPath : null);
     }
 
     @Override
@@ -183,29 +147,7 @@ class MountTask extends PlayerTask {
 
     @Override
     public void run() {
-        String ip = mServerHostName;
-        try {
-            // NOTE: new API has no hostname support
-            Address addr = jcifs.context.SingletonContext.getInstance().getNameServiceClient().getByName(mServerHostName);
-            ip = addr.getHostAddress();
-        } catch (Exception ignored) {
-        } finally {
-            try {
-                jcifs.context.SingletonContext.getInstance().close();
-            } catch (CIFSException ignored) {
-            }
-        }
-
-        ZEMountManage mZEMountManage = new ZEMountManage(mActivity);
-        if (isNfs) {
-            Timber.i("MountTask NFS using Host-IP <%s> Share <%s>", ip, mShareName);
-            mMountPath = mZEMountManage.mountNfs(mShareName, ip);
-        } else {
-            Timber.i("MountTask SMB using Host-IP <%s> Share <%s> User <%s>", ip, mShareName, mUserName);
-            mMountPath = mZEMountManage.mountSmb(mShareName, ip, mUserName, mPassword);
-        }
-        //callback mount  AbsolutePath
-        //  as: /data/system/smb/192.168.11.106#zidoo
+        mMountedPath = mShareMountManager.getValue().mount(mPathUri);
         finishTask(false);
     }
 }
@@ -215,14 +157,18 @@ class TmdbTask extends PlayerTask {
     final public long mActivityStartTime;
     public BaseItemDto mParentItem;
     final public BaseItemDto mItem;
+    @Nullable
+    private final String mLanguageItemId;
     private String mOriginalLanguageTmdb;
     private final Runnable mCallback;
+    final Lazy<TmdbLanguageCache> mLanguageCache = inject(TmdbLanguageCache.class);
 
     public TmdbTask(@NonNull final Activity activity, @NonNull BaseItemDto item, @NonNull final Runnable callback) {
         super(activity);
         mActivityStartTime = System.currentTimeMillis();
         mItem = item;
         mParentItem = null;
+        mLanguageItemId = TmdbLanguageCache.getLanguageItemId(item);
         mOriginalLanguageTmdb = null;
         mCallback = callback;
         post(this, 0); // start
@@ -253,6 +199,12 @@ class TmdbTask extends PlayerTask {
             finishTask(false);
             return;
         }
+        if (mLanguageCache.getValue().contains(mLanguageItemId)) {
+            mOriginalLanguageTmdb = mLanguageCache.getValue().getOriginalLanguage(mLanguageItemId);
+            Timber.d("TmdbTask using cached org_langauge <%s>", mOriginalLanguageTmdb);
+            finishTask(false);
+            return;
+        }
         BaseItemDto checkItem = mItem;
         if (mParentItem != null) {
             checkItem = mParentItem;
@@ -266,41 +218,18 @@ class TmdbTask extends PlayerTask {
                         if (response.getProviderIds().containsKey("Tmdb") || response.getProviderIds().containsKey("Tvdb")) {
                             mParentItem = response;
                             post(TmdbTask.this, 0);
+                            return;
                         }
                     }
+                    finishTask(false);
                 }
                 @Override
                 public void onError(Exception exception) {
                     finishTask(false);
                 }
             });
-        } else if (checkItem.getBaseItemType() == BaseItemType.Movie && checkItem.getProviderIds() != null && checkItem.getProviderIds().containsKey("Tmdb")) {
-            JSONObject tmdb_obj = getFromTmdbHttp_API("movie", checkItem.getProviderIds().get("Tmdb"), null, null);
-            if (tmdb_obj != null && tmdb_obj.has("original_language")) {
-                mOriginalLanguageTmdb = tmdb_obj.optString("original_language");
-            }
-            finishTask(false);
-        } else if (checkItem.getBaseItemType() == BaseItemType.Series && checkItem.getProviderIds() != null) {
-            if (checkItem.getProviderIds().containsKey("Tmdb")) {
-                JSONObject tmdb_obj = getFromTmdbHttp_API("tv", checkItem.getProviderIds().get("Tmdb"), null, null);
-                if (tmdb_obj != null && tmdb_obj.has("original_language")) {
-                    mOriginalLanguageTmdb = tmdb_obj.optString("original_language");
-                }
-            } else if (checkItem.getProviderIds().containsKey("Tvdb")) {
-                JSONObject tmdb_find_obj = getFromTmdbHttp_API("find", checkItem.getProviderIds().get("Tvdb"), "external_source=tvdb_id", null);
-                if (tmdb_find_obj != null && tmdb_find_obj.has("tv_results")) {
-                    try {
-                        JSONArray tv_results = tmdb_find_obj.getJSONArray("tv_results");
-                        if (tv_results.length() > 0 && tv_results.getJSONObject(0) != null) {
-                            JSONObject tv_results_entry = tv_results.getJSONObject(0);
-                            if (tv_results_entry != null && tv_results_entry.has("original_language")) {
-                                mOriginalLanguageTmdb = tv_results_entry.optString("original_language");
-                            }
-                        }
-                    } catch (JSONException ignored) {
-                    }
-                }
-            }
+        } else if (checkItem.getBaseItemType() == BaseItemType.Movie || checkItem.getBaseItemType() == BaseItemType.Series) {
+            mOriginalLanguageTmdb = mLanguageCache.getValue().fetch(checkItem);
             finishTask(false);
         } else {
             finishTask(false);
@@ -312,7 +241,7 @@ class TmdbTask extends PlayerTask {
         if (isNonEmptyTrim(id) && mItem != null && mItem.getId().equals(id)) {
             return mOriginalLanguageTmdb;
         }
-        if (isNonEmptyTrim(parentId) && mParentItem != null && mParentItem.getId().equals(parentId)) {
+        if (isNonEmptyTrim(parentId) && (parentId.equals(mLanguageItemId) || (mParentItem != null && mParentItem.getId().equals(parentId)))) {
             return mOriginalLanguageTmdb;
         }
         Timber.w("getOriginalLanguage id's don't match!");
@@ -320,6 +249,122 @@ class TmdbTask extends PlayerTask {
     }
 }
 
+// Polls the Zidoo player status and publishes changes to the subscribed ZidooTasks
+// Polls fast after startup, seeks and commands and slow during steady playback
+class ZidooStatusMonitor extends PlayerTask {
+    static final int API_ZIDOO_STATUS_POLL_INTERVAL_FAST = 500;
+    static final int API_ZIDOO_STATUS_POLL_INTERVAL_SLOW = 5000;
+    static final int API_ZIDOO_STATUS_FAST_POLL_DURATION = 10000; // duration of fast polling after a seek or command
+    static final int API_ZIDOO_STATUS_SEEK_DELTA = 3000; // position jump in ms that is detected as seek
+    static final int API_ZIDOO_STATUS_POLL_TIMEOUT = 2000; // maximum wait for a synchronous poll
+
+    interface Listener {
+        void onStatusChanged(@NonNull ZidooPlayStatus status);
+    }
+
+    private final List<Listener> mListeners = new CopyOnWriteArrayList<>();
+    private volatile ZidooPlayStatus mStatus = ZidooPlayStatus.UNAVAILABLE;
+    private volatile long mFastPollUntil;
+    private long mLastPollTime = 0;
+
+    public ZidooStatusMonitor(@NonNull Activity activity) {
+        super(activity);
+        mFastPollUntil = SystemClock.elapsedRealtime() + ZidooTask.API_ZIDOO_STARTUP_TIMEOUT;
+        post(this, 0);
+    }
+
+    public void subscribe(@NonNull Listener listener) {
+        mListeners.add(listener);
+    }
+
+    public void unsubscribe(@NonNull Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    // last known status, never blocks
+    @NonNull
+    public ZidooPlayStatus getStatus() {
+        return mStatus;
+    }
+
+    // polls on the monitor thread and waits for the result, falls back to the last known status
+    @NonNull
+    public ZidooPlayStatus pollNow() {
+        if (isTaskThread()) {
+            return poll();
+        }
+        FutureTask<ZidooPlayStatus> poll = new FutureTask<>(this::poll);
+        if (!post(poll, 0)) {
+            return mStatus;
+        }
+        try {
+            return poll.get(API_ZIDOO_STATUS_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Timber.w(e, "ZidooStatusMonitor poll failed, using last known status");
+            return mStatus;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return mStatus;
+        }
+    }
+
+    // polls one last time on the monitor thread, hands the status to the callback there and finishes the monitor
+    public void finishAfterPoll(boolean isReset, @NonNull Listener callback) {
+        boolean posted = post(() -> {
+            callback.onStatusChanged(poll());
+            finishTask(isReset);
+        }, 0);
+        if (!posted) {
+            callback.onStatusChanged(mStatus);
+            finishTask(isReset);
+        }
+    }
+
+    public void requestFastPolling() {
+        mFastPollUntil = SystemClock.elapsedRealtime() + API_ZIDOO_STATUS_FAST_POLL_DURATION;
+        runNow();
+    }
+
+    @Override
+    public void run() {
+        if (mIsFinished) {
+            return;
+        }
+        poll();
+        post(this, SystemClock.elapsedRealtime() < mFastPollUntil ? API_ZIDOO_STATUS_POLL_INTERVAL_FAST : API_ZIDOO_STATUS_POLL_INTERVAL_SLOW);
+    }
+
+    // only called on the monitor thread
+    @NonNull
+    private ZidooPlayStatus poll() {
+        long now = SystemClock.elapsedRealtime();
+        ZidooPlayStatus previous = mStatus;
+        ZidooPlayStatus status = ZidooApiClient.getPlayStatus();
+        mStatus = status;
+
+        if (isSeek(previous, status, now - mLastPollTime)) {
+            Timber.d("ZidooStatusMonitor detected seek to <%s>", getMillisecondsFormated(status.getPosition()));
+            mFastPollUntil = now + API_ZIDOO_STATUS_FAST_POLL_DURATION;
+        }
+        mLastPollTime = now;
+
+        if (!status.hasSameState(previous)) {
+            for (Listener listener : mListeners) {
+                listener.onStatusChanged(status);
+            }
+        }
+        return status;
+    }
+
+    private static boolean isSeek(@NonNull ZidooPlayStatus previous, @NonNull ZidooPlayStatus status, long elapsed) {
+        if (!previous.isActive() || !status.isActive() || previous.getPosition() == null || status.getPosition() == null) {
+            return false;
+        }
+        long expectedPos = previous.getPosition() + (previous.isPlaying() ? elapsed : 0);
+        return Math.abs(status.getPosition() - expectedPos) > API_ZIDOO_STATUS_SEEK_DELTA;
+    }
+}
+
 abstract class ZidooTask extends PlayerTask {
     static final int API_ZIDOO_STARTUP_TIMEOUT = 20000; // allow Zidoo player to trigger wake + hdd spinnup + smb mount and start playback
     static final int API_ZIDOO_STARTUP_RETRY_INTERVAL = 400; // interval between startup detection try's
@@ -330,6 +375,8 @@ abstract class ZidooTask extends PlayerTask {
     final public BaseItemDto mItem;
     final public StreamInfo mStreamInfo;
     final protected AudioSubtitleHelper.AudioSubPref mPrefs;
+    final protected ZidooStatusMonitor mStatusMonitor;
+    final private ZidooStatusMonitor.Listener mStatusListener = this::onStatusChanged;
     public Pair<Integer, Integer> bestAudioSubIdxZidoo;
     protected Integer mCurrentAudioIdx;
     protected Integer mCurrentSubIdx;
@@ -340,9 +387,10 @@ abstract class ZidooTask extends PlayerTask {
     protected int mPlayStatus;
     protected String mTmdbOrgLang;
 
-    public ZidooTask(@NonNull final Activity activity, @NonNull AudioSubtitleHelper.AudioSubPref prefs, @NonNull BaseItemDto item, @NonNull StreamInfo streamInfo, int taskDelay) {
+    public ZidooTask(@NonNull final Activity activity, @NonNull AudioSubtitleHelper.AudioSubPref prefs, @NonNull BaseItemDto item, @NonNull StreamInfo streamInfo, @NonNull ZidooStatusMonitor statusMonitor, int taskDelay) {
         super(activity);
         mPrefs = prefs;
+        mStatusMonitor = statusMonitor;
         mItem = item;
         mCurrentAudioIdx = null;
         mCurrentSubIdx = null;
@@ -353,9 +401,20 @@ abstract class ZidooTask extends PlayerTask {
         mPlayStatus = API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR;
         mStreamInfo = streamInfo;
         mPlayMethod = streamInfo.getPlayMethod();
+        mStatusMonitor.subscribe(mStatusListener);
         post(this, taskDelay); // startup
     }
 
+    // called on the monitor thread
+    protected void onStatusChanged(@NonNull ZidooPlayStatus status) {
+    }
+
+    @Override
+    protected void finishTask(boolean isReset) {
+        mStatusMonitor.unsubscribe(mStatusListener);
+        super.finishTask(isReset);
+    }
+
     public void SetTmdbLang(@Nullable TmdbTask tmdbTask) {
         if (tmdbTask != null) {
             mTmdbOrgLang = tmdbTask.getOriginalLanguage(mItem.getId(), mItem.getSeriesId());
@@ -363,29 +422,35 @@ abstract class ZidooTask extends PlayerTask {
     }
 
     protected boolean updatePlayStatus() {
-        mPlayStatus = API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR;
-        Map<String, Integer> statusMap = getZidooPlayStatusEx();
-        Integer status = statusMap.getOrDefault("status", API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR);
-        if (status != null) {
-            mPlayStatus = status;
-        }
-        if (mPlayStatus >= API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PAUSE) {
+        return updatePlayStatus(mStatusMonitor.getStatus());
+    }
+
+    protected boolean updatePlayStatus(@NonNull ZidooPlayStatus status) {
+        mPlayStatus = status.getStatus();
+        if (status.isActive()) {
             // keep old values?
-            if (mPlayMethod != PlayMethod.Transcode) {
-                mPlayPos = statusMap.getOrDefault("currentPosition", mPlayPos);
+            if (mPlayMethod != PlayMethod.Transcode && status.getPosition() != null) {
+                mPlayPos = status.getPosition();
+            }
+            if (status.getAudioIndex() != null) {
+                mCurrentAudioIdx = status.getAudioIndex();
+            }
+            if (status.getSubtitleIndex() != null) {
+                mCurrentSubIdx = status.getSubtitleIndex();
+            }
+            if (status.getIdHash() != null) {
+                mZidooIdentifierHash = status.getIdHash();
             }
-            mCurrentAudioIdx = statusMap.getOrDefault("audio_index", mCurrentAudioIdx);
-            mCurrentSubIdx = statusMap.getOrDefault("subtitle_index", mCurrentSubIdx);
-            mZidooIdentifierHash = statusMap.getOrDefault("id_hash", mZidooIdentifierHash);
         }
-        return (mPlayStatus >= API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PAUSE);
+        return status.isActive();
     }
 
     protected void setSeekPos(@Nullable Integer seekPos) {
         if (seekPos != null && seekPos > 0 && mPlayPos != null) {
             int delta = Math.abs(mPlayPos - seekPos);
             if (delta > API_ZIDOO_SEEKPOS_DELTA) {
-                if (setZidooSeekPosition(seekPos)) {
+                if (ZidooApiClient.setSeekPosition(seekPos)) {
+                    mStatusMonitor.requestFastPolling();
                     Timber.d("setSeekPos success <%s>", getMillisecondsFormated(seekPos));
                 } else {
                     Timber.e("setSeekPos failed!");
@@ -411,14 +476,16 @@ abstract class ZidooTask extends PlayerTask {
         if (bestAudioSubIdxZidoo != null) {
             // handle audio/sub tracks
             if (bestAudioSubIdxZidoo.first != null && mCurrentAudioIdx != null && !bestAudioSubIdxZidoo.first.equals(mCurrentAudioIdx)) {
-                if (setZidooAudioTrack(this.bestAudioSubIdxZidoo.first)) {
+                if (ZidooApiClient.setAudioTrack(this.bestAudioSubIdxZidoo.first)) {
+                    mStatusMonitor.requestFastPolling();
                     Timber.d("setZidooAudioTrack success <%s>", bestAudioSubIdxZidoo.first);
                 } else {
                     Timber.e("setZidooAudioTrack failed!");
                 }
             }
             if (this.bestAudioSubIdxZidoo.second != null && mCurrentSubIdx != null && !bestAudioSubIdxZidoo.second.equals(mCurrentSubIdx)) {
-                if (setZidooSubtitleTrack(bestAudioSubIdxZidoo.second)) {
+                if (ZidooApiClient.setSubtitleTrack(bestAudioSubIdxZidoo.second)) {
+                    mStatusMonitor.requestFastPolling();
                     Timber.d("setZidooSubtitleTrack success <%s>", bestAudioSubIdxZidoo.second);
                 } else {
                     Timber.e("setZidooSubtitleTrack failed!");
@@ -488,7 +555,7 @@ class ZidooStartupTask extends ZidooTask {
     final private Runnable mCallback;
 
     public ZidooStartupTask(@NonNull final Activity activity, @NonNull final AudioSubtitleHelper.AudioSubPref prefs, @NonNull BaseItemDto item, int seekPos, @NonNull StreamInfo streamInfo, int taskDelay, @NonNull final Runnable callback) {
-        super(activity, prefs, item, streamInfo, taskDelay);
+        super(activity, prefs, item, streamInfo, new ZidooStatusMonitor(activity), taskDelay);
         mSeekPos = seekPos;
         mZidooStartupOK = false;
         mCallback = callback;
@@ -499,11 +566,20 @@ class ZidooStartupTask extends ZidooTask {
         if (!mIsFinished) {
             super.finishTask(isReset);
             if (mZidooStartupOK) {
-                mActivity.runOnUiThread(mCallback); // make sure its called on Ui thread
+                mActivity.runOnUiThread(mCallback); // make sure its called on Ui thread, the report task takes over the monitor
+            } else {
+                mStatusMonitor.finishTask(isReset);
             }
         }
     }
 
+    @Override
+    protected void onStatusChanged(@NonNull ZidooPlayStatus status) {
+        if (status.isActive()) {
+            runNow(); // don't wait for the next retry
+        }
+    }
+
     @Override
     public void run() {
         if (mIsFinished) {
@@ -539,15 +615,17 @@ class ZidooReportTask extends ZidooTask {
     public Pair<Integer, Integer> mInitialAudioSubIdx;
     public Pair<Integer, Integer> mFinishedAudioSubIdx;
     private boolean started;
+    private boolean mHasResultPosition;
     final public int mSeekPos;
 
     public ZidooReportTask(@NonNull ZidooTask startupTask, int seekPos, int taskDelay) {
-        super(startupTask.mActivity, startupTask.mPrefs, startupTask.mItem, startupTask.mStreamInfo, taskDelay);
+        super(startupTask.mActivity, startupTask.mPrefs, startupTask.mItem, startupTask.mStreamInfo, startupTask.mStatusMonitor, taskDelay);
         mZidooIdentifierHashStartup = startupTask.mZidooIdentifierHashStartup;
         mZidooReportTaskErrorCount = 0;
         mInitialAudioSubIdx = null;
         mFinishedAudioSubIdx = null;
         started = false;
+        mHasResultPosition = false;
         mSeekPos = seekPos;
     }
 
@@ -556,7 +634,8 @@ class ZidooReportTask extends ZidooTask {
         if (mIsFinished) {
             return;
         }
-        if (updatePlayStatus()) {
+        // the monitor polls slowly during playback, get the current position for the progress report
+        if (started ? updatePlayStatus(mStatusMonitor.pollNow()) : updatePlayStatus()) {
             if (mZidooIdentifierHashStartup != null && !mZidooIdentifierHashStartup.equals(mZidooIdentifierHash)) {
                 Timber.e("ZidooReportTask wrong id_hash <%s> expected <%s>", mZidooIdentifierHash, mZidooIdentifierHashStartup);
                 this.finishTask(false);
@@ -620,30 +699,54 @@ class ZidooReportTask extends ZidooTask {
         int audio_idx = data.getIntExtra("audio_idx", -1);
         int subtitle_idx = data.getIntExtra("subtitle_idx", -1);
         // update values from result
-        if (position > 0)
+        if (position > 0) {
             mPlayPos = position;
+            mHasResultPosition = true;
+        }
         if (audio_idx >= 0)
             mCurrentAudioIdx = audio_idx;
         if (subtitle_idx >= 0)
             mCurrentSubIdx = subtitle_idx;
     }
 
+    @Override
+    protected void onStatusChanged(@NonNull ZidooPlayStatus status) {
+        if (started && status.isActive()) {
+            runNow(); // report play/pause and track changes right away
+        }
+    }
+
     @Override
     protected void finishTask(boolean isReset) {
         if (!mIsFinished) {
-            super.finishTask(isReset);
-            if (mPlayMethod != PlayMethod.Transcode && mPlayPos != null && mPlayPos > 0) {
-                ReportingHelper.reportStopped(mItem, mStreamInfo, mPlayPos * RUNTIME_TICKS_TO_MS);
-                Timber.d("ZidooReportTask reportStopped Position: <%s>", getMillisecondsFormated(mPlayPos));
-            } else {
-                long activityPlayTime = System.currentTimeMillis() - mActivityStartTime; // FALLBACK: use activityTime, since seek/playtime is broken
-                ReportingHelper.reportStopped(mItem, mStreamInfo, activityPlayTime * RUNTIME_TICKS_TO_MS);
-                Timber.d("ZidooReportTask reportStopped fallback Position: <%s>", getMillisecondsFormated((int) activityPlayTime));
+            if (!mHasResultPosition) {
+                // called from the ui thread, don't wait for the Zidoo api here
+                updatePlayStatus();
             }
+            super.finishTask(isReset);
             mFinishedAudioSubIdx = new Pair<>(mCurrentAudioIdx, mCurrentSubIdx);
             if (mInitialAudioSubIdx != null) {
                 Timber.d("ZidooReportTask Stopped audioIdx: <#%s><%s> subTitleIdx: <#%s><%s>", mCurrentAudioIdx, mInitialAudioSubIdx.first, mCurrentSubIdx, mInitialAudioSubIdx.second);
             }
+            if (mHasResultPosition || mPlayMethod == PlayMethod.Transcode) {
+                reportStopped(mPlayPos);
+                mStatusMonitor.finishTask(isReset);
+            } else {
+                // the last known position can be a slow poll interval old, poll once more on the monitor thread
+                final Integer lastPlayPos = mPlayPos;
+                mStatusMonitor.finishAfterPoll(isReset, status -> reportStopped(status.isActive() && status.getPosition() != null ? status.getPosition() : lastPlayPos));
+            }
+        }
+    }
+
+    private void reportStopped(@Nullable Integer playPos) {
+        if (mPlayMethod != PlayMethod.Transcode && playPos != null && playPos > 0) {
+            ReportingHelper.reportStopped(mItem, mStreamInfo, playPos * RUNTIME_TICKS_TO_MS);
+            Timber.d("ZidooReportTask reportStopped Position: <%s>", getMillisecondsFormated(playPos));
+        } else {
+            long activityPlayTime = mActivityStopTime - mActivityStartTime; // FALLBACK: use activityTime, since seek/playtime is broken
+            ReportingHelper.reportStopped(mItem, mStreamInfo, activityPlayTime * RUNTIME_TICKS_TO_MS);
+            Timber.d("ZidooReportTask reportStopped fallback Position: <%s>", getMillisecondsFormated((int) activityPlayTime));
         }
     }
 
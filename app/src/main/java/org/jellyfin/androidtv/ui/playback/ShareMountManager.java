@@ -0,0 +1,213 @@
+package org.jellyfin.androidtv.ui.playback;
+
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getNfsRoot;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getSmbUserPass;
+import static org.jellyfin.androidtv.util.Utils.isNonEmpty;
+import static org.jellyfin.androidtv.util.Utils.isNonEmptyTrim;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.core.util.Pair;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import jcifs.Address;
+import jcifs.CIFSException;
+import timber.log.Timber;
+
+/**
+ * Mounts SMB/NFS shares for the Zidoo player and keeps track of the mounted shares, so a share is
+ * only mounted once and host names are only resolved once in a while.
+ */
+public class ShareMountManager {
+    private static final long HOST_ADDRESS_TTL = 10 * 60 * 1000; // 10 minutes
+
+    private final Context mContext;
+    private final Executor mPreMountExecutor = Executors.newSingleThreadExecutor();
+    // share key -> mount path
+    private final Map<String, String> mMounts = new HashMap<>();
+    // host name -> resolved ip
+    private final Map<String, Pair<String, Long>> mHostAddresses = new HashMap<>();
+    private final Set<String> mPendingPreMounts = new HashSet<>();
+
+    public ShareMountManager(@NonNull Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    static class Share {
+        final boolean isNfs;
+        final String serverHostName;
+        final String shareName;
+        final String relativePath;
+        @Nullable
+        final String userName;
+        @Nullable
+        final String password;
+
+        private Share(boolean isNfs, String serverHostName, String shareName, String relativePath, @Nullable String userName, @Nullable String password) {
+            this.isNfs = isNfs;
+            this.serverHostName = serverHostName;
+            this.shareName = shareName;
+            this.relativePath = relativePath;
+            this.userName = userName;
+            this.password = password;
+        }
+
+        @NonNull
+        String getKey() {
+            return (isNfs ? "nfs" : "smb") + "://" + userName + "@" + serverHostName + "/" + shareName;
+        }
+
+        @Nullable
+        static Share fromUri(@NonNull Uri pathUri) {
+            String inputPath = pathUri.getPath();
+            String serverHostName = isNonEmptyTrim(pathUri.getHost()) ? pathUri.getHost() : null;
+            if (serverHostName == null || !isNonEmptyTrim(inputPath)) return null;
+
+            if ("smb".equals(pathUri.getScheme())) {
+                if (!isNonEmpty(pathUri.getPathSegments())) return null;
+                String shareName = pathUri.getPathSegments().get(0);
+                String relativePath = inputPath.replaceFirst("/" + shareName, ""); // FIXME needs tobe the first / anchor?
+                Pair<String, String> smbUserPass = getSmbUserPass(pathUri);
+                return new Share(false, serverHostName, shareName, relativePath, smbUserPass.first, smbUserPass.second);
+            } else if ("nfs".equals(pathUri.getScheme())) {
+                Pair<String, String> nfsRootShare = getNfsRoot(pathUri);
+                if (nfsRootShare.second == null) return null;
+                String relativePath = inputPath.replace("/:", ""); // remove old NFS marker
+                relativePath = relativePath.replaceFirst("/" + nfsRootShare.second, ""); // FIXME needs tobe the first / anchor?
+                return new Share(true, serverHostName, nfsRootShare.second, relativePath, null, null);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Mount the share of the path (or reuse an existing mount) and return the local path.
+     */
+    @WorkerThread
+    @Nullable
+    public String mount(@NonNull Uri pathUri) {
+        Share share = Share.fromUri(pathUri);
+        if (share == null) {
+            Timber.e("ShareMountManager invalid HostName/ShareName <%s>", pathUri.getHost());
+            return null;
+        }
+
+        String mountPath = getMountPath(share);
+        if (mountPath == null) return null;
+        Timber.d("Using mountPath <%s> rPath <%s>", mountPath, share.relativePath);
+        return mountPath + share.relativePath;
+    }
+
+    /**
+     * Mount the share of the path in the background so a later {@link #mount(Uri)} is instant.
+     */
+    public void preMount(@NonNull Uri pathUri) {
+        Share share = Share.fromUri(pathUri);
+        if (share == null) return;
+
+        synchronized (mPendingPreMounts) {
+            if (!mPendingPreMounts.add(share.getKey())) return;
+        }
+
+        mPreMountExecutor.execute(() -> {
+            Timber.d("ShareMountManager pre-mounting <%s>", share.shareName);
+            getMountPath(share);
+            synchronized (mPendingPreMounts) {
+                mPendingPreMounts.remove(share.getKey());
+            }
+        });
+    }
+
+    @WorkerThread
+    @Nullable
+    private String getMountPath(@NonNull Share share) {
+        String key = share.getKey();
+        String checkedPath;
+        synchronized (this) {
+            checkedPath = mMounts.get(key);
+        }
+        // listing a stale network mount can block for a long time, don't hold the lock meanwhile
+        boolean healthy = checkedPath != null && isMountHealthy(checkedPath);
+
+        synchronized (this) {
+            String mountPath = mMounts.get(key);
+            if (mountPath != null) {
+                if (!mountPath.equals(checkedPath) || healthy) {
+                    Timber.d("ShareMountManager reusing mount <%s> for <%s>", mountPath, share.shareName);
+                    return mountPath;
+                }
+                Timber.w("ShareMountManager mount <%s> is no longer available", mountPath);
+                mMounts.remove(key);
+            }
+            return mountShare(share);
+        }
+    }
+
+    @WorkerThread
+    @Nullable
+    private String mountShare(@NonNull Share share) {
+        String mountPath;
+        String ip = resolveHost(share.serverHostName);
+        ZEMountManage zeMountManage = new ZEMountManage(mContext);
+        if (share.isNfs) {
+            Timber.i("ShareMountManager NFS using Host-IP <%s> Share <%s>", ip, share.shareName);
+            mountPath = zeMountManage.mountNfs(share.shareName, ip);
+        } else {
+            Timber.i("ShareMountManager SMB using Host-IP <%s> Share <%s> User <%s>", ip, share.shareName, share.userName);
+            mountPath = zeMountManage.mountSmb(share.shareName, ip, share.userName, share.password);
+        }
+        //mount AbsolutePath
+        //  as: /data/system/smb/192.168.11.106#zidoo
+
+        if (isNonEmptyTrim(mountPath)) {
+            mMounts.put(share.getKey(), mountPath);
+        } else {
+            // the host may have moved
+            mHostAddresses.remove(share.serverHostName);
+            mountPath = null;
+        }
+        return mountPath;
+    }
+
+    private static boolean isMountHealthy(@NonNull String mountPath) {
+        File mountDir = new File(mountPath);
+        return mountDir.isDirectory() && mountDir.list() != null;
+    }
+
+    @WorkerThread
+    @NonNull
+    private String resolveHost(@NonNull String hostName) {
+        Pair<String, Long> cached = mHostAddresses.get(hostName);
+        if (cached != null && SystemClock.elapsedRealtime() - cached.second < HOST_ADDRESS_TTL) {
+            return cached.first;
+        }
+
+        String ip = hostName;
+        try {
+            // NOTE: new API has no hostname support
+            Address addr = jcifs.context.SingletonContext.getInstance().getNameServiceClient().getByName(hostName);
+            ip = addr.getHostAddress();
+        } catch (Exception ignored) {
+        } finally {
+            try {
+                jcifs.context.SingletonContext.getInstance().close();
+            } catch (CIFSException ignored) {
+            }
+        }
+
+        mHostAddresses.put(hostName, new Pair<>(ip, SystemClock.elapsedRealtime()));
+        return ip;
+    }
+}
@@ -0,0 +1,229 @@
+package org.jellyfin.androidtv.ui.playback;
+
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.getFromTmdbHttp_API;
+import static org.jellyfin.androidtv.util.Utils.isNonEmptyTrim;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.jellyfin.androidtv.auth.repository.UserRepository;
+import org.jellyfin.apiclient.interaction.ApiClient;
+import org.jellyfin.apiclient.interaction.Response;
+import org.jellyfin.apiclient.model.dto.BaseItemDto;
+import org.jellyfin.apiclient.model.dto.BaseItemType;
+import org.jellyfin.apiclient.model.querying.ItemFields;
+import org.jellyfin.apiclient.model.querying.ItemQuery;
+import org.jellyfin.apiclient.model.querying.ItemsResult;
+import org.jellyfin.sdk.model.api.UserDto;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.koin.java.KoinJavaComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+
+/**
+ * Persistent cache of the TMDB original language of movies and series, keyed by the item id of the
+ * movie or series. Items without a known language are cached as well (for a shorter time) so they
+ * are not looked up on every playback.
+ */
+public class TmdbLanguageCache {
+    private static final long LANGUAGE_EXPIRY_MS = TimeUnit.DAYS.toMillis(180);
+    private static final long NO_LANGUAGE_EXPIRY_MS = TimeUnit.DAYS.toMillis(7);
+    private static final String NO_LANGUAGE = "";
+
+    private final SharedPreferences mStore;
+    private final Executor mExecutor = Executors.newSingleThreadExecutor();
+    private final Set<String> mPendingIds = new HashSet<>();
+
+    public TmdbLanguageCache(@NonNull Context context) {
+        mStore = context.getSharedPreferences("tmdb_original_language", Context.MODE_PRIVATE);
+    }
+
+    /**
+     * @return the id of the item the original language belongs to (the series for episodes and seasons)
+     */
+    @Nullable
+    public static String getLanguageItemId(@NonNull BaseItemDto item) {
+        if (item.getBaseItemType() == BaseItemType.Episode || item.getBaseItemType() == BaseItemType.Season) {
+            return item.getSeriesId();
+        } else if (item.getBaseItemType() == BaseItemType.Movie || item.getBaseItemType() == BaseItemType.Series) {
+            return item.getId();
+        }
+        return null;
+    }
+
+    public boolean contains(@Nullable String itemId) {
+        return isNonEmptyTrim(itemId) && read(itemId) != null;
+    }
+
+    /**
+     * @return the cached original language or null when it's unknown or not cached
+     */
+    @Nullable
+    public String getOriginalLanguage(@Nullable String itemId) {
+        if (!isNonEmptyTrim(itemId)) return null;
+
+        String language = read(itemId);
+        return NO_LANGUAGE.equals(language) ? null : language;
+    }
+
+    @Nullable
+    private String read(@NonNull String itemId) {
+        String value = mStore.getString(itemId, null);
+        if (value == null) return null;
+
+        int separator = value.indexOf('|');
+        if (separator < 0) return null;
+        try {
+            long timestamp = Long.parseLong(value.substring(0, separator));
+            String language = value.substring(separator + 1);
+            long expiry = NO_LANGUAGE.equals(language) ? NO_LANGUAGE_EXPIRY_MS : LANGUAGE_EXPIRY_MS;
+            if (System.currentTimeMillis() - timestamp > expiry) return null;
+            return language;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void write(@NonNull String itemId, @Nullable String language) {
+        mStore.edit().putString(itemId, System.currentTimeMillis() + "|" + (language != null ? language : NO_LANGUAGE)).apply();
+    }
+
+    /**
+     * Look up the original language of a movie or series on TMDB and cache the result. Failed
+     * lookups are not cached, so they are retried on the next playback.
+     */
+    @WorkerThread
+    @Nullable
+    public String fetch(@NonNull BaseItemDto item) {
+        String language = null;
+        // whether TMDB (or the item itself) gave a definite answer
+        boolean answered = true;
+        if (item.getProviderIds() == null) {
+            // can't look it up
+        } else if (item.getBaseItemType() == BaseItemType.Movie && item.getProviderIds().containsKey("Tmdb")) {
+            JSONObject tmdb_obj = getFromTmdbHttp_API("movie", item.getProviderIds().get("Tmdb"), null, null);
+            answered = tmdb_obj != null;
+            if (tmdb_obj != null && tmdb_obj.has("original_language")) {
+                language = tmdb_obj.optString("original_language");
+            }
+        } else if (item.getBaseItemType() == BaseItemType.Series && item.getProviderIds().containsKey("Tmdb")) {
+            JSONObject tmdb_obj = getFromTmdbHttp_API("tv", item.getProviderIds().get("Tmdb"), null, null);
+            answered = tmdb_obj != null;
+            if (tmdb_obj != null && tmdb_obj.has("original_language")) {
+                language = tmdb_obj.optString("original_language");
+            }
+        } else if (item.getBaseItemType() == BaseItemType.Series && item.getProviderIds().containsKey("Tvdb")) {
+            JSONObject tmdb_find_obj = getFromTmdbHttp_API("find", item.getProviderIds().get("Tvdb"), "external_source=tvdb_id", null);
+            answered = tmdb_find_obj != null;
+            if (tmdb_find_obj != null && tmdb_find_obj.has("tv_results")) {
+                try {
+                    JSONArray tv_results = tmdb_find_obj.getJSONArray("tv_results");
+                    if (tv_results.length() > 0 && tv_results.getJSONObject(0) != null) {
+                        JSONObject tv_results_entry = tv_results.getJSONObject(0);
+                        if (tv_results_entry != null && tv_results_entry.has("original_language")) {
+                            language = tv_results_entry.optString("original_language");
+                        }
+                    }
+                } catch (JSONException e) {
+                    answered = false;
+                }
+            }
+        }
+
+        if (!isNonEmptyTrim(language)) language = null;
+        if (answered) {
+            write(item.getId(), language);
+        }
+        Timber.d("TmdbLanguageCache <%s> <%s> org_language <%s> answered <%s>", item.getBaseItemType(), item.getName(), language, answered);
+        return language;
+    }
+
+    /**
+     * Look up the original language of the movie or series of the item in the background, unless
+     * it's already cached.
+     */
+    public void warm(@NonNull BaseItemDto item) {
+        warm(Collections.singletonList(item));
+    }
+
+    /**
+     * Look up the original languages of the movies and series of the items in the background,
+     * unless they're already cached. Each series is looked up once for all of its seasons and
+     * episodes, the series items are requested in a single call.
+     */
+    public void warm(@NonNull List<BaseItemDto> items) {
+        List<BaseItemDto> languageItems = new ArrayList<>();
+        List<String> languageItemIds = new ArrayList<>();
+        final List<String> seriesIds = new ArrayList<>();
+        synchronized (mPendingIds) {
+            for (BaseItemDto item : items) {
+                String languageItemId = getLanguageItemId(item);
+                if (!isNonEmptyTrim(languageItemId) || contains(languageItemId) || !mPendingIds.add(languageItemId)) continue;
+
+                if (languageItemId.equals(item.getId())) {
+                    languageItems.add(item);
+                    languageItemIds.add(languageItemId);
+                } else {
+                    seriesIds.add(languageItemId);
+                }
+            }
+        }
+
+        if (!languageItems.isEmpty()) fetchAsync(languageItems, languageItemIds);
+        if (seriesIds.isEmpty()) return;
+
+        // the provider ids are needed, which are only available on the series itself
+        UserDto user = KoinJavaComponent.<UserRepository>get(UserRepository.class).getCurrentUser().getValue();
+        if (user == null) {
+            onFetched(seriesIds);
+            return;
+        }
+        ItemQuery query = new ItemQuery();
+        query.setUserId(user.getId().toString());
+        query.setIds(seriesIds.toArray(new String[0]));
+        query.setFields(new ItemFields[]{ItemFields.ProviderIds});
+        KoinJavaComponent.<ApiClient>get(ApiClient.class).GetItemsAsync(query, new Response<ItemsResult>() {
+            @Override
+            public void onResponse(ItemsResult response) {
+                BaseItemDto[] series = response.getItems();
+                fetchAsync(series != null ? Arrays.asList(series) : Collections.emptyList(), seriesIds);
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                onFetched(seriesIds);
+            }
+        });
+    }
+
+    private void fetchAsync(@NonNull List<BaseItemDto> items, @NonNull List<String> languageItemIds) {
+        mExecutor.execute(() -> {
+            for (BaseItemDto item : items) {
+                fetch(item);
+            }
+            onFetched(languageItemIds);
+        });
+    }
+
+    private void onFetched(@NonNull List<String> languageItemIds) {
+        synchronized (mPendingIds) {
+            mPendingIds.removeAll(languageItemIds);
+        }
+    }
+}
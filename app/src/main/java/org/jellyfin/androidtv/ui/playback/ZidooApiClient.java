@@ -0,0 +1,244 @@
+package org.jellyfin.androidtv.ui.playback;
+
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_IP;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_JSON_STATUS;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_SUCCESS;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_TARGET_VIDEOPLAY;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR;
+import static org.jellyfin.androidtv.util.Utils.isNonEmptyTrim;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import timber.log.Timber;
+
+/**
+ * Client for the local Zidoo http-api (http://apidoc.zidoo.tv/s/98365225/Gmwqxawu/BI0Cv1r2).
+ * Connections are not disconnected after a call so they are kept alive and reused, responses are
+ * parsed while reading instead of buffering the body first.
+ */
+public class ZidooApiClient {
+    private static final String API_URL = "http://" + API_ZIDOO_HTTP_API_IP + "/" + API_ZIDOO_HTTP_API_TARGET_VIDEOPLAY + "/";
+    private static final int API_TIMEOUT = 2000;
+
+    private interface BodyParser<T> {
+        @Nullable
+        T parse(@NonNull JsonReader reader) throws IOException;
+    }
+
+    private ZidooApiClient() {
+    }
+
+    @Nullable
+    private static <T> T request(@NonNull String cmd, @Nullable String parameter, @NonNull BodyParser<T> parser) {
+        HttpURLConnection connection = null;
+        try {
+            String url = API_URL + cmd;
+            if (isNonEmptyTrim(parameter)) {
+                url += "?" + parameter;
+            }
+
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(API_TIMEOUT);
+            connection.setReadTimeout(API_TIMEOUT);
+            connection.setRequestProperty("Connection", "keep-alive");
+
+            int httpStatus = connection.getResponseCode();
+            if (httpStatus != 200) {
+                Timber.d("Zidoo http-api %s status error <%s>", cmd, httpStatus);
+                // the body needs to be consumed to keep the connection alive
+                InputStream errorStream = connection.getErrorStream();
+                if (errorStream != null) {
+                    while (errorStream.read() != -1) ;
+                    errorStream.close();
+                }
+                return null;
+            }
+
+            try (JsonReader reader = new JsonReader(new InputStreamReader(new BufferedInputStream(connection.getInputStream()), StandardCharsets.UTF_8))) {
+                return parser.parse(reader);
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            Timber.d("Zidoo http-api %s failed, could not reach target or invalid response.", cmd);
+            // don't reuse a connection in an unknown state
+            if (connection != null) connection.disconnect();
+            return null;
+        }
+    }
+
+    // reads the status of a command, the rest of the response is skipped
+    private static boolean command(@NonNull String cmd, @Nullable String parameter) {
+        Integer status = request(cmd, parameter, reader -> {
+            Integer apiStatus = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (API_ZIDOO_HTTP_API_JSON_STATUS.equals(reader.nextName())) {
+                    apiStatus = readInt(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return apiStatus;
+        });
+        return status != null && status == API_ZIDOO_HTTP_API_SUCCESS;
+    }
+
+    //GET/VideoPlay/setAudio?index=0        NOTE: Audio index start at 0
+    public static boolean setAudioTrack(int idx) {
+        return command("setAudio", "index=" + idx);
+    }
+
+    //GET/VideoPlay/setSubtitle?index=1     NOTE: index=0 turns off, so Subtitle index start at 1 !!!
+    public static boolean setSubtitleTrack(int idx) {
+        return command("setSubtitle", "index=" + idx);
+    }
+
+    //GET/VideoPlay/seekTo?positon=300000
+    public static boolean setSeekPosition(int seekPos) {
+        return command("seekTo", "positon=" + seekPos);
+    }
+
+    //GET/VideoPlay/getPlayStatus
+    @NonNull
+    public static ZidooPlayStatus getPlayStatus() {
+        ZidooPlayStatus status = request("getPlayStatus", null, ZidooApiClient::parsePlayStatus);
+        return status != null ? status : ZidooPlayStatus.UNAVAILABLE;
+    }
+
+    @Nullable
+    private static ZidooPlayStatus parsePlayStatus(@NonNull JsonReader reader) throws IOException {
+        Integer apiStatus = null;
+        int status = API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR;
+        Integer position = null;
+        Integer duration = null;
+        Integer width = null;
+        String path = null;
+        String title = null;
+        Integer audioIndex = null;
+        Integer subtitleIndex = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case API_ZIDOO_HTTP_API_JSON_STATUS:
+                    apiStatus = readInt(reader);
+                    break;
+                case "video":
+                    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                        reader.skipValue();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "status":
+                                Integer videoStatus = readInt(reader);
+                                if (videoStatus != null) status = videoStatus;
+                                break;
+                            case "currentPosition":
+                                position = readInt(reader);
+                                break;
+                            case "duration":
+                                duration = readInt(reader);
+                                break;
+                            case "width":
+                                width = readInt(reader);
+                                break;
+                            case "path":
+                                path = readString(reader);
+                                break;
+                            case "title":
+                                title = readString(reader);
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "audio":
+                    audioIndex = readIndex(reader);
+                    break;
+                case "subtitle":
+                    subtitleIndex = readIndex(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // sanity check if we have valid data
+        if (apiStatus == null || apiStatus != API_ZIDOO_HTTP_API_SUCCESS || width == null || width <= 0) {
+            return null;
+        }
+
+        // carefully, don't use pos for "broken" HLS streams!
+        if (duration == null || duration <= 0 || position == null || position < 0) {
+            position = null;
+        }
+
+        String hashId = isNonEmptyTrim(path) ? path : title;
+        Integer idHash = isNonEmptyTrim(hashId) ? hashId.hashCode() : null;
+
+        return new ZidooPlayStatus(status, position, idHash, audioIndex, subtitleIndex);
+    }
+
+    @Nullable
+    private static Integer readIndex(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        Integer index = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("index".equals(reader.nextName())) {
+                index = readInt(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return index;
+    }
+
+    @Nullable
+    private static Integer readInt(@NonNull JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            try {
+                return reader.nextInt();
+            } catch (NumberFormatException e) {
+                // the value is not consumed on failure
+                reader.skipValue();
+                return null;
+            }
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    @Nullable
+    private static String readString(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package org.jellyfin.androidtv.ui.playback;
+
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PAUSE;
+import static org.jellyfin.androidtv.ui.playback.PlayerApiHelpers.API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PLAYING;
+
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Playback status as reported by the getPlayStatus call of the Zidoo http-api.
+ */
+public class ZidooPlayStatus {
+    static final ZidooPlayStatus UNAVAILABLE = new ZidooPlayStatus(API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_ERROR, null, null, null, null);
+
+    private final int status;
+    @Nullable
+    private final Integer position;
+    @Nullable
+    private final Integer idHash;
+    @Nullable
+    private final Integer audioIndex;
+    @Nullable
+    private final Integer subtitleIndex;
+
+    public ZidooPlayStatus(int status, @Nullable Integer position, @Nullable Integer idHash, @Nullable Integer audioIndex, @Nullable Integer subtitleIndex) {
+        this.status = status;
+        this.position = position;
+        this.idHash = idHash;
+        this.audioIndex = audioIndex;
+        this.subtitleIndex = subtitleIndex;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    // only set for valid positions, "broken" HLS streams report garbage
+    @Nullable
+    public Integer getPosition() {
+        return position;
+    }
+
+    // hash of the path or title of the playing video
+    @Nullable
+    public Integer getIdHash() {
+        return idHash;
+    }
+
+    @Nullable
+    public Integer getAudioIndex() {
+        return audioIndex;
+    }
+
+    @Nullable
+    public Integer getSubtitleIndex() {
+        return subtitleIndex;
+    }
+
+    public boolean isActive() {
+        return status >= API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PAUSE;
+    }
+
+    public boolean isPlaying() {
+        return status == API_ZIDOO_HTTP_API_VIDEOPLAY_STATUS_PLAYING;
+    }
+
+    /**
+     * @return true when everything but the position is equal
+     */
+    public boolean hasSameState(@Nullable ZidooPlayStatus other) {
+        return other != null
+                && status == other.status
+                && Objects.equals(idHash, other.idHash)
+                && Objects.equals(audioIndex, other.audioIndex)
+                && Objects.equals(subtitleIndex, other.subtitleIndex);
+    }
+}
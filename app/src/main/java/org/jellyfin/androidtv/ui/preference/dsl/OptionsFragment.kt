@@ -5,6 +5,7 @@ import androidx.leanback.preference.LeanbackPreferenceFragmentCompat
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.runBlocking
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesStore
 import org.jellyfin.preference.store.AsyncPreferenceStore
 import org.jellyfin.preference.store.PreferenceStore
 
@@ -42,10 +43,15 @@ abstract class OptionsFragment : LeanbackPreferenceFragmentCompat() {
 	override fun onStop() {
 		super.onStop()
 
-		// Save all data in async stores
+		// Display preferences are saved in the background, save all data in other async stores
+		stores
+			.filterIsInstance<DisplayPreferencesStore>()
+			.forEach { it.commitDelayed() }
+
 		runBlocking {
 			stores
 				.filterIsInstance<AsyncPreferenceStore<*, *>>()
+				.filterNot { it is DisplayPreferencesStore }
 				.map { async { it.commit() } }
 				.awaitAll()
 		}
@@ -0,0 +1,43 @@
+package org.jellyfin.androidtv.ui.presentation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jellyfin.androidtv.constant.ImageType;
+
+/**
+ * Everything a {@link CardPresenter} shows for a row item that is expensive to compute. Created
+ * once per item (off the main thread when possible) so binding a card only copies fields.
+ */
+public final class CardModel {
+    // presenter (and its configuration) the model was created for
+    final CardPresenter presenter;
+    final int presenterConfig;
+
+    @Nullable
+    final String title;
+    @Nullable
+    final String subtitle;
+    @NonNull
+    final ImageType imageType;
+    final double aspect;
+    @Nullable
+    final String imageUrl;
+    @Nullable
+    final String blurHash;
+    // formatted community rating
+    @Nullable
+    final String rating;
+
+    CardModel(@NonNull CardPresenter presenter, int presenterConfig, @Nullable String title, @Nullable String subtitle, @NonNull ImageType imageType, double aspect, @Nullable String imageUrl, @Nullable String blurHash, @Nullable String rating) {
+        this.presenter = presenter;
+        this.presenterConfig = presenterConfig;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.imageType = imageType;
+        this.aspect = aspect;
+        this.imageUrl = imageUrl;
+        this.blurHash = blurHash;
+        this.rating = rating;
+    }
+}
@@ -20,6 +20,7 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.core.os.TraceCompat;
 import androidx.leanback.widget.Presenter;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.ViewTreeLifecycleOwner;
@@ -32,6 +33,7 @@ import org.jellyfin.androidtv.preference.constant.WatchedIndicatorBehavior;
 import org.jellyfin.androidtv.ui.browsing.GenericGridActivity;
 import org.jellyfin.androidtv.ui.card.LegacyImageCardView;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
+import org.jellyfin.androidtv.ui.itemhandling.PlaceholderRowItem;
 import org.jellyfin.androidtv.util.ImageHelper;
 import org.jellyfin.androidtv.util.ImageUtils;
 import org.jellyfin.androidtv.util.TimeUtils;
@@ -43,7 +45,6 @@ import org.jellyfin.apiclient.model.dto.UserItemDataDto;
 import org.jellyfin.apiclient.model.entities.LocationType;
 import org.jellyfin.sdk.model.api.BaseItemKind;
 import org.jellyfin.sdk.model.api.SearchHint;
-import org.koin.java.KoinJavaComponent;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -97,7 +98,12 @@ public class CardPresenter extends Presenter {
     private boolean mPreferSeriesForEpisodes = false;
     private boolean mPreferSeasonForEpisodes = false; // if set takes priority over Series
 
+    // changed with the configuration, invalidates card models. Written on the main thread after the
+    // configuration field, read first when card models are prepared on a background thread
+    private volatile int mConfigVersion = 0;
+
     private final Lazy<ImageHelper> imageHelper = inject(ImageHelper.class);
+    private final Lazy<UserPreferences> userPreferences = inject(UserPreferences.class);
 
     public CardPresenter() {
         super();
@@ -229,7 +235,7 @@ public class CardPresenter extends Presenter {
                     }
                     UserItemDataDto userData = itemDto.getUserData();
                     if (showWatched && userData != null) {
-                        WatchedIndicatorBehavior showIndicator = KoinJavaComponent.<UserPreferences>get(UserPreferences.class).get(UserPreferences.Companion.getWatchedIndicatorBehavior());
+                        WatchedIndicatorBehavior showIndicator = userPreferences.getValue().get(UserPreferences.Companion.getWatchedIndicatorBehavior());
                         if (userData.getPlayed()) {
                             if (showIndicator != WatchedIndicatorBehavior.NEVER && (showIndicator != WatchedIndicatorBehavior.EPISODES_ONLY || itemDto.getBaseItemType() == BaseItemType.Episode))
                                 mCardView.setUnwatchedCount(0);
@@ -279,7 +285,8 @@ public class CardPresenter extends Presenter {
                     mDefaultCardImage = ContextCompat.getDrawable(mCardView.getContext(), R.drawable.tile_chapter);
                     break;
                 case SearchHint:
-                    String type = mItem.getSearchHint().getType();
+                case TitleIndexEntry:
+                    String type = mItem.getSearchItemType();
                     if (BaseItemKind.EPISODE.getSerialName().equals(type)) {
                         mDefaultCardImage = ContextCompat.getDrawable(mCardView.getContext(), R.drawable.tile_port_tv);
                     } else if (BaseItemKind.PERSON.getSerialName().equals(type)) {
@@ -295,7 +302,7 @@ public class CardPresenter extends Presenter {
                     mDefaultCardImage = ContextCompat.getDrawable(mCardView.getContext(), R.drawable.tile_land_series_timer);
                     break;
             }
-            cardHeight = (mStaticHeight != null && mStaticHeight > 0) ? mStaticHeight : DEFAULT_STATIC_HEIGHT;
+            cardHeight = getCardHeight();
             cardWidth = (int) (aspect * cardHeight);
             cardWidth = Math.max(cardWidth, MIN_CARD_WIDTH);
             mCardView.setMainImageDimensions(cardWidth, cardHeight);
@@ -336,6 +343,14 @@ public class CardPresenter extends Presenter {
 
     @Override
     public void onBindViewHolder(Presenter.ViewHolder viewHolder, Object item) {
+        if (item instanceof PlaceholderRowItem) {
+            // Empty card until the page is loaded
+            ViewHolder holder = (ViewHolder) viewHolder;
+            holder.resetCardView();
+            holder.mCardView.setTitleText("");
+            holder.mCardView.setContentText("");
+            return;
+        }
         if (!(item instanceof BaseRowItem)) {
             return;
         }
@@ -344,15 +359,23 @@ public class CardPresenter extends Presenter {
         if (!rowItem.isValid() || holder == null || holder.mCardView == null || holder.mCardView.getContext() == null) {
             return;
         }
+        TraceCompat.beginSection("CardPresenter.onBindViewHolder");
+        try {
+            bindCard(holder, rowItem);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+
+    private void bindCard(@NonNull ViewHolder holder, @NonNull BaseRowItem rowItem) {
         Context context = holder.mCardView.getContext();
-//        holder.mCardView.setCardType(BaseCardView.CARD_TYPE_INFO_UNDER);
+        CardModel model = getCardModel(context, rowItem);
 
-        holder.mCardView.setTitleText(rowItem.getCardName(context));
-        holder.mCardView.setContentText(rowItem.getSubText(context));
+        holder.mCardView.setTitleText(model.title);
+        holder.mCardView.setContentText(model.subtitle);
 
-        Pair<ImageType, Double> imageTypeAndAspect = getImageTypeAndAspect(rowItem);
-        holder.setItem(rowItem, imageTypeAndAspect.second);
-        if (ImageType.POSTER.equals(imageTypeAndAspect.first)) {
+        holder.setItem(rowItem, model.aspect);
+        if (ImageType.POSTER.equals(model.imageType)) {
             holder.mCardView.setOverlayInfo(rowItem);
         }
 
@@ -362,20 +385,20 @@ public class CardPresenter extends Presenter {
         } else {
             holder.mCardView.setPlayingIndicator(false);
 
-            if (KoinJavaComponent.<UserPreferences>get(UserPreferences.class).get(UserPreferences.Companion.getHideCardRatings())) {
+            if (userPreferences.getValue().get(UserPreferences.Companion.getHideCardRatings())) {
                 holder.mCardView.setRating(null);
                 holder.mCardView.setBadgeImage(null);
             } else if (rowItem.getBaseItem() != null && rowItem.getBaseItemType() != BaseItemType.UserView) {
-                RatingType ratingType = KoinJavaComponent.<UserPreferences>get(UserPreferences.class).get(UserPreferences.Companion.getDefaultRatingType());
+                RatingType ratingType = userPreferences.getValue().get(UserPreferences.Companion.getDefaultRatingType());
                 if (ratingType == RatingType.RATING_TOMATOES) {
                     Drawable badge = rowItem.getBadgeImage(context);
                     holder.mCardView.setRating(null);
                     if (badge != null) {
                         holder.mCardView.setBadgeImage(badge);
                     }
-                } else if (ratingType == RatingType.RATING_STARS && rowItem.getBaseItem().getCommunityRating() != null) {
+                } else if (ratingType == RatingType.RATING_STARS && model.rating != null) {
                     holder.mCardView.setBadgeImage(ContextCompat.getDrawable(context, R.drawable.ic_star));
-                    holder.mCardView.setRating(String.format(Locale.US, "%.1f", rowItem.getBaseItem().getCommunityRating()));
+                    holder.mCardView.setRating(model.rating);
                 }
             }
         }
@@ -383,7 +406,7 @@ public class CardPresenter extends Presenter {
         // auto adapt horizontal container padding to fit scaling (prevent overlap + adapt to actual size)
         if (!(context instanceof GenericGridActivity)) { // Grid's have there own space handling
             double cardScaleingH = (holder.CARD_FOCUS_SCALE - 1.0) * holder.CARD_SPACING_PCT;
-            if (imageTypeAndAspect.first == ImageType.BANNER) {
+            if (model.imageType == ImageType.BANNER) {
                 cardScaleingH = (holder.CARD_FOCUS_SCALE - 1.0) * holder.CARD_SPACING_HORIZONTAL_BANNER_PCT;
             }
             cardScaleingH = Math.max(cardScaleingH, 0.0);
@@ -391,17 +414,47 @@ public class CardPresenter extends Presenter {
             holder.mCardView.setPadding(spaceingH, holder.mCardView.getPaddingTop(), spaceingH, holder.mCardView.getPaddingBottom());
         }
 
-        Pair<String, org.jellyfin.apiclient.model.entities.ImageType> imageUrlAndType = getImageUrl(context, rowItem, imageTypeAndAspect.first, holder.cardHeight);
+        holder.updateCardViewImage(model.imageUrl, model.blurHash, model.aspect);
+    }
+
+    private int getCardHeight() {
+        return (mStaticHeight != null && mStaticHeight > 0) ? mStaticHeight : DEFAULT_STATIC_HEIGHT;
+    }
+
+    /**
+     * Get the card contents of the item, they are created once and stored in the item. Safe to
+     * call from a background thread to prepare the models before the items are shown.
+     */
+    @NonNull
+    public CardModel getCardModel(@NonNull Context context, @NonNull BaseRowItem rowItem) {
+        int configVersion = mConfigVersion;
+        CardModel model = rowItem.getCardModel();
+        if (model != null && model.presenter == this && model.presenterConfig == configVersion) {
+            return model;
+        }
+
+        Pair<ImageType, Double> imageTypeAndAspect = getImageTypeAndAspect(rowItem);
+        String imageUrl = null;
+        String blurHash = null;
+        Pair<String, org.jellyfin.apiclient.model.entities.ImageType> imageUrlAndType = getImageUrl(context, rowItem, imageTypeAndAspect.first, getCardHeight());
         if (imageUrlAndType != null && Utils.isNonEmpty(imageUrlAndType.first)) {
-            String blurHash = getImageBlurHashByUrl(rowItem, imageUrlAndType.first, imageUrlAndType.second);
+            imageUrl = imageUrlAndType.first;
+            blurHash = getImageBlurHashByUrl(rowItem, imageUrlAndType.first, imageUrlAndType.second);
             if (blurHash == null)
                 Timber.d("Could not get valid blurHash from <%s>", imageUrlAndType.first);
-
-            holder.updateCardViewImage(imageUrlAndType.first, blurHash, imageTypeAndAspect.second);
         } else {
-            holder.updateCardViewImage(null, null, imageTypeAndAspect.second);
             Timber.d("Could not get valid ImageUrl <%s>", rowItem.getFullName(context));
         }
+
+        String rating = null;
+        if (rowItem.getBaseItem() != null && rowItem.getBaseItem().getCommunityRating() != null) {
+            rating = String.format(Locale.US, "%.1f", rowItem.getBaseItem().getCommunityRating());
+        }
+
+        model = new CardModel(this, configVersion, rowItem.getCardName(context), rowItem.getSubText(context),
+                imageTypeAndAspect.first, imageTypeAndAspect.second, imageUrl, blurHash, rating);
+        rowItem.setCardModel(model);
+        return model;
     }
 
     @NonNull
@@ -409,9 +462,9 @@ public class CardPresenter extends Presenter {
         Double aspect = null;
         BaseRowItem.ItemType rowType = item.getItemType();
         BaseItemType baseItemType = item.getBaseItemType();
-        if (BaseRowItem.ItemType.SearchHint.equals(rowType)) { // lookup baseType for searches
+        if (item.getSearchItemType() != null) { // lookup baseType for searches
             try {
-                baseItemType = BaseItemType.valueOf(item.getSearchHint().getType());
+                baseItemType = BaseItemType.valueOf(item.getSearchItemType());
             } catch (IllegalArgumentException ignored) {
             }
         }
@@ -573,6 +626,7 @@ public class CardPresenter extends Presenter {
             mRowItemTypeToImageMap = new HashMap<>(DEFAULT_ROW_TYPE_TO_IMAGE_MAP);
         }
         mRowItemTypeToImageMap.put(rowType, new Pair<>(imageType, aspect));
+        mConfigVersion++;
     }
 
     public void setDefaultBaseTypeToImage(@NonNull BaseItemType itemType, @NonNull ImageType imageType, double aspect) {
@@ -580,30 +634,36 @@ public class CardPresenter extends Presenter {
             mBaseItemTypeToImageMap = new HashMap<>(DEFAULT_BASE_TYPE_TO_IMAGE_MAP);
         }
         mBaseItemTypeToImageMap.put(itemType, new Pair<>(imageType, aspect));
+        mConfigVersion++;
     }
 
     public CardPresenter setImageType(ImageType type) {
         mImageType = type;
+        mConfigVersion++;
         return this;
     }
 
     public CardPresenter setAllowBackdropFallback(boolean allow) {
         mAllowBackdropFallback = allow;
+        mConfigVersion++;
         return this;
     }
 
     public CardPresenter setAllowParentFallback(boolean allow) {
         mAllowParentFallback = allow;
+        mConfigVersion++;
         return this;
     }
 
     public CardPresenter setPreferSeriesForEpisodes(boolean prefer) {
         mPreferSeriesForEpisodes = prefer;
+        mConfigVersion++;
         return this;
     }
 
     public CardPresenter setPreferSeasonForEpisodes(boolean prefer) {
         mPreferSeasonForEpisodes = prefer;
+        mConfigVersion++;
         return this;
     }
 }
@@ -43,7 +43,9 @@ public class LeanbackSearchFragment extends SearchSupportFragment {
                 backgroundService.getValue().clearBackgrounds();
             } else {
                 BaseRowItem rowItem = (BaseRowItem) item;
-                backgroundService.getValue().setBackground(rowItem.getSearchHint());
+                // title index entries have no backdrop
+                if (rowItem.getSearchHint() != null) backgroundService.getValue().setBackground(rowItem.getSearchHint());
+                else backgroundService.getValue().clearBackgrounds();
             }
         });
     }
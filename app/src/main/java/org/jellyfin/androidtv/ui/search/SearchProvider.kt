@@ -1,30 +1,103 @@
 package org.jellyfin.androidtv.ui.search
 
 import android.content.Context
+import android.os.SystemClock
+import androidx.annotation.StringRes
 import androidx.leanback.app.SearchSupportFragment
 import androidx.leanback.widget.ArrayObjectAdapter
+import androidx.leanback.widget.HeaderItem
+import androidx.leanback.widget.ListRow
 import androidx.leanback.widget.ObjectAdapter
 import androidx.lifecycle.Lifecycle
 import androidx.lifecycle.coroutineScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
+import org.jellyfin.androidtv.R
+import org.jellyfin.androidtv.data.model.TitleIndexEntry
+import org.jellyfin.androidtv.data.repository.SearchRepository
+import org.jellyfin.androidtv.data.repository.TitleIndexRepository
+import org.jellyfin.androidtv.data.repository.UserViewsRepository
+import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter
+import org.jellyfin.androidtv.ui.presentation.CardPresenter
 import org.jellyfin.androidtv.ui.presentation.CustomListRowPresenter
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.SearchHint
+import org.koin.core.component.KoinComponent
+import org.koin.core.component.inject
+import timber.log.Timber
 import kotlin.time.Duration.Companion.milliseconds
 
+private class SearchRow(
+	@StringRes val title: Int,
+	vararg val itemTypes: BaseItemKind,
+) {
+	private val typeNames = itemTypes.map { it.serialName }
+
+	fun matches(type: String) = type in typeNames
+}
+
 class SearchProvider(
-	context: Context,
+	private val context: Context,
 	private val lifecycle: Lifecycle,
-) : SearchSupportFragment.SearchResultProvider {
+) : SearchSupportFragment.SearchResultProvider, KoinComponent {
 	companion object {
 		private val SEARCH_DELAY = 600.milliseconds
+
+		/**
+		 * Delay before showing the title index results, so they are not rebuilt for every key
+		 * press while typing.
+		 */
+		private val INDEX_DELAY = 150.milliseconds
+
+		/**
+		 * Maximum amount of items in a row.
+		 */
+		private const val ROW_LIMIT = 50
+
+		/**
+		 * The result rows in display order.
+		 */
+		private val ROWS = listOf(
+			SearchRow(R.string.lbl_movies, BaseItemKind.MOVIE, BaseItemKind.BOX_SET),
+			SearchRow(R.string.lbl_series, BaseItemKind.SERIES),
+			SearchRow(R.string.lbl_episodes, BaseItemKind.EPISODE),
+			SearchRow(R.string.lbl_people, BaseItemKind.PERSON),
+			SearchRow(R.string.lbl_videos, BaseItemKind.VIDEO),
+			SearchRow(R.string.lbl_recordings, BaseItemKind.RECORDING),
+			SearchRow(R.string.lbl_programs, BaseItemKind.PROGRAM),
+			SearchRow(R.string.lbl_artists, BaseItemKind.MUSIC_ARTIST),
+			SearchRow(R.string.lbl_albums, BaseItemKind.MUSIC_ALBUM),
+			SearchRow(R.string.lbl_songs, BaseItemKind.AUDIO),
+		)
+
+		/**
+		 * The rows requested together. The results of a request are split into its rows. Episodes
+		 * and songs usually have many more matches than the other types and would push them out of
+		 * a shared limit, so they are requested on their own.
+		 */
+		private val GROUPS = listOf(
+			ROWS.subList(0, 2),
+			ROWS.subList(2, 3),
+			ROWS.subList(3, 7),
+			ROWS.subList(7, 9),
+			ROWS.subList(9, 10),
+		)
 	}
 
+	private val searchRepository by inject<SearchRepository>()
+	private val userViewsRepository by inject<UserViewsRepository>()
+	private val titleIndexRepository by inject<TitleIndexRepository>()
+
 	private val rowsAdapter = ArrayObjectAdapter(CustomListRowPresenter())
 	private var previousQuery: String? = null
-	private val searchRunnable = SearchRunnable(context, rowsAdapter)
 	private var searchJob: Job? = null
 
+	init {
+		lifecycle.coroutineScope.launch { titleIndexRepository.load() }
+	}
+
 	override fun getResultsAdapter(): ObjectAdapter = rowsAdapter
 
 	override fun onQueryTextChange(query: String): Boolean = search(query, true)
@@ -32,6 +105,7 @@ class SearchProvider(
 
 	private fun search(query: String, delayed: Boolean): Boolean {
 		if (query.isBlank()) {
+			searchJob?.cancel()
 			rowsAdapter.clear()
 			return true
 		}
@@ -40,12 +114,82 @@ class SearchProvider(
 		if (query == previousQuery) return false
 		previousQuery = query
 
+		// Cancelling the job aborts the requests of the previous query
+		val changedAt = SystemClock.elapsedRealtime()
 		searchJob?.cancel()
+
 		searchJob = lifecycle.coroutineScope.launch {
-			if (delayed) delay(SEARCH_DELAY)
-			searchRunnable.run(query)
+			// Show the matches in the title index first, the server results replace them
+			if (delayed) delay(INDEX_DELAY)
+			val showedIndexResults = showIndexResults(query)
+			if (showedIndexResults) Timber.i("Search showed the title index results after %sms", SystemClock.elapsedRealtime() - changedAt)
+
+			if (delayed) delay(SEARCH_DELAY - INDEX_DELAY)
+
+			if (!showedIndexResults) rowsAdapter.clear()
+			var hasResults = false
+			coroutineScope {
+				for (group in GROUPS) launch {
+					val hints = searchRepository.search(
+						searchTerm = query,
+						itemTypes = group.flatMap { it.itemTypes.asList() },
+						limit = ROW_LIMIT * group.size,
+					).getOrElse { err ->
+						Timber.e(err, "Unable to search %s", group.map { context.getString(it.title) })
+						return@launch
+					}
+
+					for (row in group) setHintRow(row, hints)
+
+					if (!hasResults && rowsAdapter.size() > 0) {
+						hasResults = true
+						Timber.i("Search showed the first results after %sms", SystemClock.elapsedRealtime() - changedAt)
+					}
+				}
+			}
+
+			Timber.i("Search finished after %sms", SystemClock.elapsedRealtime() - changedAt)
 		}
 
 		return true
 	}
+
+	private fun showIndexResults(query: String): Boolean {
+		val entries = titleIndexRepository.search(query, ROW_LIMIT * ROWS.size)
+		if (entries.isEmpty()) return false
+
+		rowsAdapter.clear()
+		for (row in ROWS) setIndexRow(row, entries)
+		return true
+	}
+
+	private fun isShown(row: SearchRow, type: String) = row.matches(type) && userViewsRepository.isSupported(type)
+
+	private fun setHintRow(row: SearchRow, hints: List<SearchHint>) {
+		val items = hints.filter { isShown(row, it.type) }.take(ROW_LIMIT)
+		setRow(row, if (items.isEmpty()) null else ItemRowAdapter(context, items.toTypedArray(), CardPresenter(), rowsAdapter))
+	}
+
+	private fun setIndexRow(row: SearchRow, entries: List<TitleIndexEntry>) {
+		val items = entries.filter { isShown(row, it.type) }.take(ROW_LIMIT)
+		setRow(row, if (items.isEmpty()) null else ItemRowAdapter(context, items.toTypedArray(), CardPresenter(), rowsAdapter))
+	}
+
+	private fun setRow(row: SearchRow, adapter: ItemRowAdapter?) {
+		val order = ROWS.indexOf(row).toLong()
+
+		// Replace the title index results
+		val existing = (0 until rowsAdapter.size()).firstOrNull { (rowsAdapter[it] as ListRow).headerItem.id == order }
+		if (existing != null) rowsAdapter.removeItems(existing, 1)
+
+		if (adapter == null) return
+
+		val listRow = ListRow(HeaderItem(order, context.getString(row.title)), adapter)
+		adapter.setRow(listRow)
+		adapter.Retrieve()
+
+		// Keep the display order when the requests finish in a different order
+		val position = (0 until rowsAdapter.size()).count { (rowsAdapter[it] as ListRow).headerItem.id < order }
+		rowsAdapter.add(position, listRow)
+	}
 }
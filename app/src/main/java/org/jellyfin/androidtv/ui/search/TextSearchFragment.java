@@ -67,7 +67,9 @@ public class TextSearchFragment extends Fragment implements TextWatcher, TextVie
                 backgroundService.getValue().clearBackgrounds();
             } else {
                 BaseRowItem rowItem = (BaseRowItem) item;
-                backgroundService.getValue().setBackground(rowItem.getSearchHint());
+                // title index entries have no backdrop
+                if (rowItem.getSearchHint() != null) backgroundService.getValue().setBackground(rowItem.getSearchHint());
+                else backgroundService.getValue().clearBackgrounds();
             }
         });
 
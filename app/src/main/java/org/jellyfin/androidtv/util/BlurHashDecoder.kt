@@ -14,37 +14,75 @@ package org.jellyfin.androidtv.util
  */
 
 import android.graphics.Bitmap
-import android.graphics.Color
+import android.util.LruCache
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.math.cos
 import kotlin.math.pow
 import kotlin.math.withSign
 
+/**
+ * Changes from the original:
+ * - The cosine tables are immutable float arrays, stored in a concurrent map so decodes can run in parallel
+ * - The basis is applied separable, the vertical components are summed once per row
+ * - Base83 characters are resolved with an array lookup
+ * - Decoded bitmaps are kept in a small LRU cache so rebinding a view does not decode again
+ */
 object BlurHashDecoder {
+	// Size of the bitmap cache in bytes
+	private const val BITMAP_CACHE_SIZE = 4 * 1024 * 1024
 
 	// cache Math.cos() calculations to improve performance.
 	// The number of calculations can be huge for many bitmaps: width * height * numCompX * numCompY * 2 * nBitmaps
-	// the cache is enabled by default, it is recommended to disable it only when just a few images are displayed
-	private val cacheCosinesX = HashMap<Int, DoubleArray>()
-	private val cacheCosinesY = HashMap<Int, DoubleArray>()
+	// the arrays are never modified after they are added, so they can be shared between threads
+	private val cacheCosines = ConcurrentHashMap<Long, FloatArray>()
+
+	private val bitmapCache by lazy {
+		object : LruCache<String, Bitmap>(BITMAP_CACHE_SIZE) {
+			override fun sizeOf(key: String, value: Bitmap) = value.byteCount
+		}
+	}
 
 	/**
-	 * Clear calculations stored in memory cache.
+	 * Clear calculations and bitmaps stored in memory cache.
 	 * The cache is not big, but will increase when many image sizes are used,
 	 * if the app needs memory it is recommended to clear it.
 	 */
 	fun clearCache() {
-		cacheCosinesX.clear()
-		cacheCosinesY.clear()
+		cacheCosines.clear()
+		bitmapCache.evictAll()
 	}
 
 	/**
-	 * Decode a blur hash into a new bitmap.
+	 * Decode a blur hash into a bitmap. Bitmaps are cached by hash and size, the returned bitmap
+	 * may be shared and must not be modified or recycled.
 	 *
-	 * @param useCache use in memory cache for the calculated math, reused by images with same size.
-	 *                 if the cache does not exist yet it will be created and populated with new calculations.
-	 *                 By default it is true.
+	 * @param useCache use the in memory caches for bitmaps and the calculated math, reused by
+	 *                 images with same size. By default it is true.
 	 */
 	fun decode(blurHash: String?, width: Int, height: Int, punch: Float = 1f, useCache: Boolean = true): Bitmap? {
+		if (blurHash == null || width <= 0 || height <= 0) return null
+
+		val key = "$blurHash:$width:$height:$punch"
+		if (useCache) bitmapCache[key]?.let { return it }
+
+		val pixels = decodePixels(blurHash, width, height, punch, useCache) ?: return null
+		val bitmap = Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888)
+		if (useCache) bitmapCache.put(key, bitmap)
+		return bitmap
+	}
+
+	/**
+	 * Get a previously decoded bitmap without decoding.
+	 */
+	fun getCached(blurHash: String?, width: Int, height: Int, punch: Float = 1f): Bitmap? {
+		if (blurHash == null) return null
+		return bitmapCache["$blurHash:$width:$height:$punch"]
+	}
+
+	/**
+	 * Decode a blur hash into ARGB pixels.
+	 */
+	fun decodePixels(blurHash: String?, width: Int, height: Int, punch: Float = 1f, useCache: Boolean = true): IntArray? {
 		if (blurHash == null || blurHash.length < 6) {
 			return null
 		}
@@ -56,23 +94,21 @@ object BlurHashDecoder {
 		}
 		val maxAcEnc = decode83(blurHash, 1, 2)
 		val maxAc = (maxAcEnc + 1) / 166f
-		val colors = Array(numCompX * numCompY) { i ->
-			if (i == 0) {
-				val colorEnc = decode83(blurHash, 2, 6)
-				decodeDc(colorEnc)
-			} else {
-				val from = 4 + i * 2
-				val colorEnc = decode83(blurHash, from, from + 2)
-				decodeAc(colorEnc, maxAc * punch)
-			}
+		// colors are stored as r, g, b per component
+		val colors = FloatArray(numCompX * numCompY * 3)
+		decodeDc(decode83(blurHash, 2, 6), colors)
+		for (i in 1 until numCompX * numCompY) {
+			val from = 4 + i * 2
+			decodeAc(decode83(blurHash, from, from + 2), maxAc * punch, colors, i * 3)
 		}
-		return composeBitmap(width, height, numCompX, numCompY, colors, useCache)
+		return composePixels(width, height, numCompX, numCompY, colors, useCache)
 	}
 
 	private fun decode83(str: String, from: Int = 0, to: Int = str.length): Int {
 		var result = 0
 		for (i in from until to) {
-			val index = charMap[str[i]] ?: -1
+			val char = str[i].code
+			val index = if (char < charMap.size) charMap[char] else -1
 			if (index != -1) {
 				result = result * 83 + index
 			}
@@ -80,11 +116,13 @@ object BlurHashDecoder {
 		return result
 	}
 
-	private fun decodeDc(colorEnc: Int): FloatArray {
+	private fun decodeDc(colorEnc: Int, out: FloatArray) {
 		val r = colorEnc shr 16
 		val g = (colorEnc shr 8) and 255
 		val b = colorEnc and 255
-		return floatArrayOf(srgbToLinear(r), srgbToLinear(g), srgbToLinear(b))
+		out[0] = srgbToLinear(r)
+		out[1] = srgbToLinear(g)
+		out[2] = srgbToLinear(b)
 	}
 
 	private fun srgbToLinear(colorEnc: Int): Float {
@@ -96,85 +134,72 @@ object BlurHashDecoder {
 		}
 	}
 
-	private fun decodeAc(value: Int, maxAc: Float): FloatArray {
+	private fun decodeAc(value: Int, maxAc: Float, out: FloatArray, offset: Int) {
 		val r = value / (19 * 19)
 		val g = (value / 19) % 19
 		val b = value % 19
-		return floatArrayOf(
-			signedPow2((r - 9) / 9.0f) * maxAc,
-			signedPow2((g - 9) / 9.0f) * maxAc,
-			signedPow2((b - 9) / 9.0f) * maxAc
-		)
+		out[offset] = signedPow2((r - 9) / 9.0f) * maxAc
+		out[offset + 1] = signedPow2((g - 9) / 9.0f) * maxAc
+		out[offset + 2] = signedPow2((b - 9) / 9.0f) * maxAc
 	}
 
 	private fun signedPow2(value: Float) = value.pow(2f).withSign(value)
 
-	private fun composeBitmap(
+	private fun composePixels(
 		width: Int, height: Int,
 		numCompX: Int, numCompY: Int,
-		colors: Array<FloatArray>,
+		colors: FloatArray,
 		useCache: Boolean
-	): Bitmap {
+	): IntArray {
 		// use an array for better performance when writing pixel colors
 		val imageArray = IntArray(width * height)
-		val calculateCosX = !useCache || !cacheCosinesX.containsKey(width * numCompX)
-		val cosinesX = getArrayForCosinesX(calculateCosX, width, numCompX)
-		val calculateCosY = !useCache || !cacheCosinesY.containsKey(height * numCompY)
-		val cosinesY = getArrayForCosinesY(calculateCosY, height, numCompY)
+		val cosinesX = getCosines(width, numCompX, useCache)
+		val cosinesY = getCosines(height, numCompY, useCache)
+		// colors of the horizontal components for the current row
+		val rowColors = FloatArray(numCompX * 3)
 		for (y in 0 until height) {
+			rowColors.fill(0f)
+			for (j in 0 until numCompY) {
+				val cosY = cosinesY[j + numCompY * y]
+				for (i in 0 until numCompX) {
+					val color = (j * numCompX + i) * 3
+					rowColors[i * 3] += colors[color] * cosY
+					rowColors[i * 3 + 1] += colors[color + 1] * cosY
+					rowColors[i * 3 + 2] += colors[color + 2] * cosY
+				}
+			}
 			for (x in 0 until width) {
 				var r = 0f
 				var g = 0f
 				var b = 0f
-				for (j in 0 until numCompY) {
-					for (i in 0 until numCompX) {
-						val cosX = cosinesX.getCos(calculateCosX, i, numCompX, x, width)
-						val cosY = cosinesY.getCos(calculateCosY, j, numCompY, y, height)
-						val basis = (cosX * cosY).toFloat()
-						val color = colors[j * numCompX + i]
-						r += color[0] * basis
-						g += color[1] * basis
-						b += color[2] * basis
-					}
+				for (i in 0 until numCompX) {
+					val cosX = cosinesX[i + numCompX * x]
+					r += rowColors[i * 3] * cosX
+					g += rowColors[i * 3 + 1] * cosX
+					b += rowColors[i * 3 + 2] * cosX
 				}
-				imageArray[x + width * y] = Color.rgb(linearToSrgb(r), linearToSrgb(g), linearToSrgb(b))
+				imageArray[x + width * y] = argb(linearToSrgb(r), linearToSrgb(g), linearToSrgb(b))
 			}
 		}
-		return Bitmap.createBitmap(imageArray, width, height, Bitmap.Config.ARGB_8888)
+		return imageArray
 	}
 
-	private fun getArrayForCosinesY(calculate: Boolean, height: Int, numCompY: Int) = when {
-		calculate -> {
-			DoubleArray(height * numCompY).also {
-				cacheCosinesY[height * numCompY] = it
-			}
-		}
-		else -> {
-			cacheCosinesY[height * numCompY]!!
+	private fun getCosines(size: Int, numComp: Int, useCache: Boolean): FloatArray {
+		if (!useCache) return calculateCosines(size, numComp)
+		val key = (size.toLong() shl 32) or numComp.toLong()
+		return cacheCosines[key] ?: calculateCosines(size, numComp).let { cosines ->
+			cacheCosines.putIfAbsent(key, cosines) ?: cosines
 		}
 	}
 
-	private fun getArrayForCosinesX(calculate: Boolean, width: Int, numCompX: Int) = when {
-		calculate -> {
-			DoubleArray(width * numCompX).also {
-				cacheCosinesX[width * numCompX] = it
-			}
-		}
-		else -> cacheCosinesX[width * numCompX]!!
+	private fun calculateCosines(size: Int, numComp: Int) = FloatArray(size * numComp) { index ->
+		val component = index % numComp
+		val position = index / numComp
+		cos(Math.PI * position * component / size).toFloat()
 	}
 
-	private fun DoubleArray.getCos(
-		calculate: Boolean,
-		x: Int,
-		numComp: Int,
-		y: Int,
-		size: Int
-	): Double {
-		if (calculate) {
-			this[x + numComp * y] = cos(Math.PI * y * x / size)
-		}
-		return this[x + numComp * y]
-	}
+	// Same as Color.rgb() without the dependency on the framework
+	private fun argb(r: Int, g: Int, b: Int) = (0xff shl 24) or (r shl 16) or (g shl 8) or b
 
 	private fun linearToSrgb(value: Float): Int {
 		val v = value.coerceIn(0f, 1f)
@@ -185,14 +210,8 @@ object BlurHashDecoder {
 		}
 	}
 
-	private val charMap = listOf(
-		'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F', 'G',
-		'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X',
-		'Y', 'Z', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o',
-		'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '#', '$', '%', '*', '+', ',',
-		'-', '.', ':', ';', '=', '?', '@', '[', ']', '^', '_', '{', '|', '}', '~'
-	)
-		.mapIndexed { i, c -> c to i }
-		.toMap()
-
+	private val charMap = IntArray(128) { -1 }.apply {
+		"0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#\$%*+,-.:;=?@[]^_{|}~"
+			.forEachIndexed { i, c -> this[c.code] = i }
+	}
 }
@@ -5,9 +5,43 @@ package org.jellyfin.androidtv.util
 import android.graphics.Bitmap
 import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.lifecycleScope
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
+import java.util.concurrent.ConcurrentHashMap
+
+// Decodes are not bound to the scope of a single view, other views may be waiting for the result
+private val blurHashScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+private val pendingBlurHashDecodes = ConcurrentHashMap<String, Deferred<Bitmap?>>()
+
+/**
+ * Decode a blurhash in the background. Concurrent requests for the same blurhash and size share a
+ * single decode. Cancelling the caller does not cancel the decode for other callers.
+ */
+suspend fun decodeBlurHash(
+	blurHash: String,
+	width: Int,
+	height: Int,
+): Bitmap? {
+	BlurHashDecoder.getCached(blurHash, width, height)?.let { return it }
+
+	val key = "$blurHash:$width:$height"
+	val decode = pendingBlurHashDecodes.getOrPut(key) {
+		blurHashScope.async(start = CoroutineStart.LAZY) {
+			try {
+				BlurHashDecoder.decode(blurHash, width, height)
+			} finally {
+				pendingBlurHashDecodes.remove(key)
+			}
+		}
+	}
+	return decode.await()
+}
 
 fun createBlurHashDrawable(
 	lifecycleOwner: LifecycleOwner,
@@ -18,7 +52,7 @@ fun createBlurHashDrawable(
 ) = lifecycleOwner.lifecycleScope.launch {
 	// Create blurhash in IO
 	val bitmap = if (blurHash.isNullOrEmpty() || width <= 0 || height <= 0) null
-	else withContext(Dispatchers.IO) { BlurHashDecoder.decode(blurHash, width, height) }
+	else decodeBlurHash(blurHash, width, height)
 
 	// Execute callback on main
 	withContext(Dispatchers.Main) {
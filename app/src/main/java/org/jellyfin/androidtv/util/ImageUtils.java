@@ -8,6 +8,7 @@ import androidx.annotation.AnyRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import org.jellyfin.androidtv.data.model.TitleIndexEntry;
 import org.jellyfin.androidtv.util.sdk.compat.ModelCompat;
 import org.jellyfin.apiclient.interaction.ApiClient;
 import org.jellyfin.apiclient.model.dto.BaseItemDto;
@@ -70,6 +71,14 @@ public class ImageUtils {
         return KoinJavaComponent.<ImageHelper>get(ImageHelper.class).getImageUrl(item.getItemId(), org.jellyfin.sdk.model.api.ImageType.PRIMARY, item.getPrimaryImageTag(), maxHeight);
     }
 
+    @Nullable
+    public static String getPrimaryImageUrl(@NonNull TitleIndexEntry item, int maxHeight) {
+        if (Utils.isEmpty(item.getPrimaryImageTag())) {
+            return null;
+        }
+        return KoinJavaComponent.<ImageHelper>get(ImageHelper.class).getImageUrl(item.getId(), org.jellyfin.sdk.model.api.ImageType.PRIMARY, item.getPrimaryImageTag(), maxHeight);
+    }
+
     @Nullable
     public static String getPrimaryImageUrl(@NonNull UserDto item) {
         return KoinJavaComponent.<ImageHelper>get(ImageHelper.class).getPrimaryImageUrl(item);
@@ -0,0 +1,236 @@
+package org.jellyfin.androidtv.util
+
+import android.net.Uri
+import com.bumptech.glide.Priority
+import com.bumptech.glide.load.DataSource
+import com.bumptech.glide.load.Option
+import com.bumptech.glide.load.Options
+import com.bumptech.glide.load.data.DataFetcher
+import com.bumptech.glide.load.engine.DiskCacheStrategy
+import com.bumptech.glide.load.model.GlideUrl
+import com.bumptech.glide.load.model.ModelLoader
+import com.bumptech.glide.load.model.ModelLoaderFactory
+import com.bumptech.glide.load.model.MultiModelLoaderFactory
+import com.bumptech.glide.request.RequestOptions
+import com.bumptech.glide.signature.ObjectKey
+import java.io.InputStream
+import java.util.Collections
+
+/**
+ * A Jellyfin item image url, identified by item, image type, index and tag. The requested size is
+ * snapped to a bucket so the same image is not downloaded and cached for every size it's shown at.
+ */
+data class JellyfinImage(
+	val baseUrl: String,
+	val itemId: String,
+	val imageType: String,
+	val imageIndex: String?,
+	val tag: String,
+	val maxHeight: Int?,
+	val maxWidth: Int?,
+	// Other query parameters (format, blur, quality...), sorted by name
+	val parameters: List<Pair<String, String>>,
+) {
+	val imageKey get() = buildString {
+		append(itemId.lowercase())
+		append(':')
+		append(imageType.lowercase())
+		if (imageIndex != null) append(':').append(imageIndex)
+		append(':')
+		append(tag)
+		parameters.forEach { (name, value) -> append(':').append(name).append('=').append(value) }
+	}
+
+	fun withSize(maxHeight: Int?, maxWidth: Int?) = copy(maxHeight = maxHeight, maxWidth = maxWidth)
+
+	fun toUrl(): String = Uri.parse(baseUrl).buildUpon().apply {
+		appendPath("Items")
+		appendPath(itemId)
+		appendPath("Images")
+		appendPath(imageType)
+		if (imageIndex != null) appendPath(imageIndex)
+		clearQuery()
+		appendQueryParameter("tag", tag)
+		if (maxHeight != null) appendQueryParameter("maxHeight", maxHeight.toString())
+		if (maxWidth != null) appendQueryParameter("maxWidth", maxWidth.toString())
+		parameters.forEach { (name, value) -> appendQueryParameter(name, value) }
+	}.build().toString()
+
+	companion object {
+		private val pathRegex = Regex("""^(.*)/Items/([0-9a-fA-F-]{32,36})/Images/([A-Za-z]+)(?:/(\d+))?/?$""")
+
+		/**
+		 * Quick check whether the url looks like a Jellyfin item image, without parsing it.
+		 */
+		fun isImageUrl(url: String?) = url != null && url.contains("/Items/") && url.contains("/Images/")
+
+		/**
+		 * Parse an image url, returns null for urls that are not Jellyfin item images or have no tag.
+		 */
+		fun parse(url: String): JellyfinImage? {
+			if (!isImageUrl(url)) return null
+
+			val uri = Uri.parse(url)
+			val path = uri.encodedPath ?: return null
+			val match = pathRegex.matchEntire(path) ?: return null
+			val (basePath, itemId, imageType, imageIndex) = match.destructured
+
+			var tag: String? = null
+			var maxHeight: Int? = null
+			var maxWidth: Int? = null
+			val parameters = mutableListOf<Pair<String, String>>()
+			for (name in uri.queryParameterNames) {
+				val value = uri.getQueryParameter(name) ?: continue
+				when (name.lowercase()) {
+					"tag" -> tag = value
+					"maxheight" -> maxHeight = value.toIntOrNull() ?: return null
+					"maxwidth" -> maxWidth = value.toIntOrNull() ?: return null
+					else -> parameters.add(name to value)
+				}
+			}
+			// Without a tag the image can change, don't share it between sizes
+			if (tag.isNullOrBlank()) return null
+
+			val baseUrl = uri.buildUpon().encodedPath(basePath).clearQuery().fragment(null).build().toString()
+			return JellyfinImage(
+				baseUrl = baseUrl,
+				itemId = itemId,
+				imageType = imageType,
+				imageIndex = imageIndex.ifEmpty { null },
+				tag = tag,
+				maxHeight = maxHeight,
+				maxWidth = maxWidth,
+				parameters = parameters.sortedBy { it.first },
+			)
+		}
+	}
+}
+
+/**
+ * Size buckets for Jellyfin images. Sizes are rounded up to the next bucket, and when a larger
+ * bucket of the same image was downloaded before it's used instead, Glide downsamples it from the
+ * disk cache.
+ */
+object JellyfinImageBuckets {
+	private val BUCKETS = intArrayOf(160, 320, 480, 720, 1080, 1440, 2160)
+	private const val MAX_KNOWN_IMAGES = 2000
+
+	private data class KnownSize(val maxHeight: Int?, val maxWidth: Int?)
+
+	/**
+	 * Set by [requestOptions] on requests that cache the source data of Jellyfin images, only
+	 * those can be served from a larger downloaded bucket.
+	 */
+	val CACHE_SOURCE: Option<Boolean> = Option.memory("org.jellyfin.androidtv.util.JellyfinImageBuckets.CacheSource", false)
+
+	// image key + size shape -> largest downloaded bucket
+	private val knownSizes = Collections.synchronizedMap(object : LinkedHashMap<String, KnownSize>(100, 0.75f, true) {
+		override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, KnownSize>?) = size > MAX_KNOWN_IMAGES
+	})
+
+	fun snap(size: Int?): Int? = when {
+		size == null -> null
+		size > BUCKETS.last() -> size
+		else -> BUCKETS.first { it >= size }
+	}
+
+	private fun shapeKey(image: JellyfinImage) = buildString {
+		append(image.imageKey)
+		append(if (image.maxHeight != null) ":h" else ":-")
+		append(if (image.maxWidth != null) ":w" else ":-")
+	}
+
+	/**
+	 * Get the image to request for [image], with the size snapped to a bucket or, when
+	 * [cacheSource] is set, the size of a larger downloaded bucket.
+	 */
+	fun resolve(image: JellyfinImage, cacheSource: Boolean): JellyfinImage {
+		val snapped = image.withSize(snap(image.maxHeight), snap(image.maxWidth))
+		// Unbounded images are already the largest size
+		if (snapped.maxHeight == null && snapped.maxWidth == null) return snapped
+		// Without the cached source data a larger bucket is a larger download
+		if (!cacheSource) return snapped
+
+		val known = knownSizes[shapeKey(snapped)] ?: return snapped
+		val isLarger = (snapped.maxHeight == null || (known.maxHeight ?: 0) >= snapped.maxHeight) &&
+			(snapped.maxWidth == null || (known.maxWidth ?: 0) >= snapped.maxWidth)
+		return if (isLarger) snapped.withSize(known.maxHeight, known.maxWidth) else snapped
+	}
+
+	/**
+	 * Remember the bucket of a downloaded image, only call this when its source data is written to
+	 * the disk cache.
+	 */
+	fun onDownloaded(image: JellyfinImage) {
+		val key = shapeKey(image)
+		synchronized(knownSizes) {
+			val known = knownSizes[key]
+			if (known == null || ((known.maxHeight ?: 0) <= (image.maxHeight ?: 0) && (known.maxWidth ?: 0) <= (image.maxWidth ?: 0))) {
+				knownSizes[key] = KnownSize(image.maxHeight, image.maxWidth)
+			}
+		}
+	}
+
+	fun cacheKey(image: JellyfinImage) = "jellyfin-image:${image.imageKey}:${image.maxHeight ?: "-"}x${image.maxWidth ?: "-"}"
+
+	private val jellyfinImageOptions = RequestOptions.diskCacheStrategyOf(DiskCacheStrategy.ALL).set(CACHE_SOURCE, true)
+	private val defaultOptions = RequestOptions()
+
+	/**
+	 * Request options for loading [url]. Jellyfin images also cache their source data, so smaller
+	 * sizes can be served from a larger cached bucket. Other images keep the default strategy.
+	 */
+	@JvmStatic
+	fun requestOptions(url: String?): RequestOptions = if (JellyfinImage.isImageUrl(url)) jellyfinImageOptions else defaultOptions
+}
+
+/**
+ * Glide loader for Jellyfin image urls. The disk cache key only contains the item, image type, tag
+ * and size bucket, so the same artwork is shared between all places it's shown.
+ */
+class JellyfinImageModelLoader(
+	private val urlLoader: ModelLoader<GlideUrl, InputStream>,
+) : ModelLoader<String, InputStream> {
+	// Only a quick check, the url is parsed once in buildLoadData. Urls that can't be parsed get no
+	// load data from this loader and fall through to the default url loader.
+	override fun handles(model: String) = JellyfinImage.isImageUrl(model)
+
+	override fun buildLoadData(model: String, width: Int, height: Int, options: Options): ModelLoader.LoadData<InputStream>? {
+		val image = JellyfinImage.parse(model) ?: return null
+		val cacheSource = options.get(JellyfinImageBuckets.CACHE_SOURCE) == true
+		val resolved = JellyfinImageBuckets.resolve(image, cacheSource)
+		val loadData = urlLoader.buildLoadData(GlideUrl(resolved.toUrl()), width, height, options) ?: return null
+
+		return ModelLoader.LoadData(
+			ObjectKey(JellyfinImageBuckets.cacheKey(resolved)),
+			if (cacheSource) RecordingDataFetcher(loadData.fetcher, resolved) else loadData.fetcher,
+		)
+	}
+
+	// Remembers the downloaded bucket when the image was fetched successfully, Glide writes the
+	// source data to the disk cache for these requests
+	private class RecordingDataFetcher(
+		private val fetcher: DataFetcher<InputStream>,
+		private val image: JellyfinImage,
+	) : DataFetcher<InputStream> by fetcher {
+		override fun loadData(priority: Priority, callback: DataFetcher.DataCallback<in InputStream>) {
+			fetcher.loadData(priority, object : DataFetcher.DataCallback<InputStream> {
+				override fun onDataReady(data: InputStream?) {
+					if (data != null) JellyfinImageBuckets.onDownloaded(image)
+					callback.onDataReady(data)
+				}
+
+				override fun onLoadFailed(e: Exception) = callback.onLoadFailed(e)
+			})
+		}
+
+		override fun getDataSource(): DataSource = fetcher.dataSource
+	}
+
+	class Factory : ModelLoaderFactory<String, InputStream> {
+		override fun build(multiFactory: MultiModelLoaderFactory): ModelLoader<String, InputStream> =
+			JellyfinImageModelLoader(multiFactory.build(GlideUrl::class.java, InputStream::class.java))
+
+		override fun teardown() = Unit
+	}
+}
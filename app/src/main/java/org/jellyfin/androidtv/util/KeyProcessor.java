@@ -125,7 +125,8 @@ public class KeyProcessor {
                     case Chapter:
                         break;
                     case SearchHint:
-                        switch (rowItem.getSearchHint().getType()) {
+                    case TitleIndexEntry:
+                        switch (rowItem.getSearchItemType()) {
                             case "Movie":
                             case "Episode":
                             case "TvChannel":
@@ -200,6 +201,7 @@ public class KeyProcessor {
                     case Chapter:
                         break;
                     case SearchHint:
+                    case TitleIndexEntry:
                         break;
                     case LiveTvChannel:
                         break;
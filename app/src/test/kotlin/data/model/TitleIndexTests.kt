@@ -0,0 +1,64 @@
+package org.jellyfin.androidtv.data.model
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+
+class TitleIndexTests : FunSpec({
+	fun entry(id: String, name: String) = TitleIndexEntry(id = id, name = name, type = "Movie")
+
+	fun TitleIndex.ids(query: String, limit: Int = 10) = search(query, limit).map { it.id }
+
+	test("Words are normalized") {
+		TitleIndex.getWords("Amélie: Le Fabuleux-Destin") shouldBe listOf("amelie", "le", "fabuleux", "destin")
+		TitleIndex.getWords(" -- ") shouldBe emptyList()
+	}
+
+	test("Entries are found by the start of their words") {
+		val index = TitleIndex()
+		index.put(entry("matrix", "The Matrix"))
+		index.put(entry("reloaded", "The Matrix Reloaded"))
+		index.put(entry("mask", "The Mask"))
+		index.put(entry("amelie", "Amélie"))
+
+		index.ids("mat") shouldBe listOf("matrix", "reloaded")
+		index.ids("the ma") shouldBe listOf("mask", "matrix", "reloaded")
+		index.ids("matrix rel") shouldBe listOf("reloaded")
+		index.ids("AME") shouldBe listOf("amelie")
+		index.ids("atrix") shouldBe emptyList()
+		index.ids("ma", limit = 1) shouldBe listOf("mask")
+	}
+
+	test("Names starting with the query come first") {
+		val index = TitleIndex()
+		index.put(entry("a", "Alien Resurrection"))
+		index.put(entry("b", "Resurrection"))
+
+		index.ids("resurrection") shouldBe listOf("b", "a")
+	}
+
+	test("Entries are replaced and removed") {
+		val index = TitleIndex()
+		index.put(entry("a", "Old Name"))
+		index.put(entry("a", "New Name"))
+
+		index.ids("old") shouldBe emptyList()
+		index.ids("new") shouldBe listOf("a")
+		index.size shouldBe 1
+
+		index.remove("a")
+		index.ids("name") shouldBe emptyList()
+		index.size shouldBe 0
+	}
+
+	test("Only the retained entries are kept") {
+		val index = TitleIndex()
+		index.put(entry("a", "Alien"))
+		index.put(entry("b", "Aliens"))
+		index.put(entry("c", "Alien 3"))
+
+		index.retainAll(setOf("a", "c", "unknown"))
+
+		index.ids("alien") shouldBe listOf("a", "c")
+		index.size shouldBe 2
+	}
+})
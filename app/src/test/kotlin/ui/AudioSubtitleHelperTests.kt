@@ -0,0 +1,125 @@
+package org.jellyfin.androidtv.ui
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import org.jellyfin.androidtv.constant.Codec
+import org.jellyfin.androidtv.preference.constant.LanguagesAudio
+import org.jellyfin.androidtv.preference.constant.LanguagesSubtitle
+import org.jellyfin.apiclient.model.entities.MediaStream
+import org.jellyfin.apiclient.model.entities.MediaStreamType
+
+class AudioSubtitleHelperTests : FunSpec({
+	fun createPrefs(audioLanguage: LanguagesAudio = LanguagesAudio.English) = AudioSubtitleHelper.AudioSubPref(
+		audioLanguage,
+		LanguagesSubtitle.English,
+		false,
+		false,
+		false,
+		false,
+		"none",
+	)
+
+	fun createStream(
+		index: Int,
+		type: MediaStreamType,
+		codec: String,
+		language: String?,
+		title: String? = null,
+		channels: Int? = null,
+		isDefault: Boolean = false,
+	) = MediaStream().apply {
+		setIndex(index)
+		setType(type)
+		setCodec(codec)
+		setLanguage(language)
+		setTitle(title)
+		setChannels(channels)
+		setIsDefault(isDefault)
+		setIsForced(false)
+		setIsExternal(false)
+	}
+
+	// A file like a remux with lots of dubs and subtitles
+	fun createLargeFile(): ArrayList<MediaStream> {
+		val audioLanguages = listOf("eng", "ger", "fre", "spa", "ita", "jpn", "kor", "rus")
+		val audioCodecs = listOf(Codec.Audio.TRUEHD, Codec.Audio.AC3, Codec.Audio.DTS, Codec.Audio.AAC)
+		val subtitleLanguages = listOf("eng", "ger", "fre", "spa", "ita", "jpn", "kor", "rus", "pol", "cze", "dan")
+		val subtitleTitles = listOf("Full", "Forced", "SDH", "Signs & Songs", null, "Commentary", "Dialog")
+
+		val streams = ArrayList<MediaStream>()
+		streams.add(createStream(0, MediaStreamType.Video, "hevc", null))
+		for (i in 0 until 32) {
+			streams.add(createStream(
+				index = streams.size,
+				type = MediaStreamType.Audio,
+				codec = audioCodecs[i % audioCodecs.size],
+				language = audioLanguages[i % audioLanguages.size],
+				title = if (i % 5 == 4) "Commentary" else null,
+				channels = if (i % 3 == 0) 8 else 2,
+			))
+		}
+		for (i in 0 until 84) {
+			streams.add(createStream(
+				index = streams.size,
+				type = MediaStreamType.Subtitle,
+				codec = if (i % 2 == 0) Codec.Subtitle.PGSSUB else Codec.Subtitle.SRT,
+				language = subtitleLanguages[i % subtitleLanguages.size],
+				title = subtitleTitles[i % subtitleTitles.size],
+			))
+		}
+		return streams
+	}
+
+	test("AudioSubtitleHelper.evaluateMediaStreams() ranks the best stream first") {
+		val streams = arrayListOf(
+			createStream(0, MediaStreamType.Audio, Codec.Audio.AAC, "eng", channels = 2),
+			createStream(1, MediaStreamType.Audio, Codec.Audio.TRUEHD, "eng", channels = 8),
+			createStream(2, MediaStreamType.Audio, Codec.Audio.AC3, "eng", title = "Commentary", channels = 2),
+		)
+
+		val ranked = AudioSubtitleHelper.evaluateMediaStreams(streams, createPrefs(), MediaStreamType.Audio, "eng", true, false)
+
+		ranked shouldHaveSize 2
+		ranked[0].second shouldBe 1
+		ranked[1].second shouldBe 0
+	}
+
+	test("AudioSubtitleHelper.evaluateMediaStreams() keeps streams with equal merits in natural order") {
+		val streams = arrayListOf(
+			createStream(0, MediaStreamType.Audio, Codec.Audio.AC3, "eng", channels = 6),
+			createStream(1, MediaStreamType.Subtitle, Codec.Subtitle.SRT, "eng"),
+			createStream(2, MediaStreamType.Audio, Codec.Audio.AC3, "eng", channels = 6),
+			createStream(3, MediaStreamType.Audio, Codec.Audio.AC3, "eng", channels = 6),
+		)
+
+		val ranked = AudioSubtitleHelper.evaluateMediaStreams(streams, createPrefs(), MediaStreamType.Audio, "eng", true, false)
+
+		ranked.map { it.second } shouldBe listOf(0, 1, 2)
+	}
+
+	test("AudioSubtitleHelper.getISO3LanguageCode() resolves cached codes") {
+		AudioSubtitleHelper.getISO3LanguageCode("en") shouldBe "eng"
+		AudioSubtitleHelper.getISO3LanguageCode("en") shouldBe "eng"
+		AudioSubtitleHelper.getISO3LanguageCode("ger") shouldBe "deu"
+		AudioSubtitleHelper.getISO3LanguageCode("") shouldBe null
+	}
+
+	test("AudioSubtitleHelper.getBestAudioSubtitleIdx() picks the original language with many tracks") {
+		val streams = createLargeFile()
+		val prefs = createPrefs(LanguagesAudio.ORIGINAL)
+
+		val best = AudioSubtitleHelper.getBestAudioSubtitleIdx(streams, prefs, "ja")
+		val audio = best?.first?.first
+		audio shouldNotBe null
+		audio?.language shouldBe "jpn"
+		audio?.title shouldNotBe "Commentary"
+
+		// repeated selections use the cached language codes and give the same result
+		val expected = AudioSubtitleHelper.getRelativeAudioSubIdxSafe(best)
+		repeat(10) {
+			AudioSubtitleHelper.getRelativeAudioSubIdxSafe(AudioSubtitleHelper.getBestAudioSubtitleIdx(streams, prefs, "ja")) shouldBe expected
+		}
+	}
+})
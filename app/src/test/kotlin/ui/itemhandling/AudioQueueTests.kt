@@ -0,0 +1,116 @@
+package org.jellyfin.androidtv.ui.itemhandling
+
+import androidx.leanback.widget.ObjectAdapter
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import org.jellyfin.apiclient.model.dto.BaseItemDto
+import kotlin.random.Random
+import kotlin.random.asJavaRandom
+
+class AudioQueueTests : FunSpec({
+	fun createItems(count: Int, offset: Int = 0) = List(count) { i ->
+		BaseItemDto().apply { id = "item-${offset + i}" }
+	}
+
+	fun AudioQueue.ids() = toList().map { it.baseItem.id }
+
+	test("Items are kept in position order") {
+		val queue = AudioQueue()
+		queue.addAll(createItems(3))
+		queue.add(1, BaseItemDto().apply { id = "inserted" })
+		queue.add(BaseItemDto().apply { id = "appended" })
+
+		queue.ids() shouldBe listOf("item-0", "inserted", "item-1", "item-2", "appended")
+		queue.remove(0).baseItem.id shouldBe "item-0"
+		queue.ids() shouldBe listOf("inserted", "item-1", "item-2", "appended")
+		queue.get(2).baseItem.id shouldBe "item-2"
+	}
+
+	test("Item indexes follow insertions and removals") {
+		val random = Random(42)
+		val queue = AudioQueue()
+		val expected = mutableListOf<String>()
+		var next = 0
+
+		repeat(5000) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				val position = random.nextInt(expected.size + 1)
+				val id = "item-${next++}"
+				queue.add(position, BaseItemDto().apply { this.id = id })
+				expected.add(position, id)
+			} else {
+				val position = random.nextInt(expected.size)
+				queue.remove(position)
+				expected.removeAt(position)
+			}
+		}
+
+		queue.size() shouldBe expected.size
+		queue.ids() shouldBe expected
+		queue.toList().forEachIndexed { index, item -> item.index shouldBe index }
+	}
+
+	test("Unshuffle restores the order items were added in") {
+		val queue = AudioQueue()
+		queue.setItems(createItems(50))
+		val current = queue.get(10)
+
+		queue.shuffle(10, Random(1).asJavaRandom())
+		queue.isShuffled shouldBe true
+		queue.get(0) shouldBe current
+
+		// entries added and removed while shuffled
+		queue.add(BaseItemDto().apply { id = "added" })
+		queue.remove(queue.indexOf(queue.toList().first { it.baseItem.id == "item-20" }))
+
+		queue.unshuffle()
+		queue.isShuffled shouldBe false
+		queue.ids() shouldBe createItems(50).map { it.id }.filter { it != "item-20" } + "added"
+		current.index shouldBe 10
+	}
+
+	test("Adapters receive range changes relative to their start position") {
+		val queue = AudioQueue()
+		queue.setItems(createItems(10))
+		val adapter = AudioQueueAdapter(queue, null)
+		adapter.setStartPosition(4)
+		adapter.size() shouldBe 6
+		(adapter.get(0) as AudioQueueItem).baseItem.id shouldBe "item-4"
+
+		val events = mutableListOf<String>()
+		adapter.registerObserver(object : ObjectAdapter.DataObserver() {
+			override fun onChanged() {
+				events += "changed"
+			}
+
+			override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+				events += "inserted $positionStart $itemCount"
+			}
+
+			override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+				events += "removed $positionStart $itemCount"
+			}
+
+			override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+				events += "changed $positionStart $itemCount"
+			}
+		})
+
+		queue.addAll(createItems(5, offset = 10))
+		// before the start position
+		queue.remove(1)
+		queue.add(0, BaseItemDto().apply { id = "inserted" })
+		queue.notifyItemChanged(2)
+		// visible
+		queue.remove(6)
+		queue.notifyItemChanged(4)
+		adapter.setStartPosition(5)
+
+		events shouldBe listOf("inserted 6 5", "removed 2 1", "changed 0 1", "removed 0 1")
+		(adapter.get(0) as AudioQueueItem).baseItem.id shouldBe "item-5"
+
+		adapter.release()
+		queue.clear()
+		events.size shouldBe 4
+	}
+})
@@ -0,0 +1,67 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import org.jellyfin.androidtv.util.TimeUtils
+import org.jellyfin.apiclient.model.dto.BaseItemDto
+import org.jellyfin.apiclient.model.livetv.ChannelInfoDto
+import java.util.Date
+
+class GuideRowModelTests : FunSpec({
+	val minute = 60000L
+	val guideStart = 1_600_000_200_000L / (30 * minute) * (30 * minute)
+	val guideEnd = guideStart + 180 * minute
+	val channel = ChannelInfoDto().apply { id = "channel" }
+
+	fun program(id: String, start: Long, end: Long) = BaseItemDto().apply {
+		this.id = id
+		startDate = TimeUtils.convertToUtcDate(Date(guideStart + start * minute))
+		endDate = TimeUtils.convertToUtcDate(Date(guideStart + end * minute))
+	}
+
+	fun GuideRowModel.ranges() = List(size()) { i -> (get(i).start - guideStart) / minute to (get(i).end - guideStart) / minute }
+
+	test("Channels without programs are split in half hour slots") {
+		val row = GuideRowModel.create(channel, emptyList(), guideStart, guideEnd, "empty")
+
+		row.size() shouldBe 6
+		row.get(0).isFirst shouldBe true
+		row.get(5).isLast shouldBe true
+		row.ranges().last() shouldBe (150L to 180L)
+
+		val placeholder = row.getProgram(2)
+		placeholder.id shouldBe null
+		placeholder.name shouldBe "empty"
+		placeholder.channelId shouldBe "channel"
+		TimeUtils.convertToLocalDate(placeholder.startDate).time shouldBe guideStart + 60 * minute
+	}
+
+	test("Gaps between programs are filled") {
+		val programs = listOf(
+			program("before", -20, 30),
+			program("overlapping", 20, 40),
+			program("short", 30, 30),
+			program("later", 60, 120),
+			program("after", 200, 260),
+		)
+		val row = GuideRowModel.create(channel, programs, guideStart, guideEnd, "empty")
+
+		row.ranges() shouldBe listOf(0L to 30L, 30L to 60L, 60L to 120L, 120L to 180L)
+		row.get(0).isFirst shouldBe true
+		row.get(1).isEmpty shouldBe true
+		row.get(3).isLast shouldBe true
+		row.getProgram(0).id shouldBe "before"
+		row.getProgram(2).id shouldBe "later"
+	}
+
+	test("Slots are found by time") {
+		val programs = listOf(program("first", 0, 45), program("second", 45, 180))
+		val row = GuideRowModel.create(channel, programs, guideStart, guideEnd, "empty")
+
+		row.indexAt(guideStart) shouldBe 0
+		row.indexAt(guideStart + 45 * minute) shouldBe 1
+		row.indexAt(guideEnd) shouldBe -1
+		row.getProgramAt(guideStart + 50 * minute)?.id shouldBe "second"
+		row.getProgramAt(guideStart - minute) shouldBe null
+	}
+})
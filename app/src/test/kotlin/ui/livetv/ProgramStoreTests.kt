@@ -0,0 +1,67 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import org.jellyfin.androidtv.util.TimeUtils
+import org.jellyfin.apiclient.model.dto.BaseItemDto
+import java.util.Date
+
+class ProgramStoreTests : FunSpec({
+	val minute = 60000L
+	val start = ProgramStore.getTile(1_600_000_200_000L)
+
+	fun program(channelId: String, from: Long, to: Long) = BaseItemDto().apply {
+		id = "$channelId-$from"
+		this.channelId = channelId
+		startDate = TimeUtils.convertToUtcDate(Date(start + from * minute))
+		endDate = TimeUtils.convertToUtcDate(Date(start + to * minute))
+	}
+
+	test("Only missing tiles are requested") {
+		val store = ProgramStore()
+		val request = store.getMissing(arrayOf("a", "b"), start, start + 120 * minute).shouldNotBeNull()
+		request.channelIds.toList() shouldBe listOf("a", "b")
+		request.start shouldBe start
+		request.end shouldBe start + 120 * minute
+		store.add(request, arrayOf(program("a", 0, 60), program("b", 0, 120)))
+
+		store.getMissing(arrayOf("a", "b"), start + 30 * minute, start + 90 * minute).shouldBeNull()
+
+		// later hours for a single channel
+		val next = store.getMissing(arrayOf("a", "b"), start + 60 * minute, start + 180 * minute).shouldNotBeNull()
+		next.channelIds.toList() shouldBe listOf("a", "b")
+		next.start shouldBe start + 120 * minute
+		next.end shouldBe start + 180 * minute
+
+		val other = store.getMissing(arrayOf("b", "c"), start, start + 60 * minute).shouldNotBeNull()
+		other.channelIds.toList() shouldBe listOf("c")
+	}
+
+	test("Programs are returned for the requested times") {
+		val store = ProgramStore()
+		val request = store.getMissing(arrayOf("a"), start, start + 180 * minute).shouldNotBeNull()
+		store.add(request, arrayOf(program("a", -30, 45), program("a", 45, 90), program("a", 90, 200)))
+
+		store.getPrograms("a", start, start + 60 * minute).map { it.id } shouldBe listOf("a--30", "a-45")
+		store.getPrograms("a", start + 60 * minute, start + 120 * minute).map { it.id } shouldBe listOf("a-45", "a-90")
+		store.getPrograms("b", start, start + 60 * minute) shouldBe emptyList()
+
+		// loading the times again replaces the programs
+		store.add(ProgramStore.Request(arrayOf("a"), start, start + 180 * minute), arrayOf(program("a", 0, 180)))
+		store.getPrograms("a", start, start + 180 * minute).map { it.id } shouldBe listOf("a-0")
+	}
+
+	test("Past tiles and programs expire") {
+		val store = ProgramStore()
+		val request = store.getMissing(arrayOf("a"), start, start + 120 * minute).shouldNotBeNull()
+		store.add(request, arrayOf(program("a", 0, 30), program("a", 30, 75), program("a", 75, 120)))
+
+		store.expire(start + 65 * minute)
+
+		store.getPrograms("a", start, start + 120 * minute).map { it.id } shouldBe listOf("a-30", "a-75")
+		store.getMissing(arrayOf("a"), start + 60 * minute, start + 120 * minute).shouldBeNull()
+		store.getMissing(arrayOf("a"), start, start + 120 * minute).shouldNotBeNull().end shouldBe start + 60 * minute
+	}
+})
@@ -0,0 +1,173 @@
+package org.jellyfin.androidtv.util
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.ints.shouldBeLessThanOrEqual
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.withContext
+import kotlin.math.abs
+import kotlin.math.cos
+import kotlin.math.pow
+import kotlin.math.withSign
+
+class BlurHashDecoderTests : FunSpec({
+	val blurHashes = listOf(
+		"LEHV6nWB2yk8pyo0adR*.7kCMdnj",
+		"LGF5]+Yk^6#M@-5c,1J5@[or[Q6.",
+		"L6PZfSi_.AyE_3t7t7R**0o#DgR4",
+		"LKN]Rv%2Tw=w]~RBVZRi};RPxuwH",
+		"eCF6B#-:0JInxr?@s;nmIoWUIko1%NocRk.8xbIUaxR*^+s;RiWAWU",
+	)
+
+	test("BlurHashDecoder.decodePixels() matches the reference implementation") {
+		blurHashes.forEach { blurHash ->
+			val expected = ReferenceBlurHashDecoder.decodePixels(blurHash, 32, 48).shouldNotBeNull()
+			val actual = BlurHashDecoder.decodePixels(blurHash, 32, 48).shouldNotBeNull()
+
+			actual.size shouldBe expected.size
+			for (i in actual.indices) {
+				for (shift in listOf(0, 8, 16)) {
+					val delta = abs(((actual[i] shr shift) and 255) - ((expected[i] shr shift) and 255))
+					delta shouldBeLessThanOrEqual 1
+				}
+			}
+		}
+	}
+
+	test("BlurHashDecoder.decodePixels() rejects invalid hashes") {
+		BlurHashDecoder.decodePixels(null, 32, 32) shouldBe null
+		BlurHashDecoder.decodePixels("LEHV6", 32, 32) shouldBe null
+		BlurHashDecoder.decodePixels("LEHV6nWB2yk8pyo0adR*.7kCMdn", 32, 32) shouldBe null
+	}
+
+	test("BlurHashDecoder.decodePixels() is consistent when decoding in parallel") {
+		val expected = blurHashes.map { BlurHashDecoder.decodePixels(it, 32, 48, useCache = false)!!.toList() }
+		BlurHashDecoder.clearCache()
+
+		val results = withContext(Dispatchers.Default) {
+			(0 until 200).map { i ->
+				async { i % blurHashes.size to BlurHashDecoder.decodePixels(blurHashes[i % blurHashes.size], 32, 48)!!.toList() }
+			}.awaitAll()
+		}
+
+		results.forEach { (index, pixels) -> pixels shouldBe expected[index] }
+	}
+})
+
+/**
+ * The previous decoder implementation, without the bitmap creation, used as reference.
+ */
+private object ReferenceBlurHashDecoder {
+	private val cacheCosinesX = HashMap<Int, DoubleArray>()
+	private val cacheCosinesY = HashMap<Int, DoubleArray>()
+
+	fun decodePixels(blurHash: String?, width: Int, height: Int, punch: Float = 1f): IntArray? {
+		if (blurHash == null || blurHash.length < 6) {
+			return null
+		}
+		val numCompEnc = decode83(blurHash, 0, 1)
+		val numCompX = (numCompEnc % 9) + 1
+		val numCompY = (numCompEnc / 9) + 1
+		if (blurHash.length != 4 + 2 * numCompX * numCompY) {
+			return null
+		}
+		val maxAcEnc = decode83(blurHash, 1, 2)
+		val maxAc = (maxAcEnc + 1) / 166f
+		val colors = Array(numCompX * numCompY) { i ->
+			if (i == 0) {
+				decodeDc(decode83(blurHash, 2, 6))
+			} else {
+				val from = 4 + i * 2
+				decodeAc(decode83(blurHash, from, from + 2), maxAc * punch)
+			}
+		}
+		return composePixels(width, height, numCompX, numCompY, colors)
+	}
+
+	private fun decode83(str: String, from: Int, to: Int): Int {
+		var result = 0
+		for (i in from until to) {
+			val index = charMap[str[i]] ?: -1
+			if (index != -1) {
+				result = result * 83 + index
+			}
+		}
+		return result
+	}
+
+	private fun decodeDc(colorEnc: Int): FloatArray {
+		val r = colorEnc shr 16
+		val g = (colorEnc shr 8) and 255
+		val b = colorEnc and 255
+		return floatArrayOf(srgbToLinear(r), srgbToLinear(g), srgbToLinear(b))
+	}
+
+	private fun srgbToLinear(colorEnc: Int): Float {
+		val v = colorEnc / 255f
+		return if (v <= 0.04045f) (v / 12.92f) else ((v + 0.055f) / 1.055f).pow(2.4f)
+	}
+
+	private fun decodeAc(value: Int, maxAc: Float): FloatArray {
+		val r = value / (19 * 19)
+		val g = (value / 19) % 19
+		val b = value % 19
+		return floatArrayOf(
+			signedPow2((r - 9) / 9.0f) * maxAc,
+			signedPow2((g - 9) / 9.0f) * maxAc,
+			signedPow2((b - 9) / 9.0f) * maxAc
+		)
+	}
+
+	private fun signedPow2(value: Float) = value.pow(2f).withSign(value)
+
+	private fun composePixels(width: Int, height: Int, numCompX: Int, numCompY: Int, colors: Array<FloatArray>): IntArray {
+		val imageArray = IntArray(width * height)
+		val calculateCosX = !cacheCosinesX.containsKey(width * numCompX)
+		val cosinesX = if (calculateCosX) DoubleArray(width * numCompX).also { cacheCosinesX[width * numCompX] = it } else cacheCosinesX[width * numCompX]!!
+		val calculateCosY = !cacheCosinesY.containsKey(height * numCompY)
+		val cosinesY = if (calculateCosY) DoubleArray(height * numCompY).also { cacheCosinesY[height * numCompY] = it } else cacheCosinesY[height * numCompY]!!
+		for (y in 0 until height) {
+			for (x in 0 until width) {
+				var r = 0f
+				var g = 0f
+				var b = 0f
+				for (j in 0 until numCompY) {
+					for (i in 0 until numCompX) {
+						val cosX = cosinesX.getCos(calculateCosX, i, numCompX, x, width)
+						val cosY = cosinesY.getCos(calculateCosY, j, numCompY, y, height)
+						val basis = (cosX * cosY).toFloat()
+						val color = colors[j * numCompX + i]
+						r += color[0] * basis
+						g += color[1] * basis
+						b += color[2] * basis
+					}
+				}
+				imageArray[x + width * y] = (0xff shl 24) or (linearToSrgb(r) shl 16) or (linearToSrgb(g) shl 8) or linearToSrgb(b)
+			}
+		}
+		return imageArray
+	}
+
+	private fun DoubleArray.getCos(calculate: Boolean, x: Int, numComp: Int, y: Int, size: Int): Double {
+		if (calculate) {
+			this[x + numComp * y] = cos(Math.PI * y * x / size)
+		}
+		return this[x + numComp * y]
+	}
+
+	private fun linearToSrgb(value: Float): Int {
+		val v = value.coerceIn(0f, 1f)
+		return if (v <= 0.0031308f) {
+			(v * 12.92f * 255f + 0.5f).toInt()
+		} else {
+			((1.055f * v.pow(1 / 2.4f) - 0.055f) * 255 + 0.5f).toInt()
+		}
+	}
+
+	private val charMap = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#\$%*+,-.:;=?@[]^_{|}~"
+		.mapIndexed { i, c -> c to i }
+		.toMap()
+}
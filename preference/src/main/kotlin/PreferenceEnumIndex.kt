@@ -0,0 +1,30 @@
+package org.jellyfin.preference
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Index of enum constants by their serialized value, created once per enum class. Avoids
+ * cloning and scanning the enum constants on every read.
+ */
+internal object PreferenceEnumIndex {
+	private val indexes = ConcurrentHashMap<Class<*>, Map<String, Enum<*>>>()
+
+	/**
+	 * Find the constant of [type] with [value] as serialized name or name.
+	 */
+	fun <T : Enum<T>> find(type: Class<T>, value: String): T? {
+		val index = indexes[type] ?: createIndex(type).also { indexes.putIfAbsent(type, it) }
+		return type.cast(index[value])
+	}
+
+	private fun createIndex(type: Class<*>): Map<String, Enum<*>> {
+		val index = HashMap<String, Enum<*>>()
+		// The first constant matching a value wins, same as scanning the constants in order
+		type.enumConstants?.forEach { constant ->
+			if (constant !is Enum<*>) return@forEach
+			if (constant is PreferenceEnum) index.putIfAbsent(constant.serializedName, constant)
+			index.putIfAbsent(constant.name, constant)
+		}
+		return index
+	}
+}
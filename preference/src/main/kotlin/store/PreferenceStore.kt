@@ -1,6 +1,8 @@
 package org.jellyfin.preference.store
 
 import org.jellyfin.preference.Preference
+import org.jellyfin.preference.PreferenceEnum
+import org.jellyfin.preference.PreferenceEnumIndex
 import org.jellyfin.preference.migration.MigrationContext
 
 /**
@@ -65,6 +67,15 @@ abstract class PreferenceStore<ME, MV> {
 
 	protected abstract fun <V : Enum<V>> setEnum(preference: Preference<*>, value: Enum<V>)
 
+	protected fun <T : Enum<T>> parseEnum(preference: Preference<T>, value: String?): T =
+		if (value.isNullOrBlank()) preference.defaultValue
+		else PreferenceEnumIndex.find(preference.type.java, value) ?: preference.defaultValue
+
+	protected fun serializeEnum(value: Enum<*>): String = when (value) {
+		is PreferenceEnum -> value.serializedName
+		else -> value.toString()
+	}
+
 	// Migrations
 	protected abstract fun runMigrations(body: MigrationContext<ME, MV>.() -> Unit)
 }
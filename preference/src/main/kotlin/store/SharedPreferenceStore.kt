@@ -2,10 +2,11 @@ package org.jellyfin.preference.store
 
 import android.content.SharedPreferences
 import org.jellyfin.preference.Preference
-import org.jellyfin.preference.PreferenceEnum
 import org.jellyfin.preference.intPreference
 import org.jellyfin.preference.migration.MigrationContext
 import timber.log.Timber
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Implementation of the [PreferenceStore] using Android shared preferences.
@@ -25,6 +26,9 @@ import timber.log.Timber
  * 	setString("example", "new value")
  * }
  * ```
+ *
+ * Values that were read are kept in memory with their type (including parsed enums) until the
+ * preference changes.
  */
 @Suppress("TooManyFunctions")
 abstract class SharedPreferenceStore(
@@ -33,49 +37,87 @@ abstract class SharedPreferenceStore(
 	 */
 	protected val sharedPreferences: SharedPreferences
 ) : PreferenceStore<SharedPreferences.Editor, SharedPreferences>() {
+	// Typed values by key, [ABSENT] for keys without a value
+	private val cache = ConcurrentHashMap<String, Any>()
+	// Changed on every invalidation so reads racing with a change don't cache the old value
+	private val cacheGeneration = AtomicInteger()
+	// Shared preferences only keep a weak reference to the listener
+	private val changeListener = SharedPreferences.OnSharedPreferenceChangeListener { _, key ->
+		invalidate(key)
+	}
+
+	init {
+		sharedPreferences.registerOnSharedPreferenceChangeListener(changeListener)
+	}
+
 	// Internal helpers
-	private fun transaction(body: SharedPreferences.Editor.() -> Unit) {
+	private fun transaction(key: String?, body: SharedPreferences.Editor.() -> Unit) {
 		val editor = sharedPreferences.edit()
 		editor.body()
 		editor.apply()
+
+		// The listener is called later on the main thread, invalidate right away for reads
+		// on the current thread
+		invalidate(key)
+	}
+
+	private fun invalidate(key: String?) {
+		cacheGeneration.incrementAndGet()
+		if (key == null) cache.clear()
+		else cache.remove(key)
+	}
+
+	@Suppress("UNCHECKED_CAST")
+	private inline fun <T : Any> cached(key: String, type: Class<*>, defaultValue: T, read: () -> T?): T {
+		val cachedValue = cache[key]
+		if (cachedValue === ABSENT) return defaultValue
+		if (type.isInstance(cachedValue)) return cachedValue as T
+
+		val generation = cacheGeneration.get()
+		val value = read()
+		val entry = value ?: ABSENT
+		cache[key] = entry
+		if (cacheGeneration.get() != generation) cache.remove(key, entry)
+
+		return value ?: defaultValue
 	}
 
-	override fun getInt(key: String, defaultValue: Int) =
-		sharedPreferences.getInt(key, defaultValue)
+	override fun getInt(key: String, defaultValue: Int) = cached(key, Int::class.javaObjectType, defaultValue) {
+		if (sharedPreferences.contains(key)) sharedPreferences.getInt(key, defaultValue) else null
+	}
 
-	override fun getLong(key: String, defaultValue: Long) =
-		sharedPreferences.getLong(key, defaultValue)
+	override fun getLong(key: String, defaultValue: Long) = cached(key, Long::class.javaObjectType, defaultValue) {
+		if (sharedPreferences.contains(key)) sharedPreferences.getLong(key, defaultValue) else null
+	}
 
-	override fun getBool(key: String, defaultValue: Boolean) =
-		sharedPreferences.getBoolean(key, defaultValue)
+	override fun getBool(key: String, defaultValue: Boolean) = cached(key, Boolean::class.javaObjectType, defaultValue) {
+		if (sharedPreferences.contains(key)) sharedPreferences.getBoolean(key, defaultValue) else null
+	}
 
-	override fun getString(key: String, defaultValue: String) =
-		sharedPreferences.getString(key, defaultValue) ?: defaultValue
+	override fun getString(key: String, defaultValue: String) = cached(key, String::class.java, defaultValue) {
+		sharedPreferences.getString(key, null)
+	}
 
-	override fun setInt(key: String, value: Int) = transaction { putInt(key, value) }
-	override fun setLong(key: String, value: Long) = transaction { putLong(key, value) }
+	override fun setInt(key: String, value: Int) = transaction(key) { putInt(key, value) }
+	override fun setLong(key: String, value: Long) = transaction(key) { putLong(key, value) }
 	override fun setBool(key: String, value: Boolean) =
-		transaction { putBoolean(key, value) }
+		transaction(key) { putBoolean(key, value) }
 
 	override fun setString(key: String, value: String) =
-		transaction { putString(key, value) }
-
-	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T {
-		val stringValue = getString(preference.key, "")
-		return if (stringValue.isBlank()) preference.defaultValue
-		else preference.type.java.enumConstants?.find {
-			(it is PreferenceEnum && it.serializedName == stringValue) || it.name == stringValue
-		} ?: preference.defaultValue
-	}
+		transaction(key) { putString(key, value) }
+
+	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T =
+		cached(preference.key, preference.type.java, preference.defaultValue) {
+			val stringValue = sharedPreferences.getString(preference.key, null)
+			if (stringValue.isNullOrBlank()) null
+			else parseEnum(preference, stringValue)
+		}
 
 	override fun <V : Enum<V>> setEnum(preference: Preference<*>, value: Enum<V>) =
-		setString(preference.key, when (value) {
-				is PreferenceEnum -> value.serializedName
-				else -> value.toString()
-			})
+		setString(preference.key, serializeEnum(value))
 
 	// Additional mutations
-	override fun <T : Any> delete(preference: Preference<T>) = transaction {
+	override fun <T : Any> delete(preference: Preference<T>) = transaction(preference.key) {
 		remove(preference.key)
 	}
 
@@ -88,7 +130,7 @@ abstract class SharedPreferenceStore(
 			Timber.i("Migrating a preference store to version ${migration.toVersion}")
 
 			// Create a new transaction and execute the migration
-			transaction { migration.body(this, sharedPreferences) }
+			transaction(null) { migration.body(this, sharedPreferences) }
 		}
 	}
 
@@ -97,5 +139,7 @@ abstract class SharedPreferenceStore(
 		 * Version of the preference store. Used for migration.
 		 */
 		val VERSION = intPreference("store_version", -1)
+
+		private val ABSENT = Any()
 	}
 }
@@ -0,0 +1,133 @@
+package org.jellyfin.preference
+
+import android.content.SharedPreferences
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import org.jellyfin.preference.store.SharedPreferenceStore
+
+class SharedPreferenceStoreTests : FunSpec({
+	val enumPref = enumPreference("enum", TestSerializedEnum.FIRST)
+	val intPref = intPreference("int", 0)
+
+	test("Enums are read by serialized name and name") {
+		val sharedPreferences = MapSharedPreferences()
+		val store = TestStore(sharedPreferences)
+
+		sharedPreferences.edit().putString(enumPref.key, "second-value").apply()
+		store[enumPref] shouldBe TestSerializedEnum.SECOND
+
+		sharedPreferences.edit().putString(enumPref.key, "THIRD").apply()
+		store[enumPref] shouldBe TestSerializedEnum.THIRD
+
+		sharedPreferences.edit().putString(enumPref.key, "unknown").apply()
+		store[enumPref] shouldBe TestSerializedEnum.FIRST
+	}
+
+	test("Writing an enum uses the serialized name") {
+		val sharedPreferences = MapSharedPreferences()
+		val store = TestStore(sharedPreferences)
+
+		store[enumPref] = TestSerializedEnum.SECOND
+		sharedPreferences.getString(enumPref.key, null) shouldBe "second-value"
+		store[enumPref] shouldBe TestSerializedEnum.SECOND
+	}
+
+	test("Cached values are invalidated when the shared preferences change") {
+		val sharedPreferences = MapSharedPreferences()
+		val store = TestStore(sharedPreferences)
+
+		store[intPref] shouldBe 0
+		store[intPref] = 1
+		store[intPref] shouldBe 1
+
+		// Changed outside of the store
+		sharedPreferences.edit().putInt(intPref.key, 2).apply()
+		store[intPref] shouldBe 2
+
+		store.delete(intPref)
+		store[intPref] shouldBe 0
+	}
+
+	test("Cached enums are invalidated on write and clear") {
+		val sharedPreferences = MapSharedPreferences()
+		val store = TestStore(sharedPreferences)
+
+		store[enumPref] shouldBe TestSerializedEnum.FIRST
+		store[enumPref] = TestSerializedEnum.THIRD
+		store[enumPref] shouldBe TestSerializedEnum.THIRD
+
+		sharedPreferences.edit().putString(enumPref.key, "second-value").apply()
+		store[enumPref] shouldBe TestSerializedEnum.SECOND
+
+		sharedPreferences.edit().clear().apply()
+		store[enumPref] shouldBe TestSerializedEnum.FIRST
+	}
+})
+
+private class TestStore(sharedPreferences: SharedPreferences) : SharedPreferenceStore(sharedPreferences)
+
+private enum class TestSerializedEnum(override val serializedName: String) : PreferenceEnum {
+	FIRST("first-value"),
+	SECOND("second-value"),
+	THIRD("third-value"),
+}
+
+/**
+ * In-memory shared preferences, listeners are called right away when applying changes.
+ */
+private class MapSharedPreferences : SharedPreferences {
+	private val values = mutableMapOf<String, Any?>()
+	private val listeners = mutableSetOf<SharedPreferences.OnSharedPreferenceChangeListener>()
+
+	override fun getAll(): MutableMap<String, *> = values.toMutableMap()
+	override fun getString(key: String, defValue: String?) = values[key] as String? ?: defValue
+	@Suppress("UNCHECKED_CAST")
+	override fun getStringSet(key: String, defValues: MutableSet<String>?) = values[key] as MutableSet<String>? ?: defValues
+	override fun getInt(key: String, defValue: Int) = values[key] as Int? ?: defValue
+	override fun getLong(key: String, defValue: Long) = values[key] as Long? ?: defValue
+	override fun getFloat(key: String, defValue: Float) = values[key] as Float? ?: defValue
+	override fun getBoolean(key: String, defValue: Boolean) = values[key] as Boolean? ?: defValue
+	override fun contains(key: String) = values.containsKey(key)
+
+	override fun edit(): SharedPreferences.Editor = Editor()
+
+	override fun registerOnSharedPreferenceChangeListener(listener: SharedPreferences.OnSharedPreferenceChangeListener) {
+		listeners.add(listener)
+	}
+
+	override fun unregisterOnSharedPreferenceChangeListener(listener: SharedPreferences.OnSharedPreferenceChangeListener) {
+		listeners.remove(listener)
+	}
+
+	private inner class Editor : SharedPreferences.Editor {
+		private val changes = mutableMapOf<String, Any?>()
+		private var clear = false
+
+		override fun putString(key: String, value: String?) = change(key, value)
+		override fun putStringSet(key: String, values: MutableSet<String>?) = change(key, values)
+		override fun putInt(key: String, value: Int) = change(key, value)
+		override fun putLong(key: String, value: Long) = change(key, value)
+		override fun putFloat(key: String, value: Float) = change(key, value)
+		override fun putBoolean(key: String, value: Boolean) = change(key, value)
+		override fun remove(key: String) = change(key, null)
+		override fun clear() = also { clear = true }
+
+		private fun change(key: String, value: Any?) = also { changes[key] = value }
+
+		override fun commit(): Boolean {
+			if (clear) values.clear()
+			changes.forEach { (key, value) ->
+				if (value == null) values.remove(key)
+				else values[key] = value
+			}
+			// Like Android 11+, clearing is reported with a null key
+			if (clear) listeners.forEach { it.onSharedPreferenceChanged(this@MapSharedPreferences, null) }
+			changes.keys.forEach { key -> listeners.forEach { it.onSharedPreferenceChanged(this@MapSharedPreferences, key) } }
+			return true
+		}
+
+		override fun apply() {
+			commit()
+		}
+	}
+}